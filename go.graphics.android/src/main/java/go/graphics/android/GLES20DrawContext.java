@@ -39,6 +39,7 @@ public class GLES20DrawContext extends GLES11DrawContext implements GL2DrawConte
 		prog_unified = new ShaderProgram("tex-unified");
 		prog_color = new ShaderProgram("color");
 		prog_tex = new ShaderProgram("tex");
+		prog_sprite = new ShaderProgram("sprite");
 
 		for(ShaderProgram shader : shaders) {
 			useProgram(shader);
@@ -58,6 +59,7 @@ public class GLES20DrawContext extends GLES11DrawContext implements GL2DrawConte
 	private ShaderProgram prog_unified;
 	private ShaderProgram prog_color;
 	private ShaderProgram prog_tex;
+	private ShaderProgram prog_sprite;
 
 	private float clr, clg, clb, cla, tlr, tlg, tlb, tla;
 
@@ -167,10 +169,37 @@ public class GLES20DrawContext extends GLES11DrawContext implements GL2DrawConte
 		}
 	}
 
+	@Override
+	public void drawSprites(GeometryHandle geometry, TextureHandle texture, int vertices) {
+		useProgram(prog_sprite);
+		bindTexture(texture);
+
+		if(gles3) {
+			bindFormat(geometry.getInternalFormatId());
+		} else {
+			bindGeometry(geometry);
+			specifyFormat(geometry.getFormat());
+		}
+		GLES20.glDrawArrays(GLES20.GL_TRIANGLES, 0, vertices);
+	}
+
 	@Override
 	protected void specifyFormat(EGeometryFormatType format) {
 		GLES20.glEnableVertexAttribArray(0);
 
+		if (format == EGeometryFormatType.Sprite) {
+			GLES20.glEnableVertexAttribArray(1);
+			GLES20.glEnableVertexAttribArray(2);
+			GLES20.glEnableVertexAttribArray(3);
+			int stride = format.getBytesPerVertexSize();
+			GLES20.glVertexAttribPointer(0, 3, GLES20.GL_FLOAT, false, stride, 0);
+			GLES20.glVertexAttribPointer(1, 2, GLES20.GL_FLOAT, false, stride, format.getTexCoordPos());
+			GLES20.glVertexAttribPointer(2, 4, GLES20.GL_UNSIGNED_BYTE, true, stride, 5 * 4);
+			GLES20.glVertexAttribPointer(3, 4, GLES20.GL_UNSIGNED_BYTE, true, stride, 6 * 4);
+			return;
+		}
+		GLES20.glDisableVertexAttribArray(3);
+
 		if (format.getTexCoordPos() == -1) {
 			GLES20.glVertexAttribPointer(0, 2, GLES20.GL_FLOAT, false, 0, 0);
 		} else {
@@ -299,6 +328,7 @@ public class GLES20DrawContext extends GLES11DrawContext implements GL2DrawConte
 			GLES20.glBindAttribLocation(program, 0, "vertex");
 			GLES20.glBindAttribLocation(program, 1, "texcoord");
 			GLES20.glBindAttribLocation(program, 2, "color");
+			GLES20.glBindAttribLocation(program, 3, "info");
 
 			GLES20.glLinkProgram(program);
 			GLES20.glValidateProgram(program);
@@ -43,6 +43,7 @@ public class LWJGL20DrawContext extends LWJGL15DrawContext implements GL2DrawCon
 		prog_unified = new ShaderProgram("tex-unified");
 		prog_color = new ShaderProgram("color");
 		prog_tex = new ShaderProgram("tex");
+		prog_sprite = new ShaderProgram("sprite");
 
 		for(ShaderProgram shader : shaders) {
 			useProgram(shader);
@@ -62,6 +63,7 @@ public class LWJGL20DrawContext extends LWJGL15DrawContext implements GL2DrawCon
 	private ShaderProgram prog_unified;
 	private ShaderProgram prog_color;
 	private ShaderProgram prog_tex;
+	private ShaderProgram prog_sprite;
 
 	private float clr, clg, clb, cla, tlr, tlg, tlb, tla;
 
@@ -163,10 +165,37 @@ public class LWJGL20DrawContext extends LWJGL15DrawContext implements GL2DrawCon
 		GL11.glDrawArrays(primitive, offset*vertices, vertices);
 	}
 
+	@Override
+	public void drawSprites(GeometryHandle geometry, TextureHandle texture, int vertices) {
+		useProgram(prog_sprite);
+		bindTexture(texture);
+
+		if(glcaps.GL_ARB_vertex_array_object) {
+			bindFormat(geometry.getInternalFormatId());
+		} else {
+			bindGeometry(geometry);
+			specifyFormat(geometry.getFormat());
+		}
+		GL11.glDrawArrays(GL11.GL_TRIANGLES, 0, vertices);
+	}
+
 	@Override
 	protected void specifyFormat(EGeometryFormatType format) {
 		GL20.glEnableVertexAttribArray(0);
 
+		if (format == EGeometryFormatType.Sprite) {
+			GL20.glEnableVertexAttribArray(1);
+			GL20.glEnableVertexAttribArray(2);
+			GL20.glEnableVertexAttribArray(3);
+			int stride = format.getBytesPerVertexSize();
+			GL20.glVertexAttribPointer(0, 3, GL11.GL_FLOAT, false, stride, 0);
+			GL20.glVertexAttribPointer(1, 2, GL11.GL_FLOAT, false, stride, format.getTexCoordPos());
+			GL20.glVertexAttribPointer(2, 4, GL11.GL_UNSIGNED_BYTE, true, stride, 5 * 4);
+			GL20.glVertexAttribPointer(3, 4, GL11.GL_UNSIGNED_BYTE, true, stride, 6 * 4);
+			return;
+		}
+		GL20.glDisableVertexAttribArray(3);
+
 		if (format.getTexCoordPos() == -1) {
 			GL20.glVertexAttribPointer(0, 2, GL11.GL_FLOAT, false, 0, 0);
 		} else {
@@ -310,6 +339,7 @@ public class LWJGL20DrawContext extends LWJGL15DrawContext implements GL2DrawCon
 			GL20.glBindAttribLocation(program, 0, "vertex");
 			GL20.glBindAttribLocation(program, 1, "texcoord");
 			GL20.glBindAttribLocation(program, 2, "color");
+			GL20.glBindAttribLocation(program, 3, "info");
 
 			GL20.glLinkProgram(program);
 			GL20.glValidateProgram(program);
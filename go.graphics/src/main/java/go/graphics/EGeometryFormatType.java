@@ -4,7 +4,11 @@ public enum EGeometryFormatType {
 	Texture3D(5*4, 3*4, false),
 	Texture2D(4*4, 2*4, true),
 	VertexOnly2D(2*4, -1, true),
-	ColorOnly(4, 0, false);
+	ColorOnly(4, 0, false),
+	/**
+	 * x, y, z and u, v as floats, followed by the color and the sprite info as four unsigned bytes each.
+	 */
+	Sprite(5*4 + 2*4, 3*4, true);
 
 	private int bytesPerVertexSize;
 	private int texCoordPos;
@@ -2,4 +2,16 @@ package go.graphics;
 
 public interface GL2DrawContext extends GLDrawContext {
 	void drawUnified2D(GeometryHandle geometry, TextureHandle texture, int primitive, int offset, int vertices, boolean image, boolean shadow, float x, float y, float z, float sx, float sy, float sz, AbstractColor color, float intensity) throws IllegalBufferException;
+
+	/**
+	 * Draws the sprites collected by a {@link SpriteBatch} as triangles.
+	 *
+	 * @param geometry
+	 *            A geometry in the {@link EGeometryFormatType#Sprite} format.
+	 * @param texture
+	 *            The texture all the sprites are on.
+	 * @param vertices
+	 *            The number of vertices to draw, starting at the first one.
+	 */
+	void drawSprites(GeometryHandle geometry, TextureHandle texture, int vertices) throws IllegalBufferException;
  }
@@ -0,0 +1,161 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package go.graphics;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Collects textured quads and draws all consecutive quads on the same texture with one draw call.
+ * <p>
+ * The quads are drawn in the order they were added, so painter's order is kept. A batch is flushed when a quad on another texture is added, when
+ * it is full and by {@link #flush()}. Anything drawn directly on the context in between has to flush the batch first.
+ * <p>
+ * Each quad is drawn like {@link GL2DrawContext#drawUnified2D} draws it if it is unified, otherwise like {@link GLDrawContext#draw2D}.
+ *
+ * @author Andreas Eberle
+ */
+public final class SpriteBatch {
+	private static final int VERTICES_PER_SPRITE = 6;
+	private static final int[] QUAD_VERTICES = { 0, 1, 2, 0, 2, 3 };
+	private static final int QUAD_FLOATS_PER_VERTEX = 4;
+
+	private final int capacity;
+	private final ByteBuffer buffer;
+
+	private GL2DrawContext gl;
+	private GeometryHandle geometry;
+	private TextureHandle texture;
+	private int sprites;
+
+	/**
+	 * @param capacity
+	 *            The number of sprites that are drawn with one draw call at most.
+	 */
+	public SpriteBatch(int capacity) {
+		this.capacity = capacity;
+		this.buffer = ByteBuffer.allocateDirect(capacity * VERTICES_PER_SPRITE * EGeometryFormatType.Sprite.getBytesPerVertexSize())
+				.order(ByteOrder.nativeOrder());
+	}
+
+	/**
+	 * Starts collecting sprites for the given context. Sprites that were not flushed before are dropped.
+	 */
+	public void begin(GL2DrawContext gl) {
+		if (this.gl != gl) {
+			geometry = null;
+		}
+		this.gl = gl;
+		texture = null;
+		sprites = 0;
+		buffer.clear();
+	}
+
+	public GL2DrawContext getGl() {
+		return gl;
+	}
+
+	/**
+	 * Adds a quad.
+	 *
+	 * @param texture
+	 *            The texture of the quad.
+	 * @param quad
+	 *            The four corners of the quad as x, y, u, v each, as created by {@link SharedGeometry#createQuadGeometry}.
+	 * @param x
+	 * @param y
+	 * @param z
+	 *            The position the quad is drawn at.
+	 * @param color
+	 *            The color, may be <code>null</code>.
+	 * @param intensity
+	 *            The intensity the color is multiplied with.
+	 * @param unified
+	 *            <code>true</code> if the texture contains a torso and a shadow like the ones used by {@link GL2DrawContext#drawUnified2D}.
+	 * @param image
+	 *            If the image of a unified texture should be drawn.
+	 * @param shadow
+	 *            If the shadow of a unified texture should be drawn.
+	 * @throws IllegalBufferException
+	 *             If a flush was needed and failed.
+	 */
+	public void add(TextureHandle texture, float[] quad, float x, float y, float z, AbstractColor color, float intensity, boolean unified,
+			boolean image, boolean shadow) throws IllegalBufferException {
+		if (texture != this.texture || sprites == capacity) {
+			flush();
+			this.texture = texture;
+		}
+
+		byte r, g, b, a;
+		if (color != null) {
+			r = toByte(color.red * intensity);
+			g = toByte(color.green * intensity);
+			b = toByte(color.blue * intensity);
+			a = toByte(color.alpha);
+		} else {
+			r = g = b = toByte(intensity);
+			a = (byte) 255;
+		}
+		byte imageInfo = image ? (byte) 255 : 0;
+		byte shadowInfo = shadow ? (byte) 255 : 0;
+		byte unifiedInfo = unified ? (byte) 255 : 0;
+		byte intensityInfo = toByte(intensity);
+
+		for (int vertex : QUAD_VERTICES) {
+			int offset = vertex * QUAD_FLOATS_PER_VERTEX;
+			buffer.putFloat(quad[offset] + x);
+			buffer.putFloat(quad[offset + 1] + y);
+			buffer.putFloat(z);
+			buffer.putFloat(quad[offset + 2]);
+			buffer.putFloat(quad[offset + 3]);
+			buffer.put(r).put(g).put(b).put(a);
+			buffer.put(imageInfo).put(shadowInfo).put(unifiedInfo).put(intensityInfo);
+		}
+		sprites++;
+	}
+
+	private static byte toByte(float value) {
+		if (value <= 0) {
+			return 0;
+		} else if (value >= 1) {
+			return (byte) 255;
+		} else {
+			return (byte) (value * 255 + .5f);
+		}
+	}
+
+	/**
+	 * Draws all collected sprites.
+	 *
+	 * @throws IllegalBufferException
+	 *             If the geometry or the texture got invalid.
+	 */
+	public void flush() throws IllegalBufferException {
+		if (sprites == 0) {
+			return;
+		}
+
+		if (geometry == null || !geometry.isValid()) {
+			geometry = gl.generateGeometry(capacity * VERTICES_PER_SPRITE, EGeometryFormatType.Sprite, true, "sprite-batch");
+		}
+
+		buffer.flip();
+		gl.updateGeometryAt(geometry, 0, buffer);
+		gl.drawSprites(geometry, texture, sprites * VERTICES_PER_SPRITE);
+
+		buffer.clear();
+		sprites = 0;
+	}
+}
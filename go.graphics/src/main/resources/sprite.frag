@@ -0,0 +1,36 @@
+#version 100
+
+precision mediump float;
+
+varying vec2 frag_texcoord;
+varying vec4 frag_color;
+varying vec4 frag_info; // x=image, y=shadow, z=unified, w=intensity
+
+uniform sampler2D texHandle;
+
+void main() {
+	vec4 tex_color = texture2D(texHandle, frag_texcoord);
+
+	if(frag_info.z > 0.1) { // same as tex-unified
+		gl_FragColor = vec4(0,0,0,0);
+
+		if(frag_info.x > 0.1) { // draw image
+			if(tex_color.a < 0.1 && tex_color.r > 0.1) { // torso pixel
+				gl_FragColor.rgb = frag_color.rgb*tex_color.b;
+				gl_FragColor.a = frag_color.a;
+			} else {
+				gl_FragColor = tex_color;
+			}
+		}
+
+		if(frag_info.y > 0.1 && tex_color.g > 0.1 && tex_color.a < 0.1) { // shadow pixel
+			gl_FragColor.rgba = tex_color.aaag;
+		}
+
+		gl_FragColor.rgb *= frag_info.w;
+	} else { // same as tex
+		gl_FragColor = tex_color*frag_color;
+	}
+
+	if(gl_FragColor.a < 0.5) discard;
+}
@@ -0,0 +1,22 @@
+#version 100
+
+precision highp float;
+
+attribute vec3 vertex;
+attribute vec2 texcoord;
+attribute vec4 color;
+attribute vec4 info;
+
+uniform mat4 globalTransform;
+uniform mat4 projection;
+
+varying vec2 frag_texcoord;
+varying vec4 frag_color;
+varying vec4 frag_info;
+
+void main() {
+	gl_Position = projection * globalTransform * vec4(vertex, 1);
+	frag_texcoord = texcoord;
+	frag_color = color;
+	frag_info = info;
+}
@@ -0,0 +1,157 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.benchmark;
+
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.runner.IterationType;
+
+import jsettlers.common.CommonConstants;
+import jsettlers.common.menu.IStartedGame;
+import jsettlers.logic.constants.Constants;
+import jsettlers.logic.constants.MatchConstants;
+import jsettlers.logic.map.loading.MapLoadException;
+import jsettlers.main.replay.ReplayUtils;
+import jsettlers.network.client.interfaces.IGameClock;
+import jsettlers.network.synchronic.timer.INetworkTimerable;
+import jsettlers.network.synchronic.timer.NetworkTimer;
+import jsettlers.testutils.TestUtils;
+
+/**
+ * Measures how the number of AI players and the parallel evaluation of them influence the latency of the ticks of the game clock.
+ * <p>
+ * The score is given in simulated game seconds per wall second. The latencies of the ticks of the measurement iterations are printed after the
+ * trial. The AI players are evaluated every 10 game seconds, that is in one of 200 ticks, so their costs show up in the highest percentiles.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx2G" })
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 10, time = 10)
+public class AiTickBenchmark {
+	private static final int GAME_SECONDS_PER_INVOCATION = 10;
+
+	@Param({ "1", "7" })
+	public int numberOfAiPlayers;
+
+	@Param({ "true", "false" })
+	public boolean parallelAiEvaluation;
+
+	private final TickRecorder tickRecorder = new TickRecorder();
+	private IStartedGame startedGame;
+
+	@Setup(Level.Trial)
+	public void startGame() throws MapLoadException {
+		CommonConstants.CONTROL_ALL = true;
+		Constants.FOG_OF_WAR_DEFAULT_ENABLED = false;
+		Constants.PARALLEL_AI_EVALUATION = parallelAiEvaluation;
+		TestUtils.setupTempResourceManager();
+
+		startedGame = EBenchmarkScenario.startAiMatch(numberOfAiPlayers);
+		MatchConstants.clock().schedule(tickRecorder, NetworkTimer.TIME_SLICE);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(GAME_SECONDS_PER_INVOCATION)
+	public int simulateGame() {
+		IGameClock clock = MatchConstants.clock();
+		tickRecorder.startRecording();
+		clock.fastForwardTo(clock.getTime() + GAME_SECONDS_PER_INVOCATION * 1000);
+		return clock.getTime();
+	}
+
+	@TearDown(Level.Iteration)
+	public void stopIteration(IterationParams iterationParams) {
+		if (iterationParams.getType() == IterationType.WARMUP) {
+			tickRecorder.reset();
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void stopGame() {
+		tickRecorder.printReport(System.out, numberOfAiPlayers + " AI players, parallel evaluation: " + parallelAiEvaluation);
+		ReplayUtils.awaitShutdown(startedGame);
+	}
+
+	/**
+	 * Is executed once in every tick of the game clock, so the time between two executions is the duration of a tick.
+	 */
+	private static class TickRecorder implements INetworkTimerable {
+		private LatencyHistogram latencies;
+		private long totalNanos;
+		private long lastTickNanos;
+
+		TickRecorder() {
+			reset();
+		}
+
+		void reset() {
+			latencies = new LatencyHistogram();
+			totalNanos = 0;
+		}
+
+		/**
+		 * Ignores the time since the last tick, because the clock has been paused in between.
+		 */
+		void startRecording() {
+			lastTickNanos = 0;
+		}
+
+		@Override
+		public void timerEvent() {
+			long now = System.nanoTime();
+			if (lastTickNanos != 0) {
+				latencies.record(now - lastTickNanos);
+				totalNanos += now - lastTickNanos;
+			}
+			lastTickNanos = now;
+		}
+
+		void printReport(PrintStream out, String name) {
+			long ticks = Math.max(latencies.getTotalCount(), 1);
+			out.println();
+			out.println(String.format(Locale.ENGLISH, "%-50s %10s %10s %10s %10s %10s %10s",
+				"", "ticks", "mean [us]", "p50 [us]", "p99 [us]", "p99.9 [us]", "max [us]"
+			));
+			out.println(String.format(Locale.ENGLISH, "%-50s %10d %10.1f %10.1f %10.1f %10.1f %10.1f",
+				name,
+				latencies.getTotalCount(),
+				totalNanos / 1e3 / ticks,
+				latencies.getPercentile(50) / 1e3,
+				latencies.getPercentile(99) / 1e3,
+				latencies.getPercentile(99.9) / 1e3,
+				latencies.getMax() / 1e3
+			));
+		}
+	}
+}
@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jsettlers.ai.construction.BestConstructionPositionFinderFactory;
+import jsettlers.ai.construction.IBestConstructionPositionFinder;
+import jsettlers.ai.highlevel.AiStatistics;
+import jsettlers.algorithms.construction.AbstractConstructionMarkableMap;
+import jsettlers.common.CommonConstants;
+import jsettlers.common.buildings.EBuildingType;
+import jsettlers.common.menu.IStartedGame;
+import jsettlers.common.position.ShortPoint2D;
+import jsettlers.logic.constants.Constants;
+import jsettlers.logic.constants.MatchConstants;
+import jsettlers.logic.map.grid.MainGrid;
+import jsettlers.logic.map.loading.MapLoadException;
+import jsettlers.main.JSettlersGame;
+import jsettlers.main.replay.ReplayUtils;
+import jsettlers.testutils.TestUtils;
+
+/**
+ * Measures how long the AI needs to find the position of a new building.
+ * <p>
+ * The game of the AiDifficultiesIT, a very hard AI player on the map SpezialSumpf, is played for some time to get a grown player. Then the
+ * construction position of the given building type is searched repeatedly on the paused game.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx2G" })
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class ConstructionPositionBenchmark {
+	private static final byte PLAYER_ID = 0;
+	private static final int GAME_MINUTES = 30;
+
+	@Param({ "STONECUTTER", "LUMBERJACK", "FORESTER", "FISHER", "WATERWORKS", "FARM", "COALMINE", "SAWMILL", "TOWER" })
+	public EBuildingType buildingType;
+
+	@Param({ "true", "false" })
+	public boolean parallelRating;
+
+	private IStartedGame                    startedGame;
+	private AiStatistics                    aiStatistics;
+	private AbstractConstructionMarkableMap constructionMap;
+	private IBestConstructionPositionFinder positionFinder;
+
+	@Setup(Level.Trial)
+	public void startGame() throws MapLoadException {
+		CommonConstants.CONTROL_ALL = true;
+		Constants.FOG_OF_WAR_DEFAULT_ENABLED = false;
+		Constants.PARALLEL_AI_POSITION_RATING = parallelRating;
+		TestUtils.setupTempResourceManager();
+
+		startedGame = EBenchmarkScenario.startAiMatch(1);
+		MatchConstants.clock().fastForwardTo(GAME_MINUTES * 60 * 1000);
+		MatchConstants.clock().setPausing(true);
+
+		MainGrid mainGrid = ((JSettlersGame.GameRunner) startedGame).getMainGrid();
+		aiStatistics = new AiStatistics(mainGrid);
+		aiStatistics.updateStatistics();
+		constructionMap = mainGrid.getConstructionMarksGrid();
+		positionFinder = new BestConstructionPositionFinderFactory().getBestConstructionPositionFinderFor(buildingType);
+	}
+
+	@Benchmark
+	public ShortPoint2D findBestConstructionPosition() {
+		return positionFinder.findBestConstructionPosition(aiStatistics, constructionMap, PLAYER_ID);
+	}
+
+	@TearDown(Level.Trial)
+	public void stopGame() {
+		ReplayUtils.awaitShutdown(startedGame);
+	}
+}
@@ -0,0 +1,78 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.benchmark;
+
+import jsettlers.common.ai.EPlayerType;
+import jsettlers.common.menu.IStartedGame;
+import jsettlers.common.player.ECivilisation;
+import jsettlers.integration.replay.AutoReplaySetting;
+import jsettlers.logic.map.loading.MapLoadException;
+import jsettlers.logic.map.loading.MapLoader;
+import jsettlers.logic.player.PlayerSetting;
+import jsettlers.main.JSettlersGame;
+import jsettlers.main.replay.ReplayUtils;
+import jsettlers.testutils.map.MapUtils;
+
+/**
+ * The games that can be simulated by the {@link SimulationBenchmark}. Every scenario starts a game with a paused clock.
+ */
+public enum EBenchmarkScenario {
+	/**
+	 * Replays the full production game that is used by the replay integration tests.
+	 */
+	REPLAY_FULL_PRODUCTION {
+		@Override
+		IStartedGame start() throws MapLoadException {
+			AutoReplaySetting setting = AutoReplaySetting.getDefaultSettings().iterator().next();
+			return ReplayUtils.startReplay(setting.getReplayFile());
+		}
+	},
+
+	/**
+	 * Lets four very hard AI players play against each other, like the bot matches on a server.
+	 */
+	AI_MATCH {
+		@Override
+		IStartedGame start() throws MapLoadException {
+			return startAiMatch(NUMBER_OF_AI_PLAYERS);
+		}
+	};
+
+	private static final int NUMBER_OF_AI_PLAYERS = 4;
+
+	abstract IStartedGame start() throws MapLoadException;
+
+	/**
+	 * Starts a game of very hard AI players on the map used by the AI integration tests.
+	 *
+	 * @param numberOfAiPlayers
+	 *            The number of AI players. The map supports up to 12 players.
+	 */
+	static IStartedGame startAiMatch(int numberOfAiPlayers) throws MapLoadException {
+		MapLoader map = MapUtils.getSpezialSumpf();
+
+		PlayerSetting[] playerSettings = new PlayerSetting[map.getMaxPlayers()];
+		for (byte playerId = 0; playerId < playerSettings.length; playerId++) {
+			if (playerId < numberOfAiPlayers) {
+				playerSettings[playerId] = new PlayerSetting(EPlayerType.AI_VERY_HARD, ECivilisation.ROMAN, playerId);
+			} else {
+				playerSettings[playerId] = new PlayerSetting();
+			}
+		}
+
+		JSettlersGame game = new JSettlersGame(map, 1L, ReplayUtils.createPausingOfflineNetworkConnector(), (byte) 0, playerSettings);
+		return ReplayUtils.waitForGameStartup(game.start());
+	}
+}
@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jsettlers.common.CommonConstants;
+import jsettlers.common.mapobject.EMapObjectType;
+import jsettlers.common.mapobject.IMapObject;
+import jsettlers.common.menu.IStartedGame;
+import jsettlers.logic.constants.Constants;
+import jsettlers.logic.constants.MatchConstants;
+import jsettlers.logic.map.grid.MainGrid;
+import jsettlers.logic.map.grid.objects.AbstractHexMapObject;
+import jsettlers.logic.map.grid.objects.ObjectsGrid;
+import jsettlers.logic.map.loading.MapLoadException;
+import jsettlers.main.JSettlersGame;
+import jsettlers.main.replay.ReplayUtils;
+import jsettlers.testutils.TestUtils;
+
+/**
+ * Measures the type queries of the {@link ObjectsGrid}, which test the bitmask of the object types of a position, compared to walking the object
+ * list of the position.
+ * <p>
+ * The full production replay is played for some time. Then every position of the paused game is checked for the given object type. The number of
+ * objects per position is printed when the game has been started.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx2G" })
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class MapObjectQueryBenchmark {
+	private static final int GAME_MINUTES = 30;
+	private static final int MAX_COUNTED_OBJECTS = 4;
+
+	@Param({ "TREE_ADULT", "STONE", "CORN_ADULT", "ATTACKABLE_TOWER" })
+	public EMapObjectType objectType;
+
+	private IStartedGame startedGame;
+	private ObjectsGrid  objectsGrid;
+	private short        width;
+	private short        height;
+
+	@Setup(Level.Trial)
+	public void startGame() throws MapLoadException {
+		CommonConstants.CONTROL_ALL = true;
+		Constants.FOG_OF_WAR_DEFAULT_ENABLED = false;
+		TestUtils.setupTempResourceManager();
+
+		startedGame = EBenchmarkScenario.REPLAY_FULL_PRODUCTION.start();
+		MatchConstants.clock().fastForwardTo(GAME_MINUTES * 60 * 1000);
+		MatchConstants.clock().setPausing(true);
+
+		MainGrid mainGrid = ((JSettlersGame.GameRunner) startedGame).getMainGrid();
+		objectsGrid = mainGrid.getObjectsGrid();
+		width = mainGrid.getWidth();
+		height = mainGrid.getHeight();
+
+		int[] positionsByObjects = new int[MAX_COUNTED_OBJECTS + 1];
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				int objects = 0;
+				for (IMapObject object = objectsGrid.getObjectsAt(x, y); object != null; object = object.getNextObject()) {
+					objects++;
+				}
+				positionsByObjects[Math.min(objects, MAX_COUNTED_OBJECTS)]++;
+			}
+		}
+
+		System.out.println();
+		for (int objects = 0; objects <= MAX_COUNTED_OBJECTS; objects++) {
+			System.out.println("Positions with " + objects + (objects == MAX_COUNTED_OBJECTS ? " or more" : "") + " objects: "
+					+ positionsByObjects[objects]);
+		}
+	}
+
+	@Benchmark
+	public int queryObjectsGrid() {
+		int found = 0;
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				if (objectsGrid.hasMapObjectType(x, y, objectType)) {
+					found++;
+				}
+			}
+		}
+		return found;
+	}
+
+	@Benchmark
+	public int walkObjectLists() {
+		int found = 0;
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				AbstractHexMapObject objects = objectsGrid.getObjectsAt(x, y);
+				if (objects != null && objects.hasMapObjectTypes(objectType)) {
+					found++;
+				}
+			}
+		}
+		return found;
+	}
+
+	@TearDown(Level.Trial)
+	public void stopGame() {
+		ReplayUtils.awaitShutdown(startedGame);
+	}
+}
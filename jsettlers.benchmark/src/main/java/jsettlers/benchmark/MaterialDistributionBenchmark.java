@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.benchmark;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.runner.IterationType;
+
+import jsettlers.common.CommonConstants;
+import jsettlers.common.menu.IStartedGame;
+import jsettlers.logic.GameContext;
+import jsettlers.logic.constants.Constants;
+import jsettlers.logic.constants.MatchConstants;
+import jsettlers.logic.map.grid.partition.manager.materials.MaterialDistributionStatistic;
+import jsettlers.logic.map.loading.MapLoadException;
+import jsettlers.main.replay.ReplayUtils;
+import jsettlers.network.client.interfaces.IGameClock;
+import jsettlers.testutils.TestUtils;
+
+/**
+ * Compares the material distribution of the materials managers with and without batching on the full production replay.
+ * <p>
+ * Every invocation simulates one game minute, so the score is the wall time needed per game minute. After the trial, the material deliveries
+ * per game minute and the average walk length of the bearers during the measurement iterations are printed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx2G" })
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+public class MaterialDistributionBenchmark {
+	private static final int GAME_MILLIS_PER_INVOCATION = 60 * 1000;
+
+	@Param({ "true", "false" })
+	public boolean batchedMaterialDistribution;
+
+	private IStartedGame                  startedGame;
+	private int                           measurementStartTime = -1;
+	private MaterialDistributionStatistic statistic;
+
+	@Setup(Level.Trial)
+	public void startGame() throws MapLoadException {
+		CommonConstants.CONTROL_ALL = true;
+		Constants.FOG_OF_WAR_DEFAULT_ENABLED = false;
+		Constants.BATCHED_MATERIAL_DISTRIBUTION = batchedMaterialDistribution;
+		TestUtils.setupTempResourceManager();
+
+		startedGame = EBenchmarkScenario.REPLAY_FULL_PRODUCTION.start();
+	}
+
+	@Setup(Level.Iteration)
+	public void startIteration(IterationParams iterationParams) {
+		if (measurementStartTime < 0 && iterationParams.getType() == IterationType.MEASUREMENT) {
+			measurementStartTime = MatchConstants.clock().getTime();
+			statistic = new MaterialDistributionStatistic(); // only the measurement iterations are recorded
+			GameContext.current().setMaterialDistributionStatistic(statistic);
+		}
+	}
+
+	@Benchmark
+	public int simulateGameMinute() {
+		IGameClock clock = MatchConstants.clock();
+		clock.fastForwardTo(clock.getTime() + GAME_MILLIS_PER_INVOCATION);
+		return clock.getTime();
+	}
+
+	@TearDown(Level.Trial)
+	public void stopGame() {
+		float gameMinutes = (MatchConstants.clock().getTime() - measurementStartTime) / (float) GAME_MILLIS_PER_INVOCATION;
+
+		System.out.println();
+		System.out.println(String.format(Locale.ENGLISH, "Simulated %.1f game minutes with batched material distribution %s", gameMinutes,
+				batchedMaterialDistribution ? "enabled" : "disabled"));
+		System.out.println(String.format(Locale.ENGLISH, "%d jobs assigned, %d deliveries fulfilled: %.1f deliveries per game minute",
+				statistic.getAssignedJobs(), statistic.getFulfilledDeliveries(), statistic.getFulfilledDeliveries() / gameMinutes));
+		System.out.println(String.format(Locale.ENGLISH, "Average walk length of a bearer per job: %.1f", statistic.getAverageWalkLength()));
+
+		ReplayUtils.awaitShutdown(startedGame);
+	}
+}
@@ -0,0 +1,244 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jsettlers.algorithms.path.IPathCalculatable;
+import jsettlers.algorithms.path.Path;
+import jsettlers.algorithms.path.astar.BucketQueueAStar;
+import jsettlers.algorithms.path.astar.IAStarPathMap;
+import jsettlers.algorithms.path.astar.cache.CachingAStar;
+import jsettlers.algorithms.path.astar.cache.PathCache;
+import jsettlers.algorithms.path.astar.cache.RegionVersions;
+import jsettlers.algorithms.path.astar.hierarchical.ClusterGraph;
+import jsettlers.algorithms.path.astar.hierarchical.HierarchicalAStar;
+import jsettlers.common.Color;
+import jsettlers.common.player.IPlayer;
+import jsettlers.common.position.ShortPoint2D;
+import jsettlers.logic.constants.MatchConstants;
+import jsettlers.logic.map.grid.MainGrid;
+import jsettlers.logic.map.grid.flags.FlagsGrid;
+import jsettlers.logic.map.grid.landscape.LandscapeGrid;
+import jsettlers.logic.map.loading.MapLoadException;
+import jsettlers.logic.map.loading.MapLoader;
+import jsettlers.network.synchronic.timer.NetworkTimer;
+import jsettlers.testutils.map.MapUtils;
+
+/**
+ * Compares the normal A* with the hierarchical A* and the cached A* on long paths of the bundled maps.
+ * <p>
+ * Every invocation calculates one of {@link #NUMBER_OF_PATHS} random paths between two positions of the same blocked partition. The
+ * hierarchicalAStarFirstLeg benchmark measures the time a movable waits for its path, the hierarchicalAStar benchmark also calculates the
+ * remaining legs. The cachedAStar benchmarks repeat the same requests, cachedAStarWithChanges additionally marks one random position as
+ * changed before every request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx2G" })
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class PathfindingBenchmark {
+	private static final int NUMBER_OF_PATHS   = 200;
+	private static final int MIN_PATH_DISTANCE = 100;
+
+	@Param({ "MOUNTAIN_LAKE", "SPEZIAL_SUMPF" })
+	public String map;
+
+	private BucketQueueAStar  flatAStar;
+	private HierarchicalAStar hierarchicalAStar;
+	private RegionVersions    pathingVersions;
+	private CachingAStar      cachedAStar;
+	private Random            changesRandom;
+	private short             width;
+	private short             height;
+
+	private IPathCalculatable[] requesters;
+	private ShortPoint2D[]      targets;
+	private int                 nextPath;
+
+	@Setup(Level.Trial)
+	public void loadMap() throws MapLoadException {
+		MatchConstants.init(new NetworkTimer(true), 0);
+		MainGrid grid = getMapLoader().loadMainGrid(null).getMainGrid();
+		width = grid.getWidth();
+		height = grid.getHeight();
+
+		IAStarPathMap pathMap = new GridPathMap(grid.getFlagsGrid(), grid.getLandscapeGrid());
+		flatAStar = new BucketQueueAStar(pathMap, width, height);
+		BucketQueueAStar refinerAStar = new BucketQueueAStar(pathMap, width, height);
+		hierarchicalAStar = new HierarchicalAStar(pathMap, new ClusterGraph(pathMap, width, height), new BucketQueueAStar(pathMap, width, height),
+				refinerAStar::findPath, width, height);
+		pathingVersions = new RegionVersions(width, height);
+		cachedAStar = new CachingAStar(new PathCache(pathingVersions, NUMBER_OF_PATHS), pathMap, width, height);
+		changesRandom = new Random(2L);
+
+		Random random = new Random(1L);
+		requesters = new IPathCalculatable[NUMBER_OF_PATHS];
+		targets = new ShortPoint2D[NUMBER_OF_PATHS];
+		for (int i = 0; i < NUMBER_OF_PATHS;) {
+			ShortPoint2D start = new ShortPoint2D(random.nextInt(width), random.nextInt(height));
+			ShortPoint2D target = new ShortPoint2D(random.nextInt(width), random.nextInt(height));
+			IPathCalculatable requester = new Requester(start);
+
+			if (start.getOnGridDistTo(target) >= MIN_PATH_DISTANCE && !pathMap.isBlocked(requester, start.x, start.y)
+					&& flatAStar.findPath(requester, target) != null) {
+				requesters[i] = requester;
+				targets[i] = target;
+				i++;
+			}
+		}
+
+		hierarchicalAStar.findPath(requesters[0], targets[0]); // builds the cluster graph
+	}
+
+	private MapLoader getMapLoader() throws MapLoadException {
+		switch (map) {
+			case "SPEZIAL_SUMPF":
+				return MapUtils.getSpezialSumpf();
+			case "MOUNTAIN_LAKE":
+				return MapUtils.getMountainlake();
+			default:
+				throw new IllegalArgumentException("Unknown map: " + map);
+		}
+	}
+
+	@Benchmark
+	public int flatAStar() {
+		int pathIdx = getNextPathIdx();
+		return walk(flatAStar.findPath(requesters[pathIdx], targets[pathIdx]));
+	}
+
+	@Benchmark
+	public Path hierarchicalAStarFirstLeg() {
+		int pathIdx = getNextPathIdx();
+		return hierarchicalAStar.findPath(requesters[pathIdx], targets[pathIdx]);
+	}
+
+	@Benchmark
+	public int hierarchicalAStar() {
+		int pathIdx = getNextPathIdx();
+		return walk(hierarchicalAStar.findPath(requesters[pathIdx], targets[pathIdx]));
+	}
+
+	@Benchmark
+	public int cachedAStar() {
+		int pathIdx = getNextPathIdx();
+		return walk(cachedAStar.findPath(requesters[pathIdx], targets[pathIdx]));
+	}
+
+	@Benchmark
+	public int cachedAStarWithChanges() {
+		pathingVersions.changed(changesRandom.nextInt(width), changesRandom.nextInt(height));
+		int pathIdx = getNextPathIdx();
+		return walk(cachedAStar.findPath(requesters[pathIdx], targets[pathIdx]));
+	}
+
+	private int getNextPathIdx() {
+		nextPath = (nextPath + 1) % NUMBER_OF_PATHS;
+		return nextPath;
+	}
+
+	private static int walk(Path path) {
+		int steps = 0;
+		while (path.hasNextStep()) {
+			path.goToNextStep();
+			steps++;
+		}
+		return steps;
+	}
+
+	private static class GridPathMap implements IAStarPathMap {
+		private final FlagsGrid     flagsGrid;
+		private final LandscapeGrid landscapeGrid;
+
+		GridPathMap(FlagsGrid flagsGrid, LandscapeGrid landscapeGrid) {
+			this.flagsGrid = flagsGrid;
+			this.landscapeGrid = landscapeGrid;
+		}
+
+		@Override
+		public boolean isBlocked(IPathCalculatable requester, int x, int y) {
+			return flagsGrid.isBlocked(x, y);
+		}
+
+		@Override
+		public float getCost(int sx, int sy, int tx, int ty) {
+			return 1;
+		}
+
+		@Override
+		public void markAsOpen(int x, int y) {
+		}
+
+		@Override
+		public void markAsClosed(int x, int y) {
+		}
+
+		@Override
+		public void setDebugColor(int x, int y, Color color) {
+		}
+
+		@Override
+		public short getBlockedPartition(int x, int y) {
+			return landscapeGrid.getBlockedPartitionAt(x, y);
+		}
+	}
+
+	private static class Requester implements IPathCalculatable {
+		private static final long serialVersionUID = 1L;
+
+		private final ShortPoint2D position;
+
+		Requester(ShortPoint2D position) {
+			this.position = position;
+		}
+
+		@Override
+		public ShortPoint2D getPosition() {
+			return position;
+		}
+
+		@Override
+		public IPlayer getPlayer() {
+			return null;
+		}
+
+		@Override
+		public boolean needsPlayersGround() {
+			return false;
+		}
+
+		@Override
+		public boolean isShip() {
+			return false;
+		}
+	}
+}
@@ -0,0 +1,121 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.benchmark;
+
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jsettlers.common.position.ILocatable;
+import jsettlers.common.position.ShortPoint2D;
+import jsettlers.common.utils.MathUtils;
+import jsettlers.logic.map.grid.partition.manager.datastructures.PositionableList;
+
+/**
+ * Compares the bucketed {@link PositionableList} with the linear search over a {@link LinkedList} it replaced. Every operation takes the object
+ * closest to a random position and inserts it again at another random position, like the bearer assignment of a partition does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PositionableListBenchmark {
+	private static final int MAP_SIZE = 1024;
+	private static final int NUMBER_OF_POSITIONS = 1 << 16;
+
+	@Param({ "100", "1000", "10000" })
+	public int size;
+
+	private final PositionableList<Position> positionableList = new PositionableList<>();
+	private final LinkedList<Position> linkedList = new LinkedList<>();
+	private final ShortPoint2D[] positions = new ShortPoint2D[NUMBER_OF_POSITIONS];
+	private int nextPosition;
+
+	@Setup
+	public void fillLists() {
+		Random random = new Random(1L);
+		for (int i = 0; i < positions.length; i++) {
+			positions[i] = new ShortPoint2D(random.nextInt(MAP_SIZE), random.nextInt(MAP_SIZE));
+		}
+		for (int i = 0; i < size; i++) {
+			Position position = new Position(nextPosition());
+			positionableList.insert(position);
+			linkedList.add(position);
+		}
+	}
+
+	@Benchmark
+	public Position positionableList() {
+		Position closest = positionableList.removeObjectNextTo(nextPosition());
+		Position replacement = new Position(nextPosition());
+		positionableList.insert(replacement);
+		return closest;
+	}
+
+	@Benchmark
+	public Position linkedList() {
+		ShortPoint2D position = nextPosition();
+		Position closest = null;
+		int bestDistance = Integer.MAX_VALUE;
+		for (Position current : linkedList) {
+			int distance = MathUtils.squareHypot(position, current.getPosition());
+			if (bestDistance > distance) {
+				bestDistance = distance;
+				closest = current;
+			}
+		}
+		for (Iterator<Position> iterator = linkedList.iterator(); iterator.hasNext(); ) {
+			if (iterator.next() == closest) {
+				iterator.remove();
+				break;
+			}
+		}
+		linkedList.add(new Position(nextPosition()));
+		return closest;
+	}
+
+	private ShortPoint2D nextPosition() {
+		nextPosition = (nextPosition + 1) % NUMBER_OF_POSITIONS;
+		return positions[nextPosition];
+	}
+
+	public static class Position implements ILocatable {
+		private final ShortPoint2D position;
+
+		Position(ShortPoint2D position) {
+			this.position = position;
+		}
+
+		@Override
+		public ShortPoint2D getPosition() {
+			return position;
+		}
+	}
+}
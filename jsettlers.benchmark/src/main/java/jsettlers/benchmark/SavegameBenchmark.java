@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jsettlers.common.CommonConstants;
+import jsettlers.common.menu.IStartedGame;
+import jsettlers.logic.constants.Constants;
+import jsettlers.logic.constants.MatchConstants;
+import jsettlers.logic.map.grid.MainGrid;
+import jsettlers.logic.map.loading.MapLoadException;
+import jsettlers.logic.map.loading.list.MapList;
+import jsettlers.main.JSettlersGame;
+import jsettlers.main.replay.ReplayUtils;
+import jsettlers.testutils.TestUtils;
+
+/**
+ * Measures how long the game logic is halted while saving a game.
+ * <p>
+ * The game is simulated up to the given game time before the savegames are created. The savegame is written to disk in the background after
+ * the game continues, so every invocation waits for the previous savegame to be written.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx2G" })
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+public class SavegameBenchmark {
+
+	@Param({ "REPLAY_FULL_PRODUCTION" })
+	public EBenchmarkScenario scenario;
+
+	@Param({ "30" })
+	public int gameTimeMinutes;
+
+	@Param({ "false", "true" })
+	public boolean compression;
+
+	private IStartedGame startedGame;
+	private MainGrid     grid;
+
+	@Setup(Level.Trial)
+	public void startGame() throws MapLoadException {
+		CommonConstants.CONTROL_ALL = true;
+		CommonConstants.USE_SAVEGAME_COMPRESSION = compression;
+		Constants.FOG_OF_WAR_DEFAULT_ENABLED = false;
+		TestUtils.setupTempResourceManager();
+
+		startedGame = scenario.start();
+		grid = ((JSettlersGame.GameRunner) startedGame).getMainGrid();
+		MatchConstants.clock().fastForwardTo(gameTimeMinutes * 60 * 1000);
+	}
+
+	@Benchmark
+	public void saveGame() throws IOException {
+		grid.save((byte) 0, null);
+	}
+
+	@TearDown(Level.Invocation)
+	public void awaitSavegame() {
+		MapList.getDefaultList().awaitPendingSaves();
+	}
+
+	@TearDown(Level.Trial)
+	public void stopGame() {
+		ReplayUtils.awaitShutdown(startedGame);
+	}
+}
@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.runner.IterationType;
+
+import jsettlers.common.CommonConstants;
+import jsettlers.common.menu.IStartedGame;
+import jsettlers.logic.constants.Constants;
+import jsettlers.logic.constants.MatchConstants;
+import jsettlers.logic.map.loading.MapLoadException;
+import jsettlers.logic.timer.RescheduleTimer;
+import jsettlers.main.replay.ReplayUtils;
+import jsettlers.network.client.interfaces.IGameClock;
+import jsettlers.testutils.TestUtils;
+
+/**
+ * Measures how fast the game logic can be simulated without a GUI.
+ * <p>
+ * The score is given in simulated game seconds per wall second. Every iteration continues the game of the previous iteration. If profiling is
+ * enabled, the latencies and allocations of the measurement iterations are printed by category after the trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx2G" })
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 10, time = 10)
+public class SimulationBenchmark {
+	private static final int GAME_SECONDS_PER_INVOCATION = 10;
+
+	@Param({ "REPLAY_FULL_PRODUCTION", "AI_MATCH" })
+	public EBenchmarkScenario scenario;
+
+	@Param({ "true" })
+	public boolean profiling;
+
+	private IStartedGame       startedGame;
+	private SimulationProfiler profiler;
+
+	@Setup(Level.Trial)
+	public void startGame() throws MapLoadException {
+		CommonConstants.CONTROL_ALL = true;
+		Constants.FOG_OF_WAR_DEFAULT_ENABLED = false;
+		TestUtils.setupTempResourceManager();
+
+		startedGame = scenario.start();
+
+		if (profiling) {
+			profiler = new SimulationProfiler();
+		}
+	}
+
+	@Setup(Level.Iteration)
+	public void startIteration(IterationParams iterationParams) {
+		if (profiler != null && iterationParams.getType() == IterationType.MEASUREMENT) {
+			RescheduleTimer.setProfiler(profiler);
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(GAME_SECONDS_PER_INVOCATION)
+	public int simulateGame() {
+		IGameClock clock = MatchConstants.clock();
+		clock.fastForwardTo(clock.getTime() + GAME_SECONDS_PER_INVOCATION * 1000);
+		return clock.getTime();
+	}
+
+	@TearDown(Level.Iteration)
+	public void stopIteration(IterationParams iterationParams) {
+		RescheduleTimer.setProfiler(null);
+		if (profiler != null && iterationParams.getType() == IterationType.WARMUP) {
+			profiler.reset();
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void stopGame() {
+		if (profiler != null) {
+			profiler.printReport(System.out);
+		}
+		ReplayUtils.awaitShutdown(startedGame);
+	}
+}
@@ -0,0 +1,176 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.benchmark;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import jsettlers.logic.buildings.Building;
+import jsettlers.logic.map.grid.partition.manager.PartitionManager;
+import jsettlers.logic.movable.Movable;
+import jsettlers.logic.movable.MovableStrategy;
+import jsettlers.logic.timer.IRescheduleTimerProfiler;
+import jsettlers.logic.timer.IScheduledTimerable;
+
+/**
+ * Collects the execution times and allocations of the {@link jsettlers.logic.timer.RescheduleTimer}. The timerables are grouped by the
+ * {@link MovableStrategy} of movables, {@link Building}s, {@link PartitionManager}s and the class of all other timerables.
+ */
+public class SimulationProfiler implements IRescheduleTimerProfiler {
+	private static final float TIME_SLICE_SECONDS = 0.025f;
+
+	private final com.sun.management.ThreadMXBean threadBean;
+
+	private final Map<Class<?>, ExecutionStatistics> categories = new HashMap<>();
+	private ExecutionStatistics timeSlices = new ExecutionStatistics("time slice");
+
+	private long startNanos;
+	private long timeSliceStartNanos;
+	private long timeSliceStartBytes;
+	private long timerableStartNanos;
+	private long timerableStartBytes;
+
+	public SimulationProfiler() {
+		java.lang.management.ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+		if (threadBean instanceof com.sun.management.ThreadMXBean && ((com.sun.management.ThreadMXBean) threadBean).isThreadAllocatedMemorySupported()) {
+			this.threadBean = (com.sun.management.ThreadMXBean) threadBean;
+		} else {
+			this.threadBean = null;
+			System.err.println("Allocations can't be measured with this JVM.");
+		}
+		reset();
+	}
+
+	public void reset() {
+		categories.clear();
+		timeSlices = new ExecutionStatistics("time slice");
+		startNanos = System.nanoTime();
+	}
+
+	@Override
+	public void timeSliceStarted() {
+		timeSliceStartBytes = getAllocatedBytes();
+		timeSliceStartNanos = System.nanoTime();
+	}
+
+	@Override
+	public void timerableStarted() {
+		timerableStartBytes = getAllocatedBytes();
+		timerableStartNanos = System.nanoTime();
+	}
+
+	@Override
+	public void timerableFinished(IScheduledTimerable timerable) {
+		long duration = System.nanoTime() - timerableStartNanos;
+		long allocatedBytes = getAllocatedBytes() - timerableStartBytes;
+		getCategory(timerable).add(duration, allocatedBytes);
+	}
+
+	@Override
+	public void timeSliceFinished() {
+		long duration = System.nanoTime() - timeSliceStartNanos;
+		long allocatedBytes = getAllocatedBytes() - timeSliceStartBytes;
+		timeSlices.add(duration, allocatedBytes);
+	}
+
+	private ExecutionStatistics getCategory(IScheduledTimerable timerable) {
+		Class<?> categoryClass;
+		if (timerable instanceof Movable) {
+			categoryClass = ((Movable) timerable).getStrategyClass();
+		} else if (timerable instanceof Building) {
+			categoryClass = Building.class;
+		} else if (timerable instanceof PartitionManager) {
+			categoryClass = PartitionManager.class;
+		} else {
+			categoryClass = timerable.getClass();
+		}
+
+		ExecutionStatistics statistics = categories.get(categoryClass);
+		if (statistics == null) {
+			String name = categoryClass.getSimpleName();
+			if (MovableStrategy.class.isAssignableFrom(categoryClass)) {
+				name = "Movable/" + name;
+			}
+			statistics = new ExecutionStatistics(name);
+			categories.put(categoryClass, statistics);
+		}
+		return statistics;
+	}
+
+	private long getAllocatedBytes() {
+		return threadBean != null ? threadBean.getThreadAllocatedBytes(Thread.currentThread().getId()) : 0;
+	}
+
+	public void printReport(PrintStream out) {
+		long wallNanos = System.nanoTime() - startNanos;
+		long timeSliceCount = timeSlices.latencies.getTotalCount();
+		float gameSeconds = timeSliceCount * TIME_SLICE_SECONDS;
+
+		out.println();
+		out.println(String.format(Locale.ENGLISH, "Simulated %.1f game seconds in %.1f wall seconds: %.2f game seconds per wall second",
+			gameSeconds, wallNanos / 1e9, gameSeconds / (wallNanos / 1e9)
+		));
+		out.println(String.format(Locale.ENGLISH, "%.1f ms were spent outside of the RescheduleTimer (e.g. AI and player tasks)",
+			(wallNanos - timeSlices.totalNanos) / 1e6
+		));
+		out.println(String.format(Locale.ENGLISH, "%-40s %12s %12s %10s %10s %10s %14s %14s",
+			"", "executions", "total [ms]", "mean [us]", "p99 [us]", "max [us]", "bytes / exec", "bytes / slice"
+		));
+
+		timeSlices.print(out, timeSliceCount);
+
+		List<ExecutionStatistics> sortedCategories = new ArrayList<>(categories.values());
+		sortedCategories.sort((first, second) -> Long.compare(second.totalNanos, first.totalNanos));
+		for (ExecutionStatistics category : sortedCategories) {
+			category.print(out, timeSliceCount);
+		}
+	}
+
+	private static class ExecutionStatistics {
+		private final String           name;
+		private final LatencyHistogram latencies = new LatencyHistogram();
+		private long totalNanos;
+		private long totalAllocatedBytes;
+
+		ExecutionStatistics(String name) {
+			this.name = name;
+		}
+
+		void add(long durationNanos, long allocatedBytes) {
+			latencies.record(durationNanos);
+			totalNanos += durationNanos;
+			totalAllocatedBytes += allocatedBytes;
+		}
+
+		void print(PrintStream out, long timeSliceCount) {
+			long executions = Math.max(latencies.getTotalCount(), 1);
+			out.println(String.format(Locale.ENGLISH, "%-40s %12d %12.1f %10.1f %10.1f %10.1f %14d %14d",
+				name,
+				latencies.getTotalCount(),
+				totalNanos / 1e6,
+				totalNanos / 1e3 / executions,
+				latencies.getPercentile(99) / 1e3,
+				latencies.getMax() / 1e3,
+				totalAllocatedBytes / executions,
+				totalAllocatedBytes / Math.max(timeSliceCount, 1)
+			));
+		}
+	}
+}
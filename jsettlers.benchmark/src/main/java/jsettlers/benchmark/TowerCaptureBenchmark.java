@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jsettlers.common.CommonConstants;
+import jsettlers.common.menu.IStartedGame;
+import jsettlers.common.position.ShortPoint2D;
+import jsettlers.common.utils.coordinates.CoordinateStream;
+import jsettlers.integration.replay.AutoReplaySetting;
+import jsettlers.logic.buildings.Building;
+import jsettlers.logic.buildings.military.occupying.OccupyingBuilding;
+import jsettlers.logic.constants.Constants;
+import jsettlers.logic.map.grid.partition.PartitionsGrid;
+import jsettlers.logic.map.loading.MapLoadException;
+import jsettlers.logic.map.loading.MapLoader;
+import jsettlers.logic.player.Player;
+import jsettlers.logic.player.PlayerSetting;
+import jsettlers.main.JSettlersGame;
+import jsettlers.main.replay.ReplayUtils;
+import jsettlers.testutils.TestUtils;
+import jsettlers.testutils.map.MapUtils;
+
+/**
+ * Measures how long it takes to hand the area of a captured tower to the new player.
+ * <p>
+ * The late game savegame of the full production replay is loaded. The occupied military building of the first player with the most occupier
+ * places is handed back and forth between that player and another player. Every capture moves the offers, requests and jobless of the area to
+ * the partitions of the new owner.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx2G" })
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class TowerCaptureBenchmark {
+	private static final String SAVEGAME = "fullproduction/savegame-90m.zmap";
+
+	@Param({ "true", "false" })
+	public boolean batchedPartitionTransfer;
+
+	private IStartedGame   startedGame;
+	private PartitionsGrid partitionsGrid;
+	private ShortPoint2D   towerPosition;
+	private byte[]         owners;
+	private int            nextOwner;
+
+	@Setup(Level.Trial)
+	public void startGame() throws MapLoadException {
+		CommonConstants.CONTROL_ALL = true;
+		Constants.FOG_OF_WAR_DEFAULT_ENABLED = false;
+		Constants.BATCHED_PARTITION_TRANSFER = batchedPartitionTransfer;
+		TestUtils.setupTempResourceManager();
+
+		MapLoader savegame = MapUtils.getMap(AutoReplaySetting.class, SAVEGAME);
+		JSettlersGame game = new JSettlersGame(savegame, 0L, ReplayUtils.createPausingOfflineNetworkConnector(), (byte) 0,
+				PlayerSetting.createDefaultSettings((byte) 0, (byte) savegame.getMaxPlayers()));
+		startedGame = ReplayUtils.waitForGameStartup(game.start());
+		partitionsGrid = ((JSettlersGame.GameRunner) startedGame).getMainGrid().getPartitionsGrid();
+
+		OccupyingBuilding tower = findBiggestTower();
+		towerPosition = tower.getPosition();
+		owners = new byte[] { findOtherPlayer(tower.getPlayer().getPlayerId()), tower.getPlayer().getPlayerId() };
+	}
+
+	private static OccupyingBuilding findBiggestTower() {
+		OccupyingBuilding biggestTower = null;
+		for (Building building : Building.getAllBuildings()) {
+			if (!(building instanceof OccupyingBuilding) || building.getPlayer().getPlayerId() != 0) {
+				continue;
+			}
+			OccupyingBuilding tower = (OccupyingBuilding) building;
+			if (tower.isOccupied() && (biggestTower == null || getNumberOfOccupiers(tower) > getNumberOfOccupiers(biggestTower))) {
+				biggestTower = tower;
+			}
+		}
+		if (biggestTower == null) {
+			throw new IllegalStateException("The savegame " + SAVEGAME + " contains no occupied tower of the first player.");
+		}
+		return biggestTower;
+	}
+
+	private static int getNumberOfOccupiers(OccupyingBuilding tower) {
+		return tower.getBuildingType().getOccupierPlaces().length;
+	}
+
+	private byte findOtherPlayer(byte playerId) {
+		for (Player player : partitionsGrid.getPlayers()) {
+			if (player != null && player.getPlayerId() != playerId) {
+				return player.getPlayerId();
+			}
+		}
+		throw new IllegalStateException("The savegame " + SAVEGAME + " contains no second player.");
+	}
+
+	@Benchmark
+	public CoordinateStream captureTower() {
+		byte newOwner = owners[nextOwner];
+		nextOwner = (nextOwner + 1) % owners.length;
+		return partitionsGrid.changePlayerOfTower(towerPosition, newOwner);
+	}
+
+	@TearDown(Level.Trial)
+	public void stopGame() {
+		ReplayUtils.awaitShutdown(startedGame);
+	}
+}
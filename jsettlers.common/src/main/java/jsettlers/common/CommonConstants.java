@@ -65,6 +65,11 @@ public abstract class CommonConstants {
 	 */
 	public static boolean USE_SAVEGAME_COMPRESSION = false;
 
+	/**
+	 * If set to <code>true</code>, the raw grid sections of save games are compressed separately and in parallel.
+	 */
+	public static boolean USE_SAVEGAME_SECTION_COMPRESSION = false;
+
 	/**
 	 * Option to disable the loading of original maps.
 	 */
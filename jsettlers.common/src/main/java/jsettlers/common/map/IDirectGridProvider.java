@@ -4,10 +4,21 @@ import java.util.BitSet;
 
 import jsettlers.common.mapobject.IMapObject;
 import jsettlers.common.movable.IMovable;
+import jsettlers.common.movable.MovablesSnapshotBuffer;
 
 public interface IDirectGridProvider {
 	IMapObject[] getObjectArray();
 	IMovable[] getMovableArray();
 	BitSet getBorderArray();
-	byte[][] getVisibleStatusArray();
+
+	/**
+	 * @return The visible status of all positions as defined by {@link IGraphicsGrid#getVisibleStatus(int, int)}, stored row by row at index y *
+	 *         width + x, or null if there is no fog of war.
+	 */
+	byte[] getVisibleStatusArray();
+
+	/**
+	 * @return The buffer the simulation publishes the state of the movables with at the end of its ticks.
+	 */
+	MovablesSnapshotBuffer getMovablesSnapshotBuffer();
 }
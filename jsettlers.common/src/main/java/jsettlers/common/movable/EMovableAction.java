@@ -107,5 +107,7 @@ public enum EMovableAction {
 	/**
 	 * The settler returns hands back (only in HOMELESS state, completion HOMELESS state)
 	 */
-	HOMELESS_IDLE,
+	HOMELESS_IDLE;
+
+	public static final EMovableAction[] VALUES = EMovableAction.values();
 }
@@ -0,0 +1,290 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.common.movable;
+
+import java.util.Arrays;
+import java.util.List;
+
+import jsettlers.common.buildings.EBuildingType;
+import jsettlers.common.material.EMaterialType;
+import jsettlers.common.player.IPlayer;
+import jsettlers.common.position.ShortPoint2D;
+import jsettlers.common.selectable.ESelectionType;
+
+/**
+ * Holds the state of the movables on the map that is needed to draw them, as it was at the end of one game tick. The state is held in primitive
+ * arrays that are sorted by the tile index (x + y * width) of the movables.
+ * <p>
+ * A snapshot is written by the simulation and must not be changed after it has been published by a {@link MovablesSnapshotBuffer}. The values
+ * that are changed by the user interface (e.g. the selection) and the passengers of ships are not part of the snapshot, they are read from the
+ * movable itself.
+ *
+ * @author Andreas Eberle
+ */
+public final class MovablesSnapshot {
+	private int size = 0;
+
+	private int gameTime;
+	private long publishTime;
+	private int previousGameTime;
+	private long previousPublishTime;
+
+	private int[] tileIndices = new int[0];
+	private IMovable[] movables = new IMovable[0];
+	private ShortPoint2D[] positions = new ShortPoint2D[0];
+	private byte[] movableTypes = new byte[0];
+	private byte[] actions = new byte[0];
+	private byte[] directions = new byte[0];
+	private byte[] materials = new byte[0];
+	private int[] animationStartTimes = new int[0];
+	private short[] animationDurations = new short[0];
+	private float[] healths = new float[0];
+	private boolean[] rightsteps = new boolean[0];
+
+	/**
+	 * Removes all movables from this snapshot and makes sure it can hold the given number of movables.
+	 */
+	public void clear(int capacity) {
+		Arrays.fill(movables, 0, size, null);
+		Arrays.fill(positions, 0, size, null);
+		size = 0;
+
+		if (tileIndices.length < capacity) {
+			int newLength = Math.max(capacity, tileIndices.length * 3 / 2);
+			tileIndices = new int[newLength];
+			movables = new IMovable[newLength];
+			positions = new ShortPoint2D[newLength];
+			movableTypes = new byte[newLength];
+			actions = new byte[newLength];
+			directions = new byte[newLength];
+			materials = new byte[newLength];
+			animationStartTimes = new int[newLength];
+			animationDurations = new short[newLength];
+			healths = new float[newLength];
+			rightsteps = new boolean[newLength];
+		}
+	}
+
+	/**
+	 * Adds a movable to this snapshot. The movables have to be added in ascending order of their tile index.
+	 */
+	public void add(int tileIndex, IMovable movable, ShortPoint2D position, EMovableType movableType, EMovableAction action, EDirection direction,
+			EMaterialType material, int animationStartTime, short animationDuration, float health, boolean rightstep) {
+		assert size == 0 || tileIndices[size - 1] < tileIndex : "movables have to be added in ascending order of their tile index";
+
+		tileIndices[size] = tileIndex;
+		movables[size] = movable;
+		positions[size] = position;
+		movableTypes[size] = (byte) movableType.ordinal();
+		actions[size] = (byte) action.ordinal();
+		directions[size] = (byte) direction.ordinal();
+		materials[size] = (byte) material.ordinal();
+		animationStartTimes[size] = animationStartTime;
+		animationDurations[size] = animationDuration;
+		healths[size] = health;
+		rightsteps[size] = rightstep;
+		size++;
+	}
+
+	void setPublished(int gameTime, long publishTime, MovablesSnapshot previous) {
+		this.gameTime = gameTime;
+		this.publishTime = publishTime;
+		if (previous != null) {
+			this.previousGameTime = previous.gameTime;
+			this.previousPublishTime = previous.publishTime;
+		} else {
+			this.previousGameTime = gameTime;
+			this.previousPublishTime = publishTime;
+		}
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public int getGameTime() {
+		return gameTime;
+	}
+
+	/**
+	 * @return The index of the movable on the given tile or -1 if there is none.
+	 */
+	public int indexOfTile(int tileIndex) {
+		int index = Arrays.binarySearch(tileIndices, 0, size, tileIndex);
+		return index >= 0 ? index : -1;
+	}
+
+	/**
+	 * Calculates the game time to draw the snapshot at. The time is interpolated with the speed the game time advanced between the previous and
+	 * this snapshot, but it never gets further ahead of this snapshot than the previous snapshot was behind it.
+	 *
+	 * @param nanoTime
+	 *            The current value of {@link System#nanoTime()}.
+	 */
+	public float getRenderTime(long nanoTime) {
+		int gameTimeDelta = gameTime - previousGameTime;
+		long publishTimeDelta = publishTime - previousPublishTime;
+		if (gameTimeDelta <= 0 || publishTimeDelta <= 0) {
+			return gameTime;
+		}
+
+		float elapsedGameTime = (float) (nanoTime - publishTime) * gameTimeDelta / publishTimeDelta;
+		return gameTime + Math.max(0, Math.min(elapsedGameTime, gameTimeDelta));
+	}
+
+	/**
+	 * A view on one movable of a snapshot. The view can be moved to other movables, so that no objects need to be created to draw the movables.
+	 *
+	 * @author Andreas Eberle
+	 */
+	public static final class View implements IMovable {
+		private MovablesSnapshot snapshot;
+		private int index;
+		private float renderTime;
+
+		/**
+		 * Moves this view to the movable with the given index.
+		 *
+		 * @param renderTime
+		 *            The time used to calculate the progress of the animations, see {@link MovablesSnapshot#getRenderTime(long)}.
+		 */
+		public void set(MovablesSnapshot snapshot, int index, float renderTime) {
+			this.snapshot = snapshot;
+			this.index = index;
+			this.renderTime = renderTime;
+		}
+
+		@Override
+		public EMovableType getMovableType() {
+			return EMovableType.VALUES[snapshot.movableTypes[index]];
+		}
+
+		@Override
+		public EMovableAction getAction() {
+			return EMovableAction.VALUES[snapshot.actions[index]];
+		}
+
+		@Override
+		public EDirection getDirection() {
+			return EDirection.VALUES[snapshot.directions[index]];
+		}
+
+		@Override
+		public float getMoveProgress() {
+			int animationStartTime = snapshot.animationStartTimes[index];
+			short animationDuration = snapshot.animationDurations[index];
+			float progress = (renderTime - animationStartTime) / animationDuration;
+			if (progress > 1 && snapshot.gameTime - animationStartTime < animationDuration) {
+				return 1; // don't let the interpolation run over the end of an animation the snapshot has not finished
+			}
+			return progress;
+		}
+
+		@Override
+		public EMaterialType getMaterial() {
+			return EMaterialType.VALUES[snapshot.materials[index]];
+		}
+
+		@Override
+		public float getHealth() {
+			return snapshot.healths[index];
+		}
+
+		@Override
+		public boolean isAlive() {
+			return snapshot.movables[index].isAlive();
+		}
+
+		@Override
+		public boolean isRightstep() {
+			return snapshot.rightsteps[index];
+		}
+
+		@Override
+		public ShortPoint2D getPosition() {
+			return snapshot.positions[index];
+		}
+
+		@Override
+		public void stopOrStartWorking(boolean stop) {
+			snapshot.movables[index].stopOrStartWorking(stop);
+		}
+
+		@Override
+		public List<? extends IMovable> getPassengers() {
+			return snapshot.movables[index].getPassengers();
+		}
+
+		@Override
+		public int getNumberOfCargoStacks() {
+			return snapshot.movables[index].getNumberOfCargoStacks();
+		}
+
+		@Override
+		public EMaterialType getCargoType(int stack) {
+			return snapshot.movables[index].getCargoType(stack);
+		}
+
+		@Override
+		public int getCargoCount(int stack) {
+			return snapshot.movables[index].getCargoCount(stack);
+		}
+
+		@Override
+		public EBuildingType getGarrisonedBuildingType() {
+			return snapshot.movables[index].getGarrisonedBuildingType();
+		}
+
+		@Override
+		public IPlayer getPlayer() {
+			return snapshot.movables[index].getPlayer();
+		}
+
+		@Override
+		public boolean isSelected() {
+			return snapshot.movables[index].isSelected();
+		}
+
+		@Override
+		public void setSelected(boolean selected) {
+			snapshot.movables[index].setSelected(selected);
+		}
+
+		@Override
+		public ESelectionType getSelectionType() {
+			return snapshot.movables[index].getSelectionType();
+		}
+
+		@Override
+		public boolean isWounded() {
+			return snapshot.movables[index].isWounded();
+		}
+
+		@Override
+		public void setSoundPlayed() {
+			snapshot.movables[index].setSoundPlayed();
+		}
+
+		@Override
+		public boolean isSoundPlayed() {
+			return snapshot.movables[index].isSoundPlayed();
+		}
+
+		@Override
+		public int getID() {
+			return snapshot.movables[index].getID();
+		}
+	}
+}
@@ -0,0 +1,73 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.common.movable;
+
+/**
+ * Exchanges {@link MovablesSnapshot}s between the simulation and a single drawing thread without locking.
+ * <p>
+ * The drawing thread calls {@link #getSnapshot()} once per frame and draws the returned snapshot. The simulation checks with
+ * {@link #isSnapshotRequested()} at the end of a tick if the drawing thread has taken the newest snapshot. Only then it fills the other buffer
+ * returned by {@link #getWriteSnapshot()} and publishes it with {@link #publish(int)}. This way a buffer is never written while it is drawn and
+ * no snapshots are written while nobody draws them.
+ *
+ * @author Andreas Eberle
+ */
+public final class MovablesSnapshotBuffer {
+	private final MovablesSnapshot[] snapshots = { new MovablesSnapshot(), new MovablesSnapshot() };
+
+	private volatile MovablesSnapshot publishedSnapshot;
+	private volatile MovablesSnapshot drawnSnapshot;
+	private int writeIndex = 0;
+
+	/**
+	 * Gets the newest published snapshot. This must only be called by the drawing thread and only once per frame, as it tells the simulation
+	 * that the previous snapshot is no longer used.
+	 *
+	 * @return The newest snapshot or null if none has been published yet.
+	 */
+	public MovablesSnapshot getSnapshot() {
+		MovablesSnapshot snapshot = publishedSnapshot;
+		drawnSnapshot = snapshot;
+		return snapshot;
+	}
+
+	/**
+	 * @return true if the drawing thread has taken the newest snapshot, so that a new one can be written.
+	 */
+	public boolean isSnapshotRequested() {
+		return drawnSnapshot == publishedSnapshot;
+	}
+
+	/**
+	 * @return The snapshot the simulation can write to, if {@link #isSnapshotRequested()} returned true. It is not visible to the drawing thread
+	 *         until {@link #publish(int)} is called.
+	 */
+	public MovablesSnapshot getWriteSnapshot() {
+		return snapshots[writeIndex];
+	}
+
+	/**
+	 * Publishes the snapshot returned by {@link #getWriteSnapshot()}.
+	 *
+	 * @param gameTime
+	 *            The game time the snapshot shows.
+	 */
+	public void publish(int gameTime) {
+		MovablesSnapshot snapshot = snapshots[writeIndex];
+		snapshot.setPublished(gameTime, System.nanoTime(), publishedSnapshot);
+		publishedSnapshot = snapshot;
+		writeIndex = 1 - writeIndex;
+	}
+}
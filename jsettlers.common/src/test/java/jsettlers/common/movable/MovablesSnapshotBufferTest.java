@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.common.movable;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import jsettlers.common.material.EMaterialType;
+import jsettlers.common.position.ShortPoint2D;
+
+import org.junit.Test;
+
+/**
+ * Unit Tests for {@link MovablesSnapshotBuffer} and {@link MovablesSnapshot}
+ *
+ * @author Andreas Eberle
+ */
+public class MovablesSnapshotBufferTest {
+
+	@Test
+	public void testSnapshotIsOnlyWrittenWhenTheNewestIsDrawn() {
+		MovablesSnapshotBuffer buffer = new MovablesSnapshotBuffer();
+		assertTrue(buffer.isSnapshotRequested());
+
+		MovablesSnapshot first = buffer.getWriteSnapshot();
+		buffer.publish(100);
+		assertFalse(buffer.isSnapshotRequested());
+
+		assertSame(first, buffer.getSnapshot());
+		assertTrue(buffer.isSnapshotRequested());
+		MovablesSnapshot second = buffer.getWriteSnapshot();
+		assertNotSame(first, second);
+		buffer.publish(150);
+		assertFalse(buffer.isSnapshotRequested()); // first is still drawn
+
+		assertSame(second, buffer.getSnapshot());
+		assertTrue(buffer.isSnapshotRequested());
+		assertSame(first, buffer.getWriteSnapshot());
+	}
+
+	@Test
+	public void testNoSnapshotBeforePublishing() {
+		assertNull(new MovablesSnapshotBuffer().getSnapshot());
+	}
+
+	@Test
+	public void testIndexOfTileAndView() {
+		MovablesSnapshot snapshot = new MovablesSnapshot();
+		snapshot.clear(2);
+		snapshot.add(5, null, new ShortPoint2D(5, 0), EMovableType.BEARER, EMovableAction.WALKING, EDirection.EAST, EMaterialType.PLANK, 100,
+				(short) 200, 1f, true);
+		snapshot.add(17, null, new ShortPoint2D(7, 1), EMovableType.SWORDSMAN_L1, EMovableAction.NO_ACTION, EDirection.WEST,
+				EMaterialType.NO_MATERIAL, 0, (short) 1000, .5f, false);
+
+		assertEquals(2, snapshot.size());
+		assertEquals(0, snapshot.indexOfTile(5));
+		assertEquals(1, snapshot.indexOfTile(17));
+		assertEquals(-1, snapshot.indexOfTile(6));
+
+		MovablesSnapshot.View view = new MovablesSnapshot.View();
+		view.set(snapshot, 0, 200);
+		assertEquals(EMovableType.BEARER, view.getMovableType());
+		assertEquals(EMovableAction.WALKING, view.getAction());
+		assertEquals(EDirection.EAST, view.getDirection());
+		assertEquals(EMaterialType.PLANK, view.getMaterial());
+		assertEquals(new ShortPoint2D(5, 0), view.getPosition());
+		assertEquals(.5f, view.getMoveProgress(), 0.0001f);
+		assertTrue(view.isRightstep());
+
+		view.set(snapshot, 1, 200);
+		assertEquals(EMovableType.SWORDSMAN_L1, view.getMovableType());
+		assertEquals(.5f, view.getHealth(), 0.0001f);
+		assertFalse(view.isRightstep());
+	}
+
+	@Test
+	public void testRenderTimeIsInterpolatedBetweenSnapshots() {
+		MovablesSnapshotBuffer buffer = new MovablesSnapshotBuffer();
+		buffer.getWriteSnapshot().clear(0);
+		buffer.publish(100);
+		MovablesSnapshot first = buffer.getSnapshot();
+		assertEquals(100, first.getRenderTime(System.nanoTime() + 1000000000L), 0.0001f); // nothing to interpolate with
+
+		buffer.getWriteSnapshot().clear(0);
+		buffer.publish(150);
+		MovablesSnapshot second = buffer.getSnapshot();
+		assertEquals(150, second.getGameTime());
+		float renderTime = second.getRenderTime(System.nanoTime() + 1000000000L);
+		assertEquals(200, renderTime, 0.0001f); // never further ahead than the previous snapshot was behind
+		assertTrue(second.getRenderTime(System.nanoTime()) >= 150);
+	}
+}
@@ -16,6 +16,7 @@ package jsettlers.graphics.image;
 
 import go.graphics.GLDrawContext;
 import go.graphics.IllegalBufferException;
+import go.graphics.SpriteBatch;
 import jsettlers.common.Color;
 
 /**
@@ -48,6 +49,19 @@ public abstract class Image {
 	public void drawOnlyImageAt(GLDrawContext gl, float x, float y, float z, Color torsoColor, float fow) {}
 	public void drawOnlyShadowAt(GLDrawContext gl, float x, float y, float z) {}
 
+	/**
+	 * Adds the image to a sprite batch instead of drawing it directly. The parameters are the same as for {@link #drawAt}.
+	 *
+	 * @param image
+	 *            If the image should be drawn, see {@link #drawOnlyImageAt}.
+	 * @param shadow
+	 *            If the shadow should be drawn, see {@link #drawOnlyShadowAt}.
+	 * @return <code>false</code> if this image can not be batched and needs to be drawn directly.
+	 */
+	public boolean addToBatch(SpriteBatch batch, float x, float y, float z, Color torsoColor, float fow, boolean image, boolean shadow) {
+		return false;
+	}
+
 	/**
 	 * Draws the image at a given rectangle.
 	 * 
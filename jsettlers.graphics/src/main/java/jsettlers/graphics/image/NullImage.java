@@ -21,6 +21,7 @@ import go.graphics.EGeometryType;
 import go.graphics.GLDrawContext;
 import go.graphics.GeometryHandle;
 import go.graphics.IllegalBufferException;
+import go.graphics.SpriteBatch;
 import jsettlers.common.Color;
 import jsettlers.graphics.image.reader.ImageMetadata;
 
@@ -89,6 +90,11 @@ public final class NullImage extends SingleImage {
 		}
 	}
 
+	@Override
+	public boolean addToBatch(SpriteBatch batch, float x, float y, float z, Color torsoColor, float fow, boolean image, boolean shadow) {
+		return false;
+	}
+
 	private static SingleImage guiinstance;
 
 	/**
@@ -21,7 +21,9 @@ import go.graphics.GL2DrawContext;
 import go.graphics.GLDrawContext;
 import go.graphics.IllegalBufferException;
 import go.graphics.SharedGeometry;
+import go.graphics.SpriteBatch;
 import jsettlers.common.Color;
+import jsettlers.graphics.image.atlas.AtlasRegion;
 import jsettlers.graphics.image.reader.ImageMetadata;
 
 /**
@@ -35,6 +37,7 @@ public class SettlerImage extends SingleImage {
 
 	private SingleImage torso = null;
 	private SingleImage shadow = null;
+	private AtlasRegion unifiedRegion = null;
 	private boolean gl2 = false;
 
 	/**
@@ -53,7 +56,15 @@ public class SettlerImage extends SingleImage {
 	protected void checkHandles(GLDrawContext gl) throws IllegalBufferException {
 		if ((texture == null || !texture.isValid())) {
 			gl2 = gl instanceof GL2DrawContext && (this.torso != null || this.shadow != null);
-			if(gl2) generateUData();
+			if(gl2) {
+				if(unifiedRegion != null) {
+					setTextureBounds(unifiedRegion.getOffsetX(), unifiedRegion.getOffsetY(), unifiedRegion.getWidth(), unifiedRegion.getHeight(), tdata);
+					atlasRegion = unifiedRegion;
+				} else {
+					SingleImage unified = createUnifiedImage();
+					setTextureBounds(unified.offsetX, unified.offsetY, unified.width, unified.height, unified.data);
+				}
+			}
 		}
 
 		super.checkHandles(gl);
@@ -79,6 +90,27 @@ public class SettlerImage extends SingleImage {
 		return true;
 	}
 
+	@Override
+	public boolean addToBatch(SpriteBatch batch, float x, float y, float z, Color torsoColor, float fow, boolean image, boolean shadow) {
+		try {
+			checkHandles(batch.getGl());
+			if(gl2) {
+				if(image) {
+					batch.add(texture, geometryData, x, y, z, torsoColor, fow, true, true, shadow);
+				} else if(shadow) {
+					batch.add(texture, geometryData, x, y, z, null, 0, true, false, true);
+				}
+			} else if(torso != null || this.shadow != null) {
+				return false;
+			} else if(image) {
+				batch.add(texture, geometryData, x, y, z, null, fow, false, true, false);
+			}
+		} catch (IllegalBufferException e) {
+			handleIllegalBufferException(e);
+		}
+		return true;
+	}
+
 	@Override
 	public void drawAt(GLDrawContext gl, float x, float y, float z, Color torsoColor, float fow) {
 		if(gl2Draw(gl, x, y, z, torsoColor, fow, true, true)) return;
@@ -129,6 +161,20 @@ public class SettlerImage extends SingleImage {
 		this.shadow = shadow;
 	}
 
+	public SingleImage getShadow() {
+		return this.shadow;
+	}
+
+	/**
+	 * Lets GL2 contexts draw this image from a texture atlas. The region has to contain the image created by {@link #createUnifiedImage()}.
+	 *
+	 * @param region
+	 *            The region of the unified image.
+	 */
+	public void setUnifiedAtlasRegion(AtlasRegion region) {
+		this.unifiedRegion = region;
+	}
+
 	/**
 	 * Gets the torso for this image.
 	 * 
@@ -138,9 +184,22 @@ public class SettlerImage extends SingleImage {
 		return this.torso;
 	}
 
-	private void generateUData() {
+	private void setTextureBounds(int offsetX, int offsetY, int width, int height, ShortBuffer data) {
 		toffsetX = offsetX;
 		toffsetY = offsetY;
+		twidth = width;
+		theight = height;
+		tdata = data;
+	}
+
+	/**
+	 * Creates the image that is drawn on GL2 contexts. It contains the settler, the torso in the blue channel and the shadow in the green channel.
+	 * 
+	 * @return The unified image.
+	 */
+	public SingleImage createUnifiedImage() {
+		int toffsetX = offsetX;
+		int toffsetY = offsetY;
 
 		int tx = offsetX+width;
 		int ty = offsetY+height;
@@ -159,10 +218,10 @@ public class SettlerImage extends SingleImage {
 			if(shadow.offsetY+shadow.height > ty) ty = shadow.offsetY+shadow.height;
 		}
 
-		twidth = tx-toffsetX;
-		theight = ty-toffsetY;
+		int twidth = tx-toffsetX;
+		int theight = ty-toffsetY;
 
-		tdata = ShortBuffer.allocate(twidth * theight);
+		ShortBuffer tdata = ShortBuffer.allocate(twidth * theight);
 
 		short[] temp = new short[0];
 
@@ -213,5 +272,6 @@ public class SettlerImage extends SingleImage {
 				if(temp[x] != 0) tdata.put((y+soffY)*twidth+soffX+x, temp[x]);
 			}
 		}
+		return new SingleImage(tdata, twidth, theight, toffsetX, toffsetY, name);
 	}
 }
@@ -24,11 +24,13 @@ import go.graphics.GLDrawContext;
 import go.graphics.GeometryHandle;
 import go.graphics.IllegalBufferException;
 import go.graphics.SharedGeometry;
+import go.graphics.SpriteBatch;
 import go.graphics.TextureHandle;
 
 import java.awt.image.BufferedImage;
 
 import jsettlers.common.Color;
+import jsettlers.graphics.image.atlas.AtlasRegion;
 import jsettlers.graphics.image.reader.ImageMetadata;
 
 /**
@@ -50,6 +52,9 @@ public class SingleImage extends Image implements ImageDataPrivider {
 
 	protected TextureHandle texture = null;
 	protected SharedGeometry.SharedGeometryHandle geometryIndex = null;
+	protected float[] geometryData = null;
+	protected AtlasRegion atlasRegion = null;
+	private SharedGeometry.SharedGeometryHandle atlasRectHandle = null;
 
 	/**
 	 * Creates a new image by the given buffer.
@@ -111,7 +116,15 @@ public class SingleImage extends Image implements ImageDataPrivider {
 	public void drawImageAtRect(GLDrawContext gl, float x, float y, float width, float height) {
 		try {
 			checkStaticHandles(gl);
-			gl.draw2D(rectHandle.geometry, texture, EGeometryType.Quad, rectHandle.index, 4, x, y, 0, twidth/this.width*width, theight/this.height*height, 0, null, 1);
+			SharedGeometry.SharedGeometryHandle rect = rectHandle;
+			if (atlasRegion != null) {
+				if (atlasRectHandle == null || SharedGeometry.isInvalid(gl, atlasRectHandle)) {
+					atlasRectHandle = SharedGeometry.addGeometry(gl, SharedGeometry.createQuadGeometry(0, 1, 1, 0, atlasRegion.getUMin(),
+							atlasRegion.getVMin(), atlasRegion.getUMax(), atlasRegion.getVMax()));
+				}
+				rect = atlasRectHandle;
+			}
+			gl.draw2D(rect.geometry, texture, EGeometryType.Quad, rect.index, 4, x, y, 0, twidth/this.width*width, theight/this.height*height, 0, null, 1);
 		} catch (IllegalBufferException e) {
 			handleIllegalBufferException(e);
 		}
@@ -133,15 +146,31 @@ public class SingleImage extends Image implements ImageDataPrivider {
 	}
 
 	protected void checkHandles(GLDrawContext gl) throws IllegalBufferException {
-		if (texture == null || !texture.isValid()) {
+		if (atlasRegion != null) {
+			texture = atlasRegion.getPage().getTexture(gl);
+		} else if (texture == null || !texture.isValid()) {
 			texture = gl.generateTexture(twidth, theight, tdata, name);
 		}
 
 		if(geometryIndex == null || SharedGeometry.isInvalid(gl, geometryIndex)) {
-			geometryIndex = SharedGeometry.addGeometry(gl, getGeometry());
+			geometryData = getGeometry();
+			geometryIndex = SharedGeometry.addGeometry(gl, geometryData);
 		}
 	}
 
+	@Override
+	public boolean addToBatch(SpriteBatch batch, float x, float y, float z, Color torsoColor, float fow, boolean image, boolean shadow) {
+		if(image) {
+			try {
+				checkHandles(batch.getGl());
+				batch.add(texture, geometryData, x, y, z, null, 1, false, true, false);
+			} catch (IllegalBufferException e) {
+				handleIllegalBufferException(e);
+			}
+		}
+		return true;
+	}
+
 	private void checkStaticHandles(GLDrawContext gl) throws IllegalBufferException {
 		checkHandles(gl);
 		if(buildHandle == null || !buildHandle.isValid()) {
@@ -153,9 +182,23 @@ public class SingleImage extends Image implements ImageDataPrivider {
 	}
 
 	protected float[] getGeometry() {
+		if (atlasRegion != null) {
+			return SharedGeometry.createQuadGeometry(toffsetX, -toffsetY, toffsetX + twidth, -toffsetY - theight, atlasRegion.getUMin(),
+					atlasRegion.getVMin(), atlasRegion.getUMax(), atlasRegion.getVMax());
+		}
 		return SharedGeometry.createQuadGeometry(toffsetX, -toffsetY, toffsetX + twidth, -toffsetY - theight, 0, 0, 1, 1);
 	}
 
+	/**
+	 * Lets this image draw its pixels from a page of a texture atlas instead of an own texture.
+	 *
+	 * @param region
+	 *            The region that contains the same pixels as this image.
+	 */
+	public void setAtlasRegion(AtlasRegion region) {
+		this.atlasRegion = region;
+	}
+
 	protected void setGeometry(SharedGeometry.SharedGeometryHandle geometry) {
 		geometryIndex = geometry;
 	}
@@ -199,21 +242,33 @@ public class SingleImage extends Image implements ImageDataPrivider {
 			v2 = (float) Math.round(v2 * theight) / theight;
 			v3 = (float) Math.round(v3 * theight) / theight;
 
+			float tu1 = u1, tv1 = v1, tu2 = u2, tv2 = v2, tu3 = u3, tv3 = v3;
+			if (atlasRegion != null) {
+				float uMin = atlasRegion.getUMin(), uSize = atlasRegion.getUMax() - uMin;
+				float vMin = atlasRegion.getVMin(), vSize = atlasRegion.getVMax() - vMin;
+				tu1 = uMin + u1 * uSize;
+				tu2 = uMin + u2 * uSize;
+				tu3 = uMin + u3 * uSize;
+				tv1 = vMin + v1 * vSize;
+				tv2 = vMin + v2 * vSize;
+				tv3 = vMin + v3 * vSize;
+			}
+
 			buildBfr.asFloatBuffer().put(new float[] {
 					u1 * twidth,
 					-v1 * theight,
-					u1,
-					v1,
+					tu1,
+					tv1,
 
 					u2 * twidth,
 					-v2 * theight,
-					u2,
-					v2,
+					tu2,
+					tv2,
 
 					u3 * twidth,
 					-v3 * theight,
-					u3,
-					v3,
+					tu3,
+					tv3,
 
 			});
 			gl.updateGeometryAt(buildHandle, 0, buildBfr);
@@ -0,0 +1,133 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.graphics.image.atlas;
+
+import java.io.IOException;
+
+import java8.util.function.Supplier;
+import jsettlers.graphics.image.Image;
+import jsettlers.graphics.image.NullImage;
+import jsettlers.graphics.image.SingleImage;
+import jsettlers.graphics.image.reader.DatFileReader;
+import jsettlers.graphics.image.reader.bytereader.ByteReader;
+import jsettlers.graphics.image.reader.translator.DatBitmapTranslator;
+import jsettlers.graphics.image.sequence.Sequence;
+import jsettlers.graphics.image.sequence.SequenceList;
+
+/**
+ * A dat file reader that takes the settler sequences and gui images from a {@link TextureAtlas}. Everything that is not in the atlas is read by
+ * the original reader.
+ *
+ * @author Andreas Eberle
+ */
+public class AtlasDatFileReader implements DatFileReader {
+	private final TextureAtlas atlas;
+	private final DatFileReader fallback;
+	private final String name;
+
+	private final Sequence<Image>[] settlerSequences;
+	private final SingleImage[] guiImages;
+
+	private final SequenceList<Image> settlers = new AtlasSettlerSequenceList();
+	private final Sequence<SingleImage> guis = new AtlasGuiSequence();
+
+	/**
+	 * Creates a new reader.
+	 *
+	 * @param atlas
+	 *            The atlas generated from the fallback reader.
+	 * @param fallback
+	 *            The reader to use for all images that are not in the atlas.
+	 * @param name
+	 *            The name prefix of the images.
+	 */
+	@SuppressWarnings("unchecked")
+	public AtlasDatFileReader(TextureAtlas atlas, DatFileReader fallback, String name) {
+		this.atlas = atlas;
+		this.fallback = fallback;
+		this.name = name;
+		this.settlerSequences = new Sequence[atlas.getSettlerSequenceCount()];
+		this.guiImages = new SingleImage[atlas.getGuiImageCount()];
+	}
+
+	@Override
+	public SequenceList<Image> getSettlers() {
+		return settlers;
+	}
+
+	@Override
+	public Sequence<SingleImage> getLandscapes() {
+		return fallback.getLandscapes();
+	}
+
+	@Override
+	public Sequence<SingleImage> getGuis() {
+		return guis;
+	}
+
+	@Override
+	public DatBitmapTranslator<SingleImage> getLandscapeTranslator() {
+		return fallback.getLandscapeTranslator();
+	}
+
+	@Override
+	public ByteReader getReaderForLandscape(int index) throws IOException {
+		return fallback.getReaderForLandscape(index);
+	}
+
+	private class AtlasSettlerSequenceList implements SequenceList<Image> {
+		@Override
+		public synchronized Sequence<Image> get(int index) {
+			if (settlerSequences[index] == null) {
+				settlerSequences[index] = atlas.createSettlerSequence(index, name);
+				if (settlerSequences[index] == null) {
+					settlerSequences[index] = fallback.getSettlers().get(index);
+				}
+			}
+			return settlerSequences[index];
+		}
+
+		@Override
+		public int size() {
+			return settlerSequences.length;
+		}
+	}
+
+	private class AtlasGuiSequence implements Sequence<SingleImage> {
+		@Override
+		public int length() {
+			return guiImages.length;
+		}
+
+		@Override
+		public synchronized SingleImage getImage(int index, Supplier<String> custom_name) {
+			if (guiImages[index] == null) {
+				guiImages[index] = atlas.createGuiImage(index, name + "-G" + index);
+				if (guiImages[index] == null) {
+					guiImages[index] = fallback.getGuis().getImage(index, custom_name);
+				}
+			}
+			return guiImages[index];
+		}
+
+		@Override
+		public Image getImageSafe(int index, Supplier<String> custom_name) {
+			if (index < 0 || index >= length()) {
+				return NullImage.getInstance();
+			}
+			return getImage(index, custom_name);
+		}
+	}
+}
@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.graphics.image.atlas;
+
+/**
+ * Packs rectangles into pages of a fixed size. The rectangles are placed next to each other in rows (shelves). A new row is opened when the
+ * current one is full and a new page when the current page is full.
+ * <p>
+ * The result is best if the rectangles are added sorted by descending height.
+ *
+ * @author Andreas Eberle
+ */
+final class AtlasPacker {
+	/**
+	 * Free pixels kept between two rectangles, so that neighbors never bleed into each other.
+	 */
+	static final int PADDING = 1;
+
+	private final int pageWidth;
+	private final int pageHeight;
+
+	private int page = 0;
+	private boolean pageUsed = false;
+	private int rowX;
+	private int rowY;
+	private int rowHeight;
+
+	AtlasPacker(int pageWidth, int pageHeight) {
+		this.pageWidth = pageWidth;
+		this.pageHeight = pageHeight;
+	}
+
+	/**
+	 * Checks if a rectangle of the given size fits on a page at all.
+	 */
+	boolean fits(int width, int height) {
+		return width <= pageWidth && height <= pageHeight;
+	}
+
+	/**
+	 * Finds a place for a rectangle.
+	 *
+	 * @return The place as an array of page, x and y.
+	 * @throws IllegalArgumentException
+	 *             If the rectangle does not fit on a page.
+	 */
+	int[] add(int width, int height) {
+		if (!fits(width, height)) {
+			throw new IllegalArgumentException("A rectangle of " + width + "x" + height + " does not fit on a page.");
+		}
+
+		if (rowX + width > pageWidth) {
+			rowY += rowHeight;
+			rowX = 0;
+			rowHeight = 0;
+		}
+		if (rowY + height > pageHeight) {
+			newPage();
+		}
+
+		int[] place = { page, rowX, rowY };
+		pageUsed = true;
+		rowX += width + PADDING;
+		rowHeight = Math.max(rowHeight, height + PADDING);
+		return place;
+	}
+
+	/**
+	 * Makes sure that the next rectangle is placed on a new page.
+	 */
+	void startPage() {
+		if (pageUsed) {
+			newPage();
+		}
+	}
+
+	private void newPage() {
+		page++;
+		pageUsed = false;
+		rowX = 0;
+		rowY = 0;
+		rowHeight = 0;
+	}
+
+	/**
+	 * @return The number of pages that were used so far.
+	 */
+	int getPageCount() {
+		return pageUsed ? page + 1 : page;
+	}
+
+	int getPageWidth() {
+		return pageWidth;
+	}
+
+	int getPageHeight() {
+		return pageHeight;
+	}
+}
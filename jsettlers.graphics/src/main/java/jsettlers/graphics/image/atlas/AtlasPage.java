@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.graphics.image.atlas;
+
+import java.nio.ShortBuffer;
+
+import go.graphics.GLDrawContext;
+import go.graphics.TextureHandle;
+
+/**
+ * One page of a {@link TextureAtlas}. The pixels are usually backed by the memory mapped cache file, the texture is only created when the page is
+ * drawn for the first time.
+ *
+ * @author Andreas Eberle
+ */
+public final class AtlasPage {
+	private final int width;
+	private final int height;
+	private final ShortBuffer pixels;
+	private final String name;
+
+	private TextureHandle texture = null;
+
+	AtlasPage(int width, int height, ShortBuffer pixels, String name) {
+		this.width = width;
+		this.height = height;
+		this.pixels = pixels;
+		this.name = name;
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	 * Gets the texture of this page and uploads it if that was not done for the given context yet.
+	 *
+	 * @param gl
+	 *            The context to draw with.
+	 * @return The texture handle.
+	 */
+	public TextureHandle getTexture(GLDrawContext gl) {
+		if (texture == null || !texture.isValid()) {
+			texture = gl.generateTexture(width, height, pixels.duplicate(), name);
+		}
+		return texture;
+	}
+
+	/**
+	 * Copies the pixels of a rectangle on this page.
+	 *
+	 * @return The pixels, line by line.
+	 */
+	short[] copyPixels(int x, int y, int regionWidth, int regionHeight) {
+		short[] copy = new short[regionWidth * regionHeight];
+		ShortBuffer source = pixels.duplicate();
+		for (int line = 0; line < regionHeight; line++) {
+			source.position(x + (y + line) * width);
+			source.get(copy, line * regionWidth, regionWidth);
+		}
+		return copy;
+	}
+}
@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.graphics.image.atlas;
+
+import jsettlers.graphics.image.reader.ImageMetadata;
+
+/**
+ * The place of one image on a page of a {@link TextureAtlas}.
+ *
+ * @author Andreas Eberle
+ */
+public final class AtlasRegion {
+	private final AtlasPage page;
+	private final int x;
+	private final int y;
+	private final int width;
+	private final int height;
+	private final int offsetX;
+	private final int offsetY;
+
+	AtlasRegion(AtlasPage page, int x, int y, int width, int height, int offsetX, int offsetY) {
+		this.page = page;
+		this.x = x;
+		this.y = y;
+		this.width = width;
+		this.height = height;
+		this.offsetX = offsetX;
+		this.offsetY = offsetY;
+	}
+
+	public AtlasPage getPage() {
+		return page;
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	public int getOffsetX() {
+		return offsetX;
+	}
+
+	public int getOffsetY() {
+		return offsetY;
+	}
+
+	public float getUMin() {
+		return (float) x / page.getWidth();
+	}
+
+	public float getVMin() {
+		return (float) y / page.getHeight();
+	}
+
+	public float getUMax() {
+		return (float) (x + width) / page.getWidth();
+	}
+
+	public float getVMax() {
+		return (float) (y + height) / page.getHeight();
+	}
+
+	ImageMetadata createMetadata() {
+		ImageMetadata metadata = new ImageMetadata();
+		metadata.width = width;
+		metadata.height = height;
+		metadata.offsetX = offsetX;
+		metadata.offsetY = offsetY;
+		return metadata;
+	}
+
+	short[] copyPixels() {
+		return page.copyPixels(x, y, width, height);
+	}
+}
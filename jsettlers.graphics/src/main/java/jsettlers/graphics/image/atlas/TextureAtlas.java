@@ -0,0 +1,503 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.graphics.image.atlas;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import jsettlers.graphics.image.Image;
+import jsettlers.graphics.image.NullImage;
+import jsettlers.graphics.image.SettlerImage;
+import jsettlers.graphics.image.SingleImage;
+import jsettlers.graphics.image.reader.DatFileSet;
+import jsettlers.graphics.image.sequence.ArraySequence;
+import jsettlers.graphics.image.sequence.Sequence;
+import jsettlers.graphics.image.sequence.SequenceList;
+
+/**
+ * A texture atlas contains all settler sequences and gui images of one dat file, packed into a few large pages.
+ * <p>
+ * Settler images with a torso or a shadow are stored twice: The image that is drawn on GL2 contexts (see
+ * {@link SettlerImage#createUnifiedImage()}) is stored on the pages that get uploaded. The separate settler, torso and shadow images are stored
+ * on pages after them, they are only read to create the images and never become a texture.
+ * <p>
+ * The atlas is generated once from the decoded images and stored in a cache file. Later it is loaded by memory mapping that file, so the dat
+ * file does not need to be decoded again.
+ * <p>
+ * The file format is:
+ * <ul>
+ * <li>The header ATL1, the key of the atlas (long) and if the pixels are stored little endian (boolean).</li>
+ * <li>The page width, height and count (ints).</li>
+ * <li>The number of regions (int) and for each region its page, x, y, width, height, x offset and y offset (shorts).</li>
+ * <li>The number of settler sequences (int). For each sequence the number of images or -1 if it is not in the atlas (int) and for each image the
+ * index of the drawn, settler, torso and shadow region (ints, -1 if there is none).</li>
+ * <li>The number of gui images (int) and for each image its region (int, -1 if it is not in the atlas).</li>
+ * <li>The pixels of all pages in 4-4-4-4 format (shorts, in native byte order), starting at the next even position.</li>
+ * </ul>
+ *
+ * @author Andreas Eberle
+ */
+public final class TextureAtlas {
+	private static final byte[] HEADER = { 'A', 'T', 'L', '1' };
+	private static final int PAGE_SIZE = 2048;
+
+	private final Frame[][] settlers;
+	private final AtlasRegion[] guis;
+
+	private TextureAtlas(Frame[][] settlers, AtlasRegion[] guis) {
+		this.settlers = settlers;
+		this.guis = guis;
+	}
+
+	/**
+	 * The regions of one image of a settler sequence.
+	 */
+	private static final class Frame {
+		private final AtlasRegion drawn;
+		private final AtlasRegion settler;
+		private final AtlasRegion torso;
+		private final AtlasRegion shadow;
+
+		private Frame(AtlasRegion drawn, AtlasRegion settler, AtlasRegion torso, AtlasRegion shadow) {
+			this.drawn = drawn;
+			this.settler = settler;
+			this.torso = torso;
+			this.shadow = shadow;
+		}
+	}
+
+	public int getSettlerSequenceCount() {
+		return settlers.length;
+	}
+
+	/**
+	 * Creates the images of a settler sequence from the atlas.
+	 *
+	 * @param index
+	 *            The index of the sequence.
+	 * @param name
+	 *            The name prefix for the images.
+	 * @return The sequence or <code>null</code> if it is not in the atlas.
+	 */
+	public Sequence<Image> createSettlerSequence(int index, String name) {
+		if (index < 0 || index >= settlers.length || settlers[index] == null) {
+			return null;
+		}
+
+		Frame[] frames = settlers[index];
+		Image[] images = new Image[frames.length];
+		for (int i = 0; i < frames.length; i++) {
+			Frame frame = frames[i];
+			SettlerImage image = new SettlerImage(frame.settler.createMetadata(), frame.settler.copyPixels(), name + "-S" + index + ":" + i);
+			if (frame.torso != null) {
+				image.setTorso(new SingleImage(frame.torso.createMetadata(), frame.torso.copyPixels(), name + "-T" + index + ":" + i));
+			}
+			if (frame.shadow != null) {
+				image.setShadow(new SingleImage(frame.shadow.createMetadata(), frame.shadow.copyPixels(), name + "-SH" + index + ":" + i));
+			}
+
+			if (frame.drawn == frame.settler) {
+				image.setAtlasRegion(frame.drawn);
+			} else {
+				image.setUnifiedAtlasRegion(frame.drawn);
+			}
+			images[i] = image;
+		}
+		return new ArraySequence<>(images);
+	}
+
+	public int getGuiImageCount() {
+		return guis.length;
+	}
+
+	/**
+	 * Creates a gui image from the atlas.
+	 *
+	 * @param index
+	 *            The index of the gui image.
+	 * @param name
+	 *            The name of the image.
+	 * @return The image or <code>null</code> if it is not in the atlas.
+	 */
+	public SingleImage createGuiImage(int index, String name) {
+		if (index < 0 || index >= guis.length || guis[index] == null) {
+			return null;
+		}
+
+		AtlasRegion region = guis[index];
+		SingleImage image = new SingleImage(region.createMetadata(), region.copyPixels(), name);
+		image.setAtlasRegion(region);
+		return image;
+	}
+
+	/**
+	 * Loads an atlas from a cache file.
+	 *
+	 * @param file
+	 *            The file written by {@link #generate(DatFileSet, File, long)}.
+	 * @param key
+	 *            The key the atlas has to be generated for.
+	 * @param name
+	 *            The name prefix for the textures.
+	 * @return The atlas.
+	 * @throws IOException
+	 *             If the file could not be read or if it is not an atlas for the given key.
+	 */
+	public static TextureAtlas load(File file, long key, String name) throws IOException {
+		DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+		int pageWidth;
+		int pageHeight;
+		AtlasPage[] pages;
+		short[][] regionData;
+		int[][][] settlerRegions;
+		int[] guiRegions;
+		long headerLength;
+		try {
+			readHeader(in, key);
+
+			pageWidth = in.readInt();
+			pageHeight = in.readInt();
+			pages = new AtlasPage[in.readInt()];
+			headerLength = HEADER.length + 8 + 1 + 3 * 4;
+
+			regionData = new short[in.readInt()][7];
+			for (short[] region : regionData) {
+				for (int i = 0; i < region.length; i++) {
+					region[i] = in.readShort();
+				}
+			}
+			headerLength += 4 + regionData.length * 7 * 2;
+
+			settlerRegions = new int[in.readInt()][][];
+			headerLength += 4;
+			for (int i = 0; i < settlerRegions.length; i++) {
+				int frameCount = in.readInt();
+				headerLength += 4;
+				if (frameCount >= 0) {
+					settlerRegions[i] = new int[frameCount][4];
+					for (int[] frame : settlerRegions[i]) {
+						for (int j = 0; j < frame.length; j++) {
+							frame[j] = in.readInt();
+						}
+					}
+					headerLength += frameCount * 4 * 4;
+				}
+			}
+
+			guiRegions = new int[in.readInt()];
+			for (int i = 0; i < guiRegions.length; i++) {
+				guiRegions[i] = in.readInt();
+			}
+			headerLength += 4 + guiRegions.length * 4;
+		} finally {
+			in.close();
+		}
+
+		long pixelsStart = (headerLength + 1) & ~1;
+		int pageBytes = pageWidth * pageHeight * 2;
+		RandomAccessFile pixelFile = new RandomAccessFile(file, "r");
+		try {
+			if (pixelFile.length() != pixelsStart + (long) pages.length * pageBytes) {
+				throw new IOException("Texture atlas has a wrong length.");
+			}
+			FileChannel channel = pixelFile.getChannel();
+			for (int i = 0; i < pages.length; i++) {
+				ShortBuffer pixels = channel.map(FileChannel.MapMode.READ_ONLY, pixelsStart + (long) i * pageBytes, pageBytes)
+						.order(ByteOrder.nativeOrder()).asShortBuffer();
+				pages[i] = new AtlasPage(pageWidth, pageHeight, pixels, name + "-atlas" + i);
+			}
+		} finally {
+			pixelFile.close();
+		}
+
+		AtlasRegion[] regions = new AtlasRegion[regionData.length];
+		for (int i = 0; i < regions.length; i++) {
+			short[] data = regionData[i];
+			regions[i] = new AtlasRegion(pages[data[0]], data[1], data[2], data[3], data[4], data[5], data[6]);
+		}
+
+		Frame[][] settlers = new Frame[settlerRegions.length][];
+		for (int i = 0; i < settlers.length; i++) {
+			if (settlerRegions[i] != null) {
+				settlers[i] = new Frame[settlerRegions[i].length];
+				for (int j = 0; j < settlers[i].length; j++) {
+					int[] frame = settlerRegions[i][j];
+					settlers[i][j] = new Frame(getRegion(regions, frame[0]), getRegion(regions, frame[1]), getRegion(regions, frame[2]),
+							getRegion(regions, frame[3]));
+				}
+			}
+		}
+
+		AtlasRegion[] guis = new AtlasRegion[guiRegions.length];
+		for (int i = 0; i < guis.length; i++) {
+			guis[i] = getRegion(regions, guiRegions[i]);
+		}
+
+		return new TextureAtlas(settlers, guis);
+	}
+
+	/**
+	 * Checks if a cache file contains an atlas for the given key without loading it.
+	 *
+	 * @return <code>true</code> if {@link #load(File, long, String)} will find an atlas with this key.
+	 */
+	public static boolean isUpToDate(File file, long key) {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			readHeader(in, key);
+			return true;
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	private static void readHeader(DataInputStream in, long key) throws IOException {
+		byte[] header = new byte[HEADER.length];
+		in.readFully(header);
+		if (!Arrays.equals(header, HEADER)) {
+			throw new IOException("Texture atlas has wrong version.");
+		}
+		if (in.readLong() != key) {
+			throw new IOException("Texture atlas was generated for other graphics files.");
+		}
+		if (in.readBoolean() != (ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN)) {
+			throw new IOException("Texture atlas was generated on a machine with a different byte order.");
+		}
+	}
+
+	private static AtlasRegion getRegion(AtlasRegion[] regions, int index) {
+		return index >= 0 ? regions[index] : null;
+	}
+
+	/**
+	 * Decodes all settler sequences and gui images of a dat file, packs them and writes the result to a cache file.
+	 *
+	 * @param set
+	 *            The images to pack.
+	 * @param file
+	 *            The cache file to write.
+	 * @param key
+	 *            A key that identifies the graphics files the atlas was generated from.
+	 * @throws IOException
+	 *             If the file could not be written.
+	 */
+	public static void generate(DatFileSet set, File file, long key) throws IOException {
+		AtlasPacker packer = new AtlasPacker(PAGE_SIZE, PAGE_SIZE);
+		List<Bitmap> drawn = new ArrayList<>();
+		List<Bitmap> hidden = new ArrayList<>();
+
+		SequenceList<Image> settlerList = set.getSettlers();
+		Bitmap[][][] settlers = new Bitmap[settlerList.size()][][];
+		for (int i = 0; i < settlers.length; i++) {
+			settlers[i] = collectSequence(settlerList.get(i), packer);
+			if (settlers[i] != null) {
+				for (Bitmap[] frame : settlers[i]) {
+					drawn.add(frame[0]);
+					for (int j = 1; j < frame.length; j++) {
+						if (frame[j] != null && frame[j] != frame[0]) {
+							hidden.add(frame[j]);
+						}
+					}
+				}
+			}
+		}
+
+		Sequence<SingleImage> guiSequence = set.getGuis();
+		Bitmap[] guis = new Bitmap[guiSequence.length()];
+		for (int i = 0; i < guis.length; i++) {
+			SingleImage image = guiSequence.getImage(i, null);
+			if (image != null && !(image instanceof NullImage) && packer.fits(image.getWidth(), image.getHeight())) {
+				guis[i] = new Bitmap(image);
+				drawn.add(guis[i]);
+			}
+		}
+
+		pack(drawn, packer);
+		packer.startPage();
+		pack(hidden, packer);
+
+		List<Bitmap> regions = new ArrayList<>(drawn);
+		regions.addAll(hidden);
+		for (int i = 0; i < regions.size(); i++) {
+			regions.get(i).index = i;
+		}
+
+		ByteArrayOutputStream headerBytes = new ByteArrayOutputStream();
+		DataOutputStream header = new DataOutputStream(headerBytes);
+		header.write(HEADER);
+		header.writeLong(key);
+		header.writeBoolean(ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN);
+		header.writeInt(packer.getPageWidth());
+		header.writeInt(packer.getPageHeight());
+		header.writeInt(packer.getPageCount());
+
+		header.writeInt(regions.size());
+		for (Bitmap region : regions) {
+			header.writeShort(region.page);
+			header.writeShort(region.x);
+			header.writeShort(region.y);
+			header.writeShort(region.width);
+			header.writeShort(region.height);
+			header.writeShort(region.offsetX);
+			header.writeShort(region.offsetY);
+		}
+
+		header.writeInt(settlers.length);
+		for (Bitmap[][] sequence : settlers) {
+			if (sequence == null) {
+				header.writeInt(-1);
+			} else {
+				header.writeInt(sequence.length);
+				for (Bitmap[] frame : sequence) {
+					for (Bitmap region : frame) {
+						header.writeInt(region != null ? region.index : -1);
+					}
+				}
+			}
+		}
+
+		header.writeInt(guis.length);
+		for (Bitmap gui : guis) {
+			header.writeInt(gui != null ? gui.index : -1);
+		}
+		if (headerBytes.size() % 2 != 0) {
+			header.writeByte(0);
+		}
+		header.flush();
+
+		file.getParentFile().mkdirs();
+		File tempFile = new File(file.getParentFile(), file.getName() + ".tmp");
+		FileOutputStream out = new FileOutputStream(tempFile);
+		try {
+			headerBytes.writeTo(out);
+			writePages(regions, packer, out);
+		} finally {
+			out.close();
+		}
+
+		file.delete();
+		if (!tempFile.renameTo(file)) {
+			throw new IOException("Could not write texture atlas " + file);
+		}
+	}
+
+	/**
+	 * @return The bitmaps of the drawn, settler, torso and shadow image of each frame or null if the sequence can not be put in an atlas.
+	 */
+	private static Bitmap[][] collectSequence(Sequence<Image> sequence, AtlasPacker packer) {
+		if (sequence == null) {
+			return null;
+		}
+
+		Bitmap[][] frames = new Bitmap[sequence.length()][];
+		for (int i = 0; i < frames.length; i++) {
+			Image image = sequence.getImage(i, null);
+			if (!(image instanceof SettlerImage)) {
+				return null;
+			}
+
+			SettlerImage settler = (SettlerImage) image;
+			Bitmap settlerBitmap = new Bitmap(settler);
+			Bitmap torso = settler.getTorso() != null ? new Bitmap((SingleImage) settler.getTorso()) : null;
+			Bitmap shadow = settler.getShadow() != null ? new Bitmap(settler.getShadow()) : null;
+			Bitmap drawn = torso != null || shadow != null ? new Bitmap(settler.createUnifiedImage()) : settlerBitmap;
+			frames[i] = new Bitmap[] { drawn, settlerBitmap, torso, shadow };
+
+			for (Bitmap bitmap : frames[i]) {
+				if (bitmap != null && !packer.fits(bitmap.width, bitmap.height)) {
+					return null;
+				}
+			}
+		}
+		return frames;
+	}
+
+	private static void pack(List<Bitmap> bitmaps, AtlasPacker packer) {
+		List<Bitmap> sorted = new ArrayList<>(bitmaps);
+		Collections.sort(sorted, new Comparator<Bitmap>() {
+			@Override
+			public int compare(Bitmap bitmap1, Bitmap bitmap2) {
+				return Integer.compare(bitmap2.height, bitmap1.height);
+			}
+		});
+		for (Bitmap bitmap : sorted) {
+			int[] place = packer.add(bitmap.width, bitmap.height);
+			bitmap.page = place[0];
+			bitmap.x = place[1];
+			bitmap.y = place[2];
+		}
+	}
+
+	private static void writePages(List<Bitmap> regions, AtlasPacker packer, FileOutputStream out) throws IOException {
+		int pageWidth = packer.getPageWidth();
+		ByteBuffer page = ByteBuffer.allocate(pageWidth * packer.getPageHeight() * 2).order(ByteOrder.nativeOrder());
+		ShortBuffer pixels = page.asShortBuffer();
+
+		for (int pageIndex = 0; pageIndex < packer.getPageCount(); pageIndex++) {
+			Arrays.fill(page.array(), (byte) 0);
+			for (Bitmap region : regions) {
+				if (region.page == pageIndex) {
+					ShortBuffer data = region.data.duplicate();
+					for (int line = 0; line < region.height; line++) {
+						data.limit((line + 1) * region.width);
+						data.position(line * region.width);
+						pixels.position(region.x + (region.y + line) * pageWidth);
+						pixels.put(data);
+					}
+				}
+			}
+			out.write(page.array());
+		}
+	}
+
+	/**
+	 * An image that is put in the atlas.
+	 */
+	private static final class Bitmap {
+		private final ShortBuffer data;
+		private final int width;
+		private final int height;
+		private final int offsetX;
+		private final int offsetY;
+
+		private int page;
+		private int x;
+		private int y;
+		private int index;
+
+		private Bitmap(SingleImage image) {
+			this.data = image.getData();
+			this.width = image.getWidth();
+			this.height = image.getHeight();
+			this.offsetX = image.getOffsetX();
+			this.offsetY = image.getOffsetY();
+		}
+	}
+}
@@ -24,7 +24,6 @@ import java8.util.stream.IntStreams;
 import jsettlers.graphics.image.SingleImage;
 import jsettlers.graphics.image.Image;
 import jsettlers.graphics.image.SingleImage;
-import jsettlers.graphics.image.MultiImageMap;
 import jsettlers.graphics.image.NullImage;
 import jsettlers.graphics.image.SettlerImage;
 import jsettlers.graphics.image.reader.bytereader.ByteReader;
@@ -202,9 +201,9 @@ public class AdvancedDatFileReader implements DatFileReader {
 	private int[] settlerStarts;
 
 	/**
-	 * A list of loaded settler sequences.
+	 * A list of loaded settler sequences. It is assigned last by {@link #initialize()}, so all other fields are visible once it is set.
 	 */
-	private Sequence<Image>[] settlerSequences = null;
+	private volatile Sequence<Image>[] settlerSequences = null;
 	/**
 	 * An array with the same length as settlers.
 	 */
@@ -302,7 +301,7 @@ public class AdvancedDatFileReader implements DatFileReader {
 		landscapeImages = new SingleImage[landscapeStarts.length];
 
 		guiImages = new SingleImage[guiStarts.length];
-		settlerSequences = new Sequence[settlerStarts.length];
+		Sequence<Image>[] settlerSequences = new Sequence[settlerStarts.length];
 
 		int torsoDifference = settlerStarts.length - torsoStarts.length;
 		if (torsoDifference > 0) {
@@ -379,6 +378,8 @@ public class AdvancedDatFileReader implements DatFileReader {
 				}
 			}
 		}
+
+		this.settlerSequences = settlerSequences;
 	}
 
 	private void initFromReader(File file, ByteReader reader) throws IOException {
@@ -486,8 +487,25 @@ public class AdvancedDatFileReader implements DatFileReader {
 
 	private void initializeIfNeeded() {
 		if (settlerSequences == null) {
-			initialize();
+			synchronized (this) {
+				if (settlerSequences == null) {
+					initialize();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Creates a reader positioned at the given file position. Every caller gets its own reader on the mapped file, so images can be read by
+	 * several threads at once.
+	 */
+	private ByteReader createReaderAt(long position) throws IOException {
+		if (reader == null) {
+			throw new IOException("Could not read dat file " + file);
 		}
+		ByteReader view = reader.createView();
+		view.skipTo(position);
+		return view;
 	}
 
 	@Override
@@ -518,44 +536,64 @@ public class AdvancedDatFileReader implements DatFileReader {
 		}
 	}
 
-	private synchronized void loadSettlers(int goldIndex, String name) throws IOException {
+	private void loadSettlers(int goldIndex, String name) throws IOException {
 		int theseGraphicsFilesIndex = mapping.mapSettlersSequence(goldIndex);
 
 		int position = settlerStarts[theseGraphicsFilesIndex];
 		long[] framePositions = readSequenceHeader(position);
 
 		SettlerImage[] images = new SettlerImage[framePositions.length];
-		for (int i = 0; i < framePositions.length; i++) {
-			reader.skipTo(framePositions[i]);
-			images[i] = DatBitmapReader.getImage(settlerTranslator, reader, name + "-S" + goldIndex + ":" + i);
-		}
+		readImages(settlerTranslator, framePositions, images, name + "-S" + goldIndex + ":");
 
 		int torsoPosition = torsoStarts[theseGraphicsFilesIndex];
 		if (torsoPosition >= 0) {
 			long[] torsoPositions = readSequenceHeader(torsoPosition);
-			for (int i = 0; i < torsoPositions.length && i < framePositions.length; i++) {
-				reader.skipTo(torsoPositions[i]);
-				SingleImage torso = DatBitmapReader.getImage(torsoTranslator, reader, name + "-T" + goldIndex + ":" + i);
-				images[i].setTorso(torso);
+			SingleImage[] torsos = new SingleImage[Math.min(torsoPositions.length, images.length)];
+			readImages(torsoTranslator, torsoPositions, torsos, name + "-T" + goldIndex + ":");
+			for (int i = 0; i < torsos.length; i++) {
+				images[i].setTorso(torsos[i]);
 			}
 		}
 
 		int shadowPosition = shadowStarts[theseGraphicsFilesIndex];
 		if (shadowPosition >= 0) {
 			long[] shadowPositions = readSequenceHeader(shadowPosition);
-			for (int i = 0; i < shadowPositions.length
-				&& i < framePositions.length; i++) {
-				reader.skipTo(shadowPositions[i]);
-				SingleImage shadow = DatBitmapReader.getImage(shadowTranslator, reader, name + "-SH" + goldIndex + ":" + i);
-				images[i].setShadow(shadow);
+			SingleImage[] shadows = new SingleImage[Math.min(shadowPositions.length, images.length)];
+			readImages(shadowTranslator, shadowPositions, shadows, name + "-SH" + goldIndex + ":");
+			for (int i = 0; i < shadows.length; i++) {
+				images[i].setShadow(shadows[i]);
 			}
 		}
 
 		settlerSequences[goldIndex] = new ArraySequence<>(images);
 	}
 
+	/**
+	 * Decodes the images at the given positions in parallel.
+	 *
+	 * @param images
+	 * 		The array to fill. Its length is the number of images to read.
+	 * @throws IOException
+	 * 		If one of the images could not be read.
+	 */
+	private <T extends Image> void readImages(DatBitmapTranslator<T> translator, long[] positions, T[] images, String namePrefix) throws IOException {
+		IntStreams.range(0, images.length).parallel().forEach(i -> {
+			try {
+				images[i] = DatBitmapReader.getImage(translator, createReaderAt(positions[i]), namePrefix + i);
+			} catch (IOException e) {
+				images[i] = null;
+			}
+		});
+
+		for (T image : images) {
+			if (image == null) {
+				throw new IOException("Could not read all images of " + namePrefix);
+			}
+		}
+	}
+
 	private long[] readSequenceHeader(int position) throws IOException {
-		reader.skipTo(position);
+		ByteReader reader = createReaderAt(position);
 
 		reader.assumeToRead(START);
 		int frameCount = reader.read8();
@@ -622,14 +660,12 @@ public class AdvancedDatFileReader implements DatFileReader {
 	@Override
 	public ByteReader getReaderForLandscape(int index) throws IOException {
 		initializeIfNeeded();
-		reader.skipTo(landscapeStarts[index]);
-		return reader;
+		return createReaderAt(landscapeStarts[index]);
 	}
 
 	private void loadLandscapeImage(int index, String name) {
 		try {
-			reader.skipTo(landscapeStarts[index]);
-			SingleImage image = DatBitmapReader.getImage(landscapeTranslator, reader, name);
+			SingleImage image = DatBitmapReader.getImage(landscapeTranslator, createReaderAt(landscapeStarts[index]), name);
 			landscapeImages[index] = image;
 		} catch (IOException e) {
 			landscapeImages[index] = NullImage.getForLandscape();
@@ -681,8 +717,7 @@ public class AdvancedDatFileReader implements DatFileReader {
 	private void loadGuiImage(int goldIndex, String name) {
 		try {
 			int theseGraphicsFilesIndex = mapping.mapGuiImage(goldIndex);
-			reader.skipTo(guiStarts[theseGraphicsFilesIndex]);
-			SingleImage image = DatBitmapReader.getImage(guiTranslator, reader, name);
+			SingleImage image = DatBitmapReader.getImage(guiTranslator, createReaderAt(guiStarts[theseGraphicsFilesIndex]), name);
 			guiImages[goldIndex] = image;
 		} catch (IOException | ArrayIndexOutOfBoundsException e) {
 			guiImages[goldIndex] = NullImage.getForGui();
@@ -715,19 +750,7 @@ public class AdvancedDatFileReader implements DatFileReader {
 	 */
 	public ByteReader getReaderForPointer(long pointer) throws IOException {
 		initializeIfNeeded();
-		reader.skipTo(pointer);
-		return reader;
-	}
-
-	@Override
-	public void generateImageMap(int width, int height, int[] sequences, String id, String name) throws IOException {
-		initializeIfNeeded();
-
-		MultiImageMap map = new MultiImageMap(width, height, id, name);
-		if (!map.hasCache()) {
-			map.addSequences(this, sequences);
-			map.writeCache();
-		}
+		return createReaderAt(pointer);
 	}
 
 	public DatBitmapTranslator<SettlerImage> getSettlerTranslator() {
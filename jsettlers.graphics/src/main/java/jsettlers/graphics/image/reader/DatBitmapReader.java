@@ -15,6 +15,7 @@
 package jsettlers.graphics.image.reader;
 
 import java.io.IOException;
+import java.util.Arrays;
 
 import jsettlers.graphics.image.Image;
 import jsettlers.graphics.image.reader.bytereader.ByteReader;
@@ -29,6 +30,12 @@ import jsettlers.graphics.image.reader.translator.DatBitmapTranslator;
  * @author michael
  */
 public final class DatBitmapReader<T extends Image> {
+	private static final ThreadLocal<short[]> LINE_BUFFER = new ThreadLocal<short[]>() {
+		@Override
+		protected short[] initialValue() {
+			return new short[0];
+		}
+	};
 
 	// private final short[] data;
 
@@ -127,6 +134,18 @@ public final class DatBitmapReader<T extends Image> {
 		}
 	}
 
+	/**
+	 * Gets the line buffer of the current thread, so that images can be decoded in parallel without allocating a buffer for each of them.
+	 */
+	private static short[] getLineBuffer(int width) {
+		short[] buffer = LINE_BUFFER.get();
+		if (buffer.length < width) {
+			buffer = new short[width];
+			LINE_BUFFER.set(buffer);
+		}
+		return buffer;
+	}
+
 	/**
 	 * Reads the compressed data.
 	 *
@@ -139,8 +158,7 @@ public final class DatBitmapReader<T extends Image> {
 			ByteReader reader, DatBitmapTranslator<T> translator, int width,
 			int lines, ImageArrayProvider array) throws IOException {
 		short transparent = translator.getTransparentColor();
-		// TODO: buffer the buffer but be thread safe!
-		short[] lineBuffer = new short[width];
+		short[] lineBuffer = getLineBuffer(width);
 
 		for (int i = 0; i < lines; i++) {
 			boolean newLine = false;
@@ -153,17 +171,15 @@ public final class DatBitmapReader<T extends Image> {
 				int skip = (currentMeta & 0x7f00) >> 8;
 				newLine = (currentMeta & 0x8000) != 0;
 
-				int skipend = x + skip;
-				while (x < skipend) {
-					lineBuffer[x] = transparent;
-					x++;
+				if (x + skip + sequenceLength > width) {
+					throw new IOException("Line " + i + " exceeds the image width of " + width);
 				}
 
-				int readPartEnd = x + sequenceLength;
-				while (x < readPartEnd) {
-					lineBuffer[x] = translator.readUntransparentColor(reader);
-					x++;
-				}
+				Arrays.fill(lineBuffer, x, x + skip, transparent);
+				x += skip;
+
+				translator.readUntransparentColors(reader, lineBuffer, x, sequenceLength);
+				x += sequenceLength;
 			}
 
 			array.writeLine(lineBuffer, x);
@@ -62,9 +62,4 @@ public class EmptyDatFile implements DatFileReader {
 		throw new UnsupportedOperationException();
 	}
 
-	@Override
-	public void generateImageMap(int width, int height, int[] sequences, String id, String name) throws IOException {
-		throw new UnsupportedOperationException();
-	}
-
 }
@@ -15,6 +15,7 @@
 package jsettlers.graphics.image.reader;
 
 import java.io.IOException;
+import java.util.Arrays;
 
 public class ShortArrayWriter implements ImageArrayProvider {
 	private static final short TRANSPARENT = 0;
@@ -34,12 +35,8 @@ public class ShortArrayWriter implements ImageArrayProvider {
 	@Override
 	public void writeLine(short[] data, int linelength) throws IOException {
 		int offset = line * width;
-		for (int i = 0; i < linelength; i++) {
-			array[offset + i] = data[i];
-		}
-		for (int i = linelength; i < width; i++) {
-			array[offset + i] = TRANSPARENT;
-		}
+		System.arraycopy(data, 0, array, offset, linelength);
+		Arrays.fill(array, offset + linelength, offset + width, TRANSPARENT);
 
 		line++;
 	}
@@ -16,40 +16,20 @@ package jsettlers.graphics.image.reader.bytereader;
 
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
 
 /**
  * This class provides a little endian wrapper of a reader.
+ * <p>
+ * The file is memory mapped. A reader is not thread safe, but {@link #createView()} creates readers with an own position on the same mapping, so
+ * that multiple threads can read the file at the same time.
  *
  * @author michael
  */
 public class ByteReader {
-
-	private static final int CACHE_SIZE = 10000;
-
-	/**
-	 * The position the input stram is currently at.
-	 */
-	private long inputStreamPosition = 0;
-	/**
-	 * The current cache position the user is reading from next.
-	 * <p>
-	 * It may never be greater than CACHE_SIZE.
-	 *
-	 * @see ByteReader#assertCacheHolds(int);
-	 */
-	private int cachePosition;
-	/**
-	 * The start of the cache in the file.
-	 * <p>
-	 * Initialize so that jump does good work.
-	 */
-	private long cacheStart = -2 * CACHE_SIZE;
-
-	/**
-	 * The data cache
-	 */
-	private byte[] cache = new byte[CACHE_SIZE];
-
+	private final ByteBuffer buffer;
 	private final RandomAccessFile in;
 
 	/**
@@ -61,79 +41,70 @@ public class ByteReader {
 	 *             It an IO error occured.
 	 */
 	public ByteReader(RandomAccessFile in) throws IOException {
-		this.in = in;
-		jumpCachePosition(0);
+		this(in.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, in.length()), in);
 	}
 
 	/**
-	 * Reads a 16 bit int.
+	 * Creates a new reader that reads the given bytes.
 	 *
-	 * @return The int.
-	 * @throws IOException
-	 *             If an io error occured.
+	 * @param buffer
+	 *            The bytes to read. The reader starts at position 0 of the buffer.
 	 */
-	public int read16() throws IOException {
-		assertCacheHolds(2);
-
-		int c = this.cachePosition;
-		int byte0 = this.cache[c];
-		int byte1 = this.cache[c + 1];
-		this.cachePosition = c + 2;
+	public ByteReader(ByteBuffer buffer) {
+		this(buffer, null);
+	}
 
-		return (0xff & byte0) | ((0xff & byte1) << 8);
+	private ByteReader(ByteBuffer buffer, RandomAccessFile in) {
+		this.buffer = buffer.duplicate();
+		this.buffer.order(ByteOrder.LITTLE_ENDIAN);
+		this.buffer.position(0);
+		this.in = in;
 	}
 
 	/**
-	 * Sets the cache position pointer and the cache so that the pointer is on the given position in the file.
+	 * Creates a new reader on the same data. It has its own position, so it can be used by an other thread.
 	 *
-	 * @param newCachePosition
-	 *            A file position
-	 * @throws IOException
+	 * @return The new reader, positioned at the start of the data.
 	 */
-	private void jumpCachePosition(long newCachePosition) throws IOException {
-		long positionInCache = newCachePosition - this.cacheStart;
-		if (positionInCache >= 0 && positionInCache < CACHE_SIZE) {
-			this.cachePosition = (int) positionInCache;
-		} else {
-			// we have to reload...
-			this.in.seek(newCachePosition);
-			this.inputStreamPosition = newCachePosition;
-			this.cacheStart = this.inputStreamPosition;
+	public ByteReader createView() {
+		return new ByteReader(buffer);
+	}
 
-			this.inputStreamPosition += this.in.read(this.cache, 0, CACHE_SIZE);
-			this.cachePosition = 0;
+	private void assertRemaining(int bytecount) throws IOException {
+		if (buffer.remaining() < bytecount) {
+			throw new IOException("IO error: tried to read " + bytecount + " bytes at " + buffer.position() + ", but there are only "
+					+ buffer.remaining() + " bytes left.");
 		}
 	}
 
 	/**
-	 * Asserts that the cache hold bytecount valid bytes.
-	 * <p>
-	 * if the rest of the cache is not long enough
+	 * Reads a 16 bit int.
 	 *
-	 * @param bytecount
+	 * @return The int.
 	 * @throws IOException
+	 *             If an io error occured.
 	 */
-	private void assertCacheHolds(int bytecount) throws IOException {
-
-		if (bytecount >= CACHE_SIZE) {
-			throw new IllegalArgumentException(
-					"Cache buffer to small to read that many bytes");
-		}
-
-		int remaining = CACHE_SIZE - this.cachePosition;
-		if (remaining < bytecount) {
-			// refill buffer
-			for (int i = 0; i < remaining; i++) {
-				this.cache[i] = this.cache[this.cachePosition + i];
-			}
+	public int read16() throws IOException {
+		assertRemaining(2);
+		return 0xffff & buffer.getShort();
+	}
 
-			// todo: save until where cache is valid, if file to long.
-			int length = (int) Math.min(CACHE_SIZE - remaining, this.in.length() - this.in.getFilePointer());
-			this.inputStreamPosition += this.in.read(this.cache, remaining, length);
-			// TODO: store how long buffer is valid
-			this.cacheStart += this.cachePosition;
-			this.cachePosition = 0;
-		}
+	/**
+	 * Reads multiple 16 bit values at once.
+	 *
+	 * @param target
+	 *            The array to read to.
+	 * @param offset
+	 *            The offset in the array
+	 * @param length
+	 *            The number of values to read.
+	 * @throws IOException
+	 *             If an io error occured.
+	 */
+	public void read16(short[] target, int offset, int length) throws IOException {
+		assertRemaining(length * 2);
+		buffer.asShortBuffer().get(target, offset, length);
+		buffer.position(buffer.position() + length * 2);
 	}
 
 	/**
@@ -144,18 +115,8 @@ public class ByteReader {
 	 *             If an IO error occured.
 	 */
 	public int read32() throws IOException {
-		assertCacheHolds(4);
-
-		byte byte0 = this.cache[this.cachePosition++];
-		byte byte1 = this.cache[this.cachePosition++];
-		byte byte2 = this.cache[this.cachePosition++];
-		byte byte3 = this.cache[this.cachePosition++];
-
-		int value =
-				(0xff & byte0) | ((0xff & byte1) << 8)
-						| ((0xff & byte2) << 16)
-						| ((0xff & byte3) << 24);
-		return value;
+		assertRemaining(4);
+		return buffer.getInt();
 	}
 
 	/**
@@ -167,10 +128,10 @@ public class ByteReader {
 	 *             If the read data does not match the given data.
 	 */
 	public void assumeToRead(byte[] toRead) throws IOException {
-		assertCacheHolds(toRead.length);
+		assertRemaining(toRead.length);
 
 		for (int i = 0; i < toRead.length; i++) {
-			byte read = this.cache[this.cachePosition++];
+			byte read = buffer.get();
 			if (read != toRead[i]) {
 				throw new IOException("IO error: expected to read " + toRead[i]
 						+ " but got " + read + " (i=" + i + ")");
@@ -186,12 +147,8 @@ public class ByteReader {
 	 *             If an IO error occured.
 	 */
 	public int read16signed() throws IOException {
-		int read = read16();
-		if (read < 0x8000) {
-			return read;
-		} else {
-			return read - 0x10000;
-		}
+		assertRemaining(2);
+		return buffer.getShort();
 	}
 
 	/**
@@ -202,14 +159,12 @@ public class ByteReader {
 	 *             If an io error occured.
 	 */
 	public int read8() throws IOException {
-		assertCacheHolds(1);
-		return 0xff & this.cache[this.cachePosition++];
+		assertRemaining(1);
+		return 0xff & buffer.get();
 	}
 
 	/**
 	 * Reads a byte stream from the stream.
-	 * <p>
-	 * Warning: this is not guaranteed to work for long arrays.
 	 *
 	 * @param b
 	 *            The byte array to read to.
@@ -222,11 +177,8 @@ public class ByteReader {
 	 *             If an io error occurred.
 	 */
 	public int read(byte[] b, int off, int len) throws IOException {
-		assertCacheHolds(len);
-
-		for (int i = 0; i < len; i++) {
-			b[off + i] = this.cache[this.cachePosition++];
-		}
+		assertRemaining(len);
+		buffer.get(b, off, len);
 		return len;
 	}
 
@@ -240,27 +192,31 @@ public class ByteReader {
 	 *             If an IO error occured.
 	 */
 	public long skipTo(long pos) throws IOException {
-		jumpCachePosition(pos);
-		return this.cacheStart + this.cachePosition;
+		if (pos < 0 || pos > buffer.limit()) {
+			throw new IOException("IO error: position " + pos + " is outside of the file.");
+		}
+		buffer.position((int) pos);
+		return pos;
 	}
 
 	/**
-	 * gets the number of read or skipped bytes. It is equal to the position in the stream, as long as no {@link IOException}s occurred and reset()
-	 * was not used.
+	 * gets the number of read or skipped bytes. It is equal to the position in the stream.
 	 *
 	 * @return The number.
 	 */
 	public long getReadBytes() {
-		return this.cacheStart + this.cachePosition;
+		return buffer.position();
 	}
 
 	/**
-	 * Closes the underlying stream.
+	 * Closes the underlying stream. The mapped data stays readable until all views are garbage collected.
 	 *
 	 * @throws IOException
 	 *             If the close failed.
 	 */
 	public void close() throws IOException {
-		this.in.close();
+		if (in != null) {
+			in.close();
+		}
 	}
 }
@@ -47,6 +47,22 @@ public interface DatBitmapTranslator<T extends Image> {
 	 */
 	short readUntransparentColor(ByteReader reader) throws IOException;
 
+	/**
+	 * Reads multiple colors at once, like {@link #readUntransparentColor(ByteReader)} would.
+	 *
+	 * @param reader
+	 * 		The reader to read from
+	 * @param target
+	 * 		The array to write the colors to.
+	 * @param offset
+	 * 		The index of the first color in the array.
+	 * @param length
+	 * 		The number of colors to read.
+	 * @throws IOException
+	 * 		If an error occurred.
+	 */
+	void readUntransparentColors(ByteReader reader, short[] target, int offset, int length) throws IOException;
+
 	/**
 	 * gets the color that is used as transparent.
 	 *
@@ -50,6 +50,14 @@ public class GuiTranslator implements DatBitmapTranslator<SingleImage> {
 		return type.convertTo4444(reader.read16());
 	}
 
+	@Override
+	public void readUntransparentColors(ByteReader reader, short[] target, int offset, int length) throws IOException {
+		reader.read16(target, offset, length);
+		for (int i = offset; i < offset + length; i++) {
+			target[i] = type.convertTo4444(0xffff & target[i]);
+		}
+	}
+
 	@Override
 	public HeaderType getHeaderType() {
 		return HeaderType.GUI;
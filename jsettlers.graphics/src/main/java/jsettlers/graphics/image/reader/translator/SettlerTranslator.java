@@ -61,4 +61,12 @@ public class SettlerTranslator implements DatBitmapTranslator<SettlerImage> {
 		return type.convertTo4444(reader.read16());
 	}
 
+	@Override
+	public void readUntransparentColors(ByteReader reader, short[] target, int offset, int length) throws IOException {
+		reader.read16(target, offset, length);
+		for (int i = offset; i < offset + length; i++) {
+			target[i] = type.convertTo4444(0xffff & target[i]);
+		}
+	}
+
 }
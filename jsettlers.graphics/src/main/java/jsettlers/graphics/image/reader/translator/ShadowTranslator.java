@@ -15,6 +15,7 @@
 package jsettlers.graphics.image.reader.translator;
 
 import java.io.IOException;
+import java.util.Arrays;
 
 import jsettlers.graphics.image.SingleImage;
 import jsettlers.graphics.image.reader.bytereader.ByteReader;
@@ -27,9 +28,16 @@ import jsettlers.graphics.image.reader.ImageMetadata;
  *
  */
 public class ShadowTranslator implements DatBitmapTranslator<SingleImage> {
+	private static final short SHADOW_COLOR = 0x8; // shadow: A = 0.5 in 4444 coding
+
 	@Override
 	public short readUntransparentColor(ByteReader reader) throws IOException {
-		return 0x8; // shadow: A = 0.5 in 4444 coding
+		return SHADOW_COLOR;
+	}
+
+	@Override
+	public void readUntransparentColors(ByteReader reader, short[] target, int offset, int length) {
+		Arrays.fill(target, offset, offset + length, SHADOW_COLOR);
 	}
 
 	@Override
@@ -40,6 +40,13 @@ public class TorsoTranslator implements DatBitmapTranslator<SingleImage> {
 		return (short) (read << 12 | read << 8 | read << 4 | 0xf); // convert to 4444
 	}
 
+	@Override
+	public void readUntransparentColors(ByteReader reader, short[] target, int offset, int length) throws IOException {
+		for (int i = offset; i < offset + length; i++) {
+			target[i] = readUntransparentColor(reader);
+		}
+	}
+
 	@Override
 	public HeaderType getHeaderType() {
 		return HeaderType.DISPLACED;
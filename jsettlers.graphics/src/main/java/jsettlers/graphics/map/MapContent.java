@@ -66,6 +66,8 @@ import jsettlers.common.menu.IStartedGame;
 import jsettlers.common.menu.UIState;
 import jsettlers.common.menu.messages.IMessage;
 import jsettlers.common.movable.IMovable;
+import jsettlers.common.movable.MovablesSnapshot;
+import jsettlers.common.movable.MovablesSnapshotBuffer;
 import jsettlers.common.position.FloatRectangle;
 import jsettlers.common.position.ShortPoint2D;
 import jsettlers.common.selectable.ISelectionSet;
@@ -163,6 +165,10 @@ public final class MapContent implements RegionContent, IMapInterfaceListener, A
 	private final IMapObject[] objectsGrid;
 	private final IMovable[] movableGrid;
 	private final BitSet borderGrid;
+	private final MovablesSnapshotBuffer movablesSnapshotBuffer;
+	private final MovablesSnapshot.View movableView = new MovablesSnapshot.View();
+	private MovablesSnapshot movablesSnapshot;
+	private float movablesRenderTime;
 	private final short width, height;
 	private final boolean isVisibleGridAvailable;
 
@@ -245,11 +251,13 @@ public final class MapContent implements RegionContent, IMapInterfaceListener, A
 			objectsGrid = dgp.getObjectArray();
 			movableGrid = dgp.getMovableArray();
 			borderGrid = dgp.getBorderArray();
+			movablesSnapshotBuffer = dgp.getMovablesSnapshotBuffer();
 			isVisibleGridAvailable = true;
 		} else {
 			objectsGrid = null;
 			movableGrid = null;
 			borderGrid = null;
+			movablesSnapshotBuffer = null;
 			isVisibleGridAvailable = false;
 		}
 		width = map.getWidth();
@@ -548,6 +556,13 @@ public final class MapContent implements RegionContent, IMapInterfaceListener, A
 
 		double bottomDrawY = screen.getMinY() - OVERDRAW_BOTTOM_PX;
 
+		if (movablesSnapshotBuffer != null) {
+			movablesSnapshot = movablesSnapshotBuffer.getSnapshot();
+			if (movablesSnapshot != null) {
+				movablesRenderTime = movablesSnapshot.getRenderTime(System.nanoTime());
+			}
+		}
+
 		boolean linePartiallyVisible = true;
 		for (int line = 0; line < area.getHeight() + 50 && linePartiallyVisible; line++) {
 			int y = area.getLineY(line);
@@ -614,9 +629,17 @@ public final class MapContent implements RegionContent, IMapInterfaceListener, A
 			}
 		}
 
-		IMovable movable = movableGrid != null ? movableGrid[tileIndex] : map.getMovableAt(x, y);
-		if (movable != null) {
-			this.objectDrawer.draw(movable);
+		if (movablesSnapshot != null) {
+			int movableIndex = movablesSnapshot.indexOfTile(tileIndex);
+			if (movableIndex >= 0) {
+				movableView.set(movablesSnapshot, movableIndex, movablesRenderTime);
+				this.objectDrawer.draw(movableView);
+			}
+		} else {
+			IMovable movable = movableGrid != null ? movableGrid[tileIndex] : map.getMovableAt(x, y);
+			if (movable != null) {
+				this.objectDrawer.draw(movable);
+			}
 		}
 
 		if (borderGrid != null ? borderGrid.get(tileIndex) : map.isBorder(x, y)) {
@@ -641,6 +664,7 @@ public final class MapContent implements RegionContent, IMapInterfaceListener, A
 	private GeometryHandle shapeHandle = null;
 
 	private void drawDebugColors() {
+		context.flushSprites();
 		GLDrawContext gl = this.context.getGl();
 
 		if(shapeHandle == null || !shapeHandle.isValid()) shapeHandle = gl.storeGeometry(shape, EGeometryFormatType.VertexOnly2D, false, "debugshape");
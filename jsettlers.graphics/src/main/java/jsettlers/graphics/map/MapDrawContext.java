@@ -16,7 +16,10 @@ package jsettlers.graphics.map;
 
 import java.util.Iterator;
 
+import go.graphics.GL2DrawContext;
 import go.graphics.GLDrawContext;
+import go.graphics.IllegalBufferException;
+import go.graphics.SpriteBatch;
 
 import jsettlers.common.Color;
 import jsettlers.common.landscape.ELandscapeType;
@@ -42,15 +45,20 @@ import jsettlers.graphics.map.geometry.MapCoordinateConverter;
  * </ul>
  * <h2>gl setup</h2> With {@link #begin(GLDrawContext)}, the gl state machine is initialized for drawing the map. The draw coordinates can then be
  * given in draw space.
- * <h2>Draw buffer</h2> We hold a draw buffer everyone drawing with the map draw context can use. The buffer should be flushed when drawing one
- * component finished. When the draw buffer is used after a call to end(), the buffer is invalid.
+ * <h2>Sprite batch</h2> We hold a {@link SpriteBatch} everyone drawing images with the map draw context can use if the gl context supports it. It
+ * has to be flushed with {@link #flushSprites()} before anything is drawn directly on the gl context. {@link #end()} flushes it.
  *
  * @author Michael Zangl
  */
 public final class MapDrawContext implements IGLProvider {
 
+	private static final int SPRITE_BATCH_CAPACITY = 4096;
+
 	private GLDrawContext gl = null;
 
+	private final SpriteBatch spriteBatch = new SpriteBatch(SPRITE_BATCH_CAPACITY);
+	private boolean spriteBatching = false;
+
 	private final IGraphicsGrid map;
 
 	private final ScreenPosition screen;
@@ -145,6 +153,11 @@ public final class MapDrawContext implements IGLProvider {
 	public void begin(GLDrawContext gl2) {
 		this.gl = gl2;
 
+		spriteBatching = gl2 instanceof GL2DrawContext;
+		if (spriteBatching) {
+			spriteBatch.begin((GL2DrawContext) gl2);
+		}
+
 		// beginTime = System.nanoTime();
 
 		float zoom = screen.getZoom();
@@ -168,9 +181,34 @@ public final class MapDrawContext implements IGLProvider {
 	 * Ends a drawing session.
 	 */
 	public void end() {
+		flushSprites();
+		spriteBatching = false;
 		this.gl = null;
 	}
 
+	/**
+	 * Gets the sprite batch map objects should be added to.
+	 *
+	 * @return The batch or <code>null</code> if the gl context does not support batching. Then the objects need to be drawn directly.
+	 */
+	public SpriteBatch getSpriteBatch() {
+		return spriteBatching ? spriteBatch : null;
+	}
+
+	/**
+	 * Draws the sprites collected in the sprite batch. This needs to be called before anything is drawn directly on the gl context.
+	 */
+	public void flushSprites() {
+		if (spriteBatching) {
+			try {
+				spriteBatch.flush();
+			} catch (IllegalBufferException e) {
+				// TODO: Create a crash report
+				e.printStackTrace();
+			}
+		}
+	}
+
 	/**
 	 * Gets the current gl context, of <code>null</code> if it is called outside a gl drawing session.
 	 *
@@ -17,6 +17,7 @@ package jsettlers.graphics.map.draw;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.util.Arrays;
 import java.util.BitSet;
 
 import go.graphics.EGeometryFormatType;
@@ -62,6 +63,12 @@ public class Background implements IGraphicsBackgroundListener {
 	private static final int BYTES_PER_FIELD_SHAPE = 4*5*3*2; // 4 bytes per float * 5 components(x,y,z,t,v) * 3 points per triangle * 2 triangles per field
 	private static final int BYTES_PER_FIELD_COLOR = 4*3*2; // 4 component(r,g,b,a actually gray) * 3 points per triangle * 2 triangles per field
 
+	/**
+	 * The background is split into chunks of CHUNK_SIZE*CHUNK_SIZE fields. Each chunk has its own geometry, that is only generated when the chunk
+	 * gets visible and is always updated as a whole.
+	 */
+	static final int CHUNK_SIZE = 32;
+
 	/**
 	 * Where are the textures on the map?
 	 * <p>
@@ -839,8 +846,6 @@ public class Background implements IGraphicsBackgroundListener {
 			// ...
 	};
 
-	private final BitSet fowDimmed = new BitSet();
-
 	private static final byte DIM_MAX = 20;
 
 	private static final Object preloadMutex = new Object();
@@ -851,12 +856,17 @@ public class Background implements IGraphicsBackgroundListener {
 
 	private static TextureHandle texture = null;
 
-	private GeometryHandle shapeHandle = null;
-	private GeometryHandle colorHandle = null;
+	private GLDrawContext geometryContext = null;
+	private int chunksWidth;
+	private int chunksHeight;
+	private GeometryHandle[] chunkShapeHandles;
+	private GeometryHandle[] chunkColorHandles;
+	private final BitSet chunksInvalid = new BitSet();
+
+	private final ByteBuffer chunkShapeBuffer = ByteBuffer.allocateDirect(BYTES_PER_FIELD_SHAPE * CHUNK_SIZE * CHUNK_SIZE).order(ByteOrder.nativeOrder());
+	private final ByteBuffer chunkColorBuffer = ByteBuffer.allocateDirect(BYTES_PER_FIELD_COLOR * CHUNK_SIZE * CHUNK_SIZE).order(ByteOrder.nativeOrder());
 
 	private boolean useFloatColors;
-	private boolean updateGeometry = false;
-	private BitSet mapInvalid = new BitSet();
 
 	private static short[] preloadedTexture = null;
 
@@ -1165,8 +1175,6 @@ public class Background implements IGraphicsBackgroundListener {
 		return index;
 	}
 
-	private int draw_stride = 0;
-
 	/**
 	 * Draws a given map content.
 	 * 
@@ -1175,156 +1183,179 @@ public class Background implements IGraphicsBackgroundListener {
 	 * @param screen
 	 */
 	public void drawMapContent(MapDrawContext context, FloatRectangle screen) {
+		drawMapContent(context, screen, getTexture(context.getGl()));
+	}
+
+	void drawMapContent(MapDrawContext context, FloatRectangle screen, TextureHandle textureHandle) {
 		try {
-			if(shapeHandle == null) {
+			if(chunkShapeHandles == null) {
 				bufferWidth = context.getMap().getWidth()-1;
 				bufferHeight = context.getMap().getHeight()-1;
+				chunksWidth = (bufferWidth + CHUNK_SIZE - 1) / CHUNK_SIZE;
+				chunksHeight = (bufferHeight + CHUNK_SIZE - 1) / CHUNK_SIZE;
 
 				generateFogOfWarBuffer(context);
-				mapInvalid = new BitSet(bufferWidth*bufferHeight);
-				draw_stride = (2*bufferWidth)+1;
+				chunkShapeHandles = new GeometryHandle[chunksWidth * chunksHeight];
+				chunkColorHandles = new GeometryHandle[chunksWidth * chunksHeight];
 			}
 
-			if(shapeHandle == null || !shapeHandle.isValid()) {
-				useFloatColors = (context.getGl() instanceof GL2DrawContext);
-				generateGeometry(context);
-				context.getGl().setHeightMatrix(context.getConverter().getMatrixWithHeight());
+			GLDrawContext gl = context.getGl();
+			if(geometryContext == null || !geometryContext.isValid()) {
+				// the geometry of the old context is lost
+				geometryContext = gl;
+				Arrays.fill(chunkShapeHandles, null);
+				Arrays.fill(chunkColorHandles, null);
+				useFloatColors = (gl instanceof GL2DrawContext);
+				gl.setHeightMatrix(context.getConverter().getMatrixWithHeight());
 			}
 
-			GLDrawContext gl = context.getGl();
 			MapRectangle screenArea = context.getConverter().getMapForScreen(screen);
-			int offset = screenArea.getMinY()*bufferWidth+screenArea.getMinX();
-
-			updateGeometry(context, screenArea);
-
 			float x = context.getOffsetX();
 			float y = context.getOffsetY();
-			gl.drawTrianglesWithTextureColored(getTexture(context.getGl()), shapeHandle, colorHandle, offset*2, screenArea.getHeight(), screenArea.getWidth()*2, draw_stride, x, y);
 
-			resetFOWDimStatus();
+			int miny = Math.max(screenArea.getMinY(), 0);
+			int maxy = Math.min(screenArea.getMinY() + screenArea.getHeight(), bufferHeight);
+			int linestart = screenArea.getMinX() - (screenArea.getMinY() / 2);
+
+			for (int chunkY = miny / CHUNK_SIZE; chunkY * CHUNK_SIZE < maxy; chunkY++) {
+				// the lines are shifted to the right, so the first line of the chunk starts most left and the last one ends most right.
+				// One more field is added on both sides, as the shift of a line depends on its parity.
+				int firstLine = Math.max(miny, chunkY * CHUNK_SIZE);
+				int lastLine = Math.min(maxy, (chunkY + 1) * CHUNK_SIZE) - 1;
+				int minx = Math.max(linestart + firstLine / 2 - 1, 0);
+				int maxx = Math.min(linestart + lastLine / 2 + screenArea.getWidth() + 1, bufferWidth) - 1;
+
+				for (int chunkX = minx / CHUNK_SIZE; chunkX <= maxx / CHUNK_SIZE && minx <= maxx; chunkX++) {
+					int chunk = chunkY * chunksWidth + chunkX;
+					updateChunk(context, chunk, chunkX, chunkY);
+
+					int triangles = getChunkWidth(chunkX) * getChunkHeight(chunkY) * 2;
+					gl.drawTrianglesWithTextureColored(textureHandle, chunkShapeHandles[chunk], chunkColorHandles[chunk], 0, 1, triangles, triangles, x, y);
+				}
+			}
 		} catch (IllegalBufferException e) {
 			// TODO: Create crash report.
 			e.printStackTrace();
 		}
 	}
 
-	private void resetFOWDimStatus() {
-		fowDimmed.clear();
+	private int getChunkWidth(int chunkX) {
+		return Math.min(CHUNK_SIZE, bufferWidth - chunkX * CHUNK_SIZE);
 	}
 
-	private void generateGeometry(MapDrawContext context) throws IllegalBufferException {
-		int vertices = bufferWidth*bufferHeight*3*2;
-		shapeHandle = context.getGl().generateGeometry(vertices, EGeometryFormatType.Texture3D, false, "background-shape");
-		colorHandle = context.getGl().generateGeometry(vertices, EGeometryFormatType.ColorOnly, true, "background-color");
-
-		ByteBuffer shape_bfr = ByteBuffer.allocateDirect(BYTES_PER_FIELD_SHAPE*bufferWidth).order(ByteOrder.nativeOrder());
-		ByteBuffer color_bfr = ByteBuffer.allocateDirect(BYTES_PER_FIELD_COLOR*bufferWidth).order(ByteOrder.nativeOrder());
-
-		for(int y = 0;y != bufferHeight;y++) {
-			for(int x = 0; x != bufferWidth;x++) {
-				addTrianglesToGeometry(context, shape_bfr, x, y);
-			}
-			context.getGl().updateGeometryAt(shapeHandle, BYTES_PER_FIELD_SHAPE*bufferWidth*y, shape_bfr);
-			shape_bfr.rewind();
-		}
-		for(int y = 0;y != bufferHeight;y++) {
-			int line_bfr4 = y*bufferWidth*4;
-			for(int x = 0; x != bufferWidth;x++) {
-				addColorTrianglesToGeometry(context, color_bfr, x, y, line_bfr4+x*4);
-			}
-			context.getGl().updateGeometryAt(colorHandle, BYTES_PER_FIELD_COLOR*bufferWidth*y, color_bfr);
-			color_bfr.rewind();
-		}
+	private int getChunkHeight(int chunkY) {
+		return Math.min(CHUNK_SIZE, bufferHeight - chunkY * CHUNK_SIZE);
 	}
 
-	private final ByteBuffer shape_update_bfr = ByteBuffer.allocateDirect(BYTES_PER_FIELD_SHAPE).order(ByteOrder.nativeOrder());
-	private final ByteBuffer color_update_bfr = ByteBuffer.allocateDirect(BYTES_PER_FIELD_COLOR).order(ByteOrder.nativeOrder());
-
-	private void updateMapType(MapDrawContext context, int x, int y) throws IllegalBufferException {
-		int bfr_pos = y*bufferWidth+x;
-
-		if(mapInvalid.get(bfr_pos)) {
-			mapInvalid.clear(bfr_pos);
-			shape_update_bfr.rewind();
-			addTrianglesToGeometry(context, shape_update_bfr, x, y);
-			context.getGl().updateGeometryAt(shapeHandle, bfr_pos * BYTES_PER_FIELD_SHAPE, shape_update_bfr);
+	/**
+	 * Generates the geometry of the chunk if it does not exist yet and updates its shape and fog of war. Every part of the geometry is uploaded
+	 * with a single update.
+	 */
+	private void updateChunk(MapDrawContext context, int chunk, int chunkX, int chunkY) throws IllegalBufferException {
+		GLDrawContext gl = context.getGl();
+		int minx = chunkX * CHUNK_SIZE;
+		int miny = chunkY * CHUNK_SIZE;
+		int maxx = minx + getChunkWidth(chunkX);
+		int maxy = miny + getChunkHeight(chunkY);
+
+		boolean shapeInvalid = takeChunkInvalid(chunk);
+		boolean colorInvalid = dimFogOfWar(context, minx, miny, maxx, maxy);
+
+		if(chunkShapeHandles[chunk] == null) {
+			int vertices = (maxx - minx) * (maxy - miny) * 3 * 2;
+			chunkShapeHandles[chunk] = gl.generateGeometry(vertices, EGeometryFormatType.Texture3D, false, "background-shape-" + chunk);
+			chunkColorHandles[chunk] = gl.generateGeometry(vertices, EGeometryFormatType.ColorOnly, true, "background-color-" + chunk);
+			shapeInvalid = true;
+			colorInvalid = true;
 		}
-	}
-
-	private void updateGeometry(MapDrawContext context, MapRectangle screen) {
-		IDirectGridProvider vsp = context.getFow();
-		byte[][] visibleStatus = vsp != null ? vsp.getVisibleStatusArray() : null;
-
-		try {
-			int height = screen.getHeight();
-			int width = screen.getWidth();
-			int miny = screen.getMinY();
-			int minx = screen.getMinX();
-			int maxy = miny+height;
-
-			if(maxy > bufferHeight) maxy = bufferHeight;
-			if(miny < 0) miny = 0;
 
-			int linestart = minx-(miny/2);
+		if(shapeInvalid) {
+			chunkShapeBuffer.clear();
 			for (int y = miny; y < maxy; y++) {
-				int lineStartX = linestart + (y / 2);
-
-				int linewidth = (width + lineStartX) < bufferWidth ? width + lineStartX : bufferWidth;
-				int linex = lineStartX < 0 ? 0 : lineStartX;
-
-				int line_bfr_pos4 = y*bufferWidth*4;
-				int line_bfr_pos = y*bufferWidth;
-				for (int x = linex; x < linewidth; x++) {
-					int bfr_pos4 = line_bfr_pos4+x*4;
-					int bfr_pos = line_bfr_pos+x;
-
-					byte fow = visibleStatus != null ? visibleStatus[x][y] : CommonConstants.FOG_OF_WAR_VISIBLE;
-					if(fow != fogOfWarStatus[bfr_pos4]) {
-						color_update_bfr.rewind();
-						dimFogOfWarBuffer(context, bfr_pos4, x, y);
-						dimFogOfWarBuffer(context, bfr_pos4+1, x + 1, y);
-						dimFogOfWarBuffer(context, bfr_pos4+2, x, y + 1);
-						dimFogOfWarBuffer(context, bfr_pos4+3, x + 1, y + 1);
-						addColorTrianglesToGeometry(context, color_update_bfr, x, y, bfr_pos4);
-						context.getGl().updateGeometryAt(colorHandle, bfr_pos * BYTES_PER_FIELD_COLOR, color_update_bfr);
-					}
+				for (int x = minx; x < maxx; x++) {
+					addTrianglesToGeometry(context, chunkShapeBuffer, x, y);
 				}
 			}
+			chunkShapeBuffer.flip();
+			gl.updateGeometryAt(chunkShapeHandles[chunk], 0, chunkShapeBuffer);
+		}
 
-			if (updateGeometry) {
-				for (int y = miny; y < maxy; y++) {
-					int lineStartX = linestart+(y/2);
-
-					int linewidth = (width+lineStartX) < bufferWidth ? width+lineStartX : bufferWidth;
-					int linex = lineStartX < 0 ? 0 : lineStartX;
+		if(colorInvalid) {
+			chunkColorBuffer.clear();
+			for (int y = miny; y < maxy; y++) {
+				for (int x = minx; x < maxx; x++) {
+					addColorTrianglesToGeometry(context, chunkColorBuffer, x, y, getBufferPosition(x, y) * 4);
+				}
+			}
+			chunkColorBuffer.flip();
+			gl.updateGeometryAt(chunkColorHandles[chunk], 0, chunkColorBuffer);
+		}
+	}
 
-					for (int x = linex; x < linewidth; x++) {
-						updateMapType(context, x, y);
-					}
+	/**
+	 * Dims the fog of war of all fields in the given area one step towards the current visible status.
+	 * 
+	 * @return true if the fog of war of a field has changed.
+	 */
+	private boolean dimFogOfWar(MapDrawContext context, int minx, int miny, int maxx, int maxy) {
+		IDirectGridProvider vsp = context.getFow();
+		byte[] visibleStatus = vsp != null ? vsp.getVisibleStatusArray() : null;
+		int mapWidth = context.getMap().getWidth();
+
+		boolean changed = false;
+		for (int y = miny; y < maxy; y++) {
+			int line_fow_pos = y*mapWidth;
+			for (int x = minx; x < maxx; x++) {
+				int bfr_pos4 = getBufferPosition(x, y)*4;
+
+				byte fow = visibleStatus != null ? visibleStatus[line_fow_pos+x] : CommonConstants.FOG_OF_WAR_VISIBLE;
+				if(fow != fogOfWarStatus[bfr_pos4]) {
+					dimFogOfWarBuffer(context, bfr_pos4, x, y);
+					dimFogOfWarBuffer(context, bfr_pos4+1, x + 1, y);
+					dimFogOfWarBuffer(context, bfr_pos4+2, x, y + 1);
+					dimFogOfWarBuffer(context, bfr_pos4+3, x + 1, y + 1);
+					changed = true;
 				}
-				updateGeometry = false;
 			}
-		} catch (IllegalBufferException e) {
-			e.printStackTrace();
 		}
+		return changed;
+	}
+
+	private synchronized boolean takeChunkInvalid(int chunk) {
+		boolean invalid = chunksInvalid.get(chunk);
+		chunksInvalid.clear(chunk);
+		return invalid;
 	}
 
 	private synchronized void invalidateShapePoint(int x, int y) {
-		if(x > bufferWidth || y > bufferHeight || x < 0 || y < 0) return;
-		updateGeometry = true;
-		mapInvalid.set(getBufferPosition(x, y));
+		if(x >= bufferWidth || y >= bufferHeight || x < 0 || y < 0) return;
+		chunksInvalid.set((y / CHUNK_SIZE) * chunksWidth + x / CHUNK_SIZE);
 	}
 
 	private void generateFogOfWarBuffer(MapDrawContext context) {
 		fogOfWarStatus = new byte[bufferWidth*bufferHeight*4];
 
+		IDirectGridProvider vsp = context.getFow();
+		byte[] visibleStatus = vsp != null ? vsp.getVisibleStatusArray() : null;
+		int mapWidth = context.getMap().getWidth();
+
 		for(int y = 0;y != bufferHeight;y++) {
+			int line_fow_pos = y*mapWidth;
+			int next_line_fow_pos = line_fow_pos+mapWidth;
+
 			for(int x = 0; x != bufferWidth;x++) {
 				int fieldOffset = getBufferPosition(x, y);
-				fogOfWarStatus[fieldOffset*4] = context.getVisibleStatus(x, y);
-				fogOfWarStatus[(fieldOffset*4)+1] = context.getVisibleStatus(x+1, y);
-				fogOfWarStatus[(fieldOffset*4)+2] = context.getVisibleStatus(x+1, y+1);
-				fogOfWarStatus[(fieldOffset*4)+3] = context.getVisibleStatus(x, y+1);
+				if(visibleStatus != null) {
+					fogOfWarStatus[fieldOffset*4] = visibleStatus[line_fow_pos+x];
+					fogOfWarStatus[(fieldOffset*4)+1] = visibleStatus[line_fow_pos+x+1];
+					fogOfWarStatus[(fieldOffset*4)+2] = visibleStatus[next_line_fow_pos+x+1];
+					fogOfWarStatus[(fieldOffset*4)+3] = visibleStatus[next_line_fow_pos+x];
+				} else {
+					fogOfWarStatus[fieldOffset*4] = context.getVisibleStatus(x, y);
+					fogOfWarStatus[(fieldOffset*4)+1] = context.getVisibleStatus(x+1, y);
+					fogOfWarStatus[(fieldOffset*4)+2] = context.getVisibleStatus(x+1, y+1);
+					fogOfWarStatus[(fieldOffset*4)+3] = context.getVisibleStatus(x, y+1);
+				}
 			}
 		}
 	}
@@ -1340,13 +1371,9 @@ public class Background implements IGraphicsBackgroundListener {
 	 *            The x coordinate of the tile
 	 * @param y
 	 *            The y coordinate of the tile.
-	 * @return true if and only if the dim has finished.
 	 */
 	private void dimFogOfWarBuffer(MapDrawContext context, int offset, int x, int y) {
-		if (!fowDimmed.get(offset)) {
-			fogOfWarStatus[offset] = dim(fogOfWarStatus[offset], context.getVisibleStatus(x, y));
-			fowDimmed.set(offset);
-		}
+		fogOfWarStatus[offset] = dim(fogOfWarStatus[offset], context.getVisibleStatus(x, y));
 	}
 
 	private static byte dim(byte value, byte dimTo) {
@@ -1364,7 +1391,7 @@ public class Background implements IGraphicsBackgroundListener {
 	}
 
 	private int getBufferPosition(int x, int y) {
-		return (y*bufferHeight+x);
+		return (y*bufferWidth+x);
 	}
 
 	/**
@@ -20,16 +20,21 @@ import jsettlers.common.images.EImageLinkType;
 import jsettlers.common.images.ImageLink;
 import jsettlers.common.images.OriginalImageLink;
 import jsettlers.common.images.TextureMap;
+import jsettlers.common.resources.ResourceManager;
 import jsettlers.graphics.image.Image;
 import jsettlers.graphics.image.ImageIndexFile;
 import jsettlers.graphics.image.SingleImage;
 import jsettlers.graphics.image.NullImage;
 import jsettlers.graphics.image.SingleImage;
+import jsettlers.graphics.image.atlas.AtlasDatFileReader;
+import jsettlers.graphics.image.atlas.TextureAtlas;
 import jsettlers.graphics.image.reader.AdvancedDatFileReader;
 import jsettlers.graphics.image.reader.DatFileReader;
 import jsettlers.graphics.image.reader.DatFileSet;
 import jsettlers.graphics.image.reader.DatFileType;
+import jsettlers.graphics.image.reader.DatFileUtils;
 import jsettlers.graphics.image.reader.EmptyDatFile;
+import jsettlers.graphics.image.reader.Hashes;
 import jsettlers.graphics.image.reader.custom.graphics.CustomGraphicsInterceptor;
 import jsettlers.graphics.image.reader.versions.DefaultGfxFolderMapping;
 import jsettlers.graphics.image.reader.versions.GfxFolderMapping;
@@ -38,6 +43,7 @@ import jsettlers.graphics.image.sequence.ArraySequence;
 import jsettlers.graphics.image.sequence.Sequence;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.Hashtable;
 import java.util.List;
@@ -61,6 +67,10 @@ public final class ImageProvider {
 	 * The lookup path for the dat files.
 	 */
 	private static File lookupPath;
+	/**
+	 * The hash of the original graphics files, it is used as key of the texture atlases.
+	 */
+	private static String settlersVersionId;
 
 	private static final DatFileReader EMPTY_DAT_FILE = new EmptyDatFile();
 
@@ -97,6 +107,7 @@ public final class ImageProvider {
 	 */
 	public static void setLookupPath(File path, String settlersVersionId) {
 		ImageProvider.lookupPath = path;
+		ImageProvider.settlersVersionId = settlersVersionId;
 		getInstance().gfxFolderMapping = SettlersVersionMapping.getMappingForVersionId(settlersVersionId);
 		getInstance().startPreloading();
 	}
@@ -283,6 +294,21 @@ public final class ImageProvider {
 	}
 
 	private DatFileReader createFileReader(int fileIndex) {
+		DatFileReader reader = createOriginalFileReader(fileIndex);
+
+		File atlasFile = getTextureAtlasFile(fileIndex);
+		if (atlasFile != null && atlasFile.isFile()) {
+			try {
+				TextureAtlas atlas = TextureAtlas.load(atlasFile, getTextureAtlasKey(fileIndex), "F" + fileIndex);
+				return new AtlasDatFileReader(atlas, reader, "F" + fileIndex);
+			} catch (IOException e) {
+				System.out.println("Could not load texture atlas " + atlasFile + ": " + e.getMessage());
+			}
+		}
+		return reader;
+	}
+
+	private DatFileReader createOriginalFileReader(int fileIndex) {
 		String numberString = String.format(Locale.ENGLISH, "%02d", fileIndex);
 		DatFileReader reader = EMPTY_DAT_FILE;
 		for (DatFileType type : DatFileType.values()) {
@@ -299,6 +325,46 @@ public final class ImageProvider {
 		return CustomGraphicsInterceptor.prependCustomGraphics(fileIndex, reader, this);
 	}
 
+	/**
+	 * Generates the texture atlases of all dat files that do not have an up to date one. The atlases are used the next time a dat file is
+	 * opened.
+	 */
+	public void generateTextureAtlases() {
+		if (lookupPath == null || settlersVersionId == null) {
+			return;
+		}
+
+		for (File file : DatFileUtils.distinctFileNames(lookupPath.listFiles())) {
+			String fileName = file.getName().toLowerCase(Locale.ENGLISH);
+			if (!fileName.startsWith(FILE_PREFIX) || !fileName.endsWith(".dat")) {
+				continue;
+			}
+
+			int fileIndex = DatFileUtils.getDatFileIndex(file);
+			File atlasFile = getTextureAtlasFile(fileIndex);
+			long key = getTextureAtlasKey(fileIndex);
+			if (!TextureAtlas.isUpToDate(atlasFile, key)) {
+				try {
+					TextureAtlas.generate(createOriginalFileReader(fileIndex), atlasFile, key);
+				} catch (IOException e) {
+					e.printStackTrace();
+				}
+			}
+		}
+	}
+
+	private static File getTextureAtlasFile(int fileIndex) {
+		if (settlersVersionId == null) {
+			return null;
+		}
+		File root = new File(ResourceManager.getResourcesDirectory(), "cache");
+		return new File(root, "atlas-" + fileIndex);
+	}
+
+	private static long getTextureAtlasKey(int fileIndex) {
+		return new Hashes(Arrays.asList((long) settlersVersionId.hashCode(), (long) fileIndex)).hash();
+	}
+
 	/**
 	 * Starts preloading the images, if lookup paths have been set.
 	 *
@@ -19,7 +19,7 @@ import java.util.Collections;
 import java.util.ConcurrentModificationException;
 import java.util.List;
 
-import go.graphics.GLDrawContext;
+import go.graphics.SpriteBatch;
 import jsettlers.common.Color;
 import jsettlers.common.CommonConstants;
 import jsettlers.common.buildings.EBuildingType;
@@ -187,7 +187,8 @@ public class MapObjectDrawer {
 	private static final int FLAG_FILE = 13;
 	private final SoundManager   sound;
 	private final MapDrawContext context;
-	private byte[][] visibleGrid = null;
+	private final int            mapWidth;
+	private byte[] visibleGrid = null;
 
 	/**
 	 * An animation counter, used for trees and other waving/animated things.
@@ -210,9 +211,10 @@ public class MapObjectDrawer {
 	public MapObjectDrawer(MapDrawContext context, SoundManager sound) {
 		this.context = context;
 		this.sound = sound;
+		this.mapWidth = context.getMap().getWidth();
 	}
 
-	public void setVisibleGrid(byte[][] visibleGrid) {
+	public void setVisibleGrid(byte[] visibleGrid) {
 		this.visibleGrid = visibleGrid;
 	}
 
@@ -229,7 +231,7 @@ public class MapObjectDrawer {
 	public void drawMapObject(int x, int y, IMapObject object) {
 		forceSetup();
 
-		byte fogStatus = visibleGrid != null ? visibleGrid[x][y] : CommonConstants.FOG_OF_WAR_VISIBLE;
+		byte fogStatus = visibleGrid != null ? visibleGrid[y * mapWidth + x] : CommonConstants.FOG_OF_WAR_VISIBLE;
 		if (fogStatus == 0) {
 			return; // break
 		}
@@ -255,7 +257,7 @@ public class MapObjectDrawer {
 
 	public void drawStockBack(int x, int y, IBuilding stock) {
 		forceSetup();
-		byte fogStatus = visibleGrid != null ? visibleGrid[x][y] : CommonConstants.FOG_OF_WAR_VISIBLE;
+		byte fogStatus = visibleGrid != null ? visibleGrid[y * mapWidth + x] : CommonConstants.FOG_OF_WAR_VISIBLE;
 		if (fogStatus == 0) {
 			return;
 		}
@@ -271,7 +273,7 @@ public class MapObjectDrawer {
 
 	public void drawStockFront(int x, int y, IBuilding stock) {
 		forceSetup();
-		byte fogStatus = visibleGrid != null ? visibleGrid[x][y] : CommonConstants.FOG_OF_WAR_VISIBLE;
+		byte fogStatus = visibleGrid != null ? visibleGrid[y * mapWidth + x] : CommonConstants.FOG_OF_WAR_VISIBLE;
 		if (fogStatus == 0) {
 			return;
 		}
@@ -286,7 +288,7 @@ public class MapObjectDrawer {
 	}
 
 	private void drawShipInConstruction(int x, int y, IShipInConstruction ship) {
-		byte fogOfWarVisibleStatus = visibleGrid != null ? visibleGrid[x][y] : CommonConstants.FOG_OF_WAR_VISIBLE;
+		byte fogOfWarVisibleStatus = visibleGrid != null ? visibleGrid[y * mapWidth + x] : CommonConstants.FOG_OF_WAR_VISIBLE;
 		EDirection direction = ship.getDirection();
 		EDirection shipImageDirection = direction.rotateRight(3); // ship images have a different direction numbering
 		EMapObjectType shipType = ship.getObjectType();
@@ -301,7 +303,7 @@ public class MapObjectDrawer {
 	private void drawShip(IMovable ship, int x, int y) {
 		forceSetup();
 
-		byte fogOfWarVisibleStatus = visibleGrid != null ? visibleGrid[x][y] : CommonConstants.FOG_OF_WAR_VISIBLE;
+		byte fogOfWarVisibleStatus = visibleGrid != null ? visibleGrid[y * mapWidth + x] : CommonConstants.FOG_OF_WAR_VISIBLE;
 		if (fogOfWarVisibleStatus == 0) {
 			return;
 		}
@@ -312,7 +314,6 @@ public class MapObjectDrawer {
 		float shade = getColor(fogOfWarVisibleStatus);
 		int baseSequence = (shipType == EMovableType.FERRY) ? FERRY_BASE_SEQUENCE : CARGO_SHIP_BASE_SEQUENCE;
 
-		GLDrawContext glDrawContext = context.getGl();
 		MapCoordinateConverter mapCoordinateConverter = context.getConverter();
 		int sailSequence = (shipType == EMovableType.FERRY) ? 29 : 28;
 
@@ -330,7 +331,7 @@ public class MapObjectDrawer {
 			viewY += mapCoordinateConverter.getViewY(x, y, height);
 		}
 		// draw ship body
-		drawShipLink(SHIP_IMAGE_FILE, baseSequence, shipImageDirection, glDrawContext, viewX, viewY, color, shade);
+		drawShipLink(SHIP_IMAGE_FILE, baseSequence, shipImageDirection, viewX, viewY, color, shade);
 		// prepare freight drawing
 		List<? extends IMovable> passengerList = ship.getPassengers();
 
@@ -383,7 +384,7 @@ public class MapObjectDrawer {
 					Image image = this.imageMap.getImageForSettler(passenger.getMovableType(), EMovableAction.NO_ACTION,
 						EMaterialType.NO_MATERIAL, getPassengerDirection(direction, shipPosition, i), 0
 					);
-					image.drawAt(glDrawContext, viewX + xShift, viewY + yShift + PASSENGER_DECK_HEIGHT, 0, color, shade);
+					drawImageAt(image, viewX + xShift, viewY + yShift + PASSENGER_DECK_HEIGHT, 0, color, shade);
 				}
 			}
 		} else {
@@ -398,13 +399,13 @@ public class MapObjectDrawer {
 					if (material != null && count > 0) {
 						Sequence<? extends Image> seq = this.imageProvider.getSettlerSequence(OBJECTS_FILE, material.getStackIndex());
 						Image image = seq.getImageSafe(count - 1, () -> Labels.getName(material, false));
-						image.drawAt(glDrawContext, viewX + xShift, viewY + yShift + CARGO_DECK_HEIGHT, 0, color, shade);
+						drawImageAt(image, viewX + xShift, viewY + yShift + CARGO_DECK_HEIGHT, 0, color, shade);
 					}
 				}
 			}
 		}
 		// draw sail
-		drawShipLink(SHIP_IMAGE_FILE, sailSequence, shipImageDirection, glDrawContext, viewX, viewY, color, shade);
+		drawShipLink(SHIP_IMAGE_FILE, sailSequence, shipImageDirection, viewX, viewY, color, shade);
 		if (shipType == EMovableType.FERRY) {
 			// draw passengers in front of the sail
 			for (int i = 0; i < numberOfFreight; i++) {
@@ -416,7 +417,7 @@ public class MapObjectDrawer {
 					Image image = this.imageMap.getImageForSettler(passenger.getMovableType(), EMovableAction.NO_ACTION,
 						EMaterialType.NO_MATERIAL, getPassengerDirection(direction, shipPosition, i), 0
 					);
-					image.drawAt(glDrawContext, viewX + xShift, viewY + yShift + PASSENGER_DECK_HEIGHT, 0, color, shade);
+					drawImageAt(image, viewX + xShift, viewY + yShift + PASSENGER_DECK_HEIGHT, 0, color, shade);
 				}
 			}
 		} else {
@@ -431,13 +432,13 @@ public class MapObjectDrawer {
 					if (material != null && count > 0) {
 						Sequence<? extends Image> seq = this.imageProvider.getSettlerSequence(OBJECTS_FILE, material.getStackIndex());
 						Image image = seq.getImageSafe(count - 1, () -> Labels.getName(material, false));
-						image.drawAt(glDrawContext, viewX + xShift, viewY + yShift + CARGO_DECK_HEIGHT, 0, color, shade);
+						drawImageAt(image, viewX + xShift, viewY + yShift + CARGO_DECK_HEIGHT, 0, color, shade);
 					}
 				}
 			}
 		}
 		// draw ship front
-		drawShipLink(SHIP_IMAGE_FILE, baseSequence + 2, shipImageDirection, glDrawContext, viewX, viewY, color, shade);
+		drawShipLink(SHIP_IMAGE_FILE, baseSequence + 2, shipImageDirection, viewX, viewY, color, shade);
 		if (ship.isSelected()) {
 			drawSelectionMark(viewX, viewY, ship.getHealth() / shipType.getHealth());
 		}
@@ -450,10 +451,10 @@ public class MapObjectDrawer {
 		return shipDirection.getNeighbor(((x + seatIndex + slowerAnimationStep) / 8 + (y + seatIndex + slowerAnimationStep) / 11 + seatIndex) % 3 - 1);
 	}
 
-	private void drawShipLink(int imageFile, int sequence, EDirection direction, GLDrawContext gl, float viewX, float viewY, Color color, float shade) {
+	private void drawShipLink(int imageFile, int sequence, EDirection direction, float viewX, float viewY, Color color, float shade) {
 		ImageLink shipLink = new OriginalImageLink(EImageLinkType.SETTLER, imageFile, sequence, direction.ordinal);
 		Image image = imageProvider.getImage(shipLink);
-		image.drawAt(gl, viewX, viewY, 0, color, shade);
+		drawImageAt(image, viewX, viewY, 0, color, shade);
 	}
 
 	private void drawObject(int x, int y, IMapObject object, float color) {
@@ -851,7 +852,7 @@ public class MapObjectDrawer {
 	}
 
 	private void drawMovableAt(IMovable movable, int x, int y) {
-		byte fogStatus = visibleGrid != null ? visibleGrid[x][y] : CommonConstants.FOG_OF_WAR_VISIBLE;
+		byte fogStatus = visibleGrid != null ? visibleGrid[y * mapWidth + x] : CommonConstants.FOG_OF_WAR_VISIBLE;
 		if (fogStatus <= CommonConstants.FOG_OF_WAR_EXPLORED) {
 			return; // break
 		}
@@ -879,7 +880,7 @@ public class MapObjectDrawer {
 			viewY = context.getConverter().getViewY(smokeX, smokeY, height);
 			ImageLink link = new OriginalImageLink(EImageLinkType.SETTLER, 13, 43, (int) (moveProgress * 40));
 			image = imageProvider.getImage(link);
-			image.drawAt(context.getGl(), viewX+offX, viewY+offY, 0, color, shade);
+			drawImageAt(image, viewX+offX, viewY+offY, 0, color, shade);
 		}
 
 		// melter action
@@ -893,7 +894,7 @@ public class MapObjectDrawer {
 			int metal = (movable.getGarrisonedBuildingType() == EBuildingType.IRONMELT) ? 37 : 36;
 			ImageLink link = new OriginalImageLink(EImageLinkType.SETTLER, 13, metal, number > 24 ? 24 : number);
 			image = imageProvider.getImage(link);
-			image.drawAt(context.getGl(), viewX+offX, viewY+offY, 0, color, shade);
+			drawImageAt(image, viewX+offX, viewY+offY, 0, color, shade);
 			// draw smoke
 			int smokeX = x - 9;
 			int smokeY = y - 14;
@@ -901,7 +902,7 @@ public class MapObjectDrawer {
 			viewY = context.getConverter().getViewY(smokeX, smokeY, height);
 			link = new OriginalImageLink(EImageLinkType.SETTLER, 13, 42, number > 35 ? 35 : number);
 			image = imageProvider.getImage(link);
-			image.drawAt(context.getGl(), viewX+offX, viewY+offY, SMOKE_Z, color, shade);
+			drawImageAt(image, viewX+offX, viewY+offY, SMOKE_Z, color, shade);
 		}
 
 		if (movable.getAction() == EMovableAction.WALKING) {
@@ -914,7 +915,7 @@ public class MapObjectDrawer {
 			viewY = context.getConverter().getViewY(x, y, height);
 		}
 		image = this.imageMap.getImageForSettler(movable, moveProgress);
-		image.drawAt(context.getGl(), viewX+offX, viewY+offY, 0, color, shade);
+		drawImageAt(image, viewX+offX, viewY+offY, 0, color, shade);
 
 		if (movable.isSelected()) {
 			drawSelectionMark(viewX+offX, viewY+offY, movable.getHealth() / movableType.getHealth());
@@ -934,12 +935,12 @@ public class MapObjectDrawer {
 
 	private void drawSelectionMark(float viewX, float viewY, float healthPercentage) {
 		Image image = ImageProvider.getInstance().getSettlerSequence(4, 7).getImageSafe(0, () -> "settler-selection-indicator");
-		image.drawAt(context.getGl(), viewX, viewY + 20, MOVABLE_SELECTION_MARKER_Z, Color.BLACK, 1);
+		drawImageAt(image, viewX, viewY + 20, MOVABLE_SELECTION_MARKER_Z, Color.BLACK, 1);
 
 		Sequence<? extends Image> sequence = ImageProvider.getInstance().getSettlerSequence(4, 6);
 		int healthId = Math.min((int) ((1 - healthPercentage) * sequence.length()), sequence.length() - 1);
 		Image healthImage = sequence.getImageSafe(healthId, () -> "settler-health-indicator");
-		healthImage.drawAt(context.getGl(), viewX, viewY + 38, MOVABLE_SELECTION_MARKER_Z, Color.BLACK, 1);
+		drawImageAt(healthImage, viewX, viewY + 38, MOVABLE_SELECTION_MARKER_Z, Color.BLACK, 1);
 	}
 
 	private void playSound(IMapObject object, int soundId, int x, int y) {
@@ -991,7 +992,7 @@ public class MapObjectDrawer {
 		float x = betweenTilesX(object.getSourceX(), object.getSourceY(), object.getTargetX(), object.getTargetY(), progress) + context.getOffsetX();
 
 		Image image = this.imageProvider.getSettlerSequence(OBJECTS_FILE, sequence).getImageSafe(index, () -> "arrow-" + object.getDirection() + "-" + progress);
-		image.drawAt(context.getGl(), x, betweenTilesY + context.getOffsetY() + 20 * progress * (1 - progress) + 20, onGround?-.1f:0, null, color);
+		drawImageAt(image, x, betweenTilesY + context.getOffsetY() + 20 * progress * (1 - progress) + 20, onGround?-.1f:0, null, color);
 	}
 
 	private void drawStones(int x, int y, int availableStones, float color) {
@@ -1113,7 +1114,7 @@ public class MapObjectDrawer {
 		// TODO: use instanced rendering for better android performance
 		forceSetup();
 
-		byte fogStatus = visibleGrid != null ? visibleGrid[x][y] : CommonConstants.FOG_OF_WAR_VISIBLE;
+		byte fogStatus = visibleGrid != null ? visibleGrid[y * mapWidth + x] : CommonConstants.FOG_OF_WAR_VISIBLE;
 		if (fogStatus <= CommonConstants.FOG_OF_WAR_EXPLORED) {
 			return; // break
 		}
@@ -1231,7 +1232,7 @@ public class MapObjectDrawer {
 					draw(image, x, y, 0, null, color, building.getBuildingType() == EBuildingType.MARKET_PLACE);
 				}
 
-				byte fow = visibleGrid != null ? visibleGrid[x][y] : CommonConstants.FOG_OF_WAR_VISIBLE;
+				byte fow = visibleGrid != null ? visibleGrid[y * mapWidth + x] : CommonConstants.FOG_OF_WAR_VISIBLE;
 
 				if (building instanceof IOccupied && fow > CommonConstants.FOG_OF_WAR_EXPLORED) {
 					drawOccupiers(x, y, (IOccupied) building, color);
@@ -1292,7 +1293,6 @@ public class MapObjectDrawer {
 			int height = context.getHeight(x, y);
 			float towerX = context.getConverter().getViewX(x, y, height);
 			float towerY = context.getConverter().getViewY(x, y, height);
-			GLDrawContext gl = context.getGl();
 
 			for (IBuildingOccupier occupier : building.getOccupiers()) {
 				OccupierPlace place = occupier.getPlace();
@@ -1314,7 +1314,7 @@ public class MapObjectDrawer {
 				}
 				float viewX = towerX + place.getOffsetX() + context.getOffsetX();
 				float viewY = towerY + place.getOffsetY() + context.getOffsetY();
-				image.drawAt(gl, viewX, viewY, 0, color, baseColor);
+				drawImageAt(image, viewX, viewY, 0, color, baseColor);
 
 				if (place.getSoldierClass() == ESoldierClass.BOWMAN) {
 					playMovableSound(movable);
@@ -1348,6 +1348,7 @@ public class MapObjectDrawer {
 		float topLineBottom = 1 - maskState;
 		float topLineTop = Math.max(0, topLineBottom - .1f);
 
+		context.flushSprites();
 		image.drawTriangle(context.getGl(), viewX, viewY, 0, 1, 1, 1, 0, topLineBottom, color);
 		image.drawTriangle(context.getGl(), viewX, viewY, 1, 1, 1, topLineBottom, 0, topLineBottom, color);
 
@@ -1403,7 +1404,7 @@ public class MapObjectDrawer {
 		float viewX = context.getConverter().getViewX(x, y, height)+context.getOffsetX();
 		float viewY = context.getConverter().getViewY(x, y, height)+context.getOffsetY();
 
-		image.drawAt(context.getGl(), viewX, viewY, z, color, 1);
+		drawImageAt(image, viewX, viewY, z, color, 1);
 	}
 
 	private void draw(Image image, int x, int y, float z, Color color, float fowDim, boolean background) {
@@ -1414,7 +1415,7 @@ public class MapObjectDrawer {
 		float viewX = context.getConverter().getViewX(x, y, height)+context.getOffsetX();
 		float viewY = context.getConverter().getViewY(x, y, height)+context.getOffsetY();
 
-		image.drawAt(context.getGl(), viewX, viewY, z, color, fowDim);
+		drawImageAt(image, viewX, viewY, z, color, fowDim);
 	}
 
 	private void draw(Image image, int x, int y, float z, float fowDim) {
@@ -1429,14 +1430,14 @@ public class MapObjectDrawer {
 		int height = context.getHeight(x, y);
 		float viewX = context.getConverter().getViewX(x, y, height)+context.getOffsetX();
 		float viewY = context.getConverter().getViewY(x, y, height)+context.getOffsetY();
-		image.drawOnlyImageAt(context.getGl(), viewX, viewY, z, torsoColor, color);
+		drawOnlyImageAt(image, viewX, viewY, z, torsoColor, color);
 	}
 
 	private void drawOnlyShadow(Image image, int x, int y) {
 		int height = context.getHeight(x, y);
 		float viewX = context.getConverter().getViewX(x, y, height)+context.getOffsetX();
 		float viewY = context.getConverter().getViewY(x, y, height)+context.getOffsetY();
-		image.drawOnlyShadowAt(context.getGl(), viewX, viewY, 0);
+		drawOnlyShadowAt(image, viewX, viewY, 0);
 	}
 
 	private void drawWithHeight(Image image, int x, int y, int height, float color) {
@@ -1444,7 +1445,31 @@ public class MapObjectDrawer {
 		float viewX = context.getConverter().getViewX(x, y, baseHeight + height)+context.getOffsetX();
 		float viewY = context.getConverter().getViewY(x, y, baseHeight + height)+context.getOffsetY();
 
-		image.drawAt(context.getGl(), viewX, viewY, 0, null, color);
+		drawImageAt(image, viewX, viewY, 0, null, color);
+	}
+
+	private void drawImageAt(Image image, float viewX, float viewY, float z, Color color, float fow) {
+		SpriteBatch batch = context.getSpriteBatch();
+		if (batch == null || !image.addToBatch(batch, viewX, viewY, z, color, fow, true, true)) {
+			context.flushSprites();
+			image.drawAt(context.getGl(), viewX, viewY, z, color, fow);
+		}
+	}
+
+	private void drawOnlyImageAt(Image image, float viewX, float viewY, float z, Color torsoColor, float fow) {
+		SpriteBatch batch = context.getSpriteBatch();
+		if (batch == null || !image.addToBatch(batch, viewX, viewY, z, torsoColor, fow, true, false)) {
+			context.flushSprites();
+			image.drawOnlyImageAt(context.getGl(), viewX, viewY, z, torsoColor, fow);
+		}
+	}
+
+	private void drawOnlyShadowAt(Image image, float viewX, float viewY, float z) {
+		SpriteBatch batch = context.getSpriteBatch();
+		if (batch == null || !image.addToBatch(batch, viewX, viewY, z, null, 0, false, true)) {
+			context.flushSprites();
+			image.drawOnlyShadowAt(context.getGl(), viewX, viewY, z);
+		}
 	}
 
 	public void drawMoveToMarker(ShortPoint2D moveToMarker, float progress) {
@@ -17,6 +17,7 @@ package jsettlers.graphics.map.minimap;
 import jsettlers.common.Color;
 import jsettlers.common.CommonConstants;
 import jsettlers.common.buildings.IBuilding;
+import jsettlers.common.map.IDirectGridProvider;
 import jsettlers.common.map.IGraphicsGrid;
 import jsettlers.common.mapobject.EMapObjectType;
 import jsettlers.common.mapobject.IMapObject;
@@ -127,6 +128,8 @@ public abstract class AbstractLineLoader implements Runnable {
 		final int safeHeight = workingMinimapHeight;
 		final MapDrawContext context = minimapData.getContext();
 		final IGraphicsGrid map = context.getMap();
+		final IDirectGridProvider fow = context.getFow();
+		final byte[] visibleStatusArray = fow != null ? fow.getVisibleStatusArray() : null;
 
 		// for height shades
 		final short mapWidth = map.getWidth();
@@ -159,9 +162,9 @@ public abstract class AbstractLineLoader implements Runnable {
 			int centerY = (mapMaxY + mapMinY) / 2;
 
 			short color = TRANSPARENT;
-			byte visibleStatus = map.getVisibleStatus(centerX, centerY);
+			byte visibleStatus = getVisibleStatus(map, visibleStatusArray, centerX, centerY);
 			if (visibleStatus > CommonConstants.FOG_OF_WAR_EXPLORED) {
-				color = getSettlerForArea(map, context, mapMinX, mapMinY, mapMaxX, mapMaxY);
+				color = getSettlerForArea(map, visibleStatusArray, context, mapMinX, mapMinY, mapMaxX, mapMaxY);
 			}
 
 			if (visibleStatus > CommonConstants.FOG_OF_WAR_EXPLORED || landscape[currentline][x] == TRANSPARENT) {
@@ -197,7 +200,12 @@ public abstract class AbstractLineLoader implements Runnable {
 		return map.getLandscapeTypeAt(centerx, centery).color;
 	}
 
-	private short getSettlerForArea(IGraphicsGrid map, MapDrawContext context, int mapminX, int mapminY, int mapmaxX, int mapmaxY) {
+	private static byte getVisibleStatus(IGraphicsGrid map, byte[] visibleStatusArray, int x, int y) {
+		return visibleStatusArray != null ? visibleStatusArray[y * map.getWidth() + x] : map.getVisibleStatus(x, y);
+	}
+
+	private short getSettlerForArea(IGraphicsGrid map, byte[] visibleStatusArray, MapDrawContext context, int mapminX, int mapminY, int mapmaxX,
+			int mapmaxY) {
 		SettlersMode displaySettlers = this.modeSettings.getDisplaySettlers();
 		OccupiedAreaMode displayOccupied = this.modeSettings.getDisplayOccupied();
 		boolean displayBuildings = this.modeSettings.getDisplayBuildings();
@@ -209,7 +217,7 @@ public abstract class AbstractLineLoader implements Runnable {
 		for (int y = mapminY; y < mapmaxY && (displayOccupied != OccupiedAreaMode.NONE || displayBuildings || displaySettlers != SettlersMode.NONE); y++) {
 			for (int x = mapminX; x < mapmaxX
 					&& (displayOccupied != OccupiedAreaMode.NONE || displayBuildings || displaySettlers != SettlersMode.NONE); x++) {
-				boolean visible = map.getVisibleStatus(x, y) > CommonConstants.FOG_OF_WAR_EXPLORED;
+				boolean visible = getVisibleStatus(map, visibleStatusArray, x, y) > CommonConstants.FOG_OF_WAR_EXPLORED;
 				if (visible && displaySettlers != SettlersMode.NONE) {
 					IMovable settler = map.getMovableAt(x, y);
 					if (settler != null && (displaySettlers == SettlersMode.ALL || settler.getMovableType().isPlayerControllable())) {
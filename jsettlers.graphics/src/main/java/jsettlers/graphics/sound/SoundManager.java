@@ -380,9 +380,7 @@ public class SoundManager {
 			return new short[0];
 		}
 		short[] data = new short[length];
-		for (int i = 0; i < length; i++) {
-			data[i] = (short) reader.read16signed();
-		}
+		reader.read16(data, 0, length);
 
 		return data;
 	}
@@ -0,0 +1,243 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.graphics.image;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import go.graphics.AbstractColor;
+import go.graphics.EGeometryFormatType;
+import go.graphics.GL2DrawContext;
+import go.graphics.GeometryHandle;
+import go.graphics.SpriteBatch;
+import go.graphics.TextureHandle;
+import go.graphics.text.EFontSize;
+import go.graphics.text.TextDrawer;
+
+import jsettlers.common.Color;
+import jsettlers.graphics.image.reader.ImageMetadata;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that images added to a {@link SpriteBatch} are drawn with as few draw calls as possible, without changing the order they are drawn in.
+ *
+ * @author Andreas Eberle
+ */
+public class SpriteBatchTest {
+	private static final int VERTEX_SIZE = EGeometryFormatType.Sprite.getBytesPerVertexSize();
+
+	private final RecordingDrawContext gl = new RecordingDrawContext();
+	private SpriteBatch batch;
+
+	@Before
+	public void setUp() {
+		batch = new SpriteBatch(4);
+		batch.begin(gl);
+	}
+
+	@Test
+	public void testSameTextureIsDrawnWithOneCall() throws Exception {
+		SingleImage image = createImage(0, 0);
+
+		for (int i = 0; i < 3; i++) {
+			assertTrue(image.addToBatch(batch, i, 0, 0, null, 1, true, true));
+		}
+		batch.flush();
+
+		assertEquals(Arrays.asList("sprites " + gl.textureOf(image) + " 18"), gl.calls);
+	}
+
+	@Test
+	public void testOrderIsKeptWhenTextureChanges() throws Exception {
+		SingleImage image1 = createImage(0, 0);
+		SingleImage image2 = createImage(0, 0);
+
+		image1.addToBatch(batch, 0, 0, 0, null, 1, true, true);
+		image1.addToBatch(batch, 0, 0, 0, null, 1, true, true);
+		image2.addToBatch(batch, 0, 0, 0, null, 1, true, true);
+		image1.addToBatch(batch, 0, 0, 0, null, 1, true, true);
+		batch.flush();
+
+		assertEquals(Arrays.asList("sprites " + gl.textureOf(image1) + " 12", "sprites " + gl.textureOf(image2) + " 6",
+				"sprites " + gl.textureOf(image1) + " 6"), gl.calls);
+	}
+
+	@Test
+	public void testFullBatchIsFlushed() throws Exception {
+		SingleImage image = createImage(0, 0);
+
+		for (int i = 0; i < 5; i++) {
+			image.addToBatch(batch, 0, 0, 0, null, 1, true, true);
+		}
+		batch.flush();
+		batch.flush();
+
+		assertEquals(Arrays.asList("sprites " + gl.textureOf(image) + " 24", "sprites " + gl.textureOf(image) + " 6"), gl.calls);
+	}
+
+	@Test
+	public void testQuadIsDrawnAtPosition() throws Exception {
+		SingleImage image = createImage(3, 4);
+
+		image.addToBatch(batch, 100, 200, .5f, Color.RED, .5f, true, true);
+		batch.flush();
+
+		ByteBuffer vertices = gl.lastUpload;
+		assertEquals(6 * VERTEX_SIZE, vertices.remaining());
+		// the first vertex is the right corner of the first line of the image
+		assertEquals(100 + 3 + 2, vertices.getFloat(0), 0);
+		assertEquals(200 - 4, vertices.getFloat(4), 0);
+		assertEquals(.5f, vertices.getFloat(8), 0);
+		// single images are drawn without color and intensity
+		assertColor(vertices, 255, 255, 255, 255);
+		assertFalse(isUnified(vertices));
+	}
+
+	@Test
+	public void testSettlerWithTorsoIsUnified() throws Exception {
+		SettlerImage settler = new SettlerImage(createMetadata(0, 0), new short[4], "settler");
+		settler.setTorso(createImage(0, 0));
+
+		settler.addToBatch(batch, 0, 0, 0, Color.RED, .5f, true, true);
+		batch.flush();
+
+		assertTrue(isUnified(gl.lastUpload));
+		assertColor(gl.lastUpload, 128, 0, 0, 255);
+	}
+
+	@Test
+	public void testNullImageIsNotBatched() {
+		assertFalse(NullImage.getInstance().addToBatch(batch, 0, 0, 0, null, 1, true, true));
+		assertTrue(gl.calls.isEmpty());
+	}
+
+	private static SingleImage createImage(int offsetX, int offsetY) {
+		return new SingleImage(createMetadata(offsetX, offsetY), new short[4], "image");
+	}
+
+	private static ImageMetadata createMetadata(int offsetX, int offsetY) {
+		ImageMetadata metadata = new ImageMetadata();
+		metadata.width = 2;
+		metadata.height = 2;
+		metadata.offsetX = offsetX;
+		metadata.offsetY = offsetY;
+		return metadata;
+	}
+
+	private static void assertColor(ByteBuffer vertices, int red, int green, int blue, int alpha) {
+		assertEquals(red, vertices.get(5 * 4) & 0xff);
+		assertEquals(green, vertices.get(5 * 4 + 1) & 0xff);
+		assertEquals(blue, vertices.get(5 * 4 + 2) & 0xff);
+		assertEquals(alpha, vertices.get(5 * 4 + 3) & 0xff);
+	}
+
+	private static boolean isUnified(ByteBuffer vertices) {
+		return vertices.get(6 * 4 + 2) != 0;
+	}
+
+	private static class RecordingDrawContext implements GL2DrawContext {
+		private int nextHandle = 1;
+		final List<String> calls = new ArrayList<>();
+		ByteBuffer lastUpload;
+
+		int textureOf(SingleImage image) {
+			return image.texture.getInternalId();
+		}
+
+		@Override
+		public void drawSprites(GeometryHandle geometry, TextureHandle texture, int vertices) {
+			calls.add("sprites " + texture.getInternalId() + " " + vertices);
+		}
+
+		@Override
+		public void drawUnified2D(GeometryHandle geometry, TextureHandle texture, int primitive, int offset, int vertices, boolean image,
+				boolean shadow, float x, float y, float z, float sx, float sy, float sz, AbstractColor color, float intensity) {
+			calls.add("unified");
+		}
+
+		@Override
+		public void draw2D(GeometryHandle geometry, TextureHandle texture, int primitive, int offset, int vertices, float x, float y, float z, float sx,
+				float sy, float sz, AbstractColor color, float intensity) {
+			calls.add("draw2D");
+		}
+
+		@Override
+		public TextureHandle generateTexture(int width, int height, ShortBuffer data, String name) {
+			return new TextureHandle(this, nextHandle++);
+		}
+
+		@Override
+		public void drawTrianglesWithTextureColored(TextureHandle textureid, GeometryHandle vertexHandle, GeometryHandle paintHandle, int offset,
+				int lines, int width, int stride, float x, float y) {
+		}
+
+		@Override
+		public void setHeightMatrix(float[] matrix) {
+		}
+
+		@Override
+		public void setGlobalAttributes(float x, float y, float z, float sx, float sy, float sz) {
+		}
+
+		@Override
+		public void updateTexture(TextureHandle textureIndex, int left, int bottom, int width, int height, ShortBuffer data) {
+		}
+
+		@Override
+		public TextDrawer getTextDrawer(EFontSize size) {
+			return null;
+		}
+
+		@Override
+		public GeometryHandle storeGeometry(float[] geometry, EGeometryFormatType type, boolean writable, String name) {
+			return generateGeometry(geometry.length, type, writable, name);
+		}
+
+		@Override
+		public void updateGeometryAt(GeometryHandle handle, int pos, ByteBuffer data) {
+			if (handle.getFormat() == EGeometryFormatType.Sprite) {
+				ByteBuffer upload = data.duplicate();
+				upload.rewind();
+				lastUpload = ByteBuffer.allocate(upload.remaining()).order(ByteOrder.nativeOrder());
+				lastUpload.put(upload);
+				lastUpload.flip();
+			}
+		}
+
+		@Override
+		public GeometryHandle generateGeometry(int vertices, EGeometryFormatType type, boolean writable, String name) {
+			return new GeometryHandle(this, nextHandle++, 0, type);
+		}
+
+		@Override
+		public boolean isValid() {
+			return true;
+		}
+
+		@Override
+		public void deleteTexture(TextureHandle texture) {
+		}
+	}
+}
@@ -0,0 +1,248 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.graphics.image.atlas;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import jsettlers.graphics.image.Image;
+import jsettlers.graphics.image.SettlerImage;
+import jsettlers.graphics.image.SingleImage;
+import jsettlers.graphics.image.reader.DatFileReader;
+import jsettlers.graphics.image.reader.ImageMetadata;
+import jsettlers.graphics.image.reader.bytereader.ByteReader;
+import jsettlers.graphics.image.reader.translator.DatBitmapTranslator;
+import jsettlers.graphics.image.sequence.ArraySequence;
+import jsettlers.graphics.image.sequence.Sequence;
+import jsettlers.graphics.image.sequence.SequenceList;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests that the {@link TextureAtlas} stores all images without changing them and that images that can not be packed are read from the
+ * original file.
+ *
+ * @author Andreas Eberle
+ */
+public class TextureAtlasTest {
+	private static final long KEY = 42;
+
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+	private final Random random = new Random(1);
+	private final TestDatFile datFile = new TestDatFile();
+	private File file;
+
+	@Before
+	public void setUp() throws IOException {
+		file = new File(folder.getRoot(), "atlas-1");
+
+		datFile.settlers.add(new ArraySequence<Image>(new Image[] { createSettler(10, 20, -5, 7), createSettler(1, 1, 0, 0) }));
+
+		SettlerImage withTorso = createSettler(12, 14, -6, -2);
+		withTorso.setTorso(createImage(8, 9, -4, 0));
+		withTorso.setShadow(createImage(20, 10, 3, 2));
+		datFile.settlers.add(new ArraySequence<Image>(new Image[] { withTorso }));
+
+		datFile.settlers.add(new ArraySequence<Image>(new Image[] { createImage(3, 3, 0, 0) }));
+
+		datFile.guis.add(createImage(50, 40, 0, 0));
+		datFile.guis.add(createImage(3000, 1, 0, 0));
+	}
+
+	@Test
+	public void testPackedRectanglesDoNotOverlap() {
+		AtlasPacker packer = new AtlasPacker(64, 64);
+		List<int[]> rectangles = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			int width = 1 + random.nextInt(30);
+			int height = 1 + random.nextInt(30);
+			int[] place = packer.add(width, height);
+			assertTrue(place[1] + width <= 64 && place[2] + height <= 64);
+			rectangles.add(new int[] { place[0], place[1], place[2], width, height });
+		}
+
+		for (int i = 0; i < rectangles.size(); i++) {
+			for (int j = i + 1; j < rectangles.size(); j++) {
+				int[] a = rectangles.get(i);
+				int[] b = rectangles.get(j);
+				boolean overlap = a[0] == b[0] && a[1] < b[1] + b[3] && b[1] < a[1] + a[3] && a[2] < b[2] + b[4] && b[2] < a[2] + a[4];
+				assertFalse(overlap);
+			}
+		}
+		assertEquals(rectangles.get(rectangles.size() - 1)[0] + 1, packer.getPageCount());
+	}
+
+	@Test
+	public void testStartPageOnlyOpensNewPageIfNeeded() {
+		AtlasPacker packer = new AtlasPacker(64, 64);
+		packer.startPage();
+		assertEquals(0, packer.add(10, 10)[0]);
+		packer.startPage();
+		assertEquals(1, packer.add(10, 10)[0]);
+		assertEquals(2, packer.getPageCount());
+	}
+
+	@Test
+	public void testSettlerImagesAreKept() throws IOException {
+		TextureAtlas atlas = generateAndLoad();
+
+		assertEquals(3, atlas.getSettlerSequenceCount());
+		Sequence<Image> sequence = atlas.createSettlerSequence(0, "test");
+		assertEquals(2, sequence.length());
+		for (int i = 0; i < sequence.length(); i++) {
+			assertImageEquals((SingleImage) datFile.settlers.get(0).getImage(i, null), (SingleImage) sequence.getImage(i, null));
+		}
+	}
+
+	@Test
+	public void testTorsoAndShadowAreKept() throws IOException {
+		SettlerImage original = (SettlerImage) datFile.settlers.get(1).getImage(0, null);
+		SettlerImage loaded = (SettlerImage) generateAndLoad().createSettlerSequence(1, "test").getImage(0, null);
+
+		assertImageEquals(original, loaded);
+		assertImageEquals((SingleImage) original.getTorso(), (SingleImage) loaded.getTorso());
+		assertImageEquals(original.getShadow(), loaded.getShadow());
+		assertImageEquals(original.createUnifiedImage(), loaded.createUnifiedImage());
+	}
+
+	@Test
+	public void testGuiImagesAreKept() throws IOException {
+		TextureAtlas atlas = generateAndLoad();
+
+		assertImageEquals(datFile.guis.get(0), atlas.createGuiImage(0, "test"));
+		assertNull(atlas.createGuiImage(1, "test"));
+	}
+
+	@Test
+	public void testReaderFallsBackForImagesNotInAtlas() throws IOException {
+		AtlasDatFileReader reader = new AtlasDatFileReader(generateAndLoad(), datFile, "test");
+
+		assertNotSame(datFile.settlers.get(0), reader.getSettlers().get(0));
+		assertSame(datFile.settlers.get(2), reader.getSettlers().get(2));
+		assertSame(reader.getSettlers().get(0), reader.getSettlers().get(0));
+
+		assertNotSame(datFile.guis.get(0), reader.getGuis().getImage(0, null));
+		assertSame(datFile.guis.get(1), reader.getGuis().getImage(1, null));
+	}
+
+	@Test
+	public void testAtlasOfOtherKeyIsNotLoaded() throws IOException {
+		TextureAtlas.generate(datFile, file, KEY);
+
+		assertTrue(TextureAtlas.isUpToDate(file, KEY));
+		assertFalse(TextureAtlas.isUpToDate(file, KEY + 1));
+		assertFalse(TextureAtlas.isUpToDate(new File(folder.getRoot(), "missing"), KEY));
+		try {
+			TextureAtlas.load(file, KEY + 1, "test");
+			assertTrue("outdated atlas was loaded", false);
+		} catch (IOException e) {
+			// expected
+		}
+	}
+
+	private TextureAtlas generateAndLoad() throws IOException {
+		TextureAtlas.generate(datFile, file, KEY);
+		return TextureAtlas.load(file, KEY, "test");
+	}
+
+	private static void assertImageEquals(SingleImage expected, SingleImage actual) {
+		assertEquals(expected.getWidth(), actual.getWidth());
+		assertEquals(expected.getHeight(), actual.getHeight());
+		assertEquals(expected.getOffsetX(), actual.getOffsetX());
+		assertEquals(expected.getOffsetY(), actual.getOffsetY());
+		assertArrayEquals(expected.getData().array(), actual.getData().array());
+	}
+
+	private SettlerImage createSettler(int width, int height, int offsetX, int offsetY) {
+		return new SettlerImage(createMetadata(width, height, offsetX, offsetY), createPixels(width * height), "settler");
+	}
+
+	private SingleImage createImage(int width, int height, int offsetX, int offsetY) {
+		return new SingleImage(createMetadata(width, height, offsetX, offsetY), createPixels(width * height), "image");
+	}
+
+	private short[] createPixels(int length) {
+		short[] pixels = new short[length];
+		for (int i = 0; i < length; i++) {
+			pixels[i] = (short) (random.nextInt(3) == 0 ? 0 : 1 + random.nextInt(Short.MAX_VALUE));
+		}
+		return pixels;
+	}
+
+	private static ImageMetadata createMetadata(int width, int height, int offsetX, int offsetY) {
+		ImageMetadata metadata = new ImageMetadata();
+		metadata.width = width;
+		metadata.height = height;
+		metadata.offsetX = offsetX;
+		metadata.offsetY = offsetY;
+		return metadata;
+	}
+
+	private static class TestDatFile implements DatFileReader {
+		private final List<Sequence<Image>> settlers = new ArrayList<>();
+		private final List<SingleImage> guis = new ArrayList<>();
+
+		@Override
+		public SequenceList<Image> getSettlers() {
+			return new SequenceList<Image>() {
+				@Override
+				public Sequence<Image> get(int index) {
+					return settlers.get(index);
+				}
+
+				@Override
+				public int size() {
+					return settlers.size();
+				}
+			};
+		}
+
+		@Override
+		public Sequence<SingleImage> getLandscapes() {
+			return new ArraySequence<>(new SingleImage[0]);
+		}
+
+		@Override
+		public Sequence<SingleImage> getGuis() {
+			return new ArraySequence<>(guis.toArray(new SingleImage[guis.size()]));
+		}
+
+		@Override
+		public DatBitmapTranslator<SingleImage> getLandscapeTranslator() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public ByteReader getReaderForLandscape(int index) {
+			throw new UnsupportedOperationException();
+		}
+	}
+}
@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.graphics.image.reader.bytereader;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+/**
+ * Tests the little endian reads of the {@link ByteReader} and that views read independently.
+ *
+ * @author Andreas Eberle
+ */
+public class ByteReaderTest {
+	private static final byte[] DATA = { 0x01, 0x02, 0x03, 0x04, (byte) 0xff, (byte) 0xff, 0x05, 0x06 };
+
+	@Test
+	public void testReadsLittleEndian() throws IOException {
+		ByteReader reader = new ByteReader(ByteBuffer.wrap(DATA));
+
+		assertEquals(0x0201, reader.read16());
+		assertEquals(0x0403, reader.read16());
+		assertEquals(-1, reader.read16signed());
+		assertEquals(0x05, reader.read8());
+		assertEquals(7, reader.getReadBytes());
+	}
+
+	@Test
+	public void testBulkRead16EqualsSingleReads() throws IOException {
+		ByteReader reader = new ByteReader(ByteBuffer.wrap(DATA));
+		short[] bulk = new short[6];
+		reader.read16(bulk, 1, 4);
+
+		ByteReader singleReader = new ByteReader(ByteBuffer.wrap(DATA));
+		short[] single = new short[6];
+		for (int i = 1; i < 5; i++) {
+			single[i] = (short) singleReader.read16();
+		}
+
+		assertArrayEquals(single, bulk);
+		assertEquals(8, reader.getReadBytes());
+	}
+
+	@Test
+	public void testViewsHaveOwnPosition() throws IOException {
+		ByteReader reader = new ByteReader(ByteBuffer.wrap(DATA));
+		reader.skipTo(2);
+
+		ByteReader view = reader.createView();
+		assertEquals(0, view.getReadBytes());
+		view.skipTo(6);
+
+		assertEquals(0x0605, view.read16());
+		assertEquals(0x0403, reader.read16());
+	}
+
+	@Test(expected = IOException.class)
+	public void testReadBehindEndFails() throws IOException {
+		ByteReader reader = new ByteReader(ByteBuffer.wrap(DATA));
+		reader.skipTo(7);
+		reader.read16();
+	}
+}
@@ -0,0 +1,330 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.graphics.map.draw;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.ShortBuffer;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+import go.graphics.AbstractColor;
+import go.graphics.EGeometryFormatType;
+import go.graphics.GLDrawContext;
+import go.graphics.GeometryHandle;
+import go.graphics.TextureHandle;
+import go.graphics.text.EFontSize;
+import go.graphics.text.TextDrawer;
+
+import jsettlers.common.CommonConstants;
+import jsettlers.common.landscape.ELandscapeType;
+import jsettlers.common.map.EDebugColorModes;
+import jsettlers.common.map.IDirectGridProvider;
+import jsettlers.common.map.IGraphicsBackgroundListener;
+import jsettlers.common.map.IGraphicsGrid;
+import jsettlers.common.map.partition.IPartitionData;
+import jsettlers.common.map.shapes.MapRectangle;
+import jsettlers.common.mapobject.IMapObject;
+import jsettlers.common.movable.IMovable;
+import jsettlers.common.movable.MovablesSnapshotBuffer;
+import jsettlers.graphics.map.MapDrawContext;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that {@link Background} only uploads the chunks of the background that changed.
+ *
+ * @author Andreas Eberle
+ */
+public class BackgroundTest {
+	private static final short MAP_SIZE = 200;
+
+	private final TestGrid grid = new TestGrid();
+	private final RecordingDrawContext gl = new RecordingDrawContext();
+	private final Background background = new Background();
+	private final TextureHandle texture = new TextureHandle(gl, 0);
+	private MapDrawContext context;
+
+	@Before
+	public void setUp() {
+		context = new MapDrawContext(grid);
+		context.setSize(640, 360);
+		context.getScreen().setScreenCenter(MAP_SIZE * DrawConstants.DISTANCE_X / 2, MAP_SIZE * DrawConstants.DISTANCE_Y / 2);
+	}
+
+	private void drawFrame() {
+		gl.startFrame();
+		context.begin(gl);
+		background.drawMapContent(context, context.getScreen().getPosition(), texture);
+		context.end();
+	}
+
+	@Test
+	public void testOnlyVisibleChunksAreGenerated() {
+		drawFrame();
+
+		int chunksOfMap = ((MAP_SIZE - 1 + Background.CHUNK_SIZE - 1) / Background.CHUNK_SIZE) * ((MAP_SIZE - 1 + Background.CHUNK_SIZE - 1) / Background.CHUNK_SIZE);
+		assertTrue(gl.draws > 0);
+		assertTrue(gl.draws < chunksOfMap);
+		assertEquals(2 * gl.draws, gl.generatedGeometries);
+		assertEquals(2 * gl.draws, gl.uploads);
+	}
+
+	@Test
+	public void testAllFieldsOnScreenAreDrawn() {
+		drawFrame();
+
+		MapRectangle screenArea = context.getConverter().getMapForScreen(context.getScreen().getPosition());
+		for (int line = 0; line < screenArea.getHeight(); line++) {
+			int y = screenArea.getLineY(line);
+			if (y < 0 || y >= MAP_SIZE - 1) {
+				continue;
+			}
+			for (int x = Math.max(screenArea.getLineStartX(line), 0); x <= Math.min(screenArea.getLineEndX(line), MAP_SIZE - 2); x++) {
+				int chunk = (y / Background.CHUNK_SIZE) * gl.chunksWidth + x / Background.CHUNK_SIZE;
+				assertTrue(gl.drawnChunks.get(chunk));
+			}
+		}
+	}
+
+	@Test
+	public void testNothingIsUploadedWithoutChanges() {
+		drawFrame();
+		int draws = gl.draws;
+
+		drawFrame();
+		assertEquals(draws, gl.draws);
+		assertEquals(0, gl.generatedGeometries);
+		assertEquals(0, gl.uploads);
+	}
+
+	@Test
+	public void testShapeChangeUploadsOneChunk() {
+		drawFrame();
+
+		int center = MAP_SIZE / 2;
+		background.backgroundShapeChangedAt(center + Background.CHUNK_SIZE / 2, center + Background.CHUNK_SIZE / 2);
+		drawFrame();
+		assertEquals(1, gl.uploads);
+
+		drawFrame();
+		assertEquals(0, gl.uploads);
+	}
+
+	@Test
+	public void testFogOfWarIsUploadedOncePerChunkAndFrame() {
+		drawFrame();
+
+		int center = MAP_SIZE / 2;
+		for (int y = center; y < center + 3; y++) {
+			for (int x = center; x < center + 3; x++) {
+				grid.visibleStatus[y * MAP_SIZE + x] = CommonConstants.FOG_OF_WAR_EXPLORED;
+			}
+		}
+
+		int frames = 0;
+		do {
+			drawFrame();
+			assertTrue(gl.uploads <= 4); // the area may be at the corner of four chunks
+			frames++;
+		} while (gl.uploads > 0 && frames < 100);
+
+		assertTrue(frames > 1); // the fog of war is dimmed over multiple frames
+		assertEquals(0, gl.uploads);
+	}
+
+	private static class TestGrid implements IGraphicsGrid, IDirectGridProvider {
+		private final byte[] visibleStatus = new byte[MAP_SIZE * MAP_SIZE];
+
+		TestGrid() {
+			Arrays.fill(visibleStatus, (byte) CommonConstants.FOG_OF_WAR_VISIBLE);
+		}
+
+		@Override
+		public short getWidth() {
+			return MAP_SIZE;
+		}
+
+		@Override
+		public short getHeight() {
+			return MAP_SIZE;
+		}
+
+		@Override
+		public IMovable getMovableAt(int x, int y) {
+			return null;
+		}
+
+		@Override
+		public IMapObject getMapObjectsAt(int x, int y) {
+			return null;
+		}
+
+		@Override
+		public byte getHeightAt(int x, int y) {
+			return (byte) ((x + y) % 4);
+		}
+
+		@Override
+		public ELandscapeType getLandscapeTypeAt(int x, int y) {
+			return x < MAP_SIZE / 3 ? ELandscapeType.WATER1 : ELandscapeType.GRASS;
+		}
+
+		@Override
+		public int getDebugColorAt(int x, int y, EDebugColorModes debugColorMode) {
+			return 0;
+		}
+
+		@Override
+		public boolean isBorder(int x, int y) {
+			return false;
+		}
+
+		@Override
+		public byte getPlayerIdAt(int x, int y) {
+			return -1;
+		}
+
+		@Override
+		public byte getVisibleStatus(int x, int y) {
+			return visibleStatus[y * MAP_SIZE + x];
+		}
+
+		@Override
+		public void setBackgroundListener(IGraphicsBackgroundListener backgroundListener) {
+		}
+
+		@Override
+		public IPartitionData getPartitionData(int x, int y) {
+			return null;
+		}
+
+		@Override
+		public boolean isBuilding(int x, int y) {
+			return false;
+		}
+
+		@Override
+		public IMapObject[] getObjectArray() {
+			return null;
+		}
+
+		@Override
+		public IMovable[] getMovableArray() {
+			return null;
+		}
+
+		@Override
+		public BitSet getBorderArray() {
+			return null;
+		}
+
+		@Override
+		public byte[] getVisibleStatusArray() {
+			return visibleStatus;
+		}
+
+		@Override
+		public MovablesSnapshotBuffer getMovablesSnapshotBuffer() {
+			return null;
+		}
+	}
+
+	/**
+	 * A {@link GLDrawContext} without OpenGL that counts the geometry operations of the current frame.
+	 */
+	private static class RecordingDrawContext implements GLDrawContext {
+		private int nextHandle = 1;
+		int draws;
+		int generatedGeometries;
+		int uploads;
+		final int chunksWidth = (MAP_SIZE - 1 + Background.CHUNK_SIZE - 1) / Background.CHUNK_SIZE;
+		final BitSet drawnChunks = new BitSet();
+		private final Map<GeometryHandle, Integer> chunksOfHandles = new HashMap<>();
+
+		void startFrame() {
+			drawnChunks.clear();
+			draws = 0;
+			generatedGeometries = 0;
+			uploads = 0;
+		}
+
+		@Override
+		public void draw2D(GeometryHandle geometry, TextureHandle texture, int primitive, int offset, int vertices, float x, float y, float z, float sx,
+				float sy, float sz, AbstractColor color, float intensity) {
+		}
+
+		@Override
+		public TextureHandle generateTexture(int width, int height, ShortBuffer data, String name) {
+			return new TextureHandle(this, nextHandle++);
+		}
+
+		@Override
+		public void drawTrianglesWithTextureColored(TextureHandle textureid, GeometryHandle vertexHandle, GeometryHandle paintHandle, int offset,
+				int lines, int width, int stride, float x, float y) {
+			drawnChunks.set(chunksOfHandles.get(vertexHandle));
+			draws++;
+		}
+
+		@Override
+		public void setHeightMatrix(float[] matrix) {
+		}
+
+		@Override
+		public void setGlobalAttributes(float x, float y, float z, float sx, float sy, float sz) {
+		}
+
+		@Override
+		public void updateTexture(TextureHandle textureIndex, int left, int bottom, int width, int height, ShortBuffer data) {
+		}
+
+		@Override
+		public TextDrawer getTextDrawer(EFontSize size) {
+			return null;
+		}
+
+		@Override
+		public GeometryHandle storeGeometry(float[] geometry, EGeometryFormatType type, boolean writable, String name) {
+			return generateGeometry(geometry.length, type, writable, name);
+		}
+
+		@Override
+		public void updateGeometryAt(GeometryHandle handle, int pos, ByteBuffer data) {
+			uploads++;
+		}
+
+		@Override
+		public GeometryHandle generateGeometry(int vertices, EGeometryFormatType type, boolean writable, String name) {
+			generatedGeometries++;
+			GeometryHandle handle = new GeometryHandle(this, nextHandle++, 0, type);
+			chunksOfHandles.put(handle, Integer.parseInt(name.substring(name.lastIndexOf('-') + 1)));
+			return handle;
+		}
+
+		@Override
+		public boolean isValid() {
+			return true;
+		}
+
+		@Override
+		public void deleteTexture(TextureHandle texture) {
+		}
+	}
+}
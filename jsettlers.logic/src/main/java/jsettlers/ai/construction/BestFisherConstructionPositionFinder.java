@@ -14,9 +14,7 @@
  *******************************************************************************/
 package jsettlers.ai.construction;
 
-import java.util.ArrayList;
-import java.util.List;
-
+import jsettlers.ai.highlevel.AiPositions.PositionRater;
 import jsettlers.ai.highlevel.AiStatistics;
 import jsettlers.algorithms.construction.AbstractConstructionMarkableMap;
 import jsettlers.common.buildings.EBuildingType;
@@ -37,20 +35,15 @@ public class BestFisherConstructionPositionFinder implements IBestConstructionPo
 
 	@Override
 	public ShortPoint2D findBestConstructionPosition(AiStatistics aiStatistics, AbstractConstructionMarkableMap constructionMap, byte playerId) {
-		List<ScoredConstructionPosition> scoredConstructionPositions = new ArrayList<>();
-
-		int fishDistance = buildingType.getWorkRadius();
-		for (ShortPoint2D point : aiStatistics.getLandForPlayer(playerId)) {
-			if (aiStatistics.wasFishNearByAtGameStart(point) && constructionMap.canConstructAt(point.x, point.y, buildingType, playerId)
-					&& !aiStatistics.blocksWorkingAreaOfOtherBuilding(point.x, point.y, playerId, buildingType)) {
-				ShortPoint2D fishPosition = aiStatistics.getNearestFishPointForPlayer(point, playerId, fishDistance);
-				if (fishPosition != null) {
-					fishDistance = point.getOnGridDistTo(fishPosition);
-					scoredConstructionPositions.add(new ScoredConstructionPosition(point, fishDistance));
-				}
+		int workRadius = buildingType.getWorkRadius();
+		return aiStatistics.getLandForPlayer(playerId).getBestRatedPoint((x, y, currentBestRating) -> {
+			ShortPoint2D point = new ShortPoint2D(x, y);
+			if (!aiStatistics.wasFishNearByAtGameStart(point) || !constructionMap.canConstructAt(x, y, buildingType, playerId)
+					|| aiStatistics.blocksWorkingAreaOfOtherBuilding(x, y, playerId, buildingType)) {
+				return PositionRater.RATE_INVALID;
 			}
-		}
-
-		return ScoredConstructionPosition.detectPositionWithLowestScore(scoredConstructionPositions);
+			ShortPoint2D fishPosition = aiStatistics.getNearestFishPointForPlayer(point, playerId, Math.min(workRadius, currentBestRating));
+			return fishPosition != null ? point.getOnGridDistTo(fishPosition) : PositionRater.RATE_INVALID;
+		});
 	}
 }
@@ -14,9 +14,9 @@
  *******************************************************************************/
 package jsettlers.ai.construction;
 
-import java.util.ArrayList;
 import java.util.List;
 
+import jsettlers.ai.highlevel.AiPositions.PositionRater;
 import jsettlers.ai.highlevel.AiStatistics;
 import jsettlers.algorithms.construction.AbstractConstructionMarkableMap;
 import jsettlers.common.buildings.EBuildingType;
@@ -43,25 +43,23 @@ public class BestForesterConstructionPositionFinder implements IBestConstruction
 		List<ShortPoint2D> lumberJacks = aiStatistics.getBuildingPositionsOfTypeForPlayer(EBuildingType.LUMBERJACK, playerId);
 		List<ShortPoint2D> foresters = aiStatistics.getBuildingPositionsOfTypeForPlayer(EBuildingType.FORESTER, playerId);
 
-		List<ScoredConstructionPosition> scoredConstructionPositions = new ArrayList<>();
-		for (ShortPoint2D point : aiStatistics.getLandForPlayer(playerId)) {
-			if (constructionMap.canConstructAt(point.x, point.y, buildingType, playerId)
-					&& !aiStatistics.blocksWorkingAreaOfOtherBuilding(point.x, point.y, playerId, buildingType)) {
-				int foresterDistance = 0;
-				int lumberJackDistance = 0;
-				ShortPoint2D nearestLumberJackPoint = AiStatistics.detectNearestPointFromList(point, lumberJacks);
-				if (nearestLumberJackPoint != null) {
-					lumberJackDistance = point.getOnGridDistTo(nearestLumberJackPoint);
-				}
-				ShortPoint2D nearestForesterPoint = AiStatistics.detectNearestPointFromList(point, foresters);
-				if (nearestForesterPoint != null) {
-					foresterDistance = point.getOnGridDistTo(nearestForesterPoint);
-				}
-
-				scoredConstructionPositions.add(new ScoredConstructionPosition(new ShortPoint2D(point.x, point.y), lumberJackDistance - foresterDistance));
+		return aiStatistics.getLandForPlayer(playerId).getBestRatedPoint((x, y, currentBestRating) -> {
+			if (!constructionMap.canConstructAt(x, y, buildingType, playerId)
+					|| aiStatistics.blocksWorkingAreaOfOtherBuilding(x, y, playerId, buildingType)) {
+				return PositionRater.RATE_INVALID;
 			}
-		}
-
-		return ScoredConstructionPosition.detectPositionWithLowestScore(scoredConstructionPositions);
+			ShortPoint2D point = new ShortPoint2D(x, y);
+			int foresterDistance = 0;
+			int lumberJackDistance = 0;
+			ShortPoint2D nearestLumberJackPoint = AiStatistics.detectNearestPointFromList(point, lumberJacks);
+			if (nearestLumberJackPoint != null) {
+				lumberJackDistance = point.getOnGridDistTo(nearestLumberJackPoint);
+			}
+			ShortPoint2D nearestForesterPoint = AiStatistics.detectNearestPointFromList(point, foresters);
+			if (nearestForesterPoint != null) {
+				foresterDistance = point.getOnGridDistTo(nearestForesterPoint);
+			}
+			return lumberJackDistance - foresterDistance;
+		});
 	}
 }
@@ -14,6 +14,7 @@
  *******************************************************************************/
 package jsettlers.ai.construction;
 
+import jsettlers.ai.highlevel.AiPositions.PositionRater;
 import jsettlers.ai.highlevel.AiStatistics;
 import jsettlers.algorithms.construction.AbstractConstructionMarkableMap;
 import jsettlers.common.buildings.EBuildingType;
@@ -22,9 +23,6 @@ import jsettlers.common.position.RelativePoint;
 import jsettlers.common.position.ShortPoint2D;
 import jsettlers.logic.map.grid.landscape.LandscapeGrid;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * Algorithm: find all possible construction points within the borders of the player - calculates a score based on the amount of resource
  *
@@ -43,27 +41,28 @@ public class BestMineConstructionPositionFinder implements IBestConstructionPosi
 
 	@Override
 	public ShortPoint2D findBestConstructionPosition(AiStatistics aiStatistics, AbstractConstructionMarkableMap constructionMap, byte playerId) {
-		List<ScoredConstructionPosition> scoredConstructionPositions = new ArrayList<>();
-		for (ShortPoint2D point : aiStatistics.getLandForPlayer(playerId)) {
-			if (constructionMap.canConstructAt(point.x, point.y, buildingType, playerId)) {
-				int resourceAmount = 0;
-				LandscapeGrid landscapeGrid = aiStatistics.getMainGrid().getLandscapeGrid();
-				for (RelativePoint relativePoint : buildingType.getBlockedTiles()) {
-					int x = point.x + relativePoint.getDx();
-					int y = point.y + relativePoint.getDy();
-					if (landscapeGrid.getResourceTypeAt(x, y) == resourceType) {
-						resourceAmount += landscapeGrid.getResourceAmountAt(x, y);
-					}
-				}
+		LandscapeGrid landscapeGrid = aiStatistics.getMainGrid().getLandscapeGrid();
+		ShortPoint2D positionOfPartition = aiStatistics.getPositionOfPartition(playerId);
 
-				if (resourceAmount != 0) {
-					int distanceToCenter = aiStatistics.getPositionOfPartition(playerId).getOnGridDistTo(point);
-					int score = resourceAmount - (int) (distanceToCenter * DISTANCE_PENALTY_FACTOR);
-					scoredConstructionPositions.add(new ScoredConstructionPosition(point, -score));
+		return aiStatistics.getLandForPlayer(playerId).getBestRatedPoint((pointX, pointY, currentBestRating) -> {
+			if (!constructionMap.canConstructAt(pointX, pointY, buildingType, playerId)) {
+				return PositionRater.RATE_INVALID;
+			}
+			int resourceAmount = 0;
+			for (RelativePoint relativePoint : buildingType.getBlockedTiles()) {
+				int x = pointX + relativePoint.getDx();
+				int y = pointY + relativePoint.getDy();
+				if (landscapeGrid.getResourceTypeAt(x, y) == resourceType) {
+					resourceAmount += landscapeGrid.getResourceAmountAt(x, y);
 				}
 			}
-		}
 
-		return ScoredConstructionPosition.detectPositionWithLowestScore(scoredConstructionPositions);
+			if (resourceAmount == 0) {
+				return PositionRater.RATE_INVALID;
+			}
+			int distanceToCenter = positionOfPartition.getOnGridDistTo(new ShortPoint2D(pointX, pointY));
+			int score = resourceAmount - (int) (distanceToCenter * DISTANCE_PENALTY_FACTOR);
+			return -score;
+		});
 	}
 }
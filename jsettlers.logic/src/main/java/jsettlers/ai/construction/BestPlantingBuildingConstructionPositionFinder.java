@@ -17,6 +17,7 @@ package jsettlers.ai.construction;
 import java.util.ArrayList;
 import java.util.List;
 
+import jsettlers.ai.highlevel.AiPositions.PositionRater;
 import jsettlers.ai.highlevel.AiStatistics;
 import jsettlers.algorithms.construction.AbstractConstructionMarkableMap;
 import jsettlers.common.buildings.EBuildingType;
@@ -31,20 +32,14 @@ abstract public class BestPlantingBuildingConstructionPositionFinder implements
 
 	@Override
 	public ShortPoint2D findBestConstructionPosition(AiStatistics aiStatistics, AbstractConstructionMarkableMap constructionMap, byte playerId) {
-
-		List<ScoredConstructionPosition> scoredConstructionPositions = new ArrayList<>();
-
-		for (ShortPoint2D point : aiStatistics.getLandForPlayer(playerId)) {
-			if (constructionMap.canConstructAt(point.x, point.y, myBuildingType(), playerId)
-					&& !aiStatistics.blocksWorkingAreaOfOtherBuilding(point.x, point.y, playerId, myBuildingType())) {
-				int score = calculateScoreFor(point, aiStatistics.getMainGrid(), playerId);
-				if (score > 0) {
-					scoredConstructionPositions.add(new ScoredConstructionPosition(point, -score));
-				}
+		return aiStatistics.getLandForPlayer(playerId).getBestRatedPoint((x, y, currentBestRating) -> {
+			if (!constructionMap.canConstructAt(x, y, myBuildingType(), playerId)
+					|| aiStatistics.blocksWorkingAreaOfOtherBuilding(x, y, playerId, myBuildingType())) {
+				return PositionRater.RATE_INVALID;
 			}
-		}
-
-		return ScoredConstructionPosition.detectPositionWithLowestScore(scoredConstructionPositions);
+			int score = calculateScoreFor(new ShortPoint2D(x, y), aiStatistics.getMainGrid(), playerId);
+			return score > 0 ? -score : PositionRater.RATE_INVALID;
+		});
 	}
 
 	private int calculateScoreFor(ShortPoint2D point, MainGrid mainGrid, byte playerId) {
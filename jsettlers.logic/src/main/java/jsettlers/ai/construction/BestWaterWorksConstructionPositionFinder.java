@@ -14,10 +14,8 @@
  *******************************************************************************/
 package jsettlers.ai.construction;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import jsettlers.ai.highlevel.AiPositions;
+import jsettlers.ai.highlevel.AiPositions.PositionRater;
 import jsettlers.ai.highlevel.AiStatistics;
 import jsettlers.algorithms.construction.AbstractConstructionMarkableMap;
 import jsettlers.common.buildings.EBuildingType;
@@ -43,19 +41,16 @@ public class BestWaterWorksConstructionPositionFinder implements IBestConstructi
 		if (rivers.size() == 0) {
 			return null;
 		}
-		List<ScoredConstructionPosition> scoredConstructionPositions = new ArrayList<>();
-		for (ShortPoint2D point : aiStatistics.getLandForPlayer(playerId)) {
-			if (constructionMap.canConstructAt(point.x, point.y, buildingType, playerId)
-					&& !aiStatistics.blocksWorkingAreaOfOtherBuilding(point.x, point.y, playerId, buildingType)) {
-				ShortPoint2D nearestRiverPosition = rivers.getNearestPoint(point, buildingType.getWorkRadius(), null);
-				if (nearestRiverPosition != null) {
-					int riverDistance = point.getOnGridDistTo(nearestRiverPosition);
-					scoredConstructionPositions.add(new ScoredConstructionPosition(point, riverDistance));
-				}
+		int workRadius = buildingType.getWorkRadius();
+		return aiStatistics.getLandForPlayer(playerId).getBestRatedPoint((x, y, currentBestRating) -> {
+			if (!constructionMap.canConstructAt(x, y, buildingType, playerId)
+					|| aiStatistics.blocksWorkingAreaOfOtherBuilding(x, y, playerId, buildingType)) {
+				return PositionRater.RATE_INVALID;
 			}
-		}
-
-		return ScoredConstructionPosition.detectPositionWithLowestScore(scoredConstructionPositions);
+			ShortPoint2D point = new ShortPoint2D(x, y);
+			ShortPoint2D nearestRiverPosition = rivers.getNearestPoint(point, Math.min(workRadius, currentBestRating), null);
+			return nearestRiverPosition != null ? point.getOnGridDistTo(nearestRiverPosition) : PositionRater.RATE_INVALID;
+		});
 	}
 
 }
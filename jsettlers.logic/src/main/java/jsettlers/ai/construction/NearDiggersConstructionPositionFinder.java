@@ -16,9 +16,9 @@ package jsettlers.ai.construction;
 
 import static jsettlers.common.movable.EMovableType.DIGGER;
 
-import java.util.ArrayList;
 import java.util.List;
 
+import jsettlers.ai.highlevel.AiPositions.PositionRater;
 import jsettlers.ai.highlevel.AiStatistics;
 import jsettlers.algorithms.construction.AbstractConstructionMarkableMap;
 import jsettlers.common.buildings.EBuildingType;
@@ -41,21 +41,20 @@ public class NearDiggersConstructionPositionFinder implements IBestConstructionP
 	@Override
 	public ShortPoint2D findBestConstructionPosition(AiStatistics aiStatistics, AbstractConstructionMarkableMap constructionMap, byte playerId) {
 		List<ShortPoint2D> diggers = aiStatistics.getPositionsOfMovablesWithTypeForPlayer(playerId, DIGGER);
-		List<ScoredConstructionPosition> scoredConstructionPositions = new ArrayList<>();
-
-		for (ShortPoint2D point : aiStatistics.getLandForPlayer(playerId)) {
-			if (constructionMap.canConstructAt(point.x, point.y, buildingType, playerId)
-					&& !aiStatistics.blocksWorkingAreaOfOtherBuilding(point.x, point.y, playerId, buildingType)) {
-				ShortPoint2D nearestDiggerPosition = AiStatistics.detectNearestPointFromList(point, diggers);
-				int nearestDiggerDistance = 0;
-				if (nearestDiggerPosition != null) {
-					nearestDiggerDistance = point.getOnGridDistTo(nearestDiggerPosition);
-				}
-				byte flatternEffort = aiStatistics.getFlatternEffortAtPositionForBuilding(point, buildingType);
-				scoredConstructionPositions.add(new ScoredConstructionPosition(point, nearestDiggerDistance + flatternEffort));
-			}
-		}
 
-		return ScoredConstructionPosition.detectPositionWithLowestScore(scoredConstructionPositions);
+		return aiStatistics.getLandForPlayer(playerId).getBestRatedPoint((x, y, currentBestRating) -> {
+			if (!constructionMap.canConstructAt(x, y, buildingType, playerId)
+					|| aiStatistics.blocksWorkingAreaOfOtherBuilding(x, y, playerId, buildingType)) {
+				return PositionRater.RATE_INVALID;
+			}
+			ShortPoint2D point = new ShortPoint2D(x, y);
+			ShortPoint2D nearestDiggerPosition = AiStatistics.detectNearestPointFromList(point, diggers);
+			int nearestDiggerDistance = 0;
+			if (nearestDiggerPosition != null) {
+				nearestDiggerDistance = point.getOnGridDistTo(nearestDiggerPosition);
+			}
+			byte flatternEffort = aiStatistics.getFlatternEffortAtPositionForBuilding(point, buildingType);
+			return nearestDiggerDistance + flatternEffort;
+		});
 	}
 }
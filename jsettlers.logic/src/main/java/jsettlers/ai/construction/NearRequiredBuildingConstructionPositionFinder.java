@@ -14,9 +14,9 @@
  *******************************************************************************/
 package jsettlers.ai.construction;
 
-import java.util.ArrayList;
 import java.util.List;
 
+import jsettlers.ai.highlevel.AiPositions.PositionRater;
 import jsettlers.ai.highlevel.AiStatistics;
 import jsettlers.algorithms.construction.AbstractConstructionMarkableMap;
 import jsettlers.common.buildings.EBuildingType;
@@ -41,20 +41,20 @@ public class NearRequiredBuildingConstructionPositionFinder implements IBestCons
 	@Override
 	public ShortPoint2D findBestConstructionPosition(AiStatistics aiStatistics, AbstractConstructionMarkableMap constructionMap, byte playerId) {
 		List<ShortPoint2D> neededBuildings = aiStatistics.getBuildingPositionsOfTypeForPlayer(neededBuildingType, playerId);
-		List<ScoredConstructionPosition> scoredConstructionPositions = new ArrayList<>();
-		for (ShortPoint2D point : aiStatistics.getLandForPlayer(playerId)) {
-			if (constructionMap.canConstructAt(point.x, point.y, buildingType, playerId)
-					&& !aiStatistics.blocksWorkingAreaOfOtherBuilding(point.x, point.y, playerId, buildingType)) {
-				ShortPoint2D nearestNeededBuilding = AiStatistics.detectNearestPointFromList(point, neededBuildings);
-				int nearestNeededBuildingDistance = 0;
-				if (nearestNeededBuilding != null) {
-					nearestNeededBuildingDistance = point.getOnGridDistTo(nearestNeededBuilding);
-				}
-				byte flatternEffort = aiStatistics.getFlatternEffortAtPositionForBuilding(point, buildingType);
-				scoredConstructionPositions.add(new ScoredConstructionPosition(point, nearestNeededBuildingDistance + flatternEffort));
-			}
-		}
 
-		return ScoredConstructionPosition.detectPositionWithLowestScore(scoredConstructionPositions);
+		return aiStatistics.getLandForPlayer(playerId).getBestRatedPoint((x, y, currentBestRating) -> {
+			if (!constructionMap.canConstructAt(x, y, buildingType, playerId)
+					|| aiStatistics.blocksWorkingAreaOfOtherBuilding(x, y, playerId, buildingType)) {
+				return PositionRater.RATE_INVALID;
+			}
+			ShortPoint2D point = new ShortPoint2D(x, y);
+			ShortPoint2D nearestNeededBuilding = AiStatistics.detectNearestPointFromList(point, neededBuildings);
+			int nearestNeededBuildingDistance = 0;
+			if (nearestNeededBuilding != null) {
+				nearestNeededBuildingDistance = point.getOnGridDistTo(nearestNeededBuilding);
+			}
+			byte flatternEffort = aiStatistics.getFlatternEffortAtPositionForBuilding(point, buildingType);
+			return nearestNeededBuildingDistance + flatternEffort;
+		});
 	}
 }
@@ -19,7 +19,12 @@ import static java8.util.stream.StreamSupport.stream;
 import java.util.ArrayList;
 import java.util.List;
 
+import java8.util.stream.IntStreams;
 import jsettlers.common.logging.StatisticsStopWatch;
+import jsettlers.logic.GameContext;
+import jsettlers.logic.constants.Constants;
+import jsettlers.logic.constants.ExtendedRandom;
+import jsettlers.logic.constants.MatchConstants;
 import jsettlers.logic.map.grid.MainGrid;
 import jsettlers.logic.player.PlayerSetting;
 import jsettlers.network.client.interfaces.ITaskScheduler;
@@ -27,24 +32,35 @@ import jsettlers.network.synchronic.timer.INetworkTimerable;
 
 /**
  * The AiExecutor holds all IWhatToDoAi high level KIs and executes them when NetworkTimer notifies it.
+ * <p>
+ * If {@link Constants#PARALLEL_AI_EVALUATION} is enabled, the KIs are evaluated in parallel while the game waits. Every KI has its own random
+ * generator and its tasks are collected and scheduled in the order of the players afterwards. Therefore the game plays the same way as with a
+ * sequential evaluation. The random generators of the KIs are seeded from the AI random of the match in the order of the players, so they are
+ * the same on every client.
  * 
  * @author codingberlin
  */
 public class AiExecutor implements INetworkTimerable {
 
 	private final List<IWhatToDoAi> whatToDoAis;
+	private final List<AiTaskBuffer> taskBuffers;
+	private final ITaskScheduler taskScheduler;
 	private final AiStatistics aiStatistics;
 	private final StatisticsStopWatch updateStatisticsStopWatch = new StatisticsStopWatch();
 	private final StatisticsStopWatch applyRulesStopWatch = new StatisticsStopWatch();
 
 	public AiExecutor(PlayerSetting[] playerSettings, MainGrid mainGrid, ITaskScheduler taskScheduler) {
+		this.taskScheduler = taskScheduler;
 		aiStatistics = new AiStatistics(mainGrid);
+		aiStatistics.enableIncrementalUpdates();
 		aiStatistics.updateStatistics();
 		this.whatToDoAis = new ArrayList<>();
+		this.taskBuffers = new ArrayList<>();
 		WhatToDoAiFactory aiFactory = new WhatToDoAiFactory();
 		for (byte playerId = 0; playerId < playerSettings.length; playerId++) {
 			PlayerSetting playerSetting = playerSettings[playerId];
 			if (playerSetting.isAvailable() && playerSetting.getPlayerType().isAi()) {
+				AiTaskBuffer taskBuffer = new AiTaskBuffer();
 				whatToDoAis.add(aiFactory.buildWhatToDoAi(
 						playerSettings[playerId].getPlayerType(),
 						playerSettings[playerId].getCivilisation(),
@@ -52,7 +68,9 @@ public class AiExecutor implements INetworkTimerable {
 						mainGrid.getPartitionsGrid().getPlayer(playerId),
 						mainGrid,
 						mainGrid.getMovableGrid(),
-						taskScheduler));
+						taskBuffer,
+						new ExtendedRandom(MatchConstants.aiRandom().nextLong())));
+				taskBuffers.add(taskBuffer);
 			}
 		}
 	}
@@ -63,10 +81,27 @@ public class AiExecutor implements INetworkTimerable {
 		aiStatistics.updateStatistics();
 		updateStatisticsStopWatch.stop("computerplayer:updateStatistics()");
 		applyRulesStopWatch.restart();
-		stream(whatToDoAis).forEach(IWhatToDoAi::applyRules);
+		try {
+			if (Constants.PARALLEL_AI_EVALUATION && whatToDoAis.size() > 1) {
+				GameContext context = GameContext.current();
+				IntStreams.range(0, whatToDoAis.size()).parallel().forEach(index -> {
+					GameContext previous = GameContext.bind(context);
+					try {
+						whatToDoAis.get(index).applyRules();
+					} finally {
+						GameContext.bind(previous);
+					}
+				});
+			} else {
+				stream(whatToDoAis).forEach(IWhatToDoAi::applyRules);
+			}
+		} finally {
+			for (AiTaskBuffer taskBuffer : taskBuffers) {
+				taskBuffer.flushTo(taskScheduler);
+			}
+		}
 		applyRulesStopWatch.stop("computerplayer:applyRules()");
 	}
-
 	public StatisticsStopWatch getUpdateStatisticsStopWatch() {
 		return updateStatisticsStopWatch;
 	}
@@ -74,4 +109,8 @@ public class AiExecutor implements INetworkTimerable {
 	public StatisticsStopWatch getApplyRulesStopWatch() {
 		return applyRulesStopWatch;
 	}
+
+	AiStatistics getAiStatistics() {
+		return aiStatistics;
+	}
 }
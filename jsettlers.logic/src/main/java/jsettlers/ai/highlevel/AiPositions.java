@@ -14,16 +14,26 @@
  *******************************************************************************/
 package jsettlers.ai.highlevel;
 
+import java8.util.stream.IntStreams;
+import jsettlers.ai.highlevel.AiPositionsIndex.NearestPoints;
 import jsettlers.common.map.shapes.IMapArea;
 import jsettlers.common.position.ShortPoint2D;
 import jsettlers.common.utils.coordinates.CoordinateStream;
 import jsettlers.common.utils.coordinates.IBooleanCoordinateFunction;
+import jsettlers.logic.GameContext;
+import jsettlers.logic.constants.Constants;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
 
 /**
  * This is a set of points on the map. It is optimized for range queries.
+ * <p>
+ * The nearest point queries use an {@link AiPositionsIndex} that is built on the first query after the set has been changed. Queries never
+ * change the points, so they can be run by several threads as long as the set is not changed at the same time. Queries on a set that is not
+ * sorted need to work on a sorted copy of the points, so a changed set should be sorted with {@link #sort()} before it is queried.
  * 
  * @author Michael Zangl
  *
@@ -31,6 +41,8 @@ import java.util.Iterator;
 public class AiPositions implements IMapArea {
 	private static final int MIN_SIZE = 16;
 	private static final int SHORT_MASK = 0x7fff;
+	private static final int RATING_CHUNK_SIZE = 256;
+	private static final int NO_RATED_POINT = -1;
 	/**
 	 * 
 	 */
@@ -83,6 +95,7 @@ public class AiPositions implements IMapArea {
 	}
 
 	private class PositionsIterator implements Iterator<ShortPoint2D> {
+		private final int[] sortedPoints = getSortedPoints();
 		private int index;
 
 		@Override
@@ -92,7 +105,7 @@ public class AiPositions implements IMapArea {
 
 		@Override
 		public ShortPoint2D next() {
-			int next = points[index];
+			int next = sortedPoints[index];
 			index++;
 			return new ShortPoint2D(unpackX(next), unpackY(next));
 		}
@@ -103,9 +116,10 @@ public class AiPositions implements IMapArea {
 		}
 	}
 
-	private boolean sorted = false;
+	private boolean sorted = true;
 	private int[] points = new int[MIN_SIZE];
 	private int size = 0;
+	private transient volatile AiPositionsIndex index;
 
 	public void add(int x, int y) {
 		if (!contains(x, y)) {
@@ -124,9 +138,12 @@ public class AiPositions implements IMapArea {
 		if (points.length == size) {
 			resizeTo(points.length * 2);
 		}
+		if (size > 0 && points[size - 1] > pos) {
+			sorted = false; // positions added in ascending order keep the set sorted and it can be read concurrently
+		}
 		points[size] = pos;
 		size++;
-		sorted = false;
+		index = null;
 	}
 
 	public void addAllNoCollision(AiPositions otherAiPositions) {
@@ -137,18 +154,17 @@ public class AiPositions implements IMapArea {
 		System.arraycopy(otherAiPositions.points, 0, points, size, otherAiPositions.size);
 		size = newSize;
 		sorted = false;
+		index = null;
 	}
 
 	public void remove(int x, int y) {
-		ensureSorted();
-		int index = indexOf(x, y);
+		sort();
+		int index = Arrays.binarySearch(points, 0, size, pack(x, y));
 		if (index >= 0) {
-			if (index < size - 1) {
-				points[index] = points[size - 1];
-				sorted = false;
-			}
+			System.arraycopy(points, index + 1, points, index, size - index - 1);
 			// TODO: shrink array.
 			size--;
+			this.index = null;
 		}
 	}
 
@@ -159,39 +175,69 @@ public class AiPositions implements IMapArea {
 
 	@Override
 	public boolean contains(int x, int y) {
-		ensureSorted();
-		return indexOf(x, y) >= 0;
-	}
+		int pos = pack(x, y);
+		if (sorted) {
+			return Arrays.binarySearch(points, 0, size, pos) >= 0;
+		}
 
-	private int indexOf(int x, int y) {
-		return Arrays.binarySearch(points, 0, size, pack(x, y));
+		for (int i = 0; i < size; i++) {
+			if (points[i] == pos) {
+				return true;
+			}
+		}
+		return false;
 	}
 
 	@Override
 	public Iterator<ShortPoint2D> iterator() {
-		ensureSorted();
 		return new PositionsIterator();
 	}
 
-	private void ensureSorted() {
+	/**
+	 * Sorts the points of this set. Queries on a sorted set don't need to copy the points.
+	 */
+	public void sort() {
 		if (!sorted) {
 			Arrays.sort(points, 0, size);
 			sorted = true;
 		}
 	}
 
+	private int[] getSortedPoints() {
+		if (sorted) {
+			return points;
+		}
+		int[] sortedPoints = Arrays.copyOf(points, size);
+		Arrays.sort(sortedPoints);
+		return sortedPoints;
+	}
+
 	private static int pack(int x, int y) {
 		return ((x & SHORT_MASK) << 16) | (y & SHORT_MASK);
 	}
 
-	private static int unpackX(int pos) {
+	static int unpackX(int pos) {
 		return pos >> 16;
 	}
 
-	private static int unpackY(int pos) {
+	static int unpackY(int pos) {
 		return pos & SHORT_MASK;
 	}
 
+	private AiPositionsIndex getIndex() {
+		AiPositionsIndex index = this.index;
+		if (index == null) {
+			synchronized (this) {
+				index = this.index;
+				if (index == null) {
+					index = new AiPositionsIndex(points, size);
+					this.index = index;
+				}
+			}
+		}
+		return index;
+	}
+
 	private void resizeTo(int arraySize) {
 		points = Arrays.copyOf(points, arraySize);
 	}
@@ -199,58 +245,55 @@ public class AiPositions implements IMapArea {
 	public void clear() {
 		size = 0;
 		points = new int[MIN_SIZE];
+		sorted = true;
+		index = null;
 	}
 
 	public ShortPoint2D getNearestPoint(ShortPoint2D center, int maxDistance) {
 		return getNearestPoint(center, maxDistance, null);
 	}
 
+	/**
+	 * Finds the point closest to the center. If several points have the same distance, the one with the lowest x and then y coordinate is
+	 * returned.
+	 *
+	 * @param maxDistance
+	 *            The found point is closer to the center than this distance.
+	 * @param filter
+	 *            The filter the point needs to pass or <code>null</code>.
+	 * @return The nearest point or <code>null</code> if there is none.
+	 */
 	public ShortPoint2D getNearestPoint(ShortPoint2D center, int maxDistance, AiPositionFilter filter) {
-		ensureSorted();
-		int resX = -1, resY = -1;
-		int median = findClosestIndex(center.x, center.y);
-		if (median >= size) {
-			median = size - 1;
-		}
-		int l = median, r = median + 1;
-		while (true) {
-			int current;
-			int rDist = r < size ? unpackX(points[r]) - center.x : maxDistance;
-			if (l >= 0 && center.x - unpackX(points[l]) <= rDist) {
-				current = points[l];
-				l--;
-			} else if (r < size && rDist < maxDistance) {
-				current = points[r];
-				r++;
-			} else {
-				break;
-			}
-
-			int x = unpackX(current);
-			int y = unpackY(current);
-			if (filter != null && !filter.contains(x, y)) {
-				continue;
-			}
+		NearestPoints nearestPoints = getIndex().getNearestPoints(center.x, center.y, 1, maxDistance, filter);
+		return nearestPoints.size() > 0 ? new ShortPoint2D(nearestPoints.getX(0), nearestPoints.getY(0)) : null;
+	}
 
-			int pDist = ShortPoint2D.getOnGridDist(center.x - x, center.y - y);
-			if (pDist < maxDistance) {
-				resX = x;
-				resY = y;
-				maxDistance = pDist;
+	/**
+	 * Finds the given number of points closest to the center.
+	 *
+	 * @param count
+	 *            The maximum number of points to return.
+	 * @param maxDistance
+	 *            The found points are closer to the center than this distance.
+	 * @param filter
+	 *            The filter the points need to pass or <code>null</code>.
+	 * @return The points ordered by their distance to the center.
+	 */
+	public List<ShortPoint2D> getNearestPoints(ShortPoint2D center, int count, int maxDistance, AiPositionFilter filter) {
+		List<ShortPoint2D> result = new ArrayList<>();
+		if (count > 0) {
+			NearestPoints nearestPoints = getIndex().getNearestPoints(center.x, center.y, count, maxDistance, filter);
+			for (int i = 0; i < nearestPoints.size(); i++) {
+				result.add(new ShortPoint2D(nearestPoints.getX(i), nearestPoints.getY(i)));
 			}
 		}
-
-		return resY >= 0 ? new ShortPoint2D(resX, resY) : null;
+		return result;
 	}
 
 	public ShortPoint2D get(int index) {
 		return new ShortPoint2D(unpackX(points[index]), unpackY(points[index]));
 	}
 
-	private int findClosestIndex(int x, int y) {
-		return Math.abs(indexOf(x, y));
-	}
-
 	public int size() {
 		return size;
 	}
@@ -279,23 +322,75 @@ public class AiPositions implements IMapArea {
 				+ pointsStr + "]";
 	}
 
+	/**
+	 * Finds the point with the lowest rating. If several points have the same rating, the one with the lowest x and then y coordinate is
+	 * returned.
+	 * <p>
+	 * If {@link Constants#PARALLEL_AI_POSITION_RATING} is enabled, large sets are rated in chunks in parallel. The rater needs to be thread safe
+	 * then and gets the best rating of its chunk only.
+	 */
 	public ShortPoint2D getBestRatedPoint(PositionRater rater) {
-		// TODO: Parallel ?
+		int[] sortedPoints = getSortedPoints();
+		long bestRatedPoint;
+		if (Constants.PARALLEL_AI_POSITION_RATING && size > RATING_CHUNK_SIZE && Runtime.getRuntime().availableProcessors() > 1) {
+			GameContext context = GameContext.current();
+			bestRatedPoint = IntStreams.range(0, (size + RATING_CHUNK_SIZE - 1) / RATING_CHUNK_SIZE).parallel().mapToLong(chunk -> {
+				GameContext previous = GameContext.bind(context);
+				try {
+					return getBestRatedPoint(rater, sortedPoints, chunk * RATING_CHUNK_SIZE, Math.min(size, (chunk + 1) * RATING_CHUNK_SIZE));
+				} finally {
+					GameContext.bind(previous);
+				}
+			}).reduce(NO_RATED_POINT, AiPositions::getBetterRatedPoint);
+		} else {
+			bestRatedPoint = getBestRatedPoint(rater, sortedPoints, 0, size);
+		}
+
+		if (bestRatedPoint == NO_RATED_POINT) {
+			return null;
+		}
+		int packedPoint = (int) bestRatedPoint;
+		return new ShortPoint2D(unpackX(packedPoint), unpackY(packedPoint));
+	}
+
+	/**
+	 * @return The rating in the upper and the packed point in the lower 32 bits, so a lower value means a better point.
+	 */
+	private static long getBestRatedPoint(PositionRater rater, int[] points, int fromIndex, int toIndex) {
 		int currentBestRating = PositionRater.RATE_INVALID;
-		ShortPoint2D currentBest = null;
-		for (int i = 0; i < size; i++) {
-			int x = unpackX(points[i]);
-			int y = unpackY(points[i]);
-			int rating = rater.rate(x, y, currentBestRating);
+		long currentBest = NO_RATED_POINT;
+		for (int i = fromIndex; i < toIndex; i++) {
+			int rating = rater.rate(unpackX(points[i]), unpackY(points[i]), currentBestRating);
 			if (rating < currentBestRating) {
 				currentBestRating = rating;
-				currentBest = new ShortPoint2D(x, y);
+				currentBest = ((long) rating << 32) | points[i];
 			}
 		}
-
 		return currentBest;
 	}
 
+	private static long getBetterRatedPoint(long first, long second) {
+		if (first == NO_RATED_POINT) {
+			return second;
+		} else if (second == NO_RATED_POINT) {
+			return first;
+		}
+		return Math.min(first, second);
+	}
+
+	/**
+	 * Streams the points that are closer to the center than the given distance.
+	 */
+	public CoordinateStream stream(ShortPoint2D center, int maxDistance) {
+		AiPositionsIndex index = getIndex();
+		return new CoordinateStream() {
+			@Override
+			public boolean iterate(IBooleanCoordinateFunction function) {
+				return index.iterateInRange(center.x, center.y, maxDistance, function);
+			}
+		};
+	}
+
 	public CoordinateStream stream() {
 		return new CoordinateStream() {
 			@Override
@@ -0,0 +1,227 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.ai.highlevel;
+
+import jsettlers.ai.highlevel.AiPositions.AiPositionFilter;
+import jsettlers.common.position.ShortPoint2D;
+import jsettlers.common.utils.coordinates.IBooleanCoordinateFunction;
+
+/**
+ * A grid of buckets over the points of an {@link AiPositions} set. The nearest points around a center are found by visiting the buckets in rings
+ * around the center, so a query only looks at the points close to the center.
+ * <p>
+ * The index is immutable and can be read by several threads. Points with the same distance are ordered by their packed coordinate, so the
+ * results do not depend on the order the points were added in.
+ *
+ * @author Andreas Eberle
+ */
+final class AiPositionsIndex {
+	private static final int BUCKET_SHIFT = 3;
+	private static final int MAX_COORDINATE = 0x7fff;
+
+	private final int   minBucketX;
+	private final int   minBucketY;
+	private final int   bucketsX;
+	private final int   bucketsY;
+	private final int[] bucketStarts;
+	private final int[] points;
+
+	AiPositionsIndex(int[] packedPoints, int size) {
+		int minX = MAX_COORDINATE, minY = MAX_COORDINATE, maxX = 0, maxY = 0;
+		for (int i = 0; i < size; i++) {
+			int x = AiPositions.unpackX(packedPoints[i]);
+			int y = AiPositions.unpackY(packedPoints[i]);
+			minX = Math.min(minX, x);
+			minY = Math.min(minY, y);
+			maxX = Math.max(maxX, x);
+			maxY = Math.max(maxY, y);
+		}
+
+		minBucketX = minX >> BUCKET_SHIFT;
+		minBucketY = minY >> BUCKET_SHIFT;
+		bucketsX = size > 0 ? (maxX >> BUCKET_SHIFT) - minBucketX + 1 : 0;
+		bucketsY = size > 0 ? (maxY >> BUCKET_SHIFT) - minBucketY + 1 : 0;
+
+		bucketStarts = new int[bucketsX * bucketsY + 1];
+		for (int i = 0; i < size; i++) {
+			bucketStarts[getBucket(packedPoints[i]) + 1]++;
+		}
+		for (int bucket = 0; bucket < bucketsX * bucketsY; bucket++) {
+			bucketStarts[bucket + 1] += bucketStarts[bucket];
+		}
+
+		int[] nextIndexes = new int[bucketsX * bucketsY];
+		System.arraycopy(bucketStarts, 0, nextIndexes, 0, nextIndexes.length);
+		points = new int[size];
+		for (int i = 0; i < size; i++) {
+			points[nextIndexes[getBucket(packedPoints[i])]++] = packedPoints[i];
+		}
+	}
+
+	private int getBucket(int packedPoint) {
+		int bucketX = (AiPositions.unpackX(packedPoint) >> BUCKET_SHIFT) - minBucketX;
+		int bucketY = (AiPositions.unpackY(packedPoint) >> BUCKET_SHIFT) - minBucketY;
+		return bucketX * bucketsY + bucketY;
+	}
+
+	/**
+	 * Finds the points closest to the center.
+	 *
+	 * @param count
+	 *            The maximum number of points to find.
+	 * @param maxDistance
+	 *            The found points are closer to the center than this distance.
+	 * @param filter
+	 *            The filter the points need to pass or <code>null</code>. It is only called for points that are closer than the points found so
+	 *            far.
+	 * @return The found points ordered by their distance.
+	 */
+	NearestPoints getNearestPoints(int centerX, int centerY, int count, int maxDistance, AiPositionFilter filter) {
+		NearestPoints nearestPoints = new NearestPoints(count, maxDistance);
+		if (points.length == 0) {
+			return nearestPoints;
+		}
+
+		int centerBucketX = (centerX >> BUCKET_SHIFT) - minBucketX;
+		int centerBucketY = (centerY >> BUCKET_SHIFT) - minBucketY;
+		int maxRing = Math.max(Math.max(centerBucketX, bucketsX - 1 - centerBucketX), Math.max(centerBucketY, bucketsY - 1 - centerBucketY));
+
+		for (int ring = 0; ring <= maxRing; ring++) {
+			// points of a ring are at least this far away in x or y direction
+			int minRingDistance = ring == 0 ? 0 : ((ring - 1) << BUCKET_SHIFT) + 1;
+			if (!nearestPoints.accepts(minRingDistance)) {
+				break;
+			}
+
+			int fromBucketX = Math.max(centerBucketX - ring, 0);
+			int toBucketX = Math.min(centerBucketX + ring, bucketsX - 1);
+			for (int bucketX = fromBucketX; bucketX <= toBucketX; bucketX++) {
+				boolean borderColumn = bucketX == centerBucketX - ring || bucketX == centerBucketX + ring;
+				int stepY = borderColumn ? 1 : 2 * ring;
+				for (int bucketY = centerBucketY - ring; bucketY <= centerBucketY + ring; bucketY += stepY) {
+					if (bucketY >= 0 && bucketY < bucketsY && nearestPoints.accepts(getMinDistance(bucketX, bucketY, centerX, centerY))) {
+						offerBucket(bucketX * bucketsY + bucketY, centerX, centerY, filter, nearestPoints);
+					}
+				}
+			}
+		}
+		return nearestPoints;
+	}
+
+	/**
+	 * @return The minimum distance of the points of the bucket to the center in x or y direction. The distance on the grid is at least as high.
+	 */
+	private int getMinDistance(int bucketX, int bucketY, int centerX, int centerY) {
+		int minX = (bucketX + minBucketX) << BUCKET_SHIFT;
+		int minY = (bucketY + minBucketY) << BUCKET_SHIFT;
+		int distanceX = Math.max(0, Math.max(minX - centerX, centerX - (minX + (1 << BUCKET_SHIFT) - 1)));
+		int distanceY = Math.max(0, Math.max(minY - centerY, centerY - (minY + (1 << BUCKET_SHIFT) - 1)));
+		return Math.max(distanceX, distanceY);
+	}
+
+	private void offerBucket(int bucket, int centerX, int centerY, AiPositionFilter filter, NearestPoints nearestPoints) {
+		for (int i = bucketStarts[bucket]; i < bucketStarts[bucket + 1]; i++) {
+			int point = points[i];
+			int x = AiPositions.unpackX(point);
+			int y = AiPositions.unpackY(point);
+			int distance = ShortPoint2D.getOnGridDist(centerX - x, centerY - y);
+			if (nearestPoints.accepts(distance, point) && (filter == null || filter.contains(x, y))) {
+				nearestPoints.add(distance, point);
+			}
+		}
+	}
+
+	/**
+	 * Calls the function for all points that are closer to the center than the given distance. The points are visited bucket by bucket.
+	 *
+	 * @return false if the function aborted the iteration.
+	 */
+	boolean iterateInRange(int centerX, int centerY, int maxDistance, IBooleanCoordinateFunction function) {
+		int reach = Math.min(maxDistance - 1, MAX_COORDINATE);
+		int fromBucketX = Math.max(((centerX - reach) >> BUCKET_SHIFT) - minBucketX, 0);
+		int toBucketX = Math.min(((centerX + reach) >> BUCKET_SHIFT) - minBucketX, bucketsX - 1);
+		int fromBucketY = Math.max(((centerY - reach) >> BUCKET_SHIFT) - minBucketY, 0);
+		int toBucketY = Math.min(((centerY + reach) >> BUCKET_SHIFT) - minBucketY, bucketsY - 1);
+
+		for (int bucketX = fromBucketX; bucketX <= toBucketX; bucketX++) {
+			for (int bucketY = fromBucketY; bucketY <= toBucketY; bucketY++) {
+				int bucket = bucketX * bucketsY + bucketY;
+				for (int i = bucketStarts[bucket]; i < bucketStarts[bucket + 1]; i++) {
+					int x = AiPositions.unpackX(points[i]);
+					int y = AiPositions.unpackY(points[i]);
+					if (ShortPoint2D.getOnGridDist(centerX - x, centerY - y) < maxDistance && !function.apply(x, y)) {
+						return false;
+					}
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * The result of a nearest points query, ordered by the distance and then by the packed coordinate.
+	 */
+	static final class NearestPoints {
+		private final int[] distances;
+		private final int[] points;
+		private final int   maxDistance;
+		private int         size;
+
+		NearestPoints(int count, int maxDistance) {
+			this.distances = new int[count];
+			this.points = new int[count];
+			this.maxDistance = maxDistance;
+		}
+
+		/**
+		 * @return true if a point with the given distance could still be added.
+		 */
+		boolean accepts(int distance) {
+			return distance < maxDistance && (size < points.length || distance <= distances[size - 1]);
+		}
+
+		boolean accepts(int distance, int point) {
+			return distance < maxDistance && (size < points.length || isBefore(distance, point, size - 1));
+		}
+
+		private boolean isBefore(int distance, int point, int index) {
+			return distance < distances[index] || distance == distances[index] && point < points[index];
+		}
+
+		void add(int distance, int point) {
+			int index = Math.min(size, points.length - 1);
+			while (index > 0 && isBefore(distance, point, index - 1)) {
+				distances[index] = distances[index - 1];
+				points[index] = points[index - 1];
+				index--;
+			}
+			distances[index] = distance;
+			points[index] = point;
+			size = Math.min(size + 1, points.length);
+		}
+
+		int size() {
+			return size;
+		}
+
+		int getX(int index) {
+			return AiPositions.unpackX(points[index]);
+		}
+
+		int getY(int index) {
+			return AiPositions.unpackY(points[index]);
+		}
+	}
+}
@@ -16,6 +16,7 @@ package jsettlers.ai.highlevel;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
@@ -25,10 +26,10 @@ import java.util.Queue;
 import java.util.Set;
 import java.util.Vector;
 
-import java8.util.Comparators;
 import java8.util.J8Arrays;
 import java8.util.Maps;
 import java8.util.Objects;
+import java8.util.function.Function;
 import java8.util.stream.Collectors;
 import jsettlers.ai.highlevel.AiPositions.AiPositionFilter;
 import jsettlers.algorithms.construction.AbstractConstructionMarkableMap;
@@ -58,6 +59,7 @@ import jsettlers.logic.map.grid.movable.MovableGrid;
 import jsettlers.logic.map.grid.objects.AbstractHexMapObject;
 import jsettlers.logic.map.grid.objects.ObjectsGrid;
 import jsettlers.logic.map.grid.partition.PartitionsGrid;
+import jsettlers.logic.movable.Movable;
 import jsettlers.logic.movable.interfaces.ILogicMovable;
 import jsettlers.logic.player.Player;
 
@@ -85,6 +87,15 @@ public class AiStatistics {
 	private static final EBuildingType[] REFERENCE_POINT_FINDER_BUILDING_ORDER = { LUMBERJACK, TOWER, BIG_TOWER, CASTLE };
 
 	private static final int NEAR_STONE_DISTANCE = 5;
+	/**
+	 * The distance up to which a change of a position can change the statistics of other positions.
+	 */
+	private static final int DEPENDENCY_RADIUS = 3;
+	/**
+	 * Objects that change their state without informing about it.
+	 */
+	private static final EMapObjectType[] CHANGING_OBJECT_TYPES = { TREE_GROWING, TREE_ADULT, EMapObjectType.TREE_DEAD, STONE,
+			EMapObjectType.WINE_GROWING, EMapObjectType.WINE_HARVESTABLE, EMapObjectType.WINE_DEAD };
 
 	private final MainGrid mainGrid;
 	private final Queue<Building> buildings;
@@ -102,6 +113,27 @@ public class AiStatistics {
 	private final long[] resourceCountInDefaultPartition;
 	private final List<Player> players;
 
+	private final short width;
+	private final short height;
+	// all positions are stored with the index x * height + y to iterate them in the same order as a scan over the map
+	private final BitSet dirtyPositions;
+	private final BitSet objectPositions;
+	private final BitSet[] resourcePositions;
+	private final boolean[] resourcePositionsChanged;
+	private final BitSet freeTrees;
+	private final BitSet freeStones;
+	private final BitSet freeRivers;
+	private boolean freeLandChanged;
+	private final BitSet playerLand;
+	private final BitSet playerStones;
+	private final BitSet playerTrees;
+	private final BitSet playerRivers;
+	private final BitSet playerWine;
+	private final BitSet playerBorders;
+	private final short[] resourceCounts;
+	private final byte[] grassCounts;
+	private boolean incremental;
+
 	public AiStatistics(MainGrid mainGrid) {
 		this.mainGrid = mainGrid;
 		buildings = Building.getAllBuildings();
@@ -124,6 +156,31 @@ public class AiStatistics {
 		}
 		resourceCountInDefaultPartition = new long[EResourceType.VALUES.length];
 		players = J8Arrays.stream(partitionsGrid.getPlayers()).filter(Objects::nonNull).collect(Collectors.toList());
+
+		width = mainGrid.getWidth();
+		height = mainGrid.getHeight();
+		int area = width * height;
+		dirtyPositions = new BitSet(area);
+		dirtyPositions.set(0, area);
+		objectPositions = new BitSet(area);
+		resourcePositions = new BitSet[EResourceType.VALUES.length];
+		for (int i = 0; i < resourcePositions.length; i++) {
+			resourcePositions[i] = new BitSet(area);
+		}
+		resourcePositionsChanged = new boolean[EResourceType.VALUES.length];
+		freeTrees = new BitSet(area);
+		freeStones = new BitSet(area);
+		freeRivers = new BitSet(area);
+		playerLand = new BitSet(area);
+		playerStones = new BitSet(area);
+		playerTrees = new BitSet(area);
+		playerRivers = new BitSet(area);
+		playerWine = new BitSet(area);
+		playerBorders = new BitSet(area);
+		resourceCounts = new short[area];
+		Arrays.fill(resourceCounts, (short) -1);
+		grassCounts = new byte[area];
+		Arrays.fill(grassCounts, (byte) -1);
 	}
 
 	public byte getFlatternEffortAtPositionForBuilding(final ShortPoint2D position, final EBuildingType buildingType) {
@@ -134,18 +191,56 @@ public class AiStatistics {
 		return flattenEffort;
 	}
 
+	/**
+	 * Lets the statistics listen to the changes of the map. After this call, {@link #updateStatistics()} only recalculates the positions around
+	 * changed positions instead of scanning the whole map. Only one statistics object of a grid can listen to it.
+	 */
+	public void enableIncrementalUpdates() {
+		incremental = true;
+		mainGrid.setPositionChangedListener(this::positionChangedAt);
+	}
+
+	private void positionChangedAt(int x, int y) {
+		int minX = Math.max(0, x - DEPENDENCY_RADIUS);
+		int maxX = Math.min(width - 1, x + DEPENDENCY_RADIUS);
+		int minY = Math.max(0, y - DEPENDENCY_RADIUS);
+		int maxY = Math.min(height - 1, y + DEPENDENCY_RADIUS);
+		if (minY > maxY) {
+			return;
+		}
+
+		for (int currX = minX; currX <= maxX; currX++) {
+			dirtyPositions.set(currX * height + minY, currX * height + maxY + 1);
+		}
+	}
+
 	public void updateStatistics() {
 		for (PlayerStatistic playerStatistic : playerStatistics) {
 			playerStatistic.clearAll();
 		}
-		sortedRiversInDefaultPartition.clear();
-		sortedCuttableObjectsInDefaultPartition.clear();
-		for (AiPositions xCoordinatesMap : sortedResourceTypes) {
-			xCoordinatesMap.clear();
-		}
 
 		updateBuildingStatistics();
+		updatePartitionIdsToBuildOn();
 		updateMapStatistics();
+		updateMovableStatistics();
+		sortPositions();
+	}
+
+	/**
+	 * Sorts all position sets, so the AIs can query them in parallel without copying the points.
+	 */
+	private void sortPositions() {
+		for (AiPositions positions : sortedCuttableObjectsInDefaultPartition.values()) {
+			positions.sort();
+		}
+		for (AiPositions positions : sortedResourceTypes) {
+			positions.sort();
+		}
+		sortedRiversInDefaultPartition.sort();
+
+		for (PlayerStatistic playerStatistic : playerStatistics) {
+			playerStatistic.sortPositions();
+		}
 	}
 
 	private void updateBuildingStatistics() {
@@ -193,83 +288,245 @@ public class AiStatistics {
 	}
 
 	private void updateMapStatistics() {
-		aiMapInformation.clear();
-		updatePartitionIdsToBuildOn();
-		short width = mainGrid.getWidth();
-		short height = mainGrid.getHeight();
-		Arrays.fill(resourceCountInDefaultPartition, 0);
-
-		for (short x = 0; x < width; x++) {
-			for (short y = 0; y < height; y++) {
-				Player player = partitionsGrid.getPlayerAt(x, y);
-				int mapInformationPlayerId;
-				if (player != null) {
-					mapInformationPlayerId = player.playerId;
-				} else {
-					mapInformationPlayerId = aiMapInformation.resourceAndGrassCount.length - 1;
-				}
-				if (landscapeGrid.getResourceAmountAt(x, y) > 0) {
-					EResourceType resourceType = landscapeGrid.getResourceTypeAt(x, y);
-					sortedResourceTypes[resourceType.ordinal].addNoCollission(x, y);
-					if (resourceType != EResourceType.FISH) {
-						aiMapInformation.resourceAndGrassCount[mapInformationPlayerId][resourceType.ordinal]++;
-						if (player != null) {
-							playerStatistics[player.playerId].resourceCount[resourceType.ordinal]++;
-						} else {
-							resourceCountInDefaultPartition[resourceType.ordinal]++;
-						}
-					} else if (landscapeGrid.getLandscapeTypeAt(x, y) == ELandscapeType.WATER1) {
-						int fishMapInformationPlayerId = mapInformationPlayerId;
-						if (mapInformationPlayerId == aiMapInformation.resourceAndGrassCount.length - 1) {
-							fishMapInformationPlayerId = mapInformationPlayerIdOfPosition((short) (x + 3), y);
-							if (fishMapInformationPlayerId == aiMapInformation.resourceAndGrassCount.length - 1) {
-								fishMapInformationPlayerId = mapInformationPlayerIdOfPosition((short) (x - 3), y);
-								if (fishMapInformationPlayerId == aiMapInformation.resourceAndGrassCount.length - 1) {
-									fishMapInformationPlayerId = mapInformationPlayerIdOfPosition(x, (short) (y + 3));
-									if (fishMapInformationPlayerId == aiMapInformation.resourceAndGrassCount.length - 1) {
-										fishMapInformationPlayerId = mapInformationPlayerIdOfPosition(x, (short) (y - 3));
-									}
-								}
-							}
-						}
-						aiMapInformation.resourceAndGrassCount[fishMapInformationPlayerId][resourceType.ordinal]++;
+		if (!incremental) {
+			dirtyPositions.set(0, width * height);
+		}
+
+		for (int index = dirtyPositions.nextSetBit(0); index >= 0; index = dirtyPositions.nextSetBit(index + 1)) {
+			updatePosition((short) (index / height), (short) (index % height), index);
+		}
+		// the state of trees, stones and wine changes without a notification
+		for (int index = objectPositions.nextSetBit(0); index >= 0; index = objectPositions.nextSetBit(index + 1)) {
+			if (!dirtyPositions.get(index)) {
+				short x = (short) (index / height);
+				short y = (short) (index % height);
+				updateObjectsAt(x, y, index, partitionsGrid.getPlayerAt(x, y));
+			}
+		}
+		dirtyPositions.clear();
+
+		for (int i = 0; i < sortedResourceTypes.length; i++) {
+			if (resourcePositionsChanged[i]) {
+				copyPositions(resourcePositions[i], sortedResourceTypes[i]);
+				resourcePositionsChanged[i] = false;
+			}
+		}
+		if (freeLandChanged) {
+			updateCuttableObjectsInDefaultPartition(TREE_ADULT, freeTrees);
+			updateCuttableObjectsInDefaultPartition(STONE, freeStones);
+			copyPositions(freeRivers, sortedRiversInDefaultPartition);
+			freeLandChanged = false;
+		}
+
+		updatePlayerLand();
+		for (int index = freeStones.nextSetBit(0); index >= 0; index = freeStones.nextSetBit(index + 1)) {
+			updateNearStones((short) (index / height), (short) (index % height));
+		}
+	}
+
+	/**
+	 * Recalculates everything the given position adds to the statistics, except of the parts that depend on the partition to build on.
+	 */
+	private void updatePosition(short x, short y, int index) {
+		Player player = partitionsGrid.getPlayerAt(x, y);
+		int mapInformationPlayerId;
+		if (player != null) {
+			mapInformationPlayerId = player.playerId;
+		} else {
+			mapInformationPlayerId = aiMapInformation.resourceAndGrassCount.length - 1;
+		}
+
+		ELandscapeType landscape = landscapeGrid.getLandscapeTypeAt(x, y);
+		updateResourceAt(x, y, index, player, mapInformationPlayerId);
+		updateGrassAt(index, landscape.isGrass() ? mapInformationPlayerId : -1);
+
+		freeLandChanged |= update(freeRivers, index, player == null && landscape.isRiver());
+		playerLand.set(index, player != null && !flagsGrid.isProtected(x, y));
+		playerRivers.set(index, player != null && landscape.isRiver());
+		playerBorders.set(index, player != null && hasNeighborIngestibleByPioneersOf(x, y, player));
+
+		updateObjectsAt(x, y, index, player);
+	}
+
+	private void updateResourceAt(short x, short y, int index, Player player, int mapInformationPlayerId) {
+		removeResourceCount(index);
+
+		EResourceType resourceType = landscapeGrid.getResourceAmountAt(x, y) > 0 ? landscapeGrid.getResourceTypeAt(x, y) : null;
+		for (EResourceType currType : EResourceType.VALUES) {
+			resourcePositionsChanged[currType.ordinal] |= update(resourcePositions[currType.ordinal], index, currType == resourceType);
+		}
+
+		if (resourceType == null) {
+			return;
+		}
+		if (resourceType != EResourceType.FISH) {
+			addResourceCount(index, mapInformationPlayerId, resourceType);
+		} else if (landscapeGrid.getLandscapeTypeAt(x, y) == ELandscapeType.WATER1) {
+			int fishMapInformationPlayerId = mapInformationPlayerId;
+			if (mapInformationPlayerId == aiMapInformation.resourceAndGrassCount.length - 1) {
+				fishMapInformationPlayerId = mapInformationPlayerIdOfPosition((short) (x + 3), y);
+				if (fishMapInformationPlayerId == aiMapInformation.resourceAndGrassCount.length - 1) {
+					fishMapInformationPlayerId = mapInformationPlayerIdOfPosition((short) (x - 3), y);
+					if (fishMapInformationPlayerId == aiMapInformation.resourceAndGrassCount.length - 1) {
+						fishMapInformationPlayerId = mapInformationPlayerIdOfPosition(x, (short) (y + 3));
 						if (fishMapInformationPlayerId == aiMapInformation.resourceAndGrassCount.length - 1) {
-							resourceCountInDefaultPartition[resourceType.ordinal]++;
-						} else {
-							playerStatistics[fishMapInformationPlayerId].resourceCount[resourceType.ordinal]++;
+							fishMapInformationPlayerId = mapInformationPlayerIdOfPosition(x, (short) (y - 3));
 						}
 					}
 				}
-				if (landscapeGrid.getLandscapeTypeAt(x, y).isGrass()) {
-					aiMapInformation.resourceAndGrassCount[mapInformationPlayerId][AiMapInformation.GRASS_INDEX]++;
-				}
-				ILogicMovable movable = movableGrid.getMovableAt(x, y);
-				if (movable != null) {
-					Player movablePlayer = movable.getPlayer();
-					byte movablePlayerId = movablePlayer.playerId;
-					PlayerStatistic movablePlayerStatistic = playerStatistics[movablePlayerId];
-					EMovableType movableType = movable.getMovableType();
-					Maps.computeIfAbsent(movablePlayerStatistic.movablePositions, movableType, key -> new ArrayList<>()).add(movable.getPosition());
-
-					if (movableType == BEARER && movable.getAction() == EMovableAction.NO_ACTION) {
-						playerStatistics[movablePlayerId].joblessBearerPositions.add(movable.getPosition());
-					}
-					if (player != null && player.playerId != movablePlayerId && movableType.isSoldier() && getEnemiesOf(player).contains(movablePlayer)) {
-						playerStatistics[player.playerId].enemyTroopsInTown.addNoCollission(movable.getPosition().x, movable.getPosition().y);
-					}
-				}
-				if (player == null) {
-					updateFreeLand(x, y);
-				} else if (partitionsGrid.getPartitionIdAt(x, y) == playerStatistics[player.playerId].partitionIdToBuildOn) {
-					updatePlayerLand(x, y, player);
-				}
-				if (player != null && hasNeighborIngestibleByPioneersOf(x, y, player)) {
-					if (partitionsGrid.getPartitionIdAt(x, y) == playerStatistics[player.playerId].partitionIdToBuildOn) {
-						playerStatistics[player.playerId].borderIngestibleByPioneers.add(x, y);
-					} else {
-						playerStatistics[player.playerId].otherPartitionBorder.add(x, y);
-					}
-				}
+			}
+			addResourceCount(index, fishMapInformationPlayerId, resourceType);
+		}
+	}
+
+	private void addResourceCount(int index, int mapInformationPlayerId, EResourceType resourceType) {
+		resourceCounts[index] = (short) (mapInformationPlayerId * EResourceType.VALUES.length + resourceType.ordinal);
+		changeResourceCount(mapInformationPlayerId, resourceType.ordinal, 1);
+	}
+
+	private void removeResourceCount(int index) {
+		short resourceCount = resourceCounts[index];
+		if (resourceCount >= 0) {
+			changeResourceCount(resourceCount / EResourceType.VALUES.length, resourceCount % EResourceType.VALUES.length, -1);
+			resourceCounts[index] = -1;
+		}
+	}
+
+	private void changeResourceCount(int mapInformationPlayerId, int resourceTypeIndex, int delta) {
+		aiMapInformation.resourceAndGrassCount[mapInformationPlayerId][resourceTypeIndex] += delta;
+		if (mapInformationPlayerId == aiMapInformation.resourceAndGrassCount.length - 1) {
+			resourceCountInDefaultPartition[resourceTypeIndex] += delta;
+		} else {
+			playerStatistics[mapInformationPlayerId].resourceCount[resourceTypeIndex] += delta;
+		}
+	}
+
+	private void updateGrassAt(int index, int mapInformationPlayerId) {
+		int oldMapInformationPlayerId = grassCounts[index];
+		if (oldMapInformationPlayerId != mapInformationPlayerId) {
+			if (oldMapInformationPlayerId >= 0) {
+				aiMapInformation.resourceAndGrassCount[oldMapInformationPlayerId][AiMapInformation.GRASS_INDEX]--;
+			}
+			if (mapInformationPlayerId >= 0) {
+				aiMapInformation.resourceAndGrassCount[mapInformationPlayerId][AiMapInformation.GRASS_INDEX]++;
+			}
+			grassCounts[index] = (byte) mapInformationPlayerId;
+		}
+	}
+
+	private void updateObjectsAt(short x, short y, int index, Player player) {
+		AbstractHexMapObject objects = objectsGrid.getObjectsAt(x, y);
+		objectPositions.set(index, objects != null && objects.hasMapObjectTypes(CHANGING_OBJECT_TYPES));
+
+		boolean freeObjects = player == null && objects != null;
+		freeLandChanged |= update(freeTrees, index, freeObjects && objects.hasCuttableObject(TREE_ADULT));
+		freeLandChanged |= update(freeStones, index, freeObjects && objects.hasCuttableObject(STONE));
+
+		boolean protectedPlayerObjects = player != null && objects != null && flagsGrid.isProtected(x, y);
+		boolean stone = protectedPlayerObjects && objects.hasCuttableObject(STONE) && isCuttableByPlayer(x, y, player.playerId);
+		boolean tree = protectedPlayerObjects && !stone && objects.hasMapObjectTypes(TREE_GROWING, TREE_ADULT) && isCuttableByPlayer(x, y, player.playerId);
+		playerStones.set(index, stone);
+		playerTrees.set(index, tree);
+		playerWine.set(index, player != null && objects != null && objects.hasMapObjectTypes(EMapObjectType.WINE_GROWING, EMapObjectType.WINE_HARVESTABLE));
+	}
+
+	/**
+	 * Sets the given bit.
+	 *
+	 * @return true if the bit changed.
+	 */
+	private static boolean update(BitSet positions, int index, boolean value) {
+		if (positions.get(index) != value) {
+			positions.set(index, value);
+			return true;
+		}
+		return false;
+	}
+
+	private void copyPositions(BitSet positions, AiPositions target) {
+		target.clear();
+		for (int index = positions.nextSetBit(0); index >= 0; index = positions.nextSetBit(index + 1)) {
+			target.addNoCollission(index / height, index % height);
+		}
+	}
+
+	private void updateCuttableObjectsInDefaultPartition(EMapObjectType cuttableObject, BitSet positions) {
+		if (positions.isEmpty()) {
+			sortedCuttableObjectsInDefaultPartition.remove(cuttableObject);
+		} else {
+			copyPositions(positions, Maps.computeIfAbsent(sortedCuttableObjectsInDefaultPartition, cuttableObject, key -> new AiPositions()));
+		}
+	}
+
+	/**
+	 * Fills the positions of the players that depend on the partition to build on. Merges of partitions don't inform about the positions
+	 * whose partition changed, so this is done for all positions of the players in every update.
+	 */
+	private void updatePlayerLand() {
+		addPositionsOnPartitionToBuildOn(playerLand, playerStatistic -> playerStatistic.landToBuildOn);
+		addPositionsOnPartitionToBuildOn(playerStones, playerStatistic -> playerStatistic.stones);
+		addPositionsOnPartitionToBuildOn(playerTrees, playerStatistic -> playerStatistic.trees);
+		addPositionsOnPartitionToBuildOn(playerRivers, playerStatistic -> playerStatistic.rivers);
+
+		for (int index = playerWine.nextSetBit(0); index >= 0; index = playerWine.nextSetBit(index + 1)) {
+			PlayerStatistic playerStatistic = playerStatistics[partitionsGrid.getPlayerIdAt(index / height, index % height)];
+			if (partitionsGrid.getPartitionIdAt(index / height, index % height) == playerStatistic.partitionIdToBuildOn) {
+				playerStatistic.wineCount++;
+			}
+		}
+
+		for (int index = playerBorders.nextSetBit(0); index >= 0; index = playerBorders.nextSetBit(index + 1)) {
+			int x = index / height;
+			int y = index % height;
+			PlayerStatistic playerStatistic = playerStatistics[partitionsGrid.getPlayerIdAt(x, y)];
+			if (partitionsGrid.getPartitionIdAt(x, y) == playerStatistic.partitionIdToBuildOn) {
+				playerStatistic.borderIngestibleByPioneers.addNoCollission(x, y);
+			} else {
+				playerStatistic.otherPartitionBorder.addNoCollission(x, y);
+			}
+		}
+	}
+
+	private void addPositionsOnPartitionToBuildOn(BitSet positions, Function<PlayerStatistic, AiPositions> targetPositions) {
+		for (int index = positions.nextSetBit(0); index >= 0; index = positions.nextSetBit(index + 1)) {
+			int x = index / height;
+			int y = index % height;
+			PlayerStatistic playerStatistic = playerStatistics[partitionsGrid.getPlayerIdAt(x, y)];
+			if (partitionsGrid.getPartitionIdAt(x, y) == playerStatistic.partitionIdToBuildOn) {
+				targetPositions.apply(playerStatistic).addNoCollission(x, y);
+			}
+		}
+	}
+
+	private void updateMovableStatistics() {
+		List<ILogicMovable> movables = new ArrayList<>();
+		for (ILogicMovable movable : Movable.getAllMovables()) {
+			ShortPoint2D position = movable.getPosition();
+			if (mainGrid.isInBounds(position.x, position.y) && movableGrid.getMovableAt(position.x, position.y) == movable) {
+				movables.add(movable);
+			}
+		}
+		// use the order of a scan over the map
+		Collections.sort(movables, (first, second) -> {
+			ShortPoint2D firstPosition = first.getPosition();
+			ShortPoint2D secondPosition = second.getPosition();
+			return firstPosition.x != secondPosition.x ? firstPosition.x - secondPosition.x : firstPosition.y - secondPosition.y;
+		});
+
+		for (ILogicMovable movable : movables) {
+			ShortPoint2D position = movable.getPosition();
+			Player player = partitionsGrid.getPlayerAt(position.x, position.y);
+			Player movablePlayer = movable.getPlayer();
+			byte movablePlayerId = movablePlayer.playerId;
+			PlayerStatistic movablePlayerStatistic = playerStatistics[movablePlayerId];
+			EMovableType movableType = movable.getMovableType();
+			Maps.computeIfAbsent(movablePlayerStatistic.movablePositions, movableType, key -> new ArrayList<>()).add(position);
+
+			if (movableType == BEARER && movable.getAction() == EMovableAction.NO_ACTION) {
+				playerStatistics[movablePlayerId].joblessBearerPositions.add(position);
+			}
+			if (player != null && player.playerId != movablePlayerId && movableType.isSoldier() && getEnemiesOf(player).contains(movablePlayer)) {
+				playerStatistics[player.playerId].enemyTroopsInTown.addNoCollission(position.x, position.y);
 			}
 		}
 	}
@@ -301,30 +558,6 @@ public class AiStatistics {
 				&& !partitionsGrid.isEnforcedByTower(x, y);
 	}
 
-	private void updatePlayerLand(short x, short y, Player player) {
-		byte playerId = player.playerId;
-		PlayerStatistic playerStatistic = playerStatistics[playerId];
-		if (mainGrid.getFlagsGrid().isProtected(x, y)) {
-			AbstractHexMapObject o = objectsGrid.getObjectsAt(x, y);
-			if (o != null) {
-				if (o.hasCuttableObject(STONE) && isCuttableByPlayer(x, y, player.playerId)) {
-					playerStatistic.stones.addNoCollission(x, y);
-				} else if (o.hasMapObjectTypes(TREE_GROWING, TREE_ADULT) && isCuttableByPlayer(x, y, player.playerId)) {
-					playerStatistic.trees.addNoCollission(x, y);
-				}
-			}
-		} else {
-			playerStatistic.landToBuildOn.addNoCollission(x, y);
-		}
-		ELandscapeType landscape = landscapeGrid.getLandscapeTypeAt(x, y);
-		if (landscape.isRiver()) {
-			playerStatistic.rivers.addNoCollission(x, y);
-		}
-		if (objectsGrid.hasMapObjectType(x, y, EMapObjectType.WINE_GROWING, EMapObjectType.WINE_HARVESTABLE)) {
-			playerStatistic.wineCount++;
-		}
-	}
-
 	private boolean isCuttableByPlayer(short x, short y, byte playerId) {
 		byte[] playerIds = new byte[4];
 		playerIds[0] = partitionsGrid.getPlayerIdAt(x - 2, y - 2);
@@ -339,30 +572,6 @@ public class AiStatistics {
 		return true;
 	}
 
-	private void updateFreeLand(short x, short y) {
-		if (objectsGrid.hasCuttableObject(x, y, TREE_ADULT)) {
-			AiPositions trees = sortedCuttableObjectsInDefaultPartition.get(TREE_ADULT);
-			if (trees == null) {
-				trees = new AiPositions();
-				sortedCuttableObjectsInDefaultPartition.put(TREE_ADULT, trees);
-			}
-			trees.addNoCollission(x, y);
-		}
-		if (objectsGrid.hasCuttableObject(x, y, STONE)) {
-			AiPositions stones = sortedCuttableObjectsInDefaultPartition.get(STONE);
-			if (stones == null) {
-				stones = new AiPositions();
-				sortedCuttableObjectsInDefaultPartition.put(STONE, stones);
-			}
-			stones.addNoCollission(x, y);
-			updateNearStones(x, y);
-		}
-		ELandscapeType landscape = landscapeGrid.getLandscapeTypeAt(x, y);
-		if (landscape.isRiver()) {
-			sortedRiversInDefaultPartition.addNoCollission(x, y);
-		}
-	}
-
 	private void updateNearStones(short x, short y) {
 		for (EDirection dir : EDirection.VALUES) {
 			int currX = dir.getNextTileX(x, NEAR_STONE_DISTANCE);
@@ -568,25 +777,16 @@ public class AiStatistics {
 	}
 
 	public static ShortPoint2D detectNearestPointFromList(ShortPoint2D referencePoint, List<ShortPoint2D> points) {
-		if (points.isEmpty()) {
-			return null;
-		}
-
-		return detectNearestPointsFromList(referencePoint, points, 1).get(0);
-	}
-
-	private static List<ShortPoint2D> detectNearestPointsFromList(final ShortPoint2D referencePoint, List<ShortPoint2D> points, int amountOfPointsToDetect) {
-		if (amountOfPointsToDetect <= 0) {
-			return Collections.emptyList();
-		}
-
-		if (points.size() <= amountOfPointsToDetect) {
-			return points;
+		ShortPoint2D nearestPoint = null;
+		int nearestDistance = Integer.MAX_VALUE;
+		for (ShortPoint2D point : points) {
+			int distance = point.getOnGridDistTo(referencePoint);
+			if (distance < nearestDistance) {
+				nearestPoint = point;
+				nearestDistance = distance;
+			}
 		}
-
-		Collections.sort(points, Comparators.comparingInt(o -> o.getOnGridDistTo(referencePoint)));
-
-		return points.subList(0, amountOfPointsToDetect);
+		return nearestPoint;
 	}
 
 	public int getNumberOfMaterialTypeForPlayer(EMaterialType type, byte playerId) {
@@ -700,6 +900,18 @@ public class AiStatistics {
 		return playerStatistics[playerId].stonesNearBy;
 	}
 
+	AiPositions getResourcePositions(EResourceType resourceType) {
+		return sortedResourceTypes[resourceType.ordinal];
+	}
+
+	AiPositions getCuttableObjectsInDefaultPartition(EMapObjectType cuttableObject) {
+		return sortedCuttableObjectsInDefaultPartition.get(cuttableObject);
+	}
+
+	AiPositions getRiversInDefaultPartition() {
+		return sortedRiversInDefaultPartition;
+	}
+
 	private static class PlayerStatistic {
 		ShortPoint2D referencePosition;
 		final int[] totalBuildingsNumbers = new int[EBuildingType.NUMBER_OF_BUILDINGS];
@@ -751,10 +963,20 @@ public class AiStatistics {
 			clearIntegers();
 		}
 
+		void sortPositions() {
+			landToBuildOn.sort();
+			borderIngestibleByPioneers.sort();
+			otherPartitionBorder.sort();
+			stones.sort();
+			stonesNearBy.sort();
+			trees.sort();
+			rivers.sort();
+			enemyTroopsInTown.sort();
+		}
+
 		private void clearIntegers() {
 			Arrays.fill(totalBuildingsNumbers, 0);
 			Arrays.fill(buildingsNumbers, 0);
-			Arrays.fill(resourceCount, 0);
 			numberOfNotFinishedBuildings = 0;
 			numberOfTotalBuildings = 0;
 			numberOfNotOccupiedMilitaryBuildings = 0;
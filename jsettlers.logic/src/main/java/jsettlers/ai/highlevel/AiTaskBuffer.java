@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015
+ * Copyright (c) 2018
  *
  * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
  * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
@@ -12,42 +12,32 @@
  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
  * DEALINGS IN THE SOFTWARE.
  *******************************************************************************/
-package jsettlers.ai.construction;
+package jsettlers.ai.highlevel;
 
+import java.util.ArrayList;
 import java.util.List;
 
-import jsettlers.common.position.ShortPoint2D;
+import jsettlers.network.client.interfaces.ITaskScheduler;
+import jsettlers.network.client.task.packets.TaskPacket;
 
 /**
- * The ScoredConstructionPosition helps to create lists of possible construction positions with their score for the low level KI
- * IBestConstructionPositionFinder
+ * Collects the tasks of an AI player while it is evaluated on a worker thread. The tasks are passed on to the real {@link ITaskScheduler} after
+ * all players have been evaluated, so they are scheduled in the same order regardless of the timing of the threads.
  *
- * @author codingberlin
+ * @author Andreas Eberle
  */
-class ScoredConstructionPosition {
-	ShortPoint2D point;
-	int score;
+class AiTaskBuffer implements ITaskScheduler {
+	private final List<TaskPacket> tasks = new ArrayList<>();
 
-	public ScoredConstructionPosition(ShortPoint2D point, int score) {
-		this.point = point;
-		this.score = score;
+	@Override
+	public void scheduleTask(TaskPacket task) {
+		tasks.add(task);
 	}
 
-	public static ShortPoint2D detectPositionWithLowestScore(List<ScoredConstructionPosition> scoredConstructionPositions) {
-		if (scoredConstructionPositions.size() == 0) {
-			return null;
+	void flushTo(ITaskScheduler taskScheduler) {
+		for (TaskPacket task : tasks) {
+			taskScheduler.scheduleTask(task);
 		}
-
-		ScoredConstructionPosition winnerPosition = null;
-		for (ScoredConstructionPosition scoredConstructionPosition : scoredConstructionPositions) {
-			if (winnerPosition == null) {
-				winnerPosition = scoredConstructionPosition;
-			} else if (scoredConstructionPosition.score < winnerPosition.score) {
-				winnerPosition = scoredConstructionPosition;
-			}
-		}
-
-		return winnerPosition.point;
+		tasks.clear();
 	}
-
-}
\ No newline at end of file
+}
@@ -14,23 +14,37 @@
  *******************************************************************************/
 package jsettlers.algorithms.borders;
 
-import jsettlers.common.movable.EDirection;
-import jsettlers.common.position.ShortPoint2D;
-
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.Arrays;
+import java.util.BitSet;
 
 /**
  * This thread calculates the positions that represent the border between the areas occupied by different players.
+ * <p>
+ * Changed positions are queued as rectangular regions. A region that touches one of the last queued regions is merged into it, so that the many
+ * positions changed by conquering a tower end up in a few regions. The borders of a region are calculated row by row from the player ids of three
+ * neighboring rows.
  * 
  * @author Andreas Eberle
  * 
  */
 public class BordersThread implements Runnable {
+	private static final int MAX_COALESCING_CHECKS = 32;
+	private static final int INITIAL_REGIONS = 64;
 
 	private final IBordersThreadGrid grid;
-	private final LinkedBlockingQueue<ShortPoint2D> positionsQueue = new LinkedBlockingQueue<>();
+	private final short width;
+	private final short height;
 	private final Thread bordersThread;
 
+	private int[] queuedRegions = new int[4 * INITIAL_REGIONS]; // minX, minY, maxX, maxY of every region
+	private int numberOfQueuedRegions = 0;
+	private int[] takenRegions = new int[4 * INITIAL_REGIONS];
+
+	private byte[] previousRow = new byte[0];
+	private byte[] currentRow = new byte[0];
+	private byte[] nextRow = new byte[0];
+	private final BitSet rowBorders = new BitSet();
+
 	private boolean canceled = false;
 
 	/**
@@ -41,6 +55,8 @@ public class BordersThread implements Runnable {
 	 */
 	public BordersThread(IBordersThreadGrid grid) {
 		this.grid = grid;
+		this.width = grid.getWidth();
+		this.height = grid.getHeight();
 		this.bordersThread = new Thread(this);
 		this.bordersThread.setName("BordersThread");
 		this.bordersThread.setDaemon(true);
@@ -49,78 +65,151 @@ public class BordersThread implements Runnable {
 	@Override
 	public void run() {
 		while (!canceled) {
-			ShortPoint2D position = null;
-			while (position == null && !canceled) {
-				try {
-					position = positionsQueue.take();
-				} catch (InterruptedException e) {
+			int numberOfRegions;
+			synchronized (this) {
+				while (numberOfQueuedRegions == 0 && !canceled) {
+					try {
+						wait();
+					} catch (InterruptedException e) {
+					}
 				}
+				numberOfRegions = takeQueuedRegions();
 			}
+
 			if (!canceled) {
-				calculateForPosition(position);
+				calculateTakenRegions(numberOfRegions);
 			}
 		}
 	}
 
-	private void calculateForPosition(ShortPoint2D position) {
-		short x = position.x;
-		short y = position.y;
+	/**
+	 * Calculates the borders of all queued regions in the calling thread.
+	 */
+	void calculateQueuedRegions() {
+		int numberOfRegions;
+		synchronized (this) {
+			numberOfRegions = takeQueuedRegions();
+		}
+		calculateTakenRegions(numberOfRegions);
+	}
 
-		byte player = grid.getPlayerIdAt(x, y);
-		boolean isBorder = false;
+	synchronized int getNumberOfQueuedRegions() {
+		return numberOfQueuedRegions;
+	}
 
-		if (grid.getBlockedPartition(x, y) > 0) { // the position is not a blocked landscape
-			for (EDirection currDir : EDirection.VALUES) {
-				int currNeighborX = currDir.getNextTileX(x);
-				int currNeighborY = currDir.getNextTileY(y);
+	private int takeQueuedRegions() {
+		int[] taken = queuedRegions;
+		queuedRegions = takenRegions;
+		takenRegions = taken;
 
-				if (!grid.isInBounds(currNeighborX, currNeighborY)) {
-					continue;
-				}
-				if (grid.getBlockedPartition(currNeighborX, currNeighborY) <= 0) {
-					continue; // this neighbor is in the sea => it can never be set.
-				}
+		int numberOfRegions = numberOfQueuedRegions;
+		numberOfQueuedRegions = 0;
+		return numberOfRegions;
+	}
 
-				byte neighborPlayer = grid.getPlayerIdAt(currNeighborX, currNeighborY);
-				boolean neighborIsBorder = false;
+	private void calculateTakenRegions(int numberOfRegions) {
+		for (int i = 0; i < numberOfRegions && !canceled; i++) {
+			calculateRegion(takenRegions[4 * i], takenRegions[4 * i + 1], takenRegions[4 * i + 2], takenRegions[4 * i + 3]);
+		}
+	}
 
-				if (neighborPlayer != player) {
-					isBorder = true;
-				}
+	/**
+	 * Calculates the borders of the given region and its neighbors, because the border state of the neighbors depends on the player of the region's
+	 * positions.
+	 */
+	private void calculateRegion(int minX, int minY, int maxX, int maxY) {
+		int startX = Math.max(minX - 1, 0);
+		int endX = Math.min(maxX + 1, width - 1);
+		int startY = Math.max(minY - 1, 0);
+		int endY = Math.min(maxY + 1, height - 1);
+
+		int rowLength = endX - startX + 3; // one additional position on each side for the neighbors
+		if (currentRow.length < rowLength) {
+			previousRow = new byte[rowLength];
+			currentRow = new byte[rowLength];
+			nextRow = new byte[rowLength];
+		}
 
-				if (neighborPlayer >= 0) { // this position is occupied by a player
-					for (EDirection currNeighborDir : EDirection.VALUES) {
-						int nextX = currNeighborDir.getNextTileX(currNeighborX);
-						int nextY = currNeighborDir.getNextTileY(currNeighborY);
+		readRow(startY - 1, startX, endX, previousRow);
+		readRow(startY, startX, endX, currentRow);
 
-						if (grid.isInBounds(nextX, nextY) && grid.getPlayerIdAt(nextX, nextY) != neighborPlayer
-								&& grid.getBlockedPartition(nextX, nextY) > 0) {
-							neighborIsBorder = true;
-							break;
-						}
-					}
-				} // else the position is not occupied -> don't display a border here
+		for (int y = startY; y <= endY; y++) {
+			readRow(y + 1, startX, endX, nextRow);
 
-				grid.setBorderAt(currNeighborX, currNeighborY, neighborIsBorder);
+			rowBorders.clear();
+			for (int i = 1; i < rowLength - 1; i++) { // index i is position x = startX + i - 1
+				byte player = currentRow[i];
+				if (player >= 0 && (isOtherPlayer(player, currentRow[i - 1]) || isOtherPlayer(player, currentRow[i + 1])
+						|| isOtherPlayer(player, previousRow[i - 1]) || isOtherPlayer(player, previousRow[i])
+						|| isOtherPlayer(player, nextRow[i]) || isOtherPlayer(player, nextRow[i + 1]))) {
+					rowBorders.set(i - 1);
+				}
 			}
+			grid.setBordersInRow(y, startX, endX, rowBorders);
+
+			byte[] row = previousRow;
+			previousRow = currentRow;
+			currentRow = nextRow;
+			nextRow = row;
 		}
+	}
 
-		grid.setBorderAt(x, y, isBorder && player >= 0);
+	private static boolean isOtherPlayer(byte player, byte neighborPlayer) {
+		return neighborPlayer != player && neighborPlayer != IBordersThreadGrid.BLOCKED_POSITION;
 	}
 
-	public void checkPosition(ShortPoint2D position) {
-		this.positionsQueue.offer(position);
+	/**
+	 * Reads the player ids of the positions startX - 1 to endX + 1 of the given row into the given array. Positions outside of the grid are read as
+	 * {@link IBordersThreadGrid#BLOCKED_POSITION}.
+	 */
+	private void readRow(int y, int startX, int endX, byte[] row) {
+		int rowLength = endX - startX + 3;
+		if (y < 0 || y >= height) {
+			Arrays.fill(row, 0, rowLength, IBordersThreadGrid.BLOCKED_POSITION);
+			return;
+		}
+
+		row[0] = IBordersThreadGrid.BLOCKED_POSITION;
+		row[rowLength - 1] = IBordersThreadGrid.BLOCKED_POSITION;
+
+		int readStartX = Math.max(startX - 1, 0);
+		int readEndX = Math.min(endX + 1, width - 1);
+		grid.getPlayerIdsInRow(y, readStartX, readEndX, row, readStartX - startX + 1);
+	}
+
+	public void checkPosition(int x, int y) {
+		queueRegion(x, y, x, y);
 	}
 
 	public void checkArea(int x, int y, short width, short height) {
-		int endX = x + width;
-		int endY = y + height;
+		queueRegion(x, y, x + width - 1, y + height - 1);
+	}
 
-		for (; y < endY; y += 2) {
-			for (int currX = x; currX < endX; currX += 2) {
-				this.positionsQueue.offer(new ShortPoint2D(currX, y));
+	private synchronized void queueRegion(int minX, int minY, int maxX, int maxY) {
+		int lastCheckedRegion = Math.max(0, numberOfQueuedRegions - MAX_COALESCING_CHECKS);
+		for (int i = numberOfQueuedRegions - 1; i >= lastCheckedRegion; i--) {
+			int offset = 4 * i;
+			if (minX <= queuedRegions[offset + 2] + 1 && queuedRegions[offset] <= maxX + 1
+					&& minY <= queuedRegions[offset + 3] + 1 && queuedRegions[offset + 1] <= maxY + 1) {
+				queuedRegions[offset] = Math.min(queuedRegions[offset], minX);
+				queuedRegions[offset + 1] = Math.min(queuedRegions[offset + 1], minY);
+				queuedRegions[offset + 2] = Math.max(queuedRegions[offset + 2], maxX);
+				queuedRegions[offset + 3] = Math.max(queuedRegions[offset + 3], maxY);
+				return;
 			}
 		}
+
+		int offset = 4 * numberOfQueuedRegions;
+		if (offset == queuedRegions.length) {
+			queuedRegions = Arrays.copyOf(queuedRegions, 2 * queuedRegions.length);
+		}
+		queuedRegions[offset] = minX;
+		queuedRegions[offset + 1] = minY;
+		queuedRegions[offset + 2] = maxX;
+		queuedRegions[offset + 3] = maxY;
+		numberOfQueuedRegions++;
+
+		notifyAll();
 	}
 
 	public void cancel() {
@@ -14,6 +14,8 @@
  *******************************************************************************/
 package jsettlers.algorithms.borders;
 
+import java.util.BitSet;
+
 /**
  * This interface specifies the grid needed by the BordersThread to calculate and set the borders on the grid.
  * 
@@ -21,42 +23,43 @@ package jsettlers.algorithms.borders;
  * 
  */
 public interface IBordersThreadGrid {
-
 	/**
-	 * Gives the player currently occupying the given position.
-	 * 
-	 * @param x
-	 *            x coordinate
-	 * @param y
-	 *            y coordinate
-	 * @return the player that's currently occupying the given position.
+	 * The value returned by {@link #getPlayerIdsInRow(int, int, int, byte[], int)} for positions with blocked landscape. These positions are never
+	 * borders and don't make their neighbors borders.
 	 */
-	byte getPlayerIdAt(int x, int y);
+	byte BLOCKED_POSITION = Byte.MIN_VALUE;
+
+	short getWidth();
+
+	short getHeight();
 
 	/**
-	 * Sets if the given position is a border tile or not.
+	 * Reads the players occupying the positions minX to maxX of row y.
 	 * 
-	 * @param x
-	 *            x coordinate
 	 * @param y
-	 *            y coordinate
-	 * @param isBorder
-	 *            if true, the given position is a border position<br>
-	 *            if false, the given position is no border position.
+	 *            y coordinate of the row
+	 * @param minX
+	 *            x coordinate of the first position
+	 * @param maxX
+	 *            x coordinate of the last position (inclusive)
+	 * @param playerIds
+	 *            The array receiving the player ids. Positions with blocked landscape get {@link #BLOCKED_POSITION}.
+	 * @param offset
+	 *            The index of the array receiving the player of position minX.
 	 */
-	void setBorderAt(int x, int y, boolean isBorder);
-
-	boolean isInBounds(int x, int y);
+	void getPlayerIdsInRow(int y, int minX, int maxX, byte[] playerIds, int offset);
 
 	/**
-	 * Gets the blocked partition at the given position.
+	 * Sets which positions of the given part of a row are border tiles.
 	 * 
-	 * @param x
-	 *            X coordinate.
 	 * @param y
-	 *            Y coordinate.
-	 * @return Id of the blocked partition.
+	 *            y coordinate of the row
+	 * @param minX
+	 *            x coordinate of the first position
+	 * @param maxX
+	 *            x coordinate of the last position (inclusive)
+	 * @param borders
+	 *            Bit i is set if position minX + i is a border position.
 	 */
-	short getBlockedPartition(int x, int y);
-
+	void setBordersInRow(int y, int minX, int maxX, BitSet borders);
 }
@@ -26,6 +26,27 @@ import java.util.Set;
  * @author Andreas Eberle
  */
 public abstract class AbstractConstructionMarkableMap {
+	private volatile NewConstructionMarksAlgorithm constructionMarksAlgorithm;
+
+	void setConstructionMarksAlgorithm(NewConstructionMarksAlgorithm constructionMarksAlgorithm) {
+		this.constructionMarksAlgorithm = constructionMarksAlgorithm;
+	}
+
+	/**
+	 * Informs the construction marks that the given position changed in a way that can change where buildings can be constructed, e.g. its player,
+	 * landscape, height or protection changed.
+	 * 
+	 * @param x
+	 *            x coordinate
+	 * @param y
+	 *            y coordinate
+	 */
+	public final void positionChanged(int x, int y) {
+		NewConstructionMarksAlgorithm algorithm = constructionMarksAlgorithm;
+		if (algorithm != null) {
+			algorithm.positionChanged(x, y);
+		}
+	}
 
 	/**
 	 * Sets or removes a construction mark
@@ -16,44 +16,107 @@ package jsettlers.algorithms.construction;
 
 import jsettlers.common.buildings.BuildingAreaBitSet;
 import jsettlers.common.buildings.EBuildingType;
-import jsettlers.common.map.shapes.IMapArea;
 import jsettlers.common.map.shapes.MapRectangle;
 import jsettlers.common.position.RelativePoint;
 
 import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * Algorithm to calculate the construction marks for the user.
+ * <p>
+ * The marks are cached per building type. Changes of the map reported with {@link #positionChanged(int, int)} only invalidate the marks of the
+ * positions whose building area contains the changed position. Merges and divides of partitions don't need to be reported: Two partitions of a
+ * player are never neighbors, so they only merge or divide at a position whose player changed. Every calculation only calculates the invalid
+ * marks of the screen and updates the marks on the map that changed since the last calculation.
  * 
  * @author Andreas Eberle
  * 
  */
 public final class NewConstructionMarksAlgorithm {
+	private static final int MAX_CACHED_BUILDING_TYPES = 8;
+	private static final int MAX_QUEUED_CHANGES = 4096;
+
 	private final AbstractConstructionMarkableMap map;
 	private final byte playerId;
+	private final short width;
+	private final short height;
+
+	private final Map<EBuildingType, CachedMarks> cachedMarks = new LinkedHashMap<EBuildingType, CachedMarks>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<EBuildingType, CachedMarks> eldest) {
+			return size() > MAX_CACHED_BUILDING_TYPES;
+		}
+	};
+
+	private final Object changesLock = new Object();
+	private volatile boolean collectChanges = false;
+	private int[] queuedChanges = new int[2 * MAX_QUEUED_CHANGES];
+	private int numberOfQueuedChanges = 0;
+	private boolean changesOverflowed = false;
+	private int[] takenChanges = new int[2 * MAX_QUEUED_CHANGES];
 
+	private final BitSet displayedMarks;
 	private MapRectangle lastArea = null;
+	private EBuildingType lastBuildingType = null;
 
 	public NewConstructionMarksAlgorithm(AbstractConstructionMarkableMap map, byte player) {
 		this.map = map;
 		this.playerId = player;
+		this.width = map.getWidth();
+		this.height = map.getHeight();
+		this.displayedMarks = new BitSet(width * height);
+
+		map.setConstructionMarksAlgorithm(this);
+	}
+
+	/**
+	 * Invalidates the cached marks of all positions whose building area contains the given position. This method may be called by any thread.
+	 */
+	void positionChanged(int x, int y) {
+		if (!collectChanges) {
+			return; // nothing cached
+		}
+
+		synchronized (changesLock) {
+			if (numberOfQueuedChanges == MAX_QUEUED_CHANGES) {
+				changesOverflowed = true;
+			} else {
+				queuedChanges[2 * numberOfQueuedChanges] = x;
+				queuedChanges[2 * numberOfQueuedChanges + 1] = y;
+				numberOfQueuedChanges++;
+			}
+		}
 	}
 
 	public void calculateConstructMarks(final MapRectangle mapArea, EBuildingType buildingType) {
-		if (lastArea != null) {
-			removeConstructionMarks(lastArea, mapArea);
+		boolean changed = applyQueuedChanges();
+		if (!changed && mapArea == lastArea && buildingType == lastBuildingType) {
+			return; // nothing to do
+		}
+
+		if (lastArea != null && lastArea != mapArea) {
+			removeConstructionMarks(mapArea);
+		}
+
+		CachedMarks marks = cachedMarks.get(buildingType);
+		if (marks == null) {
+			marks = new CachedMarks(width * height);
+			cachedMarks.put(buildingType, marks);
+			collectChanges = true;
 		}
 
 		BuildingAreaBitSet buildingArea = buildingType.getBuildingAreaBitSet();
 		boolean binaryConstructionMarkValues = !buildingType.needsFlattenedGround();
 		RelativePoint[] positionsToBeFlattened = buildingType.getBuildingArea();
+		boolean updateAllMarks = buildingType != lastBuildingType; // the values of the marks on the map belong to another building type
 
 		// declare local variables
 		final short[] xJumps = buildingArea.xJumps;
 		final short[] yJumps = buildingArea.yJumps;
 
 		final int lineLength = mapArea.getWidth() + mapArea.getHeight() / 2;
-		final BitSet doneSet = new BitSet(lineLength * mapArea.getHeight());
 
 		final int xOffsetForBuilding = buildingArea.minX;
 		final int yOffsetForBuilding = buildingArea.minY;
@@ -67,94 +130,189 @@ public final class NewConstructionMarksAlgorithm {
 
 			DX_LOOP: for (int dx = 0; dx < lineLength; dx++) {
 				final int x = xLineOffset + dx;
-				final short partitionId;
 
-				if (!mapArea.contains(x, y) || doneSet.get(dx + line * lineLength)) { // if this position has already been pruned.
+				if (!mapArea.contains(x, y) || !map.isInBounds(x, y)) {
 					continue;
 				}
 
-				{ // get the partition and check if the player is allowed to use this partition
-					int firstPosX = buildingArea.aPosition.calculateX(x);
-					int firstPosY = buildingArea.aPosition.calculateY(y);
+				final int index = x + y * width;
+				boolean recalculated = !marks.calculated.get(index);
 
-					if (!map.isInBounds(firstPosX, firstPosY)) {
-						continue;
-					}
+				if (recalculated) {
+					marks.calculated.set(index);
+					marks.constructable.clear(index);
+					final short partitionId;
+
+					{ // get the partition and check if the player is allowed to use this partition
+						int firstPosX = buildingArea.aPosition.calculateX(x);
+						int firstPosY = buildingArea.aPosition.calculateY(y);
 
-					partitionId = map.getPartitionIdAt(firstPosX, firstPosY);
+						if (!map.isInBounds(firstPosX, firstPosY)) {
+							updateMark(x, y, false, false, binaryConstructionMarkValues, null);
+							continue;
+						}
+
+						partitionId = map.getPartitionIdAt(firstPosX, firstPosY);
 
-					if (!map.canPlayerConstructOnPartition(playerId, partitionId)) {
-						continue;
+						if (!map.canPlayerConstructOnPartition(playerId, partitionId)) {
+							updateMark(x, y, false, false, binaryConstructionMarkValues, null);
+							continue;
+						}
 					}
-				}
 
-				// go over all positions of the building and check if they are free
-				for (int buildingDx = buildingAreaWidth - 1; buildingDx >= 0; buildingDx--) {
-					for (int buildingDy = buildingAreaHeight - 1; buildingDy >= 0; buildingDy--) {
-						int index = buildingDx + buildingDy * buildingAreaWidth;
+					// go over all positions of the building and check if they are free
+					for (int buildingDx = buildingAreaWidth - 1; buildingDx >= 0; buildingDx--) {
+						for (int buildingDy = buildingAreaHeight - 1; buildingDy >= 0; buildingDy--) {
+							int bitIndex = buildingDx + buildingDy * buildingAreaWidth;
 
-						// relative position regarding the building
-						int buildingPositionX = buildingDx + xOffsetForBuilding;
-						int buildingPositionY = buildingDy + yOffsetForBuilding;
+							// relative position regarding the building
+							int buildingPositionX = buildingDx + xOffsetForBuilding;
+							int buildingPositionY = buildingDy + yOffsetForBuilding;
 
-						// if the position must be free, but isn't
-						if (xJumps[index] != 0
-								&& !map.canUsePositionForConstruction(x + buildingPositionX, y + buildingPositionY,
-										buildingType.getRequiredGroundTypeAt(buildingPositionX, buildingPositionY), partitionId)) {
+							// if the position must be free, but isn't
+							if (xJumps[bitIndex] != 0
+									&& !map.canUsePositionForConstruction(x + buildingPositionX, y + buildingPositionY,
+											buildingType.getRequiredGroundTypeAt(buildingPositionX, buildingPositionY), partitionId)) {
 
-							map.setConstructMarking(x, y, false, binaryConstructionMarkValues, null);
+								updateMark(x, y, false, false, binaryConstructionMarkValues, null);
 
-							// prune the positions we already know that they are invalid.
-							for (int pruneX = 0; pruneX < xJumps[index]; pruneX++) {
-								int currYJumps = yJumps[(buildingDx - pruneX) + buildingDy * buildingAreaWidth];
-								for (int pruneY = 0; pruneY < currYJumps; pruneY++) {
-									if (pruneY == 0 && pruneX == 0) {
-										continue; // skip the original position
-									}
+								// the neighbors may use another partition, so they can only be pruned if the position itself is not usable
+								if (map.getPartitionIdAt(x + buildingPositionX, y + buildingPositionY) != partitionId) {
+									continue DX_LOOP;
+								}
 
-									doneSet.set((dx + pruneX) + (line + pruneY) * lineLength);
-									map.setConstructMarking(x + pruneX, y + pruneY, false, binaryConstructionMarkValues, null);
+								// prune the positions we already know that they are invalid.
+								for (int pruneX = 0; pruneX < xJumps[bitIndex]; pruneX++) {
+									int currYJumps = yJumps[(buildingDx - pruneX) + buildingDy * buildingAreaWidth];
+									for (int pruneY = 0; pruneY < currYJumps; pruneY++) {
+										int prunedX = x + pruneX;
+										int prunedY = y + pruneY;
+										if (pruneY == 0 && pruneX == 0 || !map.isInBounds(prunedX, prunedY)) {
+											continue; // skip the original position
+										}
+
+										int prunedIndex = prunedX + prunedY * width;
+										if (!marks.calculated.get(prunedIndex)) {
+											marks.calculated.set(prunedIndex);
+											marks.constructable.clear(prunedIndex);
+											updateMark(prunedX, prunedY, false, false, binaryConstructionMarkValues, null);
+										}
+									}
 								}
-							}
 
-							continue DX_LOOP;
+								continue DX_LOOP;
+							}
 						}
 					}
+
+					// no bad position found, so the building can be constructed here
+					marks.constructable.set(index);
 				}
 
-				// no bad position found, so set the construction mark
-				map.setConstructMarking(x, y, true, binaryConstructionMarkValues, positionsToBeFlattened);
+				updateMark(x, y, marks.constructable.get(index), recalculated || updateAllMarks, binaryConstructionMarkValues, positionsToBeFlattened);
 			}
 		}
 
 		// set the lastArea variable for the next run
 		lastArea = mapArea;
+		lastBuildingType = buildingType;
+	}
+
+	/**
+	 * Sets or removes the mark on the map if it changed since it has been set the last time.
+	 * 
+	 * @param forceSet
+	 *            If true, a mark is set even if it is already displayed, because its value might have changed.
+	 */
+	private void updateMark(int x, int y, boolean set, boolean forceSet, boolean binaryConstructionMarkValues, RelativePoint[] flattenPositions) {
+		int index = x + y * width;
+		if (displayedMarks.get(index) != set || set && forceSet) {
+			map.setConstructMarking(x, y, set, binaryConstructionMarkValues, flattenPositions);
+			displayedMarks.set(index, set);
+		}
+	}
+
+	/**
+	 * Takes the changes queued by {@link #positionChanged(int, int)} and invalidates the cached marks they influence.
+	 * 
+	 * @return true if any marks have been invalidated.
+	 */
+	private boolean applyQueuedChanges() {
+		int numberOfChanges;
+		boolean overflowed;
+		synchronized (changesLock) {
+			int[] changes = queuedChanges;
+			queuedChanges = takenChanges;
+			takenChanges = changes;
+
+			numberOfChanges = numberOfQueuedChanges;
+			overflowed = changesOverflowed;
+			numberOfQueuedChanges = 0;
+			changesOverflowed = false;
+		}
+
+		if (overflowed) {
+			for (CachedMarks marks : cachedMarks.values()) {
+				marks.calculated.clear();
+			}
+			return true;
+		}
+
+		for (Map.Entry<EBuildingType, CachedMarks> entry : cachedMarks.entrySet()) {
+			BuildingAreaBitSet buildingArea = entry.getKey().getBuildingAreaBitSet();
+			BitSet calculated = entry.getValue().calculated;
+
+			for (int i = 0; i < numberOfChanges; i++) {
+				int x = takenChanges[2 * i];
+				int y = takenChanges[2 * i + 1];
+
+				// the building positions whose building area contains the changed position
+				int minX = Math.max(x - buildingArea.maxX, 0);
+				int maxX = Math.min(x - buildingArea.minX, width - 1);
+				int minY = Math.max(y - buildingArea.maxY, 0);
+				int maxY = Math.min(y - buildingArea.minY, height - 1);
+
+				for (int currY = minY; currY <= maxY && minX <= maxX; currY++) {
+					calculated.clear(minX + currY * width, maxX + currY * width + 1);
+				}
+			}
+		}
+		return numberOfChanges > 0;
 	}
 
 	/**
 	 * Removes all construction marks on the screen.
 	 */
 	public void removeConstructionMarks() {
-		if (lastArea != null) {
-			lastArea.stream()
-					.filterBounds(map.getWidth(), map.getHeight())
-					.forEach((x, y) -> map.setConstructMarking(x, y, false, false, null));
-			lastArea = null;
-		}
+		removeConstructionMarks(null);
+		lastArea = null;
+		lastBuildingType = null;
 	}
 
 	/**
-	 * Removes all construction marks in the given area.
+	 * Removes the construction marks that are not in the given area.
 	 * 
-	 * @param area
-	 *            The area to remove the marks
 	 * @param notIn
-	 *            The area of marks that should be skipped.
+	 *            The area of marks that should be kept or null to remove all marks.
 	 */
-	private void removeConstructionMarks(IMapArea area, IMapArea notIn) {
-		area.stream()
-				.filterBounds(map.getWidth(), map.getHeight())
-				.filter((x, y) -> !notIn.contains(x, y))
-				.forEach((x, y) -> map.setConstructMarking(x, y, false, false, null));
+	private void removeConstructionMarks(MapRectangle notIn) {
+		for (int index = displayedMarks.nextSetBit(0); index >= 0; index = displayedMarks.nextSetBit(index + 1)) {
+			int x = index % width;
+			int y = index / width;
+			if (notIn == null || !notIn.contains(x, y)) {
+				map.setConstructMarking(x, y, false, false, null);
+				displayedMarks.clear(index);
+			}
+		}
+	}
+
+	private static final class CachedMarks {
+		final BitSet calculated;
+		final BitSet constructable;
+
+		CachedMarks(int size) {
+			calculated = new BitSet(size);
+			constructable = new BitSet(size);
+		}
 	}
 }
@@ -17,6 +17,10 @@ package jsettlers.algorithms.fogofwar;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
 import jsettlers.algorithms.fogofwar.CachedViewCircle.CachedViewCircleIterator;
@@ -29,32 +33,47 @@ import jsettlers.logic.constants.MatchConstants;
 
 /**
  * This class holds the fog of war for a given map and team.
+ * <p>
+ * The fog of war is updated incrementally: Every view source contributes its view circle as long as it stays at the same position. The number of
+ * view sources seeing a position is counted, so only the positions no longer seen by anyone need to be dimmed down.
  * 
  * @author Andreas Eberle
  */
 public final class FogOfWar implements Serializable {
-	private static final long serialVersionUID = 1877994785778678510L;
+	private static final long serialVersionUID = 4476154090956987729L;
 	/**
 	 * Longest distance any unit may look
 	 */
 	private static final byte MAX_VIEW_DISTANCE = 65;
 	static final int PADDING = 10;
+	private static final byte DIM_DOWN_SPEED = 10;
 
 	private final byte team;
 
 	private final short width;
 	private final short height;
-	private byte[][] sight;
+	/**
+	 * The visible status of every position, stored row by row.
+	 */
+	private byte[] sight;
 
 	private transient boolean enabled = Constants.FOG_OF_WAR_DEFAULT_ENABLED;
 	private transient IFogOfWarGrid grid;
 	private transient boolean canceled;
 
+	private transient short[] visibleCount;
+	private transient IdentityHashMap<IViewDistancable, ViewSource> viewSources;
+	private transient int generation;
+	private transient BitSet dimming;
+	private transient int[] dimmingPositions;
+	private transient int dimmingPositionsCount;
+	private transient CircleDrawer drawer;
+
 	public FogOfWar(short width, short height, IPlayer player) {
 		this.width = width;
 		this.height = height;
 		this.team = player.getTeamId();
-		this.sight = new byte[width][height];
+		this.sight = new byte[width * height];
 	}
 
 	private void readObject(ObjectInputStream ois) throws ClassNotFoundException, IOException {
@@ -63,11 +82,28 @@ public final class FogOfWar implements Serializable {
 	}
 
 	public void start(IFogOfWarGrid grid) {
-		this.grid = grid;
+		init(grid);
 		NewFoWThread thread = new NewFoWThread();
 		thread.start();
 	}
 
+	void init(IFogOfWarGrid grid) {
+		this.grid = grid;
+		this.visibleCount = new short[width * height];
+		this.viewSources = new IdentityHashMap<>();
+		this.dimming = new BitSet(width * height);
+		this.dimmingPositions = new int[256];
+		this.dimmingPositionsCount = 0;
+		this.drawer = new CircleDrawer();
+
+		// positions seen when the game was saved are no longer seen by anyone until the view sources have been added
+		for (int index = 0; index < sight.length; index++) {
+			if (sight[index] > CommonConstants.FOG_OF_WAR_EXPLORED) {
+				startDimming(index);
+			}
+		}
+	}
+
 	/**
 	 * Gets the visible status of a map pint
 	 * 
@@ -79,13 +115,18 @@ public final class FogOfWar implements Serializable {
 	 */
 	public final byte getVisibleStatus(int x, int y) {
 		if (enabled) {
-			return (byte) Math.min(sight[x][y], CommonConstants.FOG_OF_WAR_VISIBLE);
+			return (byte) Math.min(sight[y * width + x], CommonConstants.FOG_OF_WAR_VISIBLE);
 		} else {
 			return CommonConstants.FOG_OF_WAR_VISIBLE;
 		}
 	}
 
-	public byte[][] getVisibleStatusArray() {
+	/**
+	 * Gives direct access to the visible status of all positions. The status of x, y is stored at index y * width + x.
+	 *
+	 * @return The visible status array or null if the fog of war is disabled.
+	 */
+	public byte[] getVisibleStatusArray() {
 		if(enabled) return sight;
 		return null;
 	}
@@ -103,10 +144,6 @@ public final class FogOfWar implements Serializable {
 	}
 
 	final class NewFoWThread extends Thread {
-		private static final byte DIM_DOWN_SPEED = 10;
-		private final CircleDrawer drawer = new CircleDrawer();
-		private byte[][] buffer = new byte[width][height];
-
 		NewFoWThread() {
 			super("FoWThread");
 			super.setDaemon(true);
@@ -120,7 +157,7 @@ public final class FogOfWar implements Serializable {
 				// StopWatch watch = new MilliStopWatch();
 				// watch.restart();
 				if (enabled) {
-					rebuildSight();
+					updateSight();
 				}
 				// watch.stop("NewFoWThread needed: ");
 
@@ -128,72 +165,139 @@ public final class FogOfWar implements Serializable {
 			}
 		}
 
-		private void rebuildSight() {
-			drawer.setBuffer(buffer);
-
-			for (short x = 0; x < width; x++) {
-				for (short y = 0; y < height; y++) {
-					byte currSight = sight[x][y];
-
-					if (currSight >= CommonConstants.FOG_OF_WAR_EXPLORED) {
-						byte newSight = (byte) (currSight - DIM_DOWN_SPEED);
-						if (newSight < CommonConstants.FOG_OF_WAR_EXPLORED) {
-							buffer[x][y] = CommonConstants.FOG_OF_WAR_EXPLORED;
-						} else {
-							buffer[x][y] = newSight;
-						}
-					} else {
-						buffer[x][y] = sight[x][y];
-					}
-				}
+		private void mySleep(long ms) {
+			try {
+				Thread.sleep(ms);
+			} catch (InterruptedException e) {
+				e.printStackTrace();
 			}
+		}
+	}
 
-			ConcurrentLinkedQueue<? extends IViewDistancable> buildings = grid.getBuildingViewDistancables();
-			applyViewDistances(buildings);
+	/**
+	 * Updates the view circles of all view sources that appeared, moved or disappeared since the last update and dims the positions that are no
+	 * longer seen by any view source.
+	 */
+	void updateSight() {
+		generation++;
+
+		updateViewSources(grid.getBuildingViewDistancables());
+		updateViewSources(grid.getMovableViewDistancables());
+
+		Iterator<ViewSource> iterator = viewSources.values().iterator();
+		while (iterator.hasNext()) {
+			ViewSource viewSource = iterator.next();
+			if (viewSource.generation != generation) {
+				drawer.removeCircle(viewSource.x, viewSource.y, viewSource.viewDistance);
+				iterator.remove();
+			}
+		}
 
-			ConcurrentLinkedQueue<? extends IViewDistancable> movables = grid.getMovableViewDistancables();
-			applyViewDistances(movables);
+		dimDown();
+	}
 
-			byte[][] temp = sight;
-			sight = buffer;
-			buffer = temp;
+	private void updateViewSources(ConcurrentLinkedQueue<? extends IViewDistancable> objects) {
+		for (IViewDistancable curr : objects) {
+			if (isPlayerOK(curr)) {
+				short distance = curr.getViewDistance();
+				ShortPoint2D pos = curr.getPosition();
+				if (distance > 0 && pos != null) {
+					updateViewSource(curr, pos, distance);
+				}
+			}
 		}
+	}
 
-		private void applyViewDistances(ConcurrentLinkedQueue<? extends IViewDistancable> objects) {
-			for (IViewDistancable curr : objects) {
-				if (isPlayerOK(curr)) {
-					short distance = curr.getViewDistance();
-					if (distance > 0) {
-						ShortPoint2D pos = curr.getPosition();
-						if (pos != null)
-							drawer.drawCircleToBuffer(pos.x, pos.y, distance);
-					}
+	private void updateViewSource(IViewDistancable object, ShortPoint2D pos, short distance) {
+		ViewSource viewSource = viewSources.get(object);
+		if (viewSource == null) {
+			viewSource = new ViewSource();
+			viewSources.put(object, viewSource);
+			drawer.addCircle(pos.x, pos.y, distance);
+		} else if (viewSource.x != pos.x || viewSource.y != pos.y || viewSource.viewDistance != distance) {
+			// add the new circle first, so the positions seen from both positions don't start dimming
+			drawer.addCircle(pos.x, pos.y, distance);
+			drawer.removeCircle(viewSource.x, viewSource.y, viewSource.viewDistance);
+		}
+
+		viewSource.x = pos.x;
+		viewSource.y = pos.y;
+		viewSource.viewDistance = distance;
+		viewSource.generation = generation;
+	}
+
+	private void dimDown() {
+		int remaining = 0;
+		for (int i = 0; i < dimmingPositionsCount; i++) {
+			int index = dimmingPositions[i];
+
+			if (visibleCount[index] == 0) {
+				byte newSight = (byte) (sight[index] - DIM_DOWN_SPEED);
+				if (newSight > CommonConstants.FOG_OF_WAR_EXPLORED) {
+					sight[index] = newSight;
+					dimmingPositions[remaining++] = index;
+					continue;
 				}
+				sight[index] = CommonConstants.FOG_OF_WAR_EXPLORED;
 			}
+			dimming.clear(index);
 		}
+		dimmingPositionsCount = remaining;
+	}
 
-		private void mySleep(long ms) {
-			try {
-				Thread.sleep(ms);
-			} catch (InterruptedException e) {
-				e.printStackTrace();
+	private void startDimming(int index) {
+		if (!dimming.get(index)) {
+			dimming.set(index);
+			if (dimmingPositionsCount == dimmingPositions.length) {
+				dimmingPositions = Arrays.copyOf(dimmingPositions, dimmingPositions.length * 2);
 			}
+			dimmingPositions[dimmingPositionsCount++] = index;
 		}
+	}
 
+	/**
+	 * The view circle a view source contributed at its last known position.
+	 */
+	private static final class ViewSource {
+		short x;
+		short y;
+		short viewDistance;
+		int generation;
 	}
 
 	final class CircleDrawer {
-		private byte[][] buffer;
 		private final CachedViewCircle[] cachedCircles = new CachedViewCircle[MAX_VIEW_DISTANCE];
 
-		public final void setBuffer(byte[][] buffer) {
-			this.buffer = buffer;
+		/**
+		 * Adds a view circle. The inner part of the circle becomes visible, the border is only brightened. Each point is only drawn if its x
+		 * coordinate is in [0, mapWidth - 1] and its computed y coordinate is bigger than 0.
+		 */
+		final void addCircle(int bufferX, int bufferY, int viewDistance) {
+			CachedViewCircle circle = getCachedCircle(viewDistance);
+			CachedViewCircleIterator iterator = circle.iterator(bufferX, bufferY);
+
+			while (iterator.hasNext()) {
+				final int x = iterator.getCurrX();
+				final int y = iterator.getCurrY();
+
+				if (x >= 0 && x < width && y > 0 && y < height) {
+					final int index = y * width + x;
+					byte newSight = iterator.getCurrSight();
+					if (newSight >= CommonConstants.FOG_OF_WAR_VISIBLE) {
+						visibleCount[index]++;
+						sight[index] = CommonConstants.FOG_OF_WAR_VISIBLE;
+					} else if (sight[index] < newSight) {
+						sight[index] = newSight;
+					}
+				}
+			}
 		}
 
 		/**
-		 * Draws a circle to the buffer line. Each point is only brightened and onlydrawn if its x coordinate is in [0, mapWidth - 1] and its computed y coordinate is bigger than 0.
+		 * Removes a view circle added with {@link #addCircle(int, int, int)}. Every point of the circle that is not seen by another view source
+		 * starts dimming down.
 		 */
-		final void drawCircleToBuffer(int bufferX, int bufferY, int viewDistance) {
+		final void removeCircle(int bufferX, int bufferY, int viewDistance) {
 			CachedViewCircle circle = getCachedCircle(viewDistance);
 			CachedViewCircleIterator iterator = circle.iterator(bufferX, bufferY);
 
@@ -202,12 +306,12 @@ public final class FogOfWar implements Serializable {
 				final int y = iterator.getCurrY();
 
 				if (x >= 0 && x < width && y > 0 && y < height) {
-					byte oldSight = buffer[x][y];
-					if (oldSight < CommonConstants.FOG_OF_WAR_VISIBLE) {
-						byte newSight = iterator.getCurrSight();
-						if (oldSight < newSight) {
-							buffer[x][y] = newSight;
-						}
+					final int index = y * width + x;
+					if (iterator.getCurrSight() >= CommonConstants.FOG_OF_WAR_VISIBLE) {
+						visibleCount[index]--;
+					}
+					if (visibleCount[index] == 0 && sight[index] > CommonConstants.FOG_OF_WAR_EXPLORED) {
+						startDimming(index);
 					}
 				}
 			}
@@ -15,6 +15,7 @@
 package jsettlers.algorithms.path;
 
 import java.io.Serializable;
+import java.util.Arrays;
 
 import jsettlers.common.position.ShortPoint2D;
 
@@ -27,16 +28,62 @@ import jsettlers.common.position.ShortPoint2D;
 public class Path implements Serializable {
 	private static final long serialVersionUID = 1869164120660594918L;
 
-	private final short[] pathX;
-	private final short[] pathY;
+	private short[] pathX;
+	private short[] pathY;
 
 	private int idx = -1;
 
+	private IPathRefiner      refiner;
+	private IPathCalculatable requester;
+	private short[]           waypointsX;
+	private short[]           waypointsY;
+	private int               nextWaypoint;
+
 	public Path(int length) {
 		pathX = new short[length];
 		pathY = new short[length];
 	}
 
+	/**
+	 * Creates a path that only knows the steps of its first leg. The legs to the given waypoints are calculated with the refiner when the
+	 * movable needs them.
+	 * 
+	 * @param firstLeg
+	 *            The steps to the first waypoint.
+	 * @param refiner
+	 *            The refiner used to calculate the remaining legs.
+	 * @param requester
+	 *            The movable following the path.
+	 * @param waypointsX
+	 *            x coordinates of the remaining waypoints. The last waypoint is the target of the path.
+	 * @param waypointsY
+	 *            y coordinates of the remaining waypoints.
+	 */
+	public Path(Path firstLeg, IPathRefiner refiner, IPathCalculatable requester, short[] waypointsX, short[] waypointsY) {
+		this.pathX = firstLeg.pathX;
+		this.pathY = firstLeg.pathY;
+		this.refiner = refiner;
+		this.requester = requester;
+		this.waypointsX = waypointsX;
+		this.waypointsY = waypointsY;
+	}
+
+	/**
+	 * Creates a copy of the given path. The copy starts at the beginning of the path, regardless of how far the given path has been followed.
+	 *
+	 * @param path
+	 *            The path to be copied.
+	 */
+	public Path(Path path) {
+		pathX = Arrays.copyOf(path.pathX, path.pathX.length);
+		pathY = Arrays.copyOf(path.pathY, path.pathY.length);
+		refiner = path.refiner;
+		requester = path.requester;
+		waypointsX = path.waypointsX;
+		waypointsY = path.waypointsY;
+		nextWaypoint = path.nextWaypoint;
+	}
+
 	/**
 	 * Concatenates a path and a prefix of {@link ShortPoint2D} objects.
 	 * 
@@ -59,6 +106,12 @@ public class Path implements Serializable {
 			insertAt(i, oldPath.nextX(), oldPath.nextY());
 			oldPath.goToNextStep();
 		}
+
+		refiner = oldPath.refiner;
+		requester = oldPath.requester;
+		waypointsX = oldPath.waypointsX;
+		waypointsY = oldPath.waypointsY;
+		nextWaypoint = oldPath.nextWaypoint;
 	}
 
 	/**
@@ -88,7 +141,7 @@ public class Path implements Serializable {
 	}
 
 	public boolean hasNextStep() {
-		return idx + 1 < pathX.length;
+		return hasSteps(1);
 	}
 
 	public final short nextX() {
@@ -125,13 +178,22 @@ public class Path implements Serializable {
 	}
 
 	public final short getTargetX() {
+		if (hasPendingLegs()) {
+			return waypointsX[waypointsX.length - 1];
+		}
 		return pathX[pathX.length - 1];
 	}
 
 	public final short getTargetY() {
+		if (hasPendingLegs()) {
+			return waypointsY[waypointsY.length - 1];
+		}
 		return pathY[pathY.length - 1];
 	}
 
+	/**
+	 * @return The number of steps of this path. If the path still has legs that are not calculated yet, only the calculated steps are counted.
+	 */
 	public final int getLength() {
 		return pathX.length;
 	}
@@ -148,8 +210,7 @@ public class Path implements Serializable {
 	}
 
 	public final ShortPoint2D getTargetPosition() {
-		int lastIdx = pathX.length - 1;
-		return new ShortPoint2D(pathX[lastIdx], pathY[lastIdx]);
+		return new ShortPoint2D(getTargetX(), getTargetY());
 	}
 
 	public int getStep() {
@@ -157,10 +218,52 @@ public class Path implements Serializable {
 	}
 
 	public boolean hasOverNextStep() {
-		return idx + 2 < pathX.length;
+		return hasSteps(2);
 	}
 
 	public ShortPoint2D getOverNextPos() {
 		return new ShortPoint2D(pathX[idx + 2], pathY[idx + 2]);
 	}
+
+	private boolean hasSteps(int steps) {
+		while (idx + steps >= pathX.length) {
+			if (!refineNextLeg()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean hasPendingLegs() {
+		return waypointsX != null && nextWaypoint < waypointsX.length;
+	}
+
+	private boolean refineNextLeg() {
+		if (!hasPendingLegs()) {
+			return false;
+		}
+
+		short startX = pathX[pathX.length - 1];
+		short startY = pathY[pathY.length - 1];
+
+		Path leg = refiner.refinePath(requester, startX, startY, waypointsX[nextWaypoint], waypointsY[nextWaypoint]);
+		nextWaypoint++;
+
+		if (leg == null) { // the map changed since the waypoints have been calculated => go directly to the target
+			leg = refiner.refinePath(requester, startX, startY, waypointsX[waypointsX.length - 1], waypointsY[waypointsY.length - 1]);
+			nextWaypoint = waypointsX.length;
+		}
+		if (leg == null) { // the target can't be reached any more, the path ends here
+			waypointsX = null;
+			waypointsY = null;
+			return false;
+		}
+
+		int oldLength = pathX.length;
+		pathX = Arrays.copyOf(pathX, oldLength + leg.pathX.length);
+		pathY = Arrays.copyOf(pathY, oldLength + leg.pathY.length);
+		System.arraycopy(leg.pathX, 0, pathX, oldLength, leg.pathX.length);
+		System.arraycopy(leg.pathY, 0, pathY, oldLength, leg.pathY.length);
+		return true;
+	}
 }
@@ -0,0 +1,144 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.algorithms.path.astar.cache;
+
+import java.util.Arrays;
+
+import jsettlers.algorithms.path.IPathCalculatable;
+import jsettlers.algorithms.path.Path;
+import jsettlers.algorithms.path.astar.AbstractAStar;
+import jsettlers.algorithms.path.astar.BucketQueueAStar;
+import jsettlers.algorithms.path.astar.IAStarPathMap;
+import jsettlers.common.Color;
+import jsettlers.common.position.ShortPoint2D;
+
+/**
+ * A {@link BucketQueueAStar} that looks up its paths in a {@link PathCache} first. Found paths are added to the cache together with the
+ * regions of all positions the search read from the map.
+ * <p>
+ * Paths of ships are not cached, because they depend on the landscape around the positions.
+ */
+public final class CachingAStar extends AbstractAStar {
+	private final PathCache        cache;
+	private final RecordingPathMap recordingMap;
+	private final BucketQueueAStar aStar;
+
+	public CachingAStar(PathCache cache, IAStarPathMap map, short width, short height) {
+		this.cache = cache;
+		this.recordingMap = new RecordingPathMap(map, cache.getVersions());
+		this.aStar = new BucketQueueAStar(recordingMap, width, height);
+	}
+
+	@Override
+	public Path findPath(IPathCalculatable requester, ShortPoint2D target) {
+		ShortPoint2D pos = requester.getPosition();
+		return findPath(requester, pos.x, pos.y, target.x, target.y);
+	}
+
+	@Override
+	public Path findPath(IPathCalculatable requester, short sx, short sy, short tx, short ty) {
+		if (requester.isShip()) {
+			return aStar.findPath(requester, sx, sy, tx, ty);
+		}
+
+		int constraints = requester.needsPlayersGround() ? requester.getPlayer().getPlayerId() + 1 : 0;
+		Path path = cache.get(sx, sy, tx, ty, constraints);
+		if (path != null) {
+			return path;
+		}
+
+		long version = cache.getVersions().getVersion();
+		recordingMap.reset();
+		path = aStar.findPath(requester, sx, sy, tx, ty);
+
+		if (path != null) {
+			cache.put(sx, sy, tx, ty, constraints, path, version, recordingMap.getRegions(), recordingMap.expandedNodes);
+		}
+		return path;
+	}
+
+	/**
+	 * Forwards all calls to the real map and records the regions of the positions read by the A*.
+	 */
+	private static final class RecordingPathMap implements IAStarPathMap {
+		private final IAStarPathMap  map;
+		private final RegionVersions versions;
+		private final int[]          regionStamps;
+		private final int[]          regions;
+
+		private int stamp = 0;
+		private int numberOfRegions;
+
+		int expandedNodes;
+
+		RecordingPathMap(IAStarPathMap map, RegionVersions versions) {
+			this.map = map;
+			this.versions = versions;
+			this.regionStamps = new int[versions.getNumberOfRegions()];
+			this.regions = new int[versions.getNumberOfRegions()];
+		}
+
+		void reset() {
+			stamp++;
+			numberOfRegions = 0;
+			expandedNodes = 0;
+		}
+
+		int[] getRegions() {
+			return Arrays.copyOf(regions, numberOfRegions);
+		}
+
+		private void read(int x, int y) {
+			int region = versions.getRegion(x, y);
+			if (regionStamps[region] != stamp) {
+				regionStamps[region] = stamp;
+				regions[numberOfRegions++] = region;
+			}
+		}
+
+		@Override
+		public boolean isBlocked(IPathCalculatable requester, int x, int y) {
+			read(x, y);
+			return map.isBlocked(requester, x, y);
+		}
+
+		@Override
+		public short getBlockedPartition(int x, int y) {
+			read(x, y);
+			return map.getBlockedPartition(x, y);
+		}
+
+		@Override
+		public float getCost(int sx, int sy, int tx, int ty) {
+			return map.getCost(sx, sy, tx, ty);
+		}
+
+		@Override
+		public void markAsOpen(int x, int y) {
+			map.markAsOpen(x, y);
+		}
+
+		@Override
+		public void markAsClosed(int x, int y) {
+			expandedNodes++;
+			map.markAsClosed(x, y);
+		}
+
+		@Override
+		public void setDebugColor(int x, int y, Color color) {
+			map.setDebugColor(x, y, color);
+		}
+	}
+}
@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.algorithms.path.astar.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import jsettlers.algorithms.path.Path;
+
+/**
+ * A bounded LRU cache of the paths found by the {@link CachingAStar}s of a grid.
+ * <p>
+ * Every entry remembers the regions the search read and the version of the {@link RegionVersions} it was calculated at. An entry is only
+ * used while none of these regions changed. As the A* is deterministic, the cache therefore returns exactly the path a new search would find.
+ */
+public final class PathCache {
+	private final RegionVersions versions;
+
+	private final LinkedHashMap<Long, Entry> entries;
+
+	private long hits            = 0;
+	private long misses          = 0;
+	private long savedExpansions = 0;
+
+	public PathCache(RegionVersions versions, final int maxSize) {
+		this.versions = versions;
+		this.entries = new LinkedHashMap<Long, Entry>(maxSize * 4 / 3 + 1, 0.75f, true) {
+			private static final long serialVersionUID = -7127358237693911442L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+				return size() > maxSize;
+			}
+		};
+	}
+
+	/**
+	 * @return A copy of the cached path from the start to the target or null if there is no valid entry.
+	 */
+	synchronized Path get(short sx, short sy, short tx, short ty, int constraints) {
+		Long key = getKey(sx, sy, tx, ty);
+		Entry entry = entries.get(key);
+
+		if (entry == null || entry.constraints != constraints) {
+			misses++;
+			return null;
+		}
+		if (!versions.isUnchangedSince(entry.version, entry.regions)) {
+			entries.remove(key);
+			misses++;
+			return null;
+		}
+
+		hits++;
+		savedExpansions += entry.expandedNodes;
+		return new Path(entry.path);
+	}
+
+	synchronized void put(short sx, short sy, short tx, short ty, int constraints, Path path, long version, int[] regions, int expandedNodes) {
+		entries.put(getKey(sx, sy, tx, ty), new Entry(new Path(path), constraints, version, regions, expandedNodes));
+	}
+
+	RegionVersions getVersions() {
+		return versions;
+	}
+
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * @return The number of nodes the A* would have expanded to calculate the paths returned from the cache.
+	 */
+	public synchronized long getSavedExpansions() {
+		return savedExpansions;
+	}
+
+	public synchronized float getHitRate() {
+		long requests = hits + misses;
+		return requests == 0 ? 0 : (float) hits / requests;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "PathCache{hits=" + hits + ", misses=" + misses + ", hitRate=" + getHitRate() + ", savedExpansions=" + savedExpansions + ", size="
+				+ entries.size() + "}";
+	}
+
+	private static Long getKey(short sx, short sy, short tx, short ty) {
+		int start = (sx << 16) | (sy & 0xFFFF);
+		int target = (tx << 16) | (ty & 0xFFFF);
+		// the target is mixed with the start, because the hash code of a Long only xors both halves and would collide for symmetric requests
+		return ((long) start << 32) | ((target ^ start * 0x9E3779B1) & 0xFFFFFFFFL);
+	}
+
+	private static final class Entry {
+		final Path  path;
+		final int   constraints;
+		final long  version;
+		final int[] regions;
+		final int   expandedNodes;
+
+		Entry(Path path, int constraints, long version, int[] regions, int expandedNodes) {
+			this.path = path;
+			this.constraints = constraints;
+			this.version = version;
+			this.regions = regions;
+			this.expandedNodes = expandedNodes;
+		}
+	}
+}
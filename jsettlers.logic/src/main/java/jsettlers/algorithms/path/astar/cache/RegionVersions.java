@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.algorithms.path.astar.cache;
+
+/**
+ * Remembers when the regions of a grid changed the last time. The map is split into regions of {@link #REGION_SIZE} x {@link #REGION_SIZE}
+ * positions. Every change stores the next value of a global version counter in the region of the changed position. A result calculated at
+ * version v from the positions of some regions is still valid as long as none of these regions has a version bigger than v.
+ */
+public final class RegionVersions {
+	static final int REGION_SIZE = 16;
+
+	private static final int REGION_SHIFT = 4;
+
+	private final int    regionsPerRow;
+	private final long[] regionVersions;
+
+	private long version = 0;
+
+	public RegionVersions(short width, short height) {
+		this.regionsPerRow = (width + REGION_SIZE - 1) / REGION_SIZE;
+		this.regionVersions = new long[regionsPerRow * ((height + REGION_SIZE - 1) / REGION_SIZE)];
+	}
+
+	/**
+	 * Marks the region of the given position as changed.
+	 *
+	 * @param x
+	 *            x coordinate of the changed position.
+	 * @param y
+	 *            y coordinate of the changed position.
+	 */
+	public void changed(int x, int y) {
+		regionVersions[getRegion(x, y)] = ++version;
+	}
+
+	/**
+	 * @return The version of the last change.
+	 */
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * @return The index of the region containing the given position.
+	 */
+	public int getRegion(int x, int y) {
+		return (y >> REGION_SHIFT) * regionsPerRow + (x >> REGION_SHIFT);
+	}
+
+	public int getNumberOfRegions() {
+		return regionVersions.length;
+	}
+
+	/**
+	 * @return true if none of the given regions changed after the given version.
+	 */
+	public boolean isUnchangedSince(long version, int[] regions) {
+		if (version == this.version) {
+			return true;
+		}
+
+		for (int region : regions) {
+			if (regionVersions[region] > version) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.algorithms.path.astar.hierarchical;
+
+import java.util.Arrays;
+
+/**
+ * A rectangular part of the map with the entrances to its neighbor clusters.
+ */
+final class Cluster {
+	private static final int[]   EMPTY_INTS   = new int[0];
+	private static final float[] EMPTY_FLOATS = new float[0];
+
+	final int minX;
+	final int minY;
+	final int maxX;
+	final int maxY;
+
+	/**
+	 * Pairs of flat indexes (inside, outside) of the passages to the eastern, southern and south eastern neighbor clusters.
+	 */
+	int[] transitions = EMPTY_INTS;
+
+	/**
+	 * Sorted flat indexes of the entrance positions of this cluster.
+	 */
+	int[] nodes = EMPTY_INTS;
+
+	/**
+	 * Indexes of the nodes relative to the cluster (see {@link #getLocalIdx(int, int)}).
+	 */
+	int[] localNodes = EMPTY_INTS;
+
+	/**
+	 * Costs between the nodes when staying inside of this cluster: nodeCosts[from * nodes.length + to].
+	 */
+	float[] nodeCosts = EMPTY_FLOATS;
+
+	/**
+	 * Flat indexes of the entrances of other clusters that can be reached from a node with a single step.
+	 */
+	int[][] nodeNeighbors = new int[0][];
+
+	/**
+	 * The node id of the first node. The ids of the other nodes follow in the order of {@link #nodes}.
+	 */
+	int firstNodeId;
+
+	Cluster(int minX, int minY, int maxX, int maxY) {
+		this.minX = minX;
+		this.minY = minY;
+		this.maxX = maxX;
+		this.maxY = maxY;
+	}
+
+	boolean contains(int x, int y) {
+		return minX <= x && x <= maxX && minY <= y && y <= maxY;
+	}
+
+	int getLocalIdx(int x, int y) {
+		return (y - minY) * (maxX - minX + 1) + x - minX;
+	}
+
+	int getNodeIdx(int flatIdx) {
+		return Arrays.binarySearch(nodes, flatIdx);
+	}
+}
@@ -0,0 +1,121 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.algorithms.path.astar.hierarchical;
+
+import java.util.Arrays;
+
+import jsettlers.algorithms.path.IPathCalculatable;
+import jsettlers.algorithms.path.astar.IAStarPathMap;
+import jsettlers.algorithms.path.astar.queues.bucket.AbstractBucketQueue;
+import jsettlers.algorithms.path.astar.queues.bucket.ListMinBucketQueue;
+import jsettlers.common.movable.EDirection;
+
+/**
+ * Calculates the costs from a start position to the entrances of a cluster. The search never leaves the cluster.
+ * <p>
+ * Like the {@link jsettlers.algorithms.path.astar.BucketQueueAStar}, it uses a {@link ListMinBucketQueue} and therefore expects small step
+ * costs.
+ */
+final class ClusterDijkstra {
+	private static final byte[] xDeltaArray = EDirection.getXDeltaArray();
+	private static final byte[] yDeltaArray = EDirection.getYDeltaArray();
+
+	private static final int MAX_CLUSTER_POSITIONS = ClusterGraph.CLUSTER_SIZE * ClusterGraph.CLUSTER_SIZE;
+
+	private final IAStarPathMap map;
+
+	private final float[]             costs  = new float[MAX_CLUSTER_POSITIONS];
+	private final boolean[]           closed = new boolean[MAX_CLUSTER_POSITIONS];
+	private final boolean[]           isNode = new boolean[MAX_CLUSTER_POSITIONS];
+	private final AbstractBucketQueue open   = new ListMinBucketQueue(MAX_CLUSTER_POSITIONS);
+
+	private Cluster cluster;
+	private int     clusterWidth;
+
+	ClusterDijkstra(IAStarPathMap map) {
+		this.map = map;
+	}
+
+	/**
+	 * Calculates the costs from the given start position to the nodes of the cluster. The search stops as soon as the costs of all nodes are
+	 * known. The start position needs to be free.
+	 *
+	 * @param result
+	 *            Receives the costs of the nodes in the order of {@link Cluster#nodes} starting at the given offset. Nodes that can't be reached
+	 *            get {@link ClusterGraph#UNREACHABLE}.
+	 */
+	void calculate(Cluster cluster, IPathCalculatable requester, int startX, int startY, float[] result, int resultOffset) {
+		this.cluster = cluster;
+		this.clusterWidth = cluster.maxX - cluster.minX + 1;
+		int positions = clusterWidth * (cluster.maxY - cluster.minY + 1);
+
+		Arrays.fill(costs, 0, positions, ClusterGraph.UNREACHABLE);
+		Arrays.fill(closed, 0, positions, false);
+		open.clear();
+
+		int[] localNodes = cluster.localNodes;
+		for (int localNode : localNodes) {
+			isNode[localNode] = true;
+		}
+		int remainingNodes = localNodes.length;
+
+		int startIdx = getLocalIdx(startX, startY);
+		costs[startIdx] = 0;
+		open.insert(startIdx, 0);
+
+		while (!open.isEmpty()) {
+			int currentIdx = open.deleteMin();
+			float currentCosts = costs[currentIdx];
+			closed[currentIdx] = true;
+
+			if (isNode[currentIdx] && --remainingNodes == 0) {
+				break;
+			}
+
+			int x = cluster.minX + currentIdx % clusterWidth;
+			int y = cluster.minY + currentIdx / clusterWidth;
+
+			for (int i = 0; i < EDirection.NUMBER_OF_DIRECTIONS; i++) {
+				int neighborX = x + xDeltaArray[i];
+				int neighborY = y + yDeltaArray[i];
+
+				if (cluster.contains(neighborX, neighborY) && !map.isBlocked(requester, neighborX, neighborY)) {
+					int neighborIdx = getLocalIdx(neighborX, neighborY);
+					float newCosts = currentCosts + map.getCost(x, y, neighborX, neighborY);
+					float oldCosts = costs[neighborIdx];
+					if (closed[neighborIdx] || oldCosts <= newCosts) {
+						continue;
+					}
+
+					costs[neighborIdx] = newCosts;
+					if (oldCosts == ClusterGraph.UNREACHABLE) {
+						open.insert(neighborIdx, newCosts);
+					} else {
+						open.increasedPriority(neighborIdx, oldCosts, newCosts);
+					}
+				}
+			}
+		}
+
+		for (int i = 0; i < localNodes.length; i++) {
+			result[resultOffset + i] = costs[localNodes[i]];
+			isNode[localNodes[i]] = false;
+		}
+	}
+
+	private int getLocalIdx(int x, int y) {
+		return cluster.getLocalIdx(x, y);
+	}
+}
@@ -0,0 +1,380 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.algorithms.path.astar.hierarchical;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import jsettlers.algorithms.path.IPathCalculatable;
+import jsettlers.algorithms.path.astar.IAStarPathMap;
+import jsettlers.common.player.IPlayer;
+import jsettlers.common.position.ShortPoint2D;
+
+/**
+ * The abstract graph of the {@link HierarchicalAStar}. The map is split into clusters of {@link #CLUSTER_SIZE} x {@link #CLUSTER_SIZE}
+ * positions. Every free passage between two neighbor clusters gets an entrance on both sides and the costs between the entrances of a cluster
+ * are precalculated.
+ * <p>
+ * The graph only describes the ground everybody can walk on. Clusters containing a position that changed its blocked state are marked as
+ * dirty and rebuilt before the next search.
+ * <p>
+ * The entrances are numbered cluster by cluster with node ids. Therefore the searches only need data for the entrances and not for every
+ * position of the map.
+ */
+public final class ClusterGraph {
+	static final int   CLUSTER_SIZE = 24;
+	static final float UNREACHABLE  = Float.POSITIVE_INFINITY;
+
+	/**
+	 * The requester used to build the graph. It can walk on every players ground.
+	 */
+	static final IPathCalculatable LAND_REQUESTER = new IPathCalculatable() {
+		private static final long serialVersionUID = -5310471856349498152L;
+
+		@Override
+		public boolean needsPlayersGround() {
+			return false;
+		}
+
+		@Override
+		public boolean isShip() {
+			return false;
+		}
+
+		@Override
+		public IPlayer getPlayer() {
+			return null;
+		}
+
+		@Override
+		public ShortPoint2D getPosition() {
+			return null;
+		}
+	};
+
+	private final IAStarPathMap map;
+	private final short         width;
+	private final short         height;
+	private final int           clustersX;
+	private final int           clustersY;
+
+	private final Cluster[]       clusters;
+	private final BitSet          dirtyClusters;
+	private final ClusterDijkstra dijkstra;
+	private int                   numberOfNodes;
+
+	private int[] buffer      = new int[4 * CLUSTER_SIZE];
+	private int   bufferCount = 0;
+
+	public ClusterGraph(IAStarPathMap map, short width, short height) {
+		this.map = map;
+		this.width = width;
+		this.height = height;
+		this.clustersX = (width + CLUSTER_SIZE - 1) / CLUSTER_SIZE;
+		this.clustersY = (height + CLUSTER_SIZE - 1) / CLUSTER_SIZE;
+
+		this.clusters = new Cluster[clustersX * clustersY];
+		for (int cy = 0; cy < clustersY; cy++) {
+			for (int cx = 0; cx < clustersX; cx++) {
+				int minX = cx * CLUSTER_SIZE;
+				int minY = cy * CLUSTER_SIZE;
+				clusters[cy * clustersX + cx] = new Cluster(minX, minY, Math.min(minX + CLUSTER_SIZE, width) - 1, Math.min(minY + CLUSTER_SIZE, height) - 1);
+			}
+		}
+
+		this.dirtyClusters = new BitSet(clusters.length);
+		this.dirtyClusters.set(0, clusters.length);
+		this.dijkstra = new ClusterDijkstra(map);
+	}
+
+	/**
+	 * Needs to be called when the blocked state of a position changed.
+	 */
+	public synchronized void blockedChanged(int x, int y) {
+		dirtyClusters.set(getClusterIdx(x, y));
+	}
+
+	/**
+	 * Rebuilds all dirty clusters. This is done before every search, but can be called earlier to build the graph in advance.
+	 */
+	public synchronized void update() {
+		if (dirtyClusters.isEmpty()) {
+			return;
+		}
+
+		// the transitions of a cluster lead to its eastern and southern neighbors => the western and northern neighbors of a dirty cluster need
+		// to recalculate theirs, too
+		BitSet transitionClusters = new BitSet(clusters.length);
+		for (int clusterIdx = dirtyClusters.nextSetBit(0); clusterIdx >= 0; clusterIdx = dirtyClusters.nextSetBit(clusterIdx + 1)) {
+			int cx = clusterIdx % clustersX;
+			int cy = clusterIdx / clustersX;
+			setClusterIfExists(transitionClusters, cx, cy);
+			setClusterIfExists(transitionClusters, cx - 1, cy);
+			setClusterIfExists(transitionClusters, cx, cy - 1);
+			setClusterIfExists(transitionClusters, cx - 1, cy - 1);
+		}
+
+		BitSet nodeClusters = new BitSet(clusters.length);
+		for (int clusterIdx = transitionClusters.nextSetBit(0); clusterIdx >= 0; clusterIdx = transitionClusters.nextSetBit(clusterIdx + 1)) {
+			calculateTransitions(clusters[clusterIdx]);
+
+			int cx = clusterIdx % clustersX;
+			int cy = clusterIdx / clustersX;
+			setClusterIfExists(nodeClusters, cx, cy);
+			setClusterIfExists(nodeClusters, cx + 1, cy);
+			setClusterIfExists(nodeClusters, cx, cy + 1);
+			setClusterIfExists(nodeClusters, cx + 1, cy + 1);
+		}
+
+		for (int clusterIdx = nodeClusters.nextSetBit(0); clusterIdx >= 0; clusterIdx = nodeClusters.nextSetBit(clusterIdx + 1)) {
+			calculateNodes(clusterIdx, dirtyClusters.get(clusterIdx));
+		}
+
+		int nodeId = 0;
+		for (Cluster cluster : clusters) {
+			cluster.firstNodeId = nodeId;
+			nodeId += cluster.nodes.length;
+		}
+		numberOfNodes = nodeId;
+
+		dirtyClusters.clear();
+	}
+
+	/**
+	 * @return true if a position changed its blocked state since the last {@link #update()}.
+	 */
+	public synchronized boolean isDirty() {
+		return !dirtyClusters.isEmpty();
+	}
+
+	/**
+	 * @return The number of entrances of all clusters. The node ids are smaller than this number.
+	 */
+	int getNumberOfNodes() {
+		return numberOfNodes;
+	}
+
+	/**
+	 * @return The node id of the entrance at the given flat index.
+	 */
+	int getNodeId(int flatIdx) {
+		Cluster cluster = getClusterOfFlatIdx(flatIdx);
+		return cluster.firstNodeId + cluster.getNodeIdx(flatIdx);
+	}
+
+	Cluster getCluster(int x, int y) {
+		return clusters[getClusterIdx(x, y)];
+	}
+
+	Cluster getClusterOfFlatIdx(int flatIdx) {
+		return getCluster(getX(flatIdx), getY(flatIdx));
+	}
+
+	boolean areNeighbors(Cluster first, Cluster second) {
+		return Math.abs(first.minX - second.minX) <= CLUSTER_SIZE && Math.abs(first.minY - second.minY) <= CLUSTER_SIZE;
+	}
+
+	int getFlatIdx(int x, int y) {
+		return y * width + x;
+	}
+
+	int getX(int flatIdx) {
+		return flatIdx % width;
+	}
+
+	int getY(int flatIdx) {
+		return flatIdx / width;
+	}
+
+	private int getClusterIdx(int x, int y) {
+		return (y / CLUSTER_SIZE) * clustersX + x / CLUSTER_SIZE;
+	}
+
+	private void setClusterIfExists(BitSet set, int cx, int cy) {
+		if (0 <= cx && cx < clustersX && 0 <= cy && cy < clustersY) {
+			set.set(cy * clustersX + cx);
+		}
+	}
+
+	private boolean isFree(int x, int y) {
+		return !map.isBlocked(LAND_REQUESTER, x, y);
+	}
+
+	private void calculateTransitions(Cluster cluster) {
+		bufferCount = 0;
+
+		boolean hasEastNeighbor = cluster.maxX + 1 < width;
+		boolean hasSouthNeighbor = cluster.maxY + 1 < height;
+
+		if (hasEastNeighbor) {
+			int x = cluster.maxX;
+			int runStart = -1;
+			for (int y = cluster.minY; y <= cluster.maxY + 1; y++) {
+				if (y <= cluster.maxY && isStraightPassage(x, y, x + 1, y)) {
+					if (runStart < 0) {
+						runStart = y;
+					}
+				} else if (runStart >= 0) {
+					int middle = (runStart + y - 1) / 2;
+					addTransition(x, middle, x + 1, middle);
+					runStart = -1;
+				}
+			}
+
+			// diagonal passages are only needed if they are not part of a straight passage
+			for (int y = cluster.minY; y < cluster.maxY; y++) {
+				if (isFree(x, y) && isFree(x + 1, y + 1) && !(isStraightPassage(x, y, x + 1, y) && isStraightPassage(x, y + 1, x + 1, y + 1))) {
+					addTransition(x, y, x + 1, y + 1);
+				}
+			}
+		}
+
+		if (hasSouthNeighbor) {
+			int y = cluster.maxY;
+			int runStart = -1;
+			for (int x = cluster.minX; x <= cluster.maxX + 1; x++) {
+				if (x <= cluster.maxX && isStraightPassage(x, y, x, y + 1)) {
+					if (runStart < 0) {
+						runStart = x;
+					}
+				} else if (runStart >= 0) {
+					int middle = (runStart + x - 1) / 2;
+					addTransition(middle, y, middle, y + 1);
+					runStart = -1;
+				}
+			}
+
+			for (int x = cluster.minX; x < cluster.maxX; x++) {
+				if (isFree(x, y) && isFree(x + 1, y + 1) && !(isStraightPassage(x, y, x, y + 1) && isStraightPassage(x + 1, y, x + 1, y + 1))) {
+					addTransition(x, y, x + 1, y + 1);
+				}
+			}
+		}
+
+		if (hasEastNeighbor && hasSouthNeighbor && isFree(cluster.maxX, cluster.maxY) && isFree(cluster.maxX + 1, cluster.maxY + 1)) {
+			addTransition(cluster.maxX, cluster.maxY, cluster.maxX + 1, cluster.maxY + 1);
+		}
+
+		cluster.transitions = Arrays.copyOf(buffer, bufferCount);
+	}
+
+	private boolean isStraightPassage(int x1, int y1, int x2, int y2) {
+		return isFree(x1, y1) && isFree(x2, y2);
+	}
+
+	private void addTransition(int insideX, int insideY, int outsideX, int outsideY) {
+		addToBuffer(getFlatIdx(insideX, insideY));
+		addToBuffer(getFlatIdx(outsideX, outsideY));
+	}
+
+	private void addToBuffer(int value) {
+		if (bufferCount == buffer.length) {
+			buffer = Arrays.copyOf(buffer, 2 * buffer.length);
+		}
+		buffer[bufferCount++] = value;
+	}
+
+	private void calculateNodes(int clusterIdx, boolean interiorChanged) {
+		Cluster cluster = clusters[clusterIdx];
+		int cx = clusterIdx % clustersX;
+		int cy = clusterIdx / clustersX;
+
+		// the transitions touching a cluster are stored in the cluster itself and in its western, northern and north western neighbors
+		Cluster[] transitionOwners = new Cluster[] {
+				cluster,
+				cx > 0 ? clusters[clusterIdx - 1] : null,
+				cy > 0 ? clusters[clusterIdx - clustersX] : null,
+				cx > 0 && cy > 0 ? clusters[clusterIdx - clustersX - 1] : null };
+
+		bufferCount = 0;
+		for (Cluster owner : transitionOwners) {
+			if (owner != null) {
+				for (int flatIdx : owner.transitions) {
+					if (cluster.contains(getX(flatIdx), getY(flatIdx))) {
+						addToBuffer(flatIdx);
+					}
+				}
+			}
+		}
+		int[] nodes = Arrays.copyOf(buffer, bufferCount);
+		Arrays.sort(nodes);
+		nodes = removeDuplicates(nodes);
+		// the costs between the nodes only depend on the interior of the cluster
+		boolean costsChanged = interiorChanged || !Arrays.equals(nodes, cluster.nodes);
+		cluster.nodes = nodes;
+
+		int[] neighborCounts = new int[nodes.length];
+		for (Cluster owner : transitionOwners) {
+			if (owner != null) {
+				for (int i = 0; i < owner.transitions.length; i += 2) {
+					int nodeIdx = cluster.getNodeIdx(owner.transitions[i]);
+					if (nodeIdx < 0) {
+						nodeIdx = cluster.getNodeIdx(owner.transitions[i + 1]);
+					}
+					if (nodeIdx >= 0) {
+						neighborCounts[nodeIdx]++;
+					}
+				}
+			}
+		}
+
+		int[][] nodeNeighbors = new int[nodes.length][];
+		for (int i = 0; i < nodes.length; i++) {
+			nodeNeighbors[i] = new int[neighborCounts[i]];
+			neighborCounts[i] = 0;
+		}
+		for (Cluster owner : transitionOwners) {
+			if (owner != null) {
+				for (int i = 0; i < owner.transitions.length; i += 2) {
+					int inside = owner.transitions[i];
+					int outside = owner.transitions[i + 1];
+					int nodeIdx = cluster.getNodeIdx(inside);
+					if (nodeIdx < 0) {
+						nodeIdx = cluster.getNodeIdx(outside);
+						outside = inside;
+					}
+					if (nodeIdx >= 0) {
+						nodeNeighbors[nodeIdx][neighborCounts[nodeIdx]++] = outside;
+					}
+				}
+			}
+		}
+		cluster.nodeNeighbors = nodeNeighbors;
+
+		if (costsChanged) {
+			int[] localNodes = new int[nodes.length];
+			for (int i = 0; i < nodes.length; i++) {
+				localNodes[i] = cluster.getLocalIdx(getX(nodes[i]), getY(nodes[i]));
+			}
+			cluster.localNodes = localNodes;
+
+			float[] nodeCosts = new float[nodes.length * nodes.length];
+			for (int from = 0; from < nodes.length; from++) {
+				dijkstra.calculate(cluster, LAND_REQUESTER, getX(nodes[from]), getY(nodes[from]), nodeCosts, from * nodes.length);
+			}
+			cluster.nodeCosts = nodeCosts;
+		}
+	}
+
+	private static int[] removeDuplicates(int[] sorted) {
+		int count = 0;
+		for (int i = 0; i < sorted.length; i++) {
+			if (i == 0 || sorted[i] != sorted[i - 1]) {
+				sorted[count++] = sorted[i];
+			}
+		}
+		return Arrays.copyOf(sorted, count);
+	}
+}
@@ -0,0 +1,339 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.algorithms.path.astar.hierarchical;
+
+import java.util.Arrays;
+
+import jsettlers.algorithms.path.IPathCalculatable;
+import jsettlers.algorithms.path.IPathRefiner;
+import jsettlers.algorithms.path.Path;
+import jsettlers.algorithms.path.astar.AbstractAStar;
+import jsettlers.algorithms.path.astar.IAStarPathMap;
+import jsettlers.common.position.ShortPoint2D;
+
+/**
+ * Hierarchical A* (HPA*) on top of a normal A*. Long paths are first searched on the entrances of the {@link ClusterGraph}. Only the first leg
+ * of the found way is calculated with the normal A*; the remaining legs are calculated by the {@link IPathRefiner} when the movable reaches
+ * them.
+ * <p>
+ * Short paths, ships and movables that need their players ground are handed to the normal A*. The returned paths are not always the shortest
+ * ones, but they never walk through positions the normal A* would avoid.
+ * <p>
+ * Instances that don't update the graph only read it. Several of them can search concurrently as long as the graph has been updated before and
+ * no other thread updates it while they are searching.
+ */
+public final class HierarchicalAStar extends AbstractAStar {
+	private final IAStarPathMap map;
+	private final ClusterGraph  graph;
+	private final AbstractAStar aStar;
+	private final IPathRefiner  refiner;
+	private final short         width;
+	private final short         height;
+	private final boolean       updatesGraph;
+
+	private final ClusterDijkstra dijkstra;
+
+	// the search data is indexed by the node ids of the graph followed by the start and the target; entries are only valid if their stamp is the
+	// current one
+	private float[] costs        = new float[0];
+	private int[]   parents      = new int[0];
+	private int[]   flatIndexes  = new int[0];
+	private int[]   openedStamps = new int[0];
+	private int[]   closedStamps = new int[0];
+	private int     stamp        = 0;
+	private int     startId;
+	private int     targetId;
+
+	private long[] open = new long[64];
+	private int    openSize;
+
+	private float[] startCosts  = new float[0];
+	private float[] targetCosts = new float[0];
+
+	/**
+	 * @param aStar
+	 *            The A* used to calculate short paths and the first leg of long paths. It is only used by this instance.
+	 * @param refiner
+	 *            The refiner used to calculate the remaining legs of long paths.
+	 */
+	public HierarchicalAStar(IAStarPathMap map, ClusterGraph graph, AbstractAStar aStar, IPathRefiner refiner, short width, short height) {
+		this(map, graph, aStar, refiner, width, height, true);
+	}
+
+	/**
+	 * @param aStar
+	 *            The A* used to calculate short paths and the first leg of long paths. It is only used by this instance.
+	 * @param refiner
+	 *            The refiner used to calculate the remaining legs of long paths.
+	 * @param updatesGraph
+	 *            If true, the dirty clusters of the graph are rebuilt before every search. Otherwise the graph has to be updated before searching.
+	 */
+	public HierarchicalAStar(IAStarPathMap map, ClusterGraph graph, AbstractAStar aStar, IPathRefiner refiner, short width, short height,
+			boolean updatesGraph) {
+		this.map = map;
+		this.graph = graph;
+		this.aStar = aStar;
+		this.refiner = refiner;
+		this.width = width;
+		this.height = height;
+		this.updatesGraph = updatesGraph;
+		this.dijkstra = new ClusterDijkstra(map);
+	}
+
+	@Override
+	public Path findPath(IPathCalculatable requester, ShortPoint2D targetPos) {
+		ShortPoint2D pos = requester.getPosition();
+		return findPath(requester, pos.x, pos.y, targetPos.x, targetPos.y);
+	}
+
+	@Override
+	public Path findPath(IPathCalculatable requester, short sx, short sy, short tx, short ty) {
+		if (!isInBounds(sx, sy) || !isInBounds(tx, ty) || requester.isShip() || requester.needsPlayersGround() || map.isBlocked(requester, sx, sy)
+				|| graph.areNeighbors(graph.getCluster(sx, sy), graph.getCluster(tx, ty))) {
+			return aStar.findPath(requester, sx, sy, tx, ty);
+		}
+		if (map.isBlocked(requester, tx, ty) || map.getBlockedPartition(sx, sy) != map.getBlockedPartition(tx, ty)) {
+			return null; // target can not be reached
+		}
+
+		if (updatesGraph) {
+			graph.update();
+		} else if (graph.isDirty()) {
+			throw new IllegalStateException("The cluster graph needs to be updated before searching with an A* that doesn't update it.");
+		}
+
+		int[] waypoints = findWaypoints(sx, sy, tx, ty);
+		if (waypoints == null) {
+			return aStar.findPath(requester, sx, sy, tx, ty);
+		}
+
+		Path firstLeg = aStar.findPath(requester, sx, sy, (short) graph.getX(waypoints[0]), (short) graph.getY(waypoints[0]));
+		if (firstLeg == null) {
+			return aStar.findPath(requester, sx, sy, tx, ty);
+		} else if (waypoints.length == 1) {
+			return firstLeg;
+		}
+
+		short[] waypointsX = new short[waypoints.length - 1];
+		short[] waypointsY = new short[waypoints.length - 1];
+		for (int i = 1; i < waypoints.length; i++) {
+			waypointsX[i - 1] = (short) graph.getX(waypoints[i]);
+			waypointsY[i - 1] = (short) graph.getY(waypoints[i]);
+		}
+		return new Path(firstLeg, refiner, requester, waypointsX, waypointsY);
+	}
+
+	/**
+	 * Searches the way through the cluster graph.
+	 *
+	 * @return The flat indexes of the positions the path enters a new cluster followed by the target or null if no way has been found.
+	 */
+	private int[] findWaypoints(int sx, int sy, int tx, int ty) {
+		Cluster startCluster = graph.getCluster(sx, sy);
+		Cluster targetCluster = graph.getCluster(tx, ty);
+		int targetFlatIdx = graph.getFlatIdx(tx, ty);
+
+		startCosts = calculateNodeCosts(startCluster, sx, sy, startCosts);
+		targetCosts = calculateNodeCosts(targetCluster, tx, ty, targetCosts);
+
+		startId = graph.getNumberOfNodes();
+		targetId = startId + 1;
+		ensureCapacity(targetId + 1);
+
+		if (++stamp == 0) { // the stamps overflowed => reset them
+			Arrays.fill(openedStamps, 0);
+			Arrays.fill(closedStamps, 0);
+			stamp = 1;
+		}
+		openSize = 0;
+
+		costs[startId] = 0;
+		flatIndexes[startId] = graph.getFlatIdx(sx, sy);
+		openedStamps[startId] = stamp;
+		pushOpen(getQueueKey(getHeuristicCost(sx, sy, tx, ty), startId));
+
+		while (openSize > 0) {
+			int currentId = (int) popOpen();
+			if (closedStamps[currentId] == stamp) {
+				continue;
+			}
+			closedStamps[currentId] = stamp;
+			if (currentId == targetId) {
+				return getWaypoints(startCluster, targetFlatIdx);
+			}
+
+			float currentCosts = costs[currentId];
+
+			if (currentId == startId) {
+				for (int i = 0; i < startCluster.nodes.length; i++) {
+					relax(startCluster.firstNodeId + i, startCluster.nodes[i], currentId, currentCosts + startCosts[i], tx, ty);
+				}
+				continue;
+			}
+
+			int flatIdx = flatIndexes[currentId];
+			Cluster cluster = graph.getClusterOfFlatIdx(flatIdx);
+			int nodeIdx = currentId - cluster.firstNodeId;
+			int nodes = cluster.nodes.length;
+			int x = graph.getX(flatIdx);
+			int y = graph.getY(flatIdx);
+
+			for (int i = 0; i < nodes; i++) {
+				if (i != nodeIdx) {
+					relax(cluster.firstNodeId + i, cluster.nodes[i], currentId, currentCosts + cluster.nodeCosts[nodeIdx * nodes + i], tx, ty);
+				}
+			}
+			for (int neighbor : cluster.nodeNeighbors[nodeIdx]) {
+				relax(graph.getNodeId(neighbor), neighbor, currentId, currentCosts + map.getCost(x, y, graph.getX(neighbor), graph.getY(neighbor)), tx,
+						ty);
+			}
+			if (cluster == targetCluster) {
+				relax(targetId, targetFlatIdx, currentId, currentCosts + targetCosts[nodeIdx], tx, ty);
+			}
+		}
+
+		return null;
+	}
+
+	private float[] calculateNodeCosts(Cluster cluster, int x, int y, float[] result) {
+		if (result.length < cluster.nodes.length) {
+			result = new float[cluster.nodes.length];
+		}
+
+		// the costs are symmetric, so the costs from the target to the nodes can be used the other way round as well
+		dijkstra.calculate(cluster, ClusterGraph.LAND_REQUESTER, x, y, result, 0);
+		return result;
+	}
+
+	private void ensureCapacity(int length) {
+		if (costs.length < length) {
+			// the graph only grows a little when it changes => leave some space for new entrances
+			length += length / 8;
+			costs = new float[length];
+			parents = new int[length];
+			flatIndexes = new int[length];
+			openedStamps = new int[length];
+			closedStamps = new int[length];
+		}
+	}
+
+	private void relax(int id, int flatIdx, int parentId, float newCosts, int tx, int ty) {
+		if (newCosts == ClusterGraph.UNREACHABLE || closedStamps[id] == stamp) {
+			return;
+		}
+
+		if (openedStamps[id] != stamp || newCosts < costs[id]) {
+			openedStamps[id] = stamp;
+			costs[id] = newCosts;
+			parents[id] = parentId;
+			flatIndexes[id] = flatIdx;
+
+			int heuristicCosts = id == targetId ? 0 : getHeuristicCost(graph.getX(flatIdx), graph.getY(flatIdx), tx, ty);
+			pushOpen(getQueueKey(newCosts + heuristicCosts, id));
+		}
+	}
+
+	private void pushOpen(long key) {
+		if (openSize == open.length) {
+			open = Arrays.copyOf(open, 2 * openSize);
+		}
+
+		int child = openSize++;
+		while (child > 0) {
+			int parent = (child - 1) / 2;
+			if (open[parent] <= key) {
+				break;
+			}
+			open[child] = open[parent];
+			child = parent;
+		}
+		open[child] = key;
+	}
+
+	private long popOpen() {
+		long result = open[0];
+		long last = open[--openSize];
+
+		int parent = 0;
+		while (true) {
+			int child = 2 * parent + 1;
+			if (child >= openSize) {
+				break;
+			}
+			if (child + 1 < openSize && open[child + 1] < open[child]) {
+				child++;
+			}
+			if (last <= open[child]) {
+				break;
+			}
+			open[parent] = open[child];
+			parent = child;
+		}
+		open[parent] = last;
+		return result;
+	}
+
+	private int[] getWaypoints(Cluster startCluster, int targetFlatIdx) {
+		int length = 0;
+		int[] reversed = new int[16];
+		for (int id = parents[targetId]; id != startId; id = parents[id]) {
+			if (length == reversed.length) {
+				reversed = Arrays.copyOf(reversed, 2 * length);
+			}
+			reversed[length++] = flatIndexes[id];
+		}
+
+		int[] waypoints = new int[length + 1];
+		int waypointCount = 0;
+		Cluster lastCluster = startCluster;
+		for (int i = length - 1; i >= 0; i--) {
+			Cluster cluster = graph.getClusterOfFlatIdx(reversed[i]);
+			if (cluster != lastCluster) {
+				waypoints[waypointCount++] = reversed[i];
+				lastCluster = cluster;
+			}
+		}
+
+		if (waypointCount == 0 || waypoints[waypointCount - 1] != targetFlatIdx) {
+			waypoints[waypointCount++] = targetFlatIdx;
+		}
+		return Arrays.copyOf(waypoints, waypointCount);
+	}
+
+	/**
+	 * The costs are not negative, so the order of their bits is the order of their values. Equal costs are ordered by the id to make the search
+	 * deterministic.
+	 */
+	private static long getQueueKey(float costs, int id) {
+		return (long) Float.floatToIntBits(costs) << 32 | id;
+	}
+
+	private boolean isInBounds(int x, int y) {
+		return 0 <= x && x < width && 0 <= y && y < height;
+	}
+
+	private static int getHeuristicCost(int sx, int sy, int tx, int ty) {
+		final int dx = (tx - sx);
+		final int dy = (ty - sy);
+		final int absDx = Math.abs(dx);
+		final int absDy = Math.abs(dy);
+
+		if (dx * dy > 0) { // dx and dy go in the same direction
+			return Math.max(absDx, absDy);
+		} else {
+			return absDx + absDy;
+		}
+	}
+}
@@ -69,6 +69,16 @@ public final class DijkstraAlgorithm {
 			for (byte direction = 0; direction < 6; direction++) {
 				byte dx = directionIncreaseX[direction];
 				byte dy = directionIncreaseY[direction];
+
+				// skip this side of the ring if it can't contain a fitting position
+				int endX = x + radius * dx;
+				int endY = y + radius * dy;
+				if (!map.mayFitSearchTypeIn(Math.min(x + dx, endX), Math.min(y + dy, endY), Math.max(x + dx, endX), Math.max(y + dy, endY), type)) {
+					x = (short) endX;
+					y = (short) endY;
+					continue;
+				}
+
 				for (short length = 0; length < radius; length++) {
 					x += dx;
 					y += dy;
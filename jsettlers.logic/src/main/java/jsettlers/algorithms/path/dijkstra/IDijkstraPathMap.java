@@ -25,5 +25,13 @@ public interface IDijkstraPathMap {
 
 	boolean fitsSearchType(int x, int y, Set<ESearchType> types, IPathCalculatable requester);
 
+	/**
+	 * Checks if positions of the given area may fit the given search type. This is used to skip parts of the search that can't contain a result.
+	 * 
+	 * @return false if no position of the area fits the search type.<br>
+	 *         true if positions of the area may fit the search type.
+	 */
+	boolean mayFitSearchTypeIn(int minX, int minY, int maxX, int maxY, ESearchType type);
+
 	void setDijkstraSearched(int x, int y);
 }
@@ -0,0 +1,212 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.logic;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import jsettlers.logic.buildings.Building;
+import jsettlers.logic.buildings.trading.HarborBuilding;
+import jsettlers.logic.buildings.trading.MarketBuilding;
+import jsettlers.logic.constants.Constants;
+import jsettlers.logic.constants.ExtendedRandom;
+import jsettlers.logic.map.grid.partition.manager.materials.MaterialDistributionStatistic;
+import jsettlers.logic.movable.interfaces.ILogicMovable;
+import jsettlers.logic.timer.RescheduleTimer;
+import jsettlers.network.client.interfaces.IGameClock;
+
+/**
+ * The state of a single game that is not part of the grid: the clock, the random generators, the {@link RescheduleTimer} and the registries of
+ * movables and buildings.
+ * <p>
+ * The static accessors like {@link jsettlers.logic.constants.MatchConstants#clock()} or {@link jsettlers.logic.movable.Movable#getMovableByID(int)}
+ * resolve the context with {@link #current()}. A thread uses the context bound to it with {@link #bind(GameContext)}, otherwise the default
+ * context. Threads inherit the context of the thread that created them. Therefore several games can run in one JVM as long as every thread
+ * executing a game is bound to the game's context.
+ */
+public final class GameContext {
+	private static final InheritableThreadLocal<GameContext> boundContext = new InheritableThreadLocal<>();
+	private static volatile GameContext defaultContext = new GameContext();
+
+	private IGameClock clock;
+	private ExtendedRandom gameRandom;
+	private ExtendedRandom aiRandom;
+	private boolean batchedMaterialDistribution;
+
+	private RescheduleTimer rescheduleTimer;
+	private Runnable preparationListener;
+
+	private final HashMap<Integer, ILogicMovable> movablesByID = new HashMap<>();
+	private final ConcurrentLinkedQueue<ILogicMovable> allMovables = new ConcurrentLinkedQueue<>();
+	private int nextMovableID = Integer.MIN_VALUE;
+
+	private final ConcurrentLinkedQueue<Building> allBuildings = new ConcurrentLinkedQueue<>();
+	private final List<MarketBuilding> allMarkets = new ArrayList<>();
+	private final List<HarborBuilding> allHarbors = new ArrayList<>();
+
+	private MaterialDistributionStatistic materialDistributionStatistic;
+
+	/**
+	 * @return The context bound to the current thread or the default context if the thread isn't bound to a context.
+	 */
+	public static GameContext current() {
+		GameContext context = boundContext.get();
+		return context != null ? context : defaultContext;
+	}
+
+	/**
+	 * Binds the given context to the current thread.
+	 * 
+	 * @param context
+	 *            The context to be used by the current thread or null to use the default context.
+	 * @return The context that has been bound to the thread before. It can be used to restore the previous binding.
+	 */
+	public static GameContext bind(GameContext context) {
+		GameContext previous = boundContext.get();
+		boundContext.set(context);
+		return previous;
+	}
+
+	/**
+	 * Sets the context used by all threads that are not bound to a context, e.g. the UI threads.
+	 * 
+	 * @param context
+	 *            The new default context.
+	 */
+	public static void setDefault(GameContext context) {
+		defaultContext = context;
+	}
+
+	public void initMatch(IGameClock clock, long randomSeed) {
+		clearMatch();
+		this.clock = clock;
+		this.gameRandom = new ExtendedRandom(randomSeed);
+		this.aiRandom = new ExtendedRandom(randomSeed);
+		this.batchedMaterialDistribution = Constants.BATCHED_MATERIAL_DISTRIBUTION;
+	}
+
+	public void clearMatch() {
+		if (clock != null) {
+			clock.stopExecution();
+		}
+		clock = null;
+		gameRandom = null;
+		aiRandom = null;
+	}
+
+	public IGameClock getClock() {
+		return clock;
+	}
+
+	public ExtendedRandom getGameRandom() {
+		return gameRandom;
+	}
+
+	public void setGameRandom(ExtendedRandom gameRandom) {
+		this.gameRandom = gameRandom;
+	}
+
+	public ExtendedRandom getAiRandom() {
+		return aiRandom;
+	}
+
+	public void setAiRandom(ExtendedRandom aiRandom) {
+		this.aiRandom = aiRandom;
+	}
+
+	/**
+	 * @return true if the materials managers of this game hand out several transport jobs per run. The setting is saved with the game.
+	 */
+	public boolean isBatchedMaterialDistribution() {
+		return batchedMaterialDistribution;
+	}
+
+	public void setBatchedMaterialDistribution(boolean batchedMaterialDistribution) {
+		this.batchedMaterialDistribution = batchedMaterialDistribution;
+	}
+
+	/**
+	 * @return The {@link RescheduleTimer} of this game or null if it hasn't been created yet.
+	 */
+	public RescheduleTimer getRescheduleTimer() {
+		return rescheduleTimer;
+	}
+
+	public void setRescheduleTimer(RescheduleTimer rescheduleTimer) {
+		this.rescheduleTimer = rescheduleTimer;
+	}
+
+	public Runnable getPreparationListener() {
+		return preparationListener;
+	}
+
+	/**
+	 * @param preparationListener
+	 *            Is run by the game thread before the {@link RescheduleTimer} prepares timerables, e.g. to update data the preparations read
+	 *            concurrently. Can be null.
+	 */
+	public void setPreparationListener(Runnable preparationListener) {
+		this.preparationListener = preparationListener;
+	}
+
+	public HashMap<Integer, ILogicMovable> getMovablesByID() {
+		return movablesByID;
+	}
+
+	public ConcurrentLinkedQueue<ILogicMovable> getAllMovables() {
+		return allMovables;
+	}
+
+	public int createMovableID() {
+		return nextMovableID++;
+	}
+
+	public int getNextMovableID() {
+		return nextMovableID;
+	}
+
+	public void setNextMovableID(int nextMovableID) {
+		this.nextMovableID = nextMovableID;
+	}
+
+	public ConcurrentLinkedQueue<Building> getAllBuildings() {
+		return allBuildings;
+	}
+
+	public List<MarketBuilding> getAllMarkets() {
+		return allMarkets;
+	}
+
+	public List<HarborBuilding> getAllHarbors() {
+		return allHarbors;
+	}
+
+	/**
+	 * @return The statistic the material distribution of this game is recorded in or null if it isn't recorded.
+	 */
+	public MaterialDistributionStatistic getMaterialDistributionStatistic() {
+		return materialDistributionStatistic;
+	}
+
+	/**
+	 * @param materialDistributionStatistic
+	 *            The statistic to record the material distribution in or null to stop recording it.
+	 */
+	public void setMaterialDistributionStatistic(MaterialDistributionStatistic materialDistributionStatistic) {
+		this.materialDistributionStatistic = materialDistributionStatistic;
+	}
+}
@@ -39,6 +39,7 @@ import jsettlers.common.player.IPlayerable;
 import jsettlers.common.position.RelativePoint;
 import jsettlers.common.position.ShortPoint2D;
 import jsettlers.common.selectable.ESelectionType;
+import jsettlers.logic.GameContext;
 import jsettlers.logic.buildings.military.Barrack;
 import jsettlers.logic.buildings.military.occupying.OccupyingBuilding;
 import jsettlers.logic.buildings.others.DefaultBuilding;
@@ -82,7 +83,6 @@ public abstract class Building extends AbstractHexMapObject implements IConstruc
 	private static final EPriority[] SUPPORTED_PRIORITIES_FOR_CONSTRUCTION = new EPriority[] { EPriority.LOW, EPriority.HIGH, EPriority.STOPPED };
 	private static final EPriority[] SUPPORTED_PRIORITIES_FOR_NON_WORKERS = new EPriority[0];
 
-	private static final ConcurrentLinkedQueue<Building> allBuildings = new ConcurrentLinkedQueue<>();
 
 	protected final EBuildingType type;
 	protected final ShortPoint2D pos;
@@ -106,17 +106,18 @@ public abstract class Building extends AbstractHexMapObject implements IConstruc
 		this.pos = position;
 		this.grid = buildingsGrid;
 
-		allBuildings.add(this);
+		GameContext.current().getAllBuildings().add(this);
 	}
 	
 	@SuppressWarnings("unchecked")
 	public static void readStaticState(ObjectInputStream ois) throws IOException, ClassNotFoundException {
+		ConcurrentLinkedQueue<Building> allBuildings = GameContext.current().getAllBuildings();
 		allBuildings.clear();
 		allBuildings.addAll((Collection<? extends Building>) ois.readObject());
 	}
 
 	public static void writeStaticState(ObjectOutputStream oos) throws IOException {
-		oos.writeObject(allBuildings);
+		oos.writeObject(GameContext.current().getAllBuildings());
 	}
 
 	@Override
@@ -466,7 +467,7 @@ public abstract class Building extends AbstractHexMapObject implements IConstruc
 		}
 
 		releaseRequestStacks();
-		allBuildings.remove(this);
+		GameContext.current().getAllBuildings().remove(this);
 		this.state = EBuildingState.DESTROYED;
 		this.selected = false;
 	}
@@ -574,11 +575,11 @@ public abstract class Building extends AbstractHexMapObject implements IConstruc
 	}
 
 	public static ConcurrentLinkedQueue<Building> getAllBuildings() {
-		return allBuildings;
+		return GameContext.current().getAllBuildings();
 	}
 
 	public static void clearState() {
-		allBuildings.clear();
+		GameContext.current().getAllBuildings().clear();
 	}
 
 	@Override
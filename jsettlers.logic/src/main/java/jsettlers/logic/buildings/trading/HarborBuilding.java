@@ -17,9 +17,7 @@ package jsettlers.logic.buildings.trading;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
 
 import java8.util.stream.Stream;
 import jsettlers.common.action.SetTradingWaypointAction;
@@ -27,6 +25,7 @@ import jsettlers.common.buildings.EBuildingType;
 import jsettlers.common.material.EPriority;
 import jsettlers.common.position.ShortPoint2D;
 import jsettlers.logic.DockPosition;
+import jsettlers.logic.GameContext;
 import jsettlers.logic.buildings.IBuildingsGrid;
 import jsettlers.logic.buildings.IDockBuilding;
 import jsettlers.logic.player.Player;
@@ -37,30 +36,28 @@ import static java8.util.stream.StreamSupport.stream;
  * @author Rudolf Polzer
  */
 public class HarborBuilding extends TradingBuilding implements IDockBuilding {
-	private static final List<HarborBuilding> ALL_HARBORS = new ArrayList<>();
-
 	public static Stream<HarborBuilding> getAllHarbors(final Player player) {
-		return stream(ALL_HARBORS).filter(building -> building.getPlayer() == player);
+		return stream(GameContext.current().getAllHarbors()).filter(building -> building.getPlayer() == player);
 	}
 
 	public static void clearState() {
-		ALL_HARBORS.clear();
+		GameContext.current().getAllHarbors().clear();
 	}
 
 	@SuppressWarnings("unchecked")
 	public static void readStaticState(ObjectInputStream ois) throws IOException, ClassNotFoundException {
-		ALL_HARBORS.addAll((Collection<? extends HarborBuilding>) ois.readObject());
+		GameContext.current().getAllHarbors().addAll((Collection<? extends HarborBuilding>) ois.readObject());
 	}
 
 	public static void writeStaticState(ObjectOutputStream oos) throws IOException {
-		oos.writeObject(ALL_HARBORS);
+		oos.writeObject(GameContext.current().getAllHarbors());
 	}
 
 	private DockPosition dockPosition = null;
 
 	public HarborBuilding(EBuildingType type, Player player, ShortPoint2D position, IBuildingsGrid buildingsGrid) {
 		super(type, player, position, buildingsGrid);
-		ALL_HARBORS.add(this);
+		GameContext.current().getAllHarbors().add(this);
 	}
 
 
@@ -78,7 +75,7 @@ public class HarborBuilding extends TradingBuilding implements IDockBuilding {
 	@Override
 	protected void killedEvent() {
 		super.killedEvent();
-		ALL_HARBORS.remove(this);
+		GameContext.current().getAllHarbors().remove(this);
 		removeDock();
 	}
 
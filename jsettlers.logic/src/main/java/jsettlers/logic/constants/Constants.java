@@ -28,6 +28,51 @@ public final class Constants {
 
 	public static boolean FOG_OF_WAR_DEFAULT_ENABLED = true;
 
+	/**
+	 * If true, the timerables of a time slot may prepare their work in parallel before they are executed in their normal order.
+	 */
+	public static boolean PARALLEL_TIMERABLE_PREPARATION = false;
+
+	/**
+	 * If true, the AI players are evaluated in parallel. Their tasks are scheduled in the order of the players, so the game plays the same way.
+	 * <p>
+	 * Regardless of this setting, every AI player draws from its own random generator, which is seeded from the AI random of the match. Games
+	 * with AI players therefore don't play like games recorded while all AI players shared the AI random of the match.
+	 */
+	public static boolean PARALLEL_AI_EVALUATION = true;
+
+	/**
+	 * If true, the AI rates large sets of candidate positions in parallel chunks. The best position is chosen the same way as by a sequential
+	 * rating.
+	 */
+	public static boolean PARALLEL_AI_POSITION_RATING = true;
+
+	/**
+	 * If true, the offers, requests and jobless of all positions changing their partition at once, e.g. when a tower is captured, are moved to
+	 * the new partition in one pass over the lists of the old partition. The moved entries keep the order of the old lists instead of the order
+	 * of the area, so replays only match if they have been recorded with the same setting.
+	 */
+	public static boolean BATCHED_PARTITION_TRANSFER = false;
+
+	/**
+	 * If true, the materials managers hand out several transport jobs per run instead of at most one per material. This changes the course of a
+	 * game, so replays only match if they have been recorded with the same setting.
+	 * <p>
+	 * The value is taken over by every new game. Loaded games keep the setting they have been saved with (see
+	 * {@link MatchConstants#batchedMaterialDistribution()}).
+	 */
+	public static boolean BATCHED_MATERIAL_DISTRIBUTION = false;
+
+	/**
+	 * If true, long paths of movables walking on everybody's ground are searched with the hierarchical A*.
+	 */
+	public static boolean HIERARCHICAL_PATHFINDING = false;
+
+	/**
+	 * The maximum number of paths kept in the path cache of a grid. The cache is disabled if this is 0.
+	 */
+	public static int PATH_CACHE_SIZE = 0;
+
 	public static final float COMBAT_STRENGTH_OWN_GROUND = 1;
 
 	/**
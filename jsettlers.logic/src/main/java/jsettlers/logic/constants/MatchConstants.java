@@ -18,6 +18,7 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 
+import jsettlers.logic.GameContext;
 import jsettlers.network.client.interfaces.IGameClock;
 
 /**
@@ -48,48 +49,44 @@ public final class MatchConstants {
 	private MatchConstants() {
 	}
 
-	private static IGameClock clock;
-	private static ExtendedRandom gameRandom;
-	private static ExtendedRandom aiRandom;
-
 	public static void init(IGameClock clock, long randomSeed) {
-		clearState();
-		MatchConstants.clock = clock;
-		MatchConstants.gameRandom = new ExtendedRandom(randomSeed);
-		MatchConstants.aiRandom = new ExtendedRandom(randomSeed);
+		GameContext.current().initMatch(clock, randomSeed);
 	}
 
 	public static void clearState() {
-		if (clock != null) {
-			clock.stopExecution();
-		}
-		clock = null;
-		gameRandom = null;
-		aiRandom = null;
+		GameContext.current().clearMatch();
 	}
 
 	public static IGameClock clock() {
-		return clock;
+		return GameContext.current().getClock();
 	}
 
 	public static ExtendedRandom random() {
-		return gameRandom;
+		return GameContext.current().getGameRandom();
 	}
 
 	public static ExtendedRandom aiRandom() {
-		return aiRandom;
+		return GameContext.current().getAiRandom();
+	}
+
+	public static boolean batchedMaterialDistribution() {
+		return GameContext.current().isBatchedMaterialDistribution();
 	}
 
 	public static void serialize(ObjectOutputStream oos) throws IOException {
-		oos.writeInt(clock.getTime());
-		oos.writeObject(gameRandom);
-		oos.writeObject(aiRandom);
+		GameContext context = GameContext.current();
+		oos.writeInt(context.getClock().getTime());
+		oos.writeObject(context.getGameRandom());
+		oos.writeObject(context.getAiRandom());
+		oos.writeBoolean(context.isBatchedMaterialDistribution());
 	}
 
 	public static void deserialize(ObjectInputStream ois) throws IOException, ClassNotFoundException {
-		clock.setTime(ois.readInt());
-		gameRandom = (ExtendedRandom) ois.readObject();
-		aiRandom = (ExtendedRandom) ois.readObject();
+		GameContext context = GameContext.current();
+		context.getClock().setTime(ois.readInt());
+		context.setGameRandom((ExtendedRandom) ois.readObject());
+		context.setAiRandom((ExtendedRandom) ois.readObject());
+		context.setBatchedMaterialDistribution(ois.readBoolean());
 	}
 
 }
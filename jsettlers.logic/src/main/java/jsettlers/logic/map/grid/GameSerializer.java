@@ -14,37 +14,91 @@
  *******************************************************************************/
 package jsettlers.logic.map.grid;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
 
+import java8.util.J8Arrays;
+import java8.util.stream.IntStreams;
+import jsettlers.common.CommonConstants;
+import jsettlers.input.PlayerState;
 import jsettlers.logic.buildings.Building;
 import jsettlers.logic.buildings.trading.HarborBuilding;
 import jsettlers.logic.buildings.trading.MarketBuilding;
+import jsettlers.logic.constants.MatchConstants;
 import jsettlers.logic.map.loading.MapLoadException;
 import jsettlers.logic.movable.Movable;
+import jsettlers.logic.timer.RescheduleTimer;
 
 /**
  * This class serializes and deserializes the {@link MainGrid} and therefore the complete game state.
+ * <p>
+ * A saved game consists of the format version, the static state of the game objects and the object graph of the {@link MainGrid} written with java
+ * serialization. The big grid layers are not part of the object graph. They are written at the end of the savegame as raw {@link ISavegameSection}s,
+ * each one optionally compressed on its own. Therefore the sections can be encoded and decoded in parallel.
+ * <p>
+ * Only the object graph has to be written while the game is halted. The sections are saved from snapshots, which can be written later on by any
+ * thread.
  *
  * @author Andreas Eberle
  */
 public class GameSerializer {
 
+	/**
+	 * Has to be increased whenever the persisted layout of the game state changes.
+	 */
+	private static final int SAVEGAME_FORMAT_VERSION = 4;
+
 	private static final long SAVE_STACK_SIZE = 1024 * 1024; // size of the save thread's stack
 	private static final long LOAD_STACK_SIZE = 1024 * 1024; // size of the load thread's stack
 
 	/**
-	 * Saves the grid to the given output file.
+	 * Writes the part of a savegame that needs the game to be halted: the match constants, the player states, the object graph of the grid and the
+	 * timer. The parts are written in the order the savegame loader reads them.
 	 *
+	 * @param playerStates
+	 * 		The UI states of the players.
 	 * @param grid
 	 * 		The grid to use.
 	 * @param oos
 	 * 		The output file/stream for the game.
+	 * @return The snapshots of the grid's sections that need to be written with {@link #saveSections(ISavegameSectionSnapshot[], ObjectOutputStream)}
+	 * at the end of the savegame.
 	 * @throws IOException
 	 * IOException
 	 */
-	public void save(MainGrid grid, final ObjectOutputStream oos) throws IOException {
+	public ISavegameSectionSnapshot[] saveGame(PlayerState[] playerStates, MainGrid grid, ObjectOutputStream oos) throws IOException {
+		MatchConstants.serialize(oos);
+		oos.writeObject(playerStates);
+		ISavegameSectionSnapshot[] snapshots = save(grid, oos);
+		RescheduleTimer.saveTo(oos);
+		return snapshots;
+	}
+
+	/**
+	 * Saves the object graph of the grid to the given output file and creates the snapshots of its sections.
+	 *
+	 * @param grid
+	 * 		The grid to use.
+	 * @param oos
+	 * 		The output file/stream for the game.
+	 * @return The snapshots of the grid's sections that need to be written with {@link #saveSections(ISavegameSectionSnapshot[], ObjectOutputStream)}
+	 * at the end of the savegame.
+	 * @throws IOException
+	 * IOException
+	 */
+	public ISavegameSectionSnapshot[] save(MainGrid grid, final ObjectOutputStream oos) throws IOException {
+		oos.writeInt(SAVEGAME_FORMAT_VERSION);
+
 		GameSaveTask runnable = new GameSaveTask(grid, oos);
 		Thread t = new Thread(null, runnable, "SaveThread", SAVE_STACK_SIZE);
 		t.start();
@@ -59,25 +113,169 @@ public class GameSerializer {
 		}
 
 		oos.flush();
+
+		ISavegameSection[] sections = grid.getSavegameSections();
+		ISavegameSectionSnapshot[] snapshots = new ISavegameSectionSnapshot[sections.length];
+		for (int i = 0; i < sections.length; i++) {
+			snapshots[i] = sections[i].createSnapshot();
+		}
+		return snapshots;
 	}
 
 	public MainGrid load(final ObjectInputStream ois) throws MapLoadException {
 		try {
+			int version = ois.readInt();
+			if (version != SAVEGAME_FORMAT_VERSION) {
+				throw new MapLoadException("Unsupported savegame format version: " + version);
+			}
+
 			LoadRunnable runnable = new LoadRunnable(ois);
 			Thread t = new Thread(null, runnable, "LoadThread", LOAD_STACK_SIZE);
 			t.start();
 			t.join();
 
-			if (runnable.grid != null) {
-				return runnable.grid;
-			} else {
+			if (runnable.grid == null) {
 				throw new MapLoadException("Error loading map.", runnable.exception);
 			}
+
+			return runnable.grid;
+		} catch (MapLoadException e) {
+			throw e;
 		} catch (Throwable t) {
 			throw new MapLoadException(t);
 		}
 	}
 
+	/**
+	 * Writes the sections of a grid at the end of a savegame. This method may be called by any thread.
+	 *
+	 * @param snapshots
+	 * 		The snapshots returned by {@link #save(MainGrid, ObjectOutputStream)}.
+	 * @param oos
+	 * 		The output stream used to save the grid.
+	 * @throws IOException
+	 * IOException
+	 */
+	public void saveSections(ISavegameSectionSnapshot[] snapshots, ObjectOutputStream oos) throws IOException {
+		final boolean compress = CommonConstants.USE_SAVEGAME_SECTION_COMPRESSION;
+
+		EncodedSection[] encodedSections;
+		try {
+			encodedSections = J8Arrays.stream(snapshots).parallel().map(snapshot -> encodeSection(snapshot, compress)).toArray(EncodedSection[]::new);
+		} catch (SectionException e) {
+			throw e.getCause();
+		}
+
+		oos.writeInt(encodedSections.length);
+		for (EncodedSection encodedSection : encodedSections) {
+			oos.writeBoolean(encodedSection.compressed);
+			oos.writeInt(encodedSection.data.length);
+			oos.write(encodedSection.data);
+		}
+		oos.flush();
+	}
+
+	/**
+	 * Reads the sections written by {@link #saveSections(ISavegameSectionSnapshot[], ObjectOutputStream)} into the given grid.
+	 *
+	 * @param grid
+	 * 		The grid returned by {@link #load(ObjectInputStream)}.
+	 * @param ois
+	 * 		The input stream used to load the grid.
+	 * @throws MapLoadException
+	 * If the sections can't be read.
+	 */
+	public void loadSections(MainGrid grid, ObjectInputStream ois) throws MapLoadException {
+		try {
+			readSections(grid.getSavegameSections(), ois);
+		} catch (IOException e) {
+			throw new MapLoadException(e);
+		}
+	}
+
+	private static void readSections(ISavegameSection[] sections, ObjectInputStream ois) throws IOException {
+		int numberOfSections = ois.readInt();
+		if (numberOfSections != sections.length) {
+			throw new IOException("Expected " + sections.length + " savegame sections but found " + numberOfSections);
+		}
+
+		EncodedSection[] encodedSections = new EncodedSection[numberOfSections];
+		for (int i = 0; i < numberOfSections; i++) {
+			boolean compressed = ois.readBoolean();
+			byte[] data = new byte[ois.readInt()];
+			ois.readFully(data);
+			encodedSections[i] = new EncodedSection(compressed, data);
+		}
+
+		try {
+			IntStreams.range(0, numberOfSections).parallel().forEach(i -> decodeSection(sections[i], encodedSections[i]));
+		} catch (SectionException e) {
+			throw e.getCause();
+		}
+	}
+
+	private static EncodedSection encodeSection(ISavegameSectionSnapshot snapshot, boolean compress) {
+		try {
+			ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+			OutputStream out = buffer;
+			Deflater deflater = null;
+			if (compress) {
+				deflater = new Deflater(Deflater.BEST_SPEED);
+				out = new DeflaterOutputStream(buffer, deflater);
+			}
+
+			try (DataOutputStream dos = new DataOutputStream(out)) {
+				snapshot.writeTo(dos);
+			} finally {
+				if (deflater != null) {
+					deflater.end();
+				}
+			}
+			return new EncodedSection(compress, buffer.toByteArray());
+		} catch (IOException e) {
+			throw new SectionException(e);
+		}
+	}
+
+	private static void decodeSection(ISavegameSection section, EncodedSection encodedSection) {
+		InputStream in = new ByteArrayInputStream(encodedSection.data);
+		if (encodedSection.compressed) {
+			in = new InflaterInputStream(in);
+		}
+
+		try (DataInputStream dis = new DataInputStream(in)) {
+			section.readSection(dis);
+		} catch (IOException e) {
+			throw new SectionException(e);
+		}
+	}
+
+	private static final class EncodedSection {
+		final boolean compressed;
+		final byte[]  data;
+
+		EncodedSection(boolean compressed, byte[] data) {
+			this.compressed = compressed;
+			this.data = data;
+		}
+	}
+
+	/**
+	 * Transports an {@link IOException} out of the parallel streams.
+	 */
+	private static final class SectionException extends RuntimeException {
+		private static final long serialVersionUID = 6120347525106423457L;
+
+		SectionException(IOException cause) {
+			super(cause);
+		}
+
+		@Override
+		public synchronized IOException getCause() {
+			return (IOException) super.getCause();
+		}
+	}
+
 	private final class GameSaveTask implements Runnable {
 		private final MainGrid           grid;
 		private final ObjectOutputStream oos;
@@ -0,0 +1,44 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.logic.map.grid;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+
+/**
+ * A part of the game state that is not written with java serialization but saved as raw primitive data in its own section of the savegame. This
+ * allows to save and load the big grid layers in parallel.
+ *
+ * @see GameSerializer
+ */
+public interface ISavegameSection {
+
+	/**
+	 * Copies the data of this section. The snapshot must not change when the game continues, so it can be written by another thread.
+	 *
+	 * @return The snapshot of this section.
+	 */
+	ISavegameSectionSnapshot createSnapshot();
+
+	/**
+	 * Reads the data written by the snapshot of this section. Called after the object graph of the game has been read. The sections of a game are
+	 * read in parallel.
+	 *
+	 * @param dis
+	 *            The stream to read from.
+	 * @throws IOException
+	 */
+	void readSection(DataInputStream dis) throws IOException;
+}
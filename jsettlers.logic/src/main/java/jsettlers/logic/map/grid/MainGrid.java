@@ -32,12 +32,18 @@ import jsettlers.algorithms.fogofwar.IViewDistancable;
 import jsettlers.algorithms.landmarks.EnclosedBlockedAreaFinderAlgorithm;
 import jsettlers.algorithms.landmarks.IEnclosedBlockedAreaFinderGrid;
 import jsettlers.algorithms.path.IPathCalculatable;
+import jsettlers.algorithms.path.IPathRefiner;
 import jsettlers.algorithms.path.Path;
 import jsettlers.algorithms.path.area.IInAreaFinderMap;
 import jsettlers.algorithms.path.area.InAreaFinder;
 import jsettlers.algorithms.path.astar.AbstractAStar;
 import jsettlers.algorithms.path.astar.BucketQueueAStar;
 import jsettlers.algorithms.path.astar.IAStarPathMap;
+import jsettlers.algorithms.path.astar.cache.CachingAStar;
+import jsettlers.algorithms.path.astar.cache.PathCache;
+import jsettlers.algorithms.path.astar.cache.RegionVersions;
+import jsettlers.algorithms.path.astar.hierarchical.ClusterGraph;
+import jsettlers.algorithms.path.astar.hierarchical.HierarchicalAStar;
 import jsettlers.algorithms.path.dijkstra.DijkstraAlgorithm;
 import jsettlers.algorithms.path.dijkstra.IDijkstraPathMap;
 import jsettlers.algorithms.previewimage.PreviewImageCreator;
@@ -66,6 +72,7 @@ import jsettlers.common.menu.UIState;
 import jsettlers.common.movable.EDirection;
 import jsettlers.common.movable.EMovableType;
 import jsettlers.common.movable.IMovable;
+import jsettlers.common.movable.MovablesSnapshotBuffer;
 import jsettlers.common.player.EWinState;
 import jsettlers.common.player.IPlayer;
 import jsettlers.common.position.MutablePoint2D;
@@ -77,6 +84,7 @@ import jsettlers.input.IGuiInputGrid;
 import jsettlers.input.PlayerState;
 import jsettlers.logic.DockPosition;
 import jsettlers.logic.FerryEntrance;
+import jsettlers.logic.GameContext;
 import jsettlers.logic.buildings.Building;
 import jsettlers.logic.buildings.IBuildingsGrid;
 import jsettlers.logic.buildings.military.occupying.IOccupyableBuilding;
@@ -118,6 +126,7 @@ import jsettlers.logic.map.loading.list.MapList;
 import jsettlers.logic.map.loading.newmap.MapFileHeader;
 import jsettlers.logic.map.loading.newmap.MapFileHeader.MapType;
 import jsettlers.logic.movable.Movable;
+import jsettlers.logic.movable.MovablesSnapshotWriter;
 import jsettlers.logic.movable.interfaces.AbstractMovableGrid;
 import jsettlers.logic.movable.interfaces.IAttackable;
 import jsettlers.logic.movable.interfaces.ILogicMovable;
@@ -156,6 +165,7 @@ public final class MainGrid implements Serializable {
 	transient         BordersThread                  bordersThread;
 	transient         IGuiInputGrid                  guiInputGrid;
 	private transient IEnclosedBlockedAreaFinderGrid enclosedBlockedAreaFinderGrid;
+	private transient IPositionChangedListener       positionChangedListener;
 
 	public MainGrid(String mapId, String mapName, short width, short height, PlayerSetting[] playerSettings) {
 		this.mapId = mapId;
@@ -194,6 +204,38 @@ public final class MainGrid implements Serializable {
 
 		this.partitionsGrid.setPlayerChangedListener(new PlayerChangedListener());
 		this.enclosedBlockedAreaFinderGrid = new EnclosedBlockedAreaFinderGrid();
+		this.flagsGrid.setBlockedChangedListener((x, y, blocked) -> {
+			movablePathfinderGrid.blockedChanged(x, y);
+			positionChanged(x, y);
+		});
+		this.landscapeGrid.setGroundChangedListener((x, y) -> {
+			constructionMarksGrid.positionChanged(x, y);
+			positionChanged(x, y);
+		});
+	}
+
+	/**
+	 * Sets the listener that is informed about all changes of positions. Only one listener can be set.
+	 *
+	 * @param positionChangedListener
+	 *            The listener or null to remove the current listener.
+	 */
+	public void setPositionChangedListener(IPositionChangedListener positionChangedListener) {
+		this.positionChangedListener = positionChangedListener;
+	}
+
+	private void positionChanged(int x, int y) {
+		if (positionChangedListener != null) {
+			positionChangedListener.positionChangedAt(x, y);
+		}
+	}
+
+	private boolean tryTakingResource(ShortPoint2D position, EResourceType resource) {
+		if (landscapeGrid.tryTakingResource(position, resource)) {
+			positionChanged(position.x, position.y);
+			return true;
+		}
+		return false;
 	}
 
 	public final short getHeight() {
@@ -219,13 +261,28 @@ public final class MainGrid implements Serializable {
 	}
 
 	public void startThreads() {
+		ClusterGraph clusterGraph = movablePathfinderGrid.clusterGraph;
+		if (clusterGraph != null) {
+			clusterGraph.update();
+			// the A*s preparing paths only read the graph => update it before they start
+			GameContext.current().setPreparationListener(clusterGraph::update);
+		}
 		bordersThread.start();
 		if (fogOfWar != null) {
 			fogOfWar.start(new FogOfWarGrid());
 		}
 	}
 
+	/**
+	 * Publishes the current state of the movables to the graphics, if they have taken the last published state. This has to be called by the
+	 * game thread at the end of a tick.
+	 */
+	public void publishMovablesSnapshot(int gameTime) {
+		graphicsGrid.movablesSnapshotWriter.writeIfRequested(Movable.getAllMovables(), gameTime);
+	}
+
 	public void stopThreads() {
+		GameContext.current().setPreparationListener(null);
 		bordersThread.cancel();
 		if (fogOfWar != null) {
 			fogOfWar.cancel();
@@ -332,11 +389,6 @@ public final class MainGrid implements Serializable {
 	public void save(Byte playerId, UIState uiState) throws IOException {
 		boolean savedPausingState = MatchConstants.clock().isPausing();
 		MatchConstants.clock().setPausing(true);
-		try {
-			Thread.sleep(300L); // FIXME @Andreas serializer should wait until threads did their work!
-		} catch (InterruptedException e) {
-			e.printStackTrace();
-		}
 
 		PlayerState[] playerStates = calculatePlayerStates(playerId, uiState);
 		MapFileHeader header = generateSaveHeader(playerId);
@@ -514,6 +566,13 @@ public final class MainGrid implements Serializable {
 		return flagsGrid;
 	}
 
+	/**
+	 * @return The grids that are saved in their own sections of a savegame. The order must not be changed.
+	 */
+	ISavegameSection[] getSavegameSections() {
+		return new ISavegameSection[] { landscapeGrid, flagsGrid, partitionsGrid };
+	}
+
 	public void initWithPlayerSettings(PlayerSetting[] playerSettings) {
 		partitionsGrid.initWithPlayerSettings(playerSettings);
 	}
@@ -628,6 +687,23 @@ public final class MainGrid implements Serializable {
 			return false;
 		}
 
+		@Override
+		public boolean mayFitSearchTypeIn(int minX, int minY, int maxX, int maxY, ESearchType searchType) {
+			// the offsets of the cuttable objects are the same as in fitsSearchType()
+			switch (searchType) {
+				case CUTTABLE_TREE:
+					return objectsGrid.mayHaveCuttableObjectsIn(minX - 1, minY - 1, maxX - 1, maxY - 1, EMapObjectType.TREE_ADULT);
+				case CUTTABLE_CORN:
+					return objectsGrid.mayHaveCuttableObjectsIn(minX, minY, maxX, maxY, EMapObjectType.CORN_ADULT);
+				case HARVESTABLE_WINE:
+					return objectsGrid.mayHaveCuttableObjectsIn(minX, minY, maxX, maxY, EMapObjectType.WINE_HARVESTABLE);
+				case CUTTABLE_STONE:
+					return objectsGrid.mayHaveCuttableObjectsIn(minX - 1, minY + 1, maxX - 1, maxY + 1, EMapObjectType.STONE);
+				default:
+					return true;
+			}
+		}
+
 		final boolean canAddResourceSign(int x, int y) {
 			return x % 2 == 0
 				&& y % 2 == 0
@@ -763,6 +839,7 @@ public final class MainGrid implements Serializable {
 
 	final class GraphicsGrid implements IGraphicsGrid, IDirectGridProvider {
 		private transient BitSet bordersGrid = new BitSet(width * height);
+		private transient MovablesSnapshotWriter movablesSnapshotWriter = new MovablesSnapshotWriter(movableGrid.getMovableArray(), width);
 
 		@Override
 		public final short getHeight() {
@@ -866,10 +943,15 @@ public final class MainGrid implements Serializable {
 		}
 
 		@Override
-		public byte[][] getVisibleStatusArray() {
+		public byte[] getVisibleStatusArray() {
 			return fogOfWar.getVisibleStatusArray();
 		}
 
+		@Override
+		public MovablesSnapshotBuffer getMovablesSnapshotBuffer() {
+			return movablesSnapshotWriter.getBuffer();
+		}
+
 		@Override
 		public final void setBackgroundListener(IGraphicsBackgroundListener backgroundListener) {
 			landscapeGrid.setBackgroundListener(backgroundListener);
@@ -916,7 +998,16 @@ public final class MainGrid implements Serializable {
 
 		@Override
 		public final boolean removeMapObject(int x, int y, AbstractHexMapObject mapObject) {
-			return objectsGrid.removeMapObject(x, y, mapObject);
+			boolean removed = objectsGrid.removeMapObject(x, y, mapObject);
+			if (removed) {
+				positionChanged(x, y);
+			}
+			return removed;
+		}
+
+		@Override
+		public final void mapObjectTypeChanged(int x, int y) {
+			objectsGrid.objectTypeChanged(x, y);
 		}
 
 		@Override
@@ -927,6 +1018,7 @@ public final class MainGrid implements Serializable {
 		@Override
 		public final void addMapObject(int x, int y, AbstractHexMapObject mapObject) {
 			objectsGrid.addMapObjectAt(x, y, mapObject);
+			positionChanged(x, y);
 		}
 
 		@Override
@@ -1133,14 +1225,20 @@ public final class MainGrid implements Serializable {
 		}
 	}
 
-	final class MovablePathfinderGrid extends AbstractMovableGrid {
+	final class MovablePathfinderGrid extends AbstractMovableGrid implements IPathRefiner {
 		private static final long serialVersionUID = 4006228724969442801L;
 
 		private transient PathfinderGrid    pathfinderGrid;
+		private transient AbstractAStar     flatAStar;
 		private transient AbstractAStar     aStar;
+		private transient RegionVersions    pathingVersions; // null if the path cache is disabled
+		private transient PathCache         pathCache;
+		transient         ClusterGraph      clusterGraph; // null if the hierarchical path finding is disabled
 		transient         DijkstraAlgorithm dijkstra; // not private, because it's used by BuildingsGrid
 		private transient InAreaFinder      inAreaFinder;
 
+		private transient ConcurrentLinkedQueue<AbstractAStar> preparationAStars;
+
 		public MovablePathfinderGrid() {
 			initPathfinders();
 		}
@@ -1153,9 +1251,32 @@ public final class MainGrid implements Serializable {
 		private void initPathfinders() {
 			pathfinderGrid = new PathfinderGrid();
 
-			aStar = new BucketQueueAStar(pathfinderGrid, width, height);
+			if (Constants.PATH_CACHE_SIZE > 0) {
+				pathingVersions = new RegionVersions(width, height);
+				pathCache = new PathCache(pathingVersions, Constants.PATH_CACHE_SIZE);
+			}
+			flatAStar = createFlatAStar(pathfinderGrid);
+			clusterGraph = Constants.HIERARCHICAL_PATHFINDING ? new ClusterGraph(pathfinderGrid, width, height) : null;
+			aStar = createAStar(pathfinderGrid, flatAStar, true);
 			dijkstra = new DijkstraAlgorithm(pathfinderGrid, aStar, width, height);
 			inAreaFinder = new InAreaFinder(pathfinderGrid, width, height);
+			preparationAStars = new ConcurrentLinkedQueue<>();
+		}
+
+		private AbstractAStar createFlatAStar(IAStarPathMap map) {
+			if (pathCache == null) {
+				return new BucketQueueAStar(map, width, height);
+			} else {
+				return new CachingAStar(pathCache, map, width, height);
+			}
+		}
+
+		private AbstractAStar createAStar(IAStarPathMap map, AbstractAStar flatAStar, boolean updatesGraph) {
+			if (clusterGraph == null) {
+				return flatAStar;
+			} else {
+				return new HierarchicalAStar(map, clusterGraph, flatAStar, this, width, height, updatesGraph);
+			}
 		}
 
 		@Override
@@ -1205,7 +1326,7 @@ public final class MainGrid implements Serializable {
 		@Override
 		public void changePlayerAt(ShortPoint2D position, Player player) {
 			partitionsGrid.changePlayerAt(position, player.playerId);
-			bordersThread.checkPosition(position);
+			bordersThread.checkPosition(position.x, position.y);
 
 			checkPositionThatChangedPlayer(position.x, position.y);
 		}
@@ -1250,6 +1371,26 @@ public final class MainGrid implements Serializable {
 			partitionsGrid.getPartitionAt(bricklayer).removeJobless(bricklayer);
 		}
 
+		@Override
+		public void joblessMoved(IManageableBearer bearer, ShortPoint2D oldPosition) {
+			partitionsGrid.joblessMoved(bearer, oldPosition);
+		}
+
+		@Override
+		public void joblessMoved(IManageableWorker worker, ShortPoint2D oldPosition) {
+			partitionsGrid.joblessMoved(worker, oldPosition);
+		}
+
+		@Override
+		public void joblessMoved(IManageableDigger digger, ShortPoint2D oldPosition) {
+			partitionsGrid.joblessMoved(digger, oldPosition);
+		}
+
+		@Override
+		public void joblessMoved(IManageableBricklayer bricklayer, ShortPoint2D oldPosition) {
+			partitionsGrid.joblessMoved(bricklayer, oldPosition);
+		}
+
 		@Override
 		public boolean takeMaterial(ShortPoint2D position, EMaterialType materialType) {
 			return mapObjectsManager.popMaterial(position.x, position.y, materialType);
@@ -1366,6 +1507,79 @@ public final class MainGrid implements Serializable {
 			return aStar.findPath(pathRequester, targetPos);
 		}
 
+		@Override
+		public Path refinePath(IPathCalculatable requester, short sx, short sy, short tx, short ty) {
+			return flatAStar.findPath(requester, sx, sy, tx, ty);
+		}
+
+		@Override
+		public Path preparePathTo(IPathCalculatable pathRequester, ShortPoint2D targetPos) {
+			AbstractAStar preparationAStar = preparationAStars.poll(); // every thread needs its own instance
+			if (preparationAStar == null) {
+				PreparationPathMap map = new PreparationPathMap();
+				preparationAStar = createAStar(map, createFlatAStar(map), false);
+			}
+
+			try {
+				return preparationAStar.findPath(pathRequester, targetPos);
+			} finally {
+				preparationAStars.offer(preparationAStar);
+			}
+		}
+
+		void blockedChanged(int x, int y) {
+			if (pathingVersions != null) {
+				pathingVersions.changed(x, y);
+			}
+			if (clusterGraph != null) {
+				clusterGraph.blockedChanged(x, y);
+			}
+		}
+
+		void playerChanged(int x, int y) {
+			if (pathingVersions != null) {
+				pathingVersions.changed(x, y);
+			}
+		}
+
+		@Override
+		public int getPathingVersion() {
+			return flagsGrid.getBlockedVersion() + partitionsGrid.getPlayersVersion();
+		}
+
+		/**
+		 * The map of the A*s preparing paths. The preparations run concurrently, so they don't draw the searched positions into the debug colors of
+		 * the landscape.
+		 */
+		private final class PreparationPathMap implements IAStarPathMap {
+			@Override
+			public boolean isBlocked(IPathCalculatable requester, int x, int y) {
+				return pathfinderGrid.isBlocked(requester, x, y);
+			}
+
+			@Override
+			public float getCost(int sx, int sy, int tx, int ty) {
+				return pathfinderGrid.getCost(sx, sy, tx, ty);
+			}
+
+			@Override
+			public void markAsOpen(int x, int y) {
+			}
+
+			@Override
+			public void markAsClosed(int x, int y) {
+			}
+
+			@Override
+			public void setDebugColor(int x, int y, Color color) {
+			}
+
+			@Override
+			public short getBlockedPartition(int x, int y) {
+				return pathfinderGrid.getBlockedPartition(x, y);
+			}
+		}
+
 		@Override
 		public Path searchDijkstra(IPathCalculatable pathCalculateable, short centerX, short centerY, short radius, ESearchType searchType) {
 			return dijkstra.find(pathCalculateable, centerX, centerY, (short) 0, radius, searchType);
@@ -1505,29 +1719,36 @@ public final class MainGrid implements Serializable {
 
 		@Override
 		public boolean tryTakingResource(ShortPoint2D position, EResourceType resource) {
-			return landscapeGrid.tryTakingResource(position, resource);
+			return MainGrid.this.tryTakingResource(position, resource);
 		}
 	}
 
 	final class BordersThreadGrid implements IBordersThreadGrid {
 		@Override
-		public final byte getPlayerIdAt(int x, int y) {
-			return partitionsGrid.getPlayerIdAt(x, y);
+		public final short getWidth() {
+			return width;
 		}
 
 		@Override
-		public final void setBorderAt(int x, int y, boolean isBorder) {
-			graphicsGrid.bordersGrid.set(x + y * width, isBorder);
+		public final short getHeight() {
+			return height;
 		}
 
 		@Override
-		public final boolean isInBounds(int x, int y) {
-			return MainGrid.this.isInBounds(x, y);
+		public final void getPlayerIdsInRow(int y, int minX, int maxX, byte[] playerIds, int offset) {
+			for (int x = minX; x <= maxX; x++) {
+				playerIds[offset++] = landscapeGrid.getBlockedPartitionAt(x, y) > 0 ? partitionsGrid.getPlayerIdAt(x, y) : BLOCKED_POSITION;
+			}
 		}
 
 		@Override
-		public final short getBlockedPartition(int x, int y) {
-			return landscapeGrid.getBlockedPartitionAt(x, y);
+		public final void setBordersInRow(int y, int minX, int maxX, BitSet borders) {
+			BitSet bordersGrid = graphicsGrid.bordersGrid;
+			int rowOffset = minX + y * width;
+			bordersGrid.clear(rowOffset, rowOffset + maxX - minX + 1);
+			for (int i = borders.nextSetBit(0); i >= 0; i = borders.nextSetBit(i + 1)) {
+				bordersGrid.set(rowOffset + i);
+			}
 		}
 	}
 
@@ -1769,17 +1990,25 @@ public final class MainGrid implements Serializable {
 		public void occupyAreaByTower(Player player, MapCircle influencingArea, FreeMapArea groundArea) {
 			partitionsGrid.addTowerAndOccupyArea(player.playerId, influencingArea, groundArea);
 			checkAllPositionsForEnclosedBlockedAreas(influencingArea.stream()); // TODO @Andreas Eberle only test the borders of changed areas!!
+			towerAreaChanged(influencingArea.stream());
 		}
 
 		@Override
 		public void freeAreaOccupiedByTower(ShortPoint2D towerPosition) {
-			partitionsGrid.removeTowerAndFreeOccupiedArea(towerPosition);
+			towerAreaChanged(partitionsGrid.removeTowerAndFreeOccupiedArea(towerPosition));
 		}
 
 		@Override
 		public void changePlayerOfTower(ShortPoint2D towerPosition, Player newPlayer, FreeMapArea groundArea) {
 			CoordinateStream positions = partitionsGrid.changePlayerOfTower(towerPosition, newPlayer.playerId);
 			checkAllPositionsForEnclosedBlockedAreas(positions);
+			towerAreaChanged(positions);
+		}
+
+		private void towerAreaChanged(CoordinateStream area) {
+			if (positionChangedListener != null) {
+				area.forEach(MainGrid.this::positionChanged);
+			}
 		}
 
 		private void checkAllPositionsForEnclosedBlockedAreas(CoordinateStream area) {
@@ -1849,7 +2078,7 @@ public final class MainGrid implements Serializable {
 
 		@Override
 		public boolean tryTakingResource(ShortPoint2D position, EResourceType resource) {
-			return landscapeGrid.tryTakingResource(position, resource);
+			return MainGrid.this.tryTakingResource(position, resource);
 		}
 
 		@Override
@@ -2060,8 +2289,11 @@ public final class MainGrid implements Serializable {
 
 		@Override
 		public void playerChangedAt(int x, int y, byte newPlayerId) {
-			final ShortPoint2D position = new ShortPoint2D(x, y);
-			bordersThread.checkPosition(position);
+			movablePathfinderGrid.playerChanged(x, y);
+			constructionMarksGrid.positionChanged(x, y);
+			positionChanged(x, y);
+
+			bordersThread.checkPosition(x, y);
 
 			Building building = objectsGrid.getBuildingAt(x, y);
 			if (building != null && building.getPlayer().getPlayerId() != newPlayerId) {
@@ -2091,4 +2323,12 @@ public final class MainGrid implements Serializable {
 			return Building.getAllBuildings();
 		}
 	}
+
+	/**
+	 * Listener that is informed about every change of a position that may change the statistics of the map, e.g. its player, objects, resources,
+	 * landscape or blocked state.
+	 */
+	public interface IPositionChangedListener {
+		void positionChangedAt(int x, int y);
+	}
 }
@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.logic.map.grid;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.BitSet;
+
+/**
+ * Helper methods to write and read the primitive arrays of {@link ISavegameSection}s. Every array is stored with its length.
+ */
+public final class SavegameSectionStreams {
+	private SavegameSectionStreams() {
+	}
+
+	public static void writeBytes(DataOutputStream dos, byte[] data) throws IOException {
+		dos.writeInt(data.length);
+		dos.write(data);
+	}
+
+	public static byte[] readBytes(DataInputStream dis, int expectedLength) throws IOException {
+		byte[] data = new byte[readLength(dis, expectedLength)];
+		dis.readFully(data);
+		return data;
+	}
+
+	public static void writeShorts(DataOutputStream dos, short[] data) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(data.length * 2);
+		buffer.asShortBuffer().put(data);
+		dos.writeInt(data.length);
+		dos.write(buffer.array());
+	}
+
+	public static short[] readShorts(DataInputStream dis, int expectedLength) throws IOException {
+		short[] data = new short[readLength(dis, expectedLength)];
+		byte[] bytes = new byte[data.length * 2];
+		dis.readFully(bytes);
+		ByteBuffer.wrap(bytes).asShortBuffer().get(data);
+		return data;
+	}
+
+	/**
+	 * Writes the given words in the format read by {@link #readBitSet(DataInputStream)}.
+	 *
+	 * @param dos
+	 *            The stream to write to.
+	 * @param words
+	 *            The words of a {@link BitSet} as given by {@link BitSet#toLongArray()}.
+	 * @throws IOException
+	 */
+	public static void writeLongs(DataOutputStream dos, long[] words) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(words.length * 8);
+		buffer.asLongBuffer().put(words);
+		dos.writeInt(words.length);
+		dos.write(buffer.array());
+	}
+
+	public static BitSet readBitSet(DataInputStream dis) throws IOException {
+		long[] words = new long[readLength(dis, -1)];
+		byte[] bytes = new byte[words.length * 8];
+		dis.readFully(bytes);
+		ByteBuffer.wrap(bytes).asLongBuffer().get(words);
+		return BitSet.valueOf(words);
+	}
+
+	private static int readLength(DataInputStream dis, int expectedLength) throws IOException {
+		int length = dis.readInt();
+		if (length < 0 || expectedLength >= 0 && length != expectedLength) {
+			throw new IOException("Invalid savegame section: expected " + expectedLength + " entries but found " + length);
+		}
+		return length;
+	}
+}
@@ -14,10 +14,15 @@
  *******************************************************************************/
 package jsettlers.logic.map.grid.flags;
 
+import java.io.DataInputStream;
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.BitSet;
 
 import jsettlers.algorithms.partitions.IBlockingProvider;
+import jsettlers.logic.map.grid.ISavegameSection;
+import jsettlers.logic.map.grid.ISavegameSectionSnapshot;
+import jsettlers.logic.map.grid.SavegameSectionStreams;
 
 /**
  * Grid that's storing the blocked information for fast access.
@@ -25,17 +30,20 @@ import jsettlers.algorithms.partitions.IBlockingProvider;
  * @author Andreas Eberle
  *
  */
-public final class FlagsGrid implements Serializable, IBlockingProvider, IProtectedProvider {
+public final class FlagsGrid implements Serializable, IBlockingProvider, IProtectedProvider, ISavegameSection {
 	private static final long serialVersionUID = -413005884613149208L;
 
 	private final short width;
 
-	private final BitSet blockedGrid;
-	private final BitSet markedGrid;
-	private final BitSet protectedGrid;
+	private transient BitSet blockedGrid;
+	private transient BitSet markedGrid;
+	private transient BitSet protectedGrid;
 
 	private IProtectedChangedListener protectedChangedListener = null;
 
+	private transient int                     blockedVersion         = 0;
+	private transient IBlockedChangedListener blockedChangedListener = null;
+
 	public FlagsGrid(final short width, final short height) {
 		this.width = width;
 
@@ -44,6 +52,26 @@ public final class FlagsGrid implements Serializable, IBlockingProvider, IProtec
 		this.markedGrid = new BitSet(width * height);
 	}
 
+	@Override
+	public ISavegameSectionSnapshot createSnapshot() {
+		final long[] blockedWords = blockedGrid.toLongArray();
+		final long[] markedWords = markedGrid.toLongArray();
+		final long[] protectedWords = protectedGrid.toLongArray();
+
+		return dos -> {
+			SavegameSectionStreams.writeLongs(dos, blockedWords);
+			SavegameSectionStreams.writeLongs(dos, markedWords);
+			SavegameSectionStreams.writeLongs(dos, protectedWords);
+		};
+	}
+
+	@Override
+	public void readSection(DataInputStream dis) throws IOException {
+		blockedGrid = SavegameSectionStreams.readBitSet(dis);
+		markedGrid = SavegameSectionStreams.readBitSet(dis);
+		protectedGrid = SavegameSectionStreams.readBitSet(dis);
+	}
+
 	@Override
 	public boolean isBlocked(int x, int y) {
 		return blockedGrid.get(x + y * width);
@@ -80,7 +108,15 @@ public final class FlagsGrid implements Serializable, IBlockingProvider, IProtec
 		final int idx = x + y * width;
 		boolean oldProtected = this.protectedGrid.get(idx);
 
+		boolean blockedChanged = this.blockedGrid.get(idx) != newBlocked;
+		if (blockedChanged) {
+			blockedVersion++;
+		}
 		this.blockedGrid.set(idx, newBlocked);
+
+		if (blockedChangedListener != null && blockedChanged) {
+			blockedChangedListener.blockedChanged(x, y, newBlocked);
+		}
 		this.protectedGrid.set(idx, newProtected);
 
 		if (protectedChangedListener != null && oldProtected != newProtected) {
@@ -88,6 +124,13 @@ public final class FlagsGrid implements Serializable, IBlockingProvider, IProtec
 		}
 	}
 
+	/**
+	 * @return A counter that is increased every time the blocked state of a position changes.
+	 */
+	public int getBlockedVersion() {
+		return blockedVersion;
+	}
+
 	public boolean isMarked(int x, int y) {
 		return this.markedGrid.get(x + y * width);
 	}
@@ -118,4 +161,12 @@ public final class FlagsGrid implements Serializable, IBlockingProvider, IProtec
 	public void setProtectedChangedListener(IProtectedChangedListener protectedChangedListener) {
 		this.protectedChangedListener = protectedChangedListener;
 	}
+
+	public void setBlockedChangedListener(IBlockedChangedListener blockedChangedListener) {
+		this.blockedChangedListener = blockedChangedListener;
+	}
+
+	public interface IBlockedChangedListener {
+		void blockedChanged(int x, int y, boolean newBlockedState);
+	}
 }
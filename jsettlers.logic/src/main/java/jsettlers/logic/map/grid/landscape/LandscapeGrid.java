@@ -14,6 +14,7 @@
  *******************************************************************************/
 package jsettlers.logic.map.grid.landscape;
 
+import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.Serializable;
@@ -28,6 +29,9 @@ import jsettlers.common.position.RelativePoint;
 import jsettlers.common.position.ShortPoint2D;
 import jsettlers.logic.constants.Constants;
 import jsettlers.logic.constants.MatchConstants;
+import jsettlers.logic.map.grid.ISavegameSection;
+import jsettlers.logic.map.grid.ISavegameSectionSnapshot;
+import jsettlers.logic.map.grid.SavegameSectionStreams;
 import jsettlers.logic.map.grid.flags.IProtectedProvider;
 import jsettlers.logic.map.grid.flags.IProtectedProvider.IProtectedChangedListener;
 
@@ -36,7 +40,8 @@ import jsettlers.logic.map.grid.flags.IProtectedProvider.IProtectedChangedListen
  *
  * @author Andreas Eberle
  */
-public final class LandscapeGrid implements Serializable, IWalkableGround, IFlattenedResettable, IDebugColorSetable, IProtectedChangedListener, IBlockingProvider {
+public final class LandscapeGrid implements Serializable, IWalkableGround, IFlattenedResettable, IDebugColorSetable, IProtectedChangedListener, IBlockingProvider,
+	ISavegameSection {
 	private static final long serialVersionUID = -751261669662036483L;
 
 	public static final short SEA_BLOCKED_PARTITION = 0;
@@ -53,12 +58,12 @@ public final class LandscapeGrid implements Serializable, IWalkableGround, IFlat
 		public void backgroundShapeChangedAt(int x, int y) {}
 	}
 
-	private final byte[] heightGrid;
-	private final byte[] landscapeGrid;
-	private final byte[] resourceAmount;
-	private final byte[] temporaryFlatened;
-	private final byte[] resourceType;
-	private final short[] blockedPartitions;
+	private transient byte[] heightGrid;
+	private transient byte[] landscapeGrid;
+	private transient byte[] resourceAmount;
+	private transient byte[] temporaryFlatened;
+	private transient byte[] resourceType;
+	private transient short[] blockedPartitions;
 
 	private final short width;
 	private final short height;
@@ -68,6 +73,7 @@ public final class LandscapeGrid implements Serializable, IWalkableGround, IFlat
 
 	private transient int[] debugColors;
 	private transient IGraphicsBackgroundListener backgroundListener;
+	private transient IGroundChangedListener groundChangedListener;
 
 	public LandscapeGrid(short width, short height, IProtectedProvider protectedProvider) {
 		this.width = width;
@@ -96,6 +102,36 @@ public final class LandscapeGrid implements Serializable, IWalkableGround, IFlat
 		initDebugColors();
 	}
 
+	@Override
+	public ISavegameSectionSnapshot createSnapshot() {
+		final byte[] heightGrid = this.heightGrid.clone();
+		final byte[] landscapeGrid = this.landscapeGrid.clone();
+		final byte[] resourceAmount = this.resourceAmount.clone();
+		final byte[] temporaryFlatened = this.temporaryFlatened.clone();
+		final byte[] resourceType = this.resourceType.clone();
+		final short[] blockedPartitions = this.blockedPartitions.clone();
+
+		return dos -> {
+			SavegameSectionStreams.writeBytes(dos, heightGrid);
+			SavegameSectionStreams.writeBytes(dos, landscapeGrid);
+			SavegameSectionStreams.writeBytes(dos, resourceAmount);
+			SavegameSectionStreams.writeBytes(dos, temporaryFlatened);
+			SavegameSectionStreams.writeBytes(dos, resourceType);
+			SavegameSectionStreams.writeShorts(dos, blockedPartitions);
+		};
+	}
+
+	@Override
+	public void readSection(DataInputStream dis) throws IOException {
+		final int tiles = width * height;
+		heightGrid = SavegameSectionStreams.readBytes(dis, tiles);
+		landscapeGrid = SavegameSectionStreams.readBytes(dis, tiles);
+		resourceAmount = SavegameSectionStreams.readBytes(dis, tiles);
+		temporaryFlatened = SavegameSectionStreams.readBytes(dis, tiles);
+		resourceType = SavegameSectionStreams.readBytes(dis, tiles);
+		blockedPartitions = SavegameSectionStreams.readShorts(dis, tiles);
+	}
+
 	private void initDebugColors() {
 		if (MatchConstants.ENABLE_DEBUG_COLORS) {
 			this.debugColors = new int[width * height];
@@ -158,11 +194,13 @@ public final class LandscapeGrid implements Serializable, IWalkableGround, IFlat
 
 		this.landscapeGrid[x + y * width] = landscapeType.ordinal;
 		backgroundListener.backgroundShapeChangedAt(x, y);
+		groundChanged(x, y);
 	}
 
 	public final void setHeightAt(short x, short y, byte height) {
 		this.heightGrid[x + y * width] = height;
 		backgroundListener.backgroundShapeChangedAt(x, y);
+		groundChanged(x, y);
 	}
 
 	public void flattenAndChangeHeightTowards(int x, int y, byte targetHeight) {
@@ -173,6 +211,23 @@ public final class LandscapeGrid implements Serializable, IWalkableGround, IFlat
 		this.temporaryFlatened[index] = Byte.MAX_VALUE; // cancel the flattening
 
 		backgroundListener.backgroundShapeChangedAt(x, y);
+		groundChanged(x, y);
+	}
+
+	private void groundChanged(int x, int y) {
+		if (groundChangedListener != null) {
+			groundChangedListener.groundChangedAt(x, y);
+		}
+	}
+
+	/**
+	 * Sets the listener that is informed when the landscape type, the height or the protection of a position changes.
+	 * 
+	 * @param groundChangedListener
+	 *            The listener or null.
+	 */
+	public void setGroundChangedListener(IGroundChangedListener groundChangedListener) {
+		this.groundChangedListener = groundChangedListener;
 	}
 
 	public final void setBackgroundListener(IGraphicsBackgroundListener backgroundListener) {
@@ -342,6 +397,11 @@ public final class LandscapeGrid implements Serializable, IWalkableGround, IFlat
 		if (!newProtectedState) {
 			activateUnflattening(x, y);
 		}
+		groundChanged(x, y);
+	}
+
+	public interface IGroundChangedListener {
+		void groundChangedAt(int x, int y);
 	}
 
 }
@@ -68,10 +68,11 @@ public abstract class AbstractHexMapObject implements IMapObject, Serializable {
 	 *            map object to be appended
 	 */
 	public final void addMapObject(AbstractHexMapObject mapObject) {
-		if (this.next == null)
-			this.next = mapObject;
-		else
-			this.next.addMapObject(mapObject);
+		AbstractHexMapObject last = this;
+		while (last.next != null) {
+			last = last.next;
+		}
+		last.next = mapObject;
 	}
 
 	/**
@@ -84,25 +85,20 @@ public abstract class AbstractHexMapObject implements IMapObject, Serializable {
 	 *         false if it wasn't on the list
 	 */
 	public final boolean removeMapObject(AbstractHexMapObject mapObject) {
-		if (this.next != null) {
-			if (this.next == mapObject) {
-				this.next = this.next.next;
+		for (AbstractHexMapObject curr = this; curr.next != null; curr = curr.next) {
+			if (curr.next == mapObject) {
+				curr.next = mapObject.next;
 				return true;
-			} else {
-				return this.next.removeMapObject(mapObject);
 			}
-		} else {
-			return false;
 		}
+		return false;
 	}
 
 	public void removeMapObjectTypes(Set<EMapObjectType> mapObjectTypes) {
-		while (this.next != null && mapObjectTypes.contains(this.next.getObjectType())) {
-			this.next = this.next.next;
-		}
-
-		if (this.next != null) {
-			this.next.removeMapObjectTypes(mapObjectTypes);
+		for (AbstractHexMapObject curr = this; curr != null; curr = curr.next) {
+			while (curr.next != null && mapObjectTypes.contains(curr.next.getObjectType())) {
+				curr.next = curr.next.next;
+			}
 		}
 	}
 
@@ -117,7 +113,12 @@ public abstract class AbstractHexMapObject implements IMapObject, Serializable {
 	 * @return true if any of the objects in this list is of the given mapObjectType and {@link #canBeCut()} returns true
 	 */
 	public boolean hasCuttableObject(EMapObjectType mapObjectType) {
-		return this.getObjectType() == mapObjectType && this.canBeCut() || this.next != null && this.next.hasCuttableObject(mapObjectType);
+		for (AbstractHexMapObject curr = this; curr != null; curr = curr.next) {
+			if (curr.getObjectType() == mapObjectType && curr.canBeCut()) {
+				return true;
+			}
+		}
+		return false;
 	}
 
 	/**
@@ -126,21 +127,24 @@ public abstract class AbstractHexMapObject implements IMapObject, Serializable {
 	 * @return true if at least one of the map objects fits the given EMapObjectType
 	 */
 	public boolean hasMapObjectTypes(EMapObjectType... mapObjectTypes) {
-		EMapObjectType mapObjectType = this.getObjectType();
-		for (EMapObjectType curr : mapObjectTypes) {
-			if (curr == mapObjectType) {
-				return true;
+		for (AbstractHexMapObject curr = this; curr != null; curr = curr.next) {
+			EMapObjectType mapObjectType = curr.getObjectType();
+			for (EMapObjectType type : mapObjectTypes) {
+				if (type == mapObjectType) {
+					return true;
+				}
 			}
 		}
-		return this.next != null && this.next.hasMapObjectTypes(mapObjectTypes);
+		return false;
 	}
 
 	public AbstractHexMapObject getMapObject(EMapObjectType type) {
-		if (this.getObjectType() == type) {
-			return this;
-		} else {
-			return this.next != null ? this.next.getMapObject(type) : null;
+		for (AbstractHexMapObject curr = this; curr != null; curr = curr.next) {
+			if (curr.getObjectType() == type) {
+				return curr;
+			}
 		}
+		return null;
 	}
 
 	protected void handleRemove(int x, int y, MapObjectsManager mapObjectsManager, IMapObjectsManagerGrid grid) {
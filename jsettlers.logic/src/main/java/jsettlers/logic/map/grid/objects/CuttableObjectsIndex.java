@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.logic.map.grid.objects;
+
+import java.util.BitSet;
+
+import jsettlers.common.mapobject.EMapObjectType;
+
+/**
+ * Remembers the positions that hold an object which is or will become cuttable (trees, stones, corn and wine) and counts them in blocks of
+ * {@value #BLOCK_SIZE}x{@value #BLOCK_SIZE} positions. This way searches can skip areas without such objects.
+ * <p>
+ * The objects are indexed by their cuttable type, e.g. a growing or dead tree is indexed as {@link EMapObjectType#TREE_ADULT}, because an object
+ * keeps its position while its state changes.
+ *
+ * @author Andreas Eberle
+ */
+final class CuttableObjectsIndex {
+	private static final int BLOCK_SHIFT = 3;
+	static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+
+	private static final EMapObjectType[] INDEXED_TYPES = { EMapObjectType.TREE_ADULT, EMapObjectType.STONE, EMapObjectType.CORN_ADULT,
+			EMapObjectType.WINE_HARVESTABLE };
+
+	private final short width;
+	private final short height;
+	private final int blocksWidth;
+
+	private final BitSet[] positions = new BitSet[INDEXED_TYPES.length];
+	private final short[][] blockCounts = new short[INDEXED_TYPES.length][];
+
+	CuttableObjectsIndex(short width, short height) {
+		this.width = width;
+		this.height = height;
+		this.blocksWidth = (width + BLOCK_SIZE - 1) >> BLOCK_SHIFT;
+		int blocksHeight = (height + BLOCK_SIZE - 1) >> BLOCK_SHIFT;
+
+		for (int i = 0; i < INDEXED_TYPES.length; i++) {
+			positions[i] = new BitSet(width * height);
+			blockCounts[i] = new short[blocksWidth * blocksHeight];
+		}
+	}
+
+	/**
+	 * @return The index of the given cuttable type or -1 if the type is not indexed.
+	 */
+	private static int getIndex(EMapObjectType cuttableType) {
+		for (int i = 0; i < INDEXED_TYPES.length; i++) {
+			if (INDEXED_TYPES[i] == cuttableType) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @return The index of the type the given object type is indexed as or -1 if it is not indexed.
+	 */
+	private static int getIndexOfObjectType(EMapObjectType objectType) {
+		switch (objectType) {
+		case TREE_GROWING:
+		case TREE_ADULT:
+		case TREE_DEAD:
+			return 0;
+		case STONE:
+			return 1;
+		case CORN_GROWING:
+		case CORN_ADULT:
+		case CORN_DEAD:
+			return 2;
+		case WINE_GROWING:
+		case WINE_HARVESTABLE:
+		case WINE_DEAD:
+			return 3;
+		default:
+			return -1;
+		}
+	}
+
+	static boolean isIndexed(EMapObjectType cuttableType) {
+		return getIndex(cuttableType) >= 0;
+	}
+
+	/**
+	 * Updates the index of the given position after its objects changed.
+	 *
+	 * @param mapObjectHead
+	 *            The first object of the position or null if there is none.
+	 */
+	void update(int x, int y, AbstractHexMapObject mapObjectHead) {
+		int indexedTypes = 0;
+		for (AbstractHexMapObject curr = mapObjectHead; curr != null; curr = curr.getNextObject()) {
+			int type = getIndexOfObjectType(curr.getObjectType());
+			if (type >= 0) {
+				indexedTypes |= 1 << type;
+			}
+		}
+
+		int index = x + y * width;
+		int blockIndex = (x >> BLOCK_SHIFT) + (y >> BLOCK_SHIFT) * blocksWidth;
+		for (int type = 0; type < INDEXED_TYPES.length; type++) {
+			set(type, index, blockIndex, (indexedTypes & (1 << type)) != 0);
+		}
+	}
+
+	private void set(int type, int index, int blockIndex, boolean value) {
+		if (positions[type].get(index) != value) {
+			positions[type].set(index, value);
+			blockCounts[type][blockIndex] += value ? 1 : -1;
+		}
+	}
+
+	/**
+	 * Checks if the given area may contain objects of the given cuttable type. The area is clipped to the map.
+	 *
+	 * @return false if there is no such object in the area.<br>
+	 *         true if there may be such an object in the area.
+	 */
+	boolean mayHaveObjectsIn(int minX, int minY, int maxX, int maxY, EMapObjectType cuttableType) {
+		int minBlockX = Math.max(minX, 0) >> BLOCK_SHIFT;
+		int minBlockY = Math.max(minY, 0) >> BLOCK_SHIFT;
+		int maxBlockX = Math.min(maxX, width - 1) >> BLOCK_SHIFT;
+		int maxBlockY = Math.min(maxY, height - 1) >> BLOCK_SHIFT;
+
+		short[] counts = blockCounts[getIndex(cuttableType)];
+		for (int blockY = minBlockY; blockY <= maxBlockY; blockY++) {
+			for (int blockX = minBlockX; blockX <= maxBlockX; blockX++) {
+				if (counts[blockX + blockY * blocksWidth] > 0) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+}
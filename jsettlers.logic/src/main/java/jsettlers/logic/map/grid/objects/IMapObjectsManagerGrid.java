@@ -40,6 +40,11 @@ public interface IMapObjectsManagerGrid extends Serializable, IArrowAttackableGr
 
 	boolean removeMapObject(int x, int y, AbstractHexMapObject mapObject);
 
+	/**
+	 * Needs to be called when an object at the given position changed its {@link EMapObjectType}.
+	 */
+	void mapObjectTypeChanged(int x, int y);
+
 	short getWidth();
 
 	short getHeight();
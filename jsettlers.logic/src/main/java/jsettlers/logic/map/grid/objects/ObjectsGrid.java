@@ -35,6 +35,10 @@ import jsettlers.logic.movable.interfaces.IInformable;
 
 /**
  * This grid stores the objects located at each position.
+ * <p>
+ * The objects of a position are linked to a list that is also read by the graphics. Additionally, the grid keeps a bitmask of the
+ * {@link EMapObjectType}s at every position, so the type queries don't need to walk the lists. Objects that change their type while they are on
+ * the grid have to be reported with {@link #objectTypeChanged(int, int)}.
  * 
  * @author Andreas Eberle
  * 
@@ -46,13 +50,17 @@ public final class ObjectsGrid implements Serializable {
 	private final short height;
 
 	private transient AbstractHexMapObject[] objectsGrid;
+	private transient long[] objectTypesGrid;
 	private transient Building[] buildingsGrid;
+	private transient CuttableObjectsIndex cuttableObjectsIndex;
 
 	public ObjectsGrid(short width, short height) {
 		this.width = width;
 		this.height = height;
 		this.objectsGrid = new AbstractHexMapObject[width * height];
+		this.objectTypesGrid = new long[width * height];
 		this.buildingsGrid = new Building[width * height];
+		this.cuttableObjectsIndex = new CuttableObjectsIndex(width, height);
 	}
 
 	private final void writeObject(ObjectOutputStream oos) throws IOException {
@@ -101,6 +109,14 @@ public final class ObjectsGrid implements Serializable {
 
 			index = ois.readInt();
 		}
+
+		objectTypesGrid = new long[length];
+		cuttableObjectsIndex = new CuttableObjectsIndex(width, height);
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				objectsChanged(x, y);
+			}
+		}
 	}
 
 	public final AbstractHexMapObject getObjectsAt(int x, int y) {
@@ -112,7 +128,13 @@ public final class ObjectsGrid implements Serializable {
 	}
 
 	public final AbstractHexMapObject getMapObjectAt(int x, int y, EMapObjectType mapObjectType) {
-		AbstractHexMapObject mapObjectHead = objectsGrid[x + y * width];
+		final int idx = x + y * width;
+		assert objectTypesGrid[idx] == getObjectTypes(objectsGrid[idx]) : "The object types at " + x + "|" + y + " are outdated.";
+		if ((objectTypesGrid[idx] & getTypeBit(mapObjectType)) == 0) {
+			return null;
+		}
+
+		AbstractHexMapObject mapObjectHead = objectsGrid[idx];
 
 		return mapObjectHead != null ? mapObjectHead.getMapObject(mapObjectType) : null;
 	}
@@ -129,6 +151,7 @@ public final class ObjectsGrid implements Serializable {
 		if (mapObjectHead != null) {
 			mapObjectHead.removeMapObjectTypes(mapObjectTypes);
 		}
+		objectsChanged(x, y);
 	}
 
 	public final boolean removeMapObject(int x, int y, AbstractHexMapObject mapObject) {
@@ -143,6 +166,9 @@ public final class ObjectsGrid implements Serializable {
 				removed = mapObjectHead.removeMapObject(mapObject);
 			}
 
+			if (removed) {
+				objectsChanged(x, y);
+			}
 			return removed;
 		} else
 			return false;
@@ -158,18 +184,69 @@ public final class ObjectsGrid implements Serializable {
 		} else {
 			mapObjectHead.addMapObject(mapObject);
 		}
+		objectsChanged(x, y);
+	}
+
+	/**
+	 * Needs to be called when an object at the given position changed its {@link EMapObjectType}.
+	 */
+	public final void objectTypeChanged(int x, int y) {
+		objectsChanged(x, y);
+	}
+
+	private void objectsChanged(int x, int y) {
+		final int idx = x + y * width;
+		objectTypesGrid[idx] = getObjectTypes(objectsGrid[idx]);
+		cuttableObjectsIndex.update(x, y, objectsGrid[idx]);
+	}
+
+	private static long getObjectTypes(AbstractHexMapObject mapObjectHead) {
+		long objectTypes = 0;
+		for (AbstractHexMapObject curr = mapObjectHead; curr != null; curr = curr.getNextObject()) {
+			objectTypes |= getTypeBit(curr.getObjectType());
+		}
+		return objectTypes;
+	}
+
+	private static long getTypeBit(EMapObjectType mapObjectType) {
+		return 1L << mapObjectType.ordinal;
+	}
+
+	/**
+	 * Checks if the given area may contain objects that are or will become cuttable objects of the given type. This is much cheaper than checking
+	 * every position of the area.
+	 * 
+	 * @param minX
+	 * @param minY
+	 * @param maxX
+	 * @param maxY
+	 * @param cuttableType
+	 *            The type of the cuttable object, e.g. {@link EMapObjectType#TREE_ADULT}.
+	 * @return false if no position of the area contains such an object.<br>
+	 *         true if the area may contain such an object or the type is not indexed.
+	 */
+	public final boolean mayHaveCuttableObjectsIn(int minX, int minY, int maxX, int maxY, EMapObjectType cuttableType) {
+		return !CuttableObjectsIndex.isIndexed(cuttableType) || cuttableObjectsIndex.mayHaveObjectsIn(minX, minY, maxX, maxY, cuttableType);
 	}
 
 	public final boolean hasCuttableObject(int x, int y, EMapObjectType mapObjectType) {
-		AbstractHexMapObject mapObjectHead = objectsGrid[x + y * width];
+		final int idx = x + y * width;
+		assert objectTypesGrid[idx] == getObjectTypes(objectsGrid[idx]) : "The object types at " + x + "|" + y + " are outdated.";
 
-		return mapObjectHead != null && mapObjectHead.hasCuttableObject(mapObjectType);
+		return (objectTypesGrid[idx] & getTypeBit(mapObjectType)) != 0 && objectsGrid[idx].hasCuttableObject(mapObjectType);
 	}
 
 	public final boolean hasMapObjectType(int x, int y, EMapObjectType... mapObjectTypes) {
-		AbstractHexMapObject mapObjectHead = objectsGrid[x + y * width];
+		final int idx = x + y * width;
+		assert objectTypesGrid[idx] == getObjectTypes(objectsGrid[idx]) : "The object types at " + x + "|" + y + " are outdated.";
 
-		return mapObjectHead != null && mapObjectHead.hasMapObjectTypes(mapObjectTypes);
+		long objectTypes = objectTypesGrid[idx];
+		for (EMapObjectType mapObjectType : mapObjectTypes) {
+			if ((objectTypes & getTypeBit(mapObjectType)) != 0) {
+				return true;
+			}
+		}
+		return false;
 	}
 
 	public final boolean hasNeighborObjectType(int x, int y, EMapObjectType... mapObjectTypes) {
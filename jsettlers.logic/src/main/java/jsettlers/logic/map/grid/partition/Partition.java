@@ -82,6 +82,21 @@ public final class Partition extends PartitionManager implements Serializable {
 		if (isEmpty()) { super.stopManager(); }
 	}
 
+	/**
+	 * Moves all positions of the given transfer from this partition to the new partition.
+	 */
+	void removeAreaTo(PartitionTransfers.Transfer transfer, final Partition newPartitionObject) {
+		assert this != newPartitionObject : "newManager can not be the same as this manager.";
+
+		transfer.forEach((x, y) -> {
+			this.decrement(x, y);
+			newPartitionObject.increment(x, y);
+		});
+		super.removeAreaTo(transfer, newPartitionObject, newPartitionObject.playerId == this.playerId);
+
+		if (isEmpty()) { super.stopManager(); }
+	}
+
 	public boolean isEmpty() {
 		return counter <= 0;
 	}
@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.logic.map.grid.partition;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+
+import jsettlers.algorithms.interfaces.IContainingProvider;
+import jsettlers.common.utils.coordinates.ICoordinateConsumer;
+
+/**
+ * Collects the positions that change from one partition to another. All positions changing between the same two partitions are handed over
+ * with one call to {@link Partition#removeAreaTo(Transfer, Partition)}, so the offers, requests and jobless lists of the old partition are
+ * only traversed once instead of once per position.
+ *
+ * @author Andreas Eberle
+ */
+final class PartitionTransfers {
+	private final ArrayList<Transfer> transfers = new ArrayList<>();
+	private Transfer lastTransfer;
+
+	void add(Partition oldPartition, Partition newPartition, int x, int y) {
+		Transfer transfer = lastTransfer;
+		if (transfer == null || transfer.oldPartition != oldPartition || transfer.newPartition != newPartition) {
+			transfer = getTransfer(oldPartition, newPartition);
+			lastTransfer = transfer;
+		}
+		transfer.add(x, y);
+	}
+
+	private Transfer getTransfer(Partition oldPartition, Partition newPartition) {
+		for (Transfer transfer : transfers) {
+			if (transfer.oldPartition == oldPartition && transfer.newPartition == newPartition) {
+				return transfer;
+			}
+		}
+		Transfer transfer = new Transfer(oldPartition, newPartition);
+		transfers.add(transfer);
+		return transfer;
+	}
+
+	/**
+	 * Moves the content of all collected positions to their new partitions.
+	 */
+	void execute() {
+		for (Transfer transfer : transfers) {
+			transfer.oldPartition.removeAreaTo(transfer, transfer.newPartition);
+		}
+		transfers.clear();
+		lastTransfer = null;
+	}
+
+	/**
+	 * The positions changing from one partition to another.
+	 */
+	static final class Transfer implements IContainingProvider {
+		private static final int MIN_SIZE = 16;
+
+		final Partition oldPartition;
+		final Partition newPartition;
+
+		private int[] positions = new int[MIN_SIZE];
+		private int   size;
+
+		private int minX = Integer.MAX_VALUE;
+		private int minY = Integer.MAX_VALUE;
+		private int maxX = Integer.MIN_VALUE;
+		private int maxY = Integer.MIN_VALUE;
+
+		private BitSet area;
+
+		Transfer(Partition oldPartition, Partition newPartition) {
+			this.oldPartition = oldPartition;
+			this.newPartition = newPartition;
+		}
+
+		void add(int x, int y) {
+			if (size >= positions.length) {
+				positions = Arrays.copyOf(positions, positions.length * 2);
+			}
+			positions[size++] = x << 16 | y;
+
+			minX = Math.min(minX, x);
+			minY = Math.min(minY, y);
+			maxX = Math.max(maxX, x);
+			maxY = Math.max(maxY, y);
+			area = null;
+		}
+
+		void forEach(ICoordinateConsumer consumer) {
+			for (int i = 0; i < size; i++) {
+				consumer.accept(positions[i] >>> 16, positions[i] & 0xffff);
+			}
+		}
+
+		@Override
+		public boolean contains(int x, int y) {
+			if (x < minX || x > maxX || y < minY || y > maxY) {
+				return false;
+			}
+			if (area == null) {
+				area = createArea();
+			}
+			return area.get(getAreaIndex(x, y));
+		}
+
+		private BitSet createArea() {
+			BitSet area = new BitSet((maxX - minX + 1) * (maxY - minY + 1));
+			for (int i = 0; i < size; i++) {
+				area.set(getAreaIndex(positions[i] >>> 16, positions[i] & 0xffff));
+			}
+			return area;
+		}
+
+		private int getAreaIndex(int x, int y) {
+			return (x - minX) + (y - minY) * (maxX - minX + 1);
+		}
+	}
+}
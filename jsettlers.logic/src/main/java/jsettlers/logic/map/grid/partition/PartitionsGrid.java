@@ -14,6 +14,7 @@
  *******************************************************************************/
 package jsettlers.logic.map.grid.partition;
 
+import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
@@ -26,6 +27,7 @@ import java.util.Map;
 
 import java8.util.Lists;
 import java8.util.Maps;
+import java8.util.function.Predicate;
 import jsettlers.algorithms.interfaces.IContainingProvider;
 import jsettlers.algorithms.partitions.IBlockingProvider;
 import jsettlers.algorithms.partitions.PartitionCalculatorAlgorithm;
@@ -44,9 +46,17 @@ import jsettlers.common.position.ShortPoint2D;
 import jsettlers.common.utils.Tuple;
 import jsettlers.common.utils.coordinates.CoordinateStream;
 import jsettlers.common.utils.mutables.MutableInt;
+import jsettlers.logic.constants.Constants;
+import jsettlers.logic.map.grid.ISavegameSection;
+import jsettlers.logic.map.grid.ISavegameSectionSnapshot;
+import jsettlers.logic.map.grid.SavegameSectionStreams;
 import jsettlers.logic.map.grid.partition.manager.settings.MaterialProductionSettings;
 import jsettlers.logic.map.grid.partition.PartitionsListingBorderVisitor.BorderPartitionInfo;
 import jsettlers.logic.map.grid.partition.manager.PartitionManager;
+import jsettlers.logic.map.grid.partition.manager.manageables.IManageableBearer;
+import jsettlers.logic.map.grid.partition.manager.manageables.IManageableBricklayer;
+import jsettlers.logic.map.grid.partition.manager.manageables.IManageableDigger;
+import jsettlers.logic.map.grid.partition.manager.manageables.IManageableWorker;
 import jsettlers.logic.map.grid.partition.manager.settings.PartitionManagerSettings;
 import jsettlers.logic.player.Player;
 import jsettlers.logic.player.PlayerSetting;
@@ -60,7 +70,7 @@ import static java8.util.stream.StreamSupport.stream;
  * @author Andreas Eberle
  * 
  */
-public final class PartitionsGrid implements Serializable {
+public final class PartitionsGrid implements Serializable, ISavegameSection {
 	private static final long serialVersionUID = 8919380724171427679L;
 
 	private static final int NUMBER_OF_START_PARTITION_OBJECTS = 3000;
@@ -75,13 +85,14 @@ public final class PartitionsGrid implements Serializable {
 	private final Player[] players;
 	private final IBlockingProvider blockingProvider;
 
-	final short[] partitions;
-	private final byte[] towers;
+	transient short[] partitions;
+	private transient byte[] towers;
 
 	private final short[] blockedPartitionsForPlayers;
 	Partition[] partitionObjects = new Partition[NUMBER_OF_START_PARTITION_OBJECTS];
 
 	private transient IPlayerChangedListener playerChangedListener = IPlayerChangedListener.DEFAULT_IMPLEMENTATION;
+	private transient int                    playersVersion        = 0;
 
 	public PartitionsGrid(short width, short height, PlayerSetting[] playerSettings, IBlockingProvider blockingProvider) {
 		this.width = width;
@@ -137,6 +148,23 @@ public final class PartitionsGrid implements Serializable {
 		ois.defaultReadObject();
 	}
 
+	@Override
+	public ISavegameSectionSnapshot createSnapshot() {
+		final short[] partitions = this.partitions.clone();
+		final byte[] towers = this.towers.clone();
+
+		return dos -> {
+			SavegameSectionStreams.writeShorts(dos, partitions);
+			SavegameSectionStreams.writeBytes(dos, towers);
+		};
+	}
+
+	@Override
+	public void readSection(DataInputStream dis) throws IOException {
+		partitions = SavegameSectionStreams.readShorts(dis, width * height);
+		towers = SavegameSectionStreams.readBytes(dis, width * height);
+	}
+
 	public boolean isDefaultPartition(short partitionId) {
 		return partitionId == NO_PLAYER_PARTITION_ID;
 	}
@@ -162,6 +190,40 @@ public final class PartitionsGrid implements Serializable {
 		return partitionObjects[partitions[x + y * width]];
 	}
 
+	public void joblessMoved(IManageableBearer bearer, ShortPoint2D oldPosition) {
+		joblessMoved(oldPosition, partition -> partition.joblessMoved(bearer, oldPosition));
+	}
+
+	public void joblessMoved(IManageableWorker worker, ShortPoint2D oldPosition) {
+		joblessMoved(oldPosition, partition -> partition.joblessMoved(worker, oldPosition));
+	}
+
+	public void joblessMoved(IManageableDigger digger, ShortPoint2D oldPosition) {
+		joblessMoved(oldPosition, partition -> partition.joblessMoved(digger, oldPosition));
+	}
+
+	public void joblessMoved(IManageableBricklayer bricklayer, ShortPoint2D oldPosition) {
+		joblessMoved(oldPosition, partition -> partition.joblessMoved(bricklayer, oldPosition));
+	}
+
+	/**
+	 * Updates the position of a jobless in the partition listing it. A jobless stays in the partition it has been added to, even if it walks
+	 * out of it. Therefore, the partition at its old position is only tried first and the other partitions are searched if it doesn't list the
+	 * jobless.
+	 */
+	private void joblessMoved(ShortPoint2D oldPosition, Predicate<PartitionManager> positionUpdater) {
+		if (positionUpdater.test(getPartitionAt(oldPosition.x, oldPosition.y))) {
+			return;
+		}
+
+		for (int i = 0; i < partitionObjects.length; i++) {
+			Partition partition = partitionObjects[i];
+			if (partition != null && partition.partitionId == i && positionUpdater.test(partition)) {
+				return;
+			}
+		}
+	}
+
 	public MaterialProductionSettings getMaterialProductionAt(int x, int y) {
 		return getPartitionAt(x, y).getMaterialProduction();
 	}
@@ -175,6 +237,13 @@ public final class PartitionsGrid implements Serializable {
 		return getPartitionAt(x, y).playerId;
 	}
 
+	/**
+	 * @return A counter that is increased every time the player of a position changes.
+	 */
+	public int getPlayersVersion() {
+		return playersVersion;
+	}
+
 	public Player[] getPlayers() {
 		return players;
 	}
@@ -228,17 +297,19 @@ public final class PartitionsGrid implements Serializable {
 	 * 
 	 * @param pos
 	 *            The position of the tower.
+	 * @return The area that has been occupied by the tower.
 	  */
-	public void removeTowerAndFreeOccupiedArea(ShortPoint2D pos) {
+	public CoordinateStream removeTowerAndFreeOccupiedArea(ShortPoint2D pos) {
 		// get the tower object and the informations of it.
 		PartitionOccupyingTower tower = occupyingTowers.removeAt(pos);
 		if (tower == null) {
-			return ;
+			return CoordinateStream.EMPTY;
 		}
 
 		// reduce the tower counter
 		changeTowerCounter(tower.playerId, tower.area.stream(), -1);
 		checkOtherTowersInArea(tower);
+		return tower.area.stream();
 	}
 
 	/**
@@ -474,6 +545,7 @@ public final class PartitionsGrid implements Serializable {
 		int width = partitioner.getWidth();
 		int height = partitioner.getHeight();
 
+		PartitionTransfers transfers = createPartitionTransfers();
 		for (short dY = 0; dY < height; dY++) {
 			for (int dX = 0; dX < width; dX++) {
 				short partition = partitioner.getPartitionAt(dX, dY);
@@ -483,10 +555,11 @@ public final class PartitionsGrid implements Serializable {
 					short y = (short) (dY + minY);
 
 					// Set the new partitions and take over goods and so on
-					changePartitionUncheckedAt(x, y, newPartitionsMap[partition]);
+					changePartitionUncheckedAt(x, y, newPartitionsMap[partition], transfers);
 				}
 			}
 		}
+		executePartitionTransfers(transfers);
 
 		return newPartitionsMap;
 	}
@@ -592,11 +665,13 @@ public final class PartitionsGrid implements Serializable {
 		// relabel the partition
 		IContainingProvider containingProvider = (x, y) -> partitionObjects[partitions[x + y * width]].partitionId == oldPartition;
 
+		PartitionTransfers transfers = createPartitionTransfers();
 		IAreaVisitor relabelAreaVisitor = (x, y) -> {
-			changePartitionUncheckedAt(x, y, newPartition);
+			changePartitionUncheckedAt(x, y, newPartition, transfers);
 			return true;
 		};
 		AreaTraversingAlgorithm.traverseArea(containingProvider, relabelAreaVisitor, relabelStartPos, width, height);
+		executePartitionTransfers(transfers);
 	}
 
 	/**
@@ -612,11 +687,27 @@ public final class PartitionsGrid implements Serializable {
 	 * @return the player id of the new partition.
 	 */
 	byte changePartitionUncheckedAt(int x, int y, short newPartition) {
+		return changePartitionUncheckedAt(x, y, newPartition, null);
+	}
+
+	/**
+	 * Changes the partition at the given position like {@link #changePartitionUncheckedAt(int, int, short)}. If transfers are given, the offers,
+	 * requests and jobless of the position are not moved immediately but with all other positions of the transfers in
+	 * {@link #executePartitionTransfers(PartitionTransfers)}.
+	 */
+	private byte changePartitionUncheckedAt(int x, int y, short newPartition, PartitionTransfers transfers) {
 		int idx = x + y * width;
 		Partition oldPartitionObject = partitionObjects[partitions[idx]];
 		Partition newPartitionObject = partitionObjects[newPartition];
 
-		oldPartitionObject.removePositionTo(x, y, newPartitionObject);
+		if (transfers != null) {
+			transfers.add(oldPartitionObject, newPartitionObject, x, y);
+		} else {
+			oldPartitionObject.removePositionTo(x, y, newPartitionObject);
+		}
+		if (oldPartitionObject.playerId != newPartitionObject.playerId) {
+			playersVersion++;
+		}
 		synchronized (this) {
 			partitions[idx] = newPartition;
 		}
@@ -624,6 +715,16 @@ public final class PartitionsGrid implements Serializable {
 		return newPartitionObject.playerId;
 	}
 
+	private static PartitionTransfers createPartitionTransfers() {
+		return Constants.BATCHED_PARTITION_TRANSFER ? new PartitionTransfers() : null;
+	}
+
+	private static void executePartitionTransfers(PartitionTransfers transfers) {
+		if (transfers != null) {
+			transfers.execute();
+		}
+	}
+
 	private void notifyPlayerChangedListener(int x, int y, byte newPlayer) {
 		playerChangedListener.playerChangedAt(x, y, newPlayer);
 	}
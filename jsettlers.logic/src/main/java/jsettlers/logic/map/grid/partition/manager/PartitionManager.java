@@ -18,6 +18,7 @@ import java.io.Serializable;
 import java.util.Iterator;
 import java.util.LinkedList;
 
+import jsettlers.algorithms.interfaces.IContainingProvider;
 import jsettlers.common.material.EMaterialType;
 import jsettlers.common.movable.EDirection;
 import jsettlers.common.movable.EMovableType;
@@ -195,6 +196,22 @@ public class PartitionManager implements IScheduledTimerable, Serializable, IWor
 		joblessWorkers.remove(worker);
 	}
 
+	public boolean joblessMoved(IManageableBearer bearer, ShortPoint2D oldPosition) {
+		return joblessBearer.updatePosition(bearer, oldPosition);
+	}
+
+	public boolean joblessMoved(IManageableWorker worker, ShortPoint2D oldPosition) {
+		return joblessWorkers.updatePosition(worker, oldPosition);
+	}
+
+	public boolean joblessMoved(IManageableDigger digger, ShortPoint2D oldPosition) {
+		return joblessDiggers.updatePosition(digger, oldPosition);
+	}
+
+	public boolean joblessMoved(IManageableBricklayer bricklayer, ShortPoint2D oldPosition) {
+		return joblessBricklayers.updatePosition(bricklayer, oldPosition);
+	}
+
 	/**
 	 * @param x
 	 * 		x coordinate of the position to be removed from this manager and added to the given manager
@@ -239,11 +256,48 @@ public class PartitionManager implements IScheduledTimerable, Serializable, IWor
 		removePositionTo(position, this.soldierCreationRequests, newManager.soldierCreationRequests, newHasSamePlayer);
 	}
 
+	/**
+	 * Moves the offers, requests and jobless of all positions of the given area to the given manager. Every list of this manager is only
+	 * traversed once, so this is much faster than calling {@link #removePositionTo(int, int, PartitionManager, boolean)} for every position of a
+	 * big area.
+	 *
+	 * @param area
+	 * 		the positions to be removed from this manager and added to the given manager
+	 * @param newManager
+	 * 		new manager of the given positions <br>
+	 * 		NOTE: the new manager MUST NOT be null!
+	 * @param newHasSamePlayer
+	 * 		Specifies if the new manager has the same player. If so, requests also need to be moved.
+	 */
+	public void removeAreaTo(IContainingProvider area, PartitionManager newManager, boolean newHasSamePlayer) {
+		materialOffers.moveOffersInAreaTo(area, newManager.materialOffers);
+
+		if (newHasSamePlayer) {
+			materialsManager.moveAreaTo(area, newManager.materialsManager);
+
+			joblessBearer.moveObjectsInAreaTo(area, newManager.joblessBearer, null);
+			joblessBricklayers.moveObjectsInAreaTo(area, newManager.joblessBricklayers, null);
+			joblessDiggers.moveObjectsInAreaTo(area, newManager.joblessDiggers, null);
+			joblessWorkers.moveObjectsInAreaTo(area, newManager.joblessWorkers, null);
+		}
+
+		removeAreaTo(area, this.workerCreationRequests, newManager.workerCreationRequests, newHasSamePlayer);
+		removeAreaTo(area, this.bricklayerRequests, newManager.bricklayerRequests, newHasSamePlayer);
+		removeAreaTo(area, this.diggerRequests, newManager.diggerRequests, newHasSamePlayer);
+		removeAreaTo(area, this.workerRequests, newManager.workerRequests, newHasSamePlayer);
+		removeAreaTo(area, this.soldierCreationRequests, newManager.soldierCreationRequests, newHasSamePlayer);
+	}
+
 	private <T extends ILocatable> void removePositionTo(ShortPoint2D pos, LinkedList<T> fromList, LinkedList<T> toList, boolean newHasSamePlayer) {
+		removeAreaTo((x, y) -> x == pos.x && y == pos.y, fromList, toList, newHasSamePlayer);
+	}
+
+	private <T extends ILocatable> void removeAreaTo(IContainingProvider area, LinkedList<T> fromList, LinkedList<T> toList, boolean newHasSamePlayer) {
 		Iterator<T> iter = fromList.iterator();
 		while (iter.hasNext()) {
 			T curr = iter.next();
-			if (curr.getPosition().equals(pos)) {
+			ShortPoint2D position = curr.getPosition();
+			if (area.contains(position.x, position.y)) {
 				iter.remove();
 				if (newHasSamePlayer) {
 					toList.offer(curr);
@@ -14,43 +14,119 @@
  *******************************************************************************/
 package jsettlers.logic.map.grid.partition.manager.datastructures;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.NoSuchElementException;
 
 import java8.util.function.Consumer;
+import java8.util.function.Predicate;
+import jsettlers.algorithms.interfaces.IContainingProvider;
 import jsettlers.common.position.ILocatable;
 import jsettlers.common.position.ShortPoint2D;
-import jsettlers.common.utils.MathUtils;
 
 /**
  * This is a data structure for storing and retrieving objects at given positions.<br>
  * It is also possible to find the nearest object around a given position.
+ * <p>
+ * The objects are indexed in buckets of {@link #BUCKET_SIZE} x {@link #BUCKET_SIZE} positions, so that a search for the nearest object only needs
+ * to look at the buckets around the given position. If several objects have the same distance, the one inserted first is used. The position of
+ * an object is captured when it is inserted. If the object moves while it is in the list, {@link #updatePosition(Object, ShortPoint2D)} needs to be
+ * called.
  *
  * @param <T>
  * @author Andreas Eberle
  */
 public class PositionableList<T extends ILocatable> implements Serializable {
-	private static final long serialVersionUID = 414099060331344505L;
+	private static final long serialVersionUID = 1751032806446993125L;
 
-	protected final LinkedList<T> data;
+	private static final int BUCKET_SIZE_SHIFT = 5;
+	private static final int BUCKET_SIZE = 1 << BUCKET_SIZE_SHIFT;
+	/**
+	 * Up to this size it is faster to simply check all objects.
+	 */
+	private static final int MAX_SIZE_FOR_LINEAR_SEARCH = 128;
+
+	private transient HashMap<Integer, Entry<T>> buckets;
+	private transient Entry<T> first;
+	private transient Entry<T> last;
+	private transient int size;
+	private transient long nextSequenceNumber;
+
+	// bounds of all buckets ever used, they are only used to limit the search
+	private transient int minBucketX;
+	private transient int maxBucketX;
+	private transient int minBucketY;
+	private transient int maxBucketY;
 
 	public PositionableList() {
-		data = new LinkedList<>();
+		init();
+	}
+
+	private void init() {
+		buckets = new HashMap<>();
+		first = null;
+		last = null;
+		size = 0;
+		nextSequenceNumber = 0;
+		minBucketX = Integer.MAX_VALUE;
+		maxBucketX = Integer.MIN_VALUE;
+		minBucketY = Integer.MAX_VALUE;
+		maxBucketY = Integer.MIN_VALUE;
+	}
+
+	private void writeObject(ObjectOutputStream oos) throws IOException {
+		oos.defaultWriteObject();
+		oos.writeInt(size);
+		for (Entry<T> entry = first; entry != null; entry = entry.next) {
+			oos.writeObject(entry.object);
+			oos.writeShort(entry.x);
+			oos.writeShort(entry.y);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void readObject(ObjectInputStream ois) throws IOException, ClassNotFoundException {
+		ois.defaultReadObject();
+		init();
+		int numberOfEntries = ois.readInt();
+		for (int i = 0; i < numberOfEntries; i++) {
+			T object = (T) ois.readObject();
+			short x = ois.readShort();
+			short y = ois.readShort();
+			insert(object, x, y);
+		}
 	}
 
 	public void insert(T object) {
-		data.add(object);
+		ShortPoint2D position = object.getPosition();
+		insert(object, position.x, position.y);
+	}
+
+	private void insert(T object, short x, short y) {
+		Entry<T> entry = new Entry<>(object, x, y, nextSequenceNumber++);
+
+		entry.previous = last;
+		if (last == null) {
+			first = entry;
+		} else {
+			last.next = entry;
+		}
+		last = entry;
+		size++;
+
+		addToBucket(entry);
 	}
 
 	public T removeObjectAt(ShortPoint2D position) {
-		Iterator<T> iterator = data.iterator();
-		while (iterator.hasNext()) {
-			T curr = iterator.next();
-			if (curr.getPosition().equals(position)) {
-				iterator.remove();
-				return curr;
-			}
+		Entry<T> entry = getEntryAt(position);
+		if (entry != null) {
+			removeEntry(entry);
+			return entry.object;
 		}
 		return null;
 	}
@@ -63,12 +139,8 @@ public class PositionableList<T extends ILocatable> implements Serializable {
 	 * @return Returns the found object at the given position or null if no object has been found.
 	 */
 	public T getObjectAt(ShortPoint2D position) {
-		for (T curr : data) {
-			if (curr.getPosition().equals(position)) {
-				return curr;
-			}
-		}
-		return null;
+		Entry<T> entry = getEntryAt(position);
+		return entry != null ? entry.object : null;
 	}
 
 	/**
@@ -79,71 +151,376 @@ public class PositionableList<T extends ILocatable> implements Serializable {
 	 * @return accepted object that's nearest to position
 	 */
 	public T removeObjectNextTo(ShortPoint2D position) {
-		T currBest = getObjectCloseTo(position);
+		return removeObjectNextTo(position, null);
+	}
 
-		if (currBest != null) {
-			data.remove(currBest);
+	protected T removeObjectNextTo(ShortPoint2D position, Predicate<T> acceptor) {
+		Entry<T> best = getEntryCloseTo(position, acceptor);
+
+		if (best != null) {
+			removeEntry(best);
+			return best.object;
 		}
 
-		return currBest;
+		return null;
 	}
 
 	protected T getObjectCloseTo(ShortPoint2D position) {
+		return getObjectCloseTo(position, null);
+	}
+
+	/**
+	 * Finds the accepted object closest to the given position. Objects for which {@link #isRemovable(ILocatable)} returns true are removed when
+	 * they are found during the search.
+	 *
+	 * @param position
+	 * 		The position to search around.
+	 * @param acceptor
+	 * 		if acceptor != null => the result is accepted by the acceptor. <br>
+	 * 		if acceptor == null every entry is accepted.
+	 * @return The closest accepted object or null if there is none.
+	 */
+	protected T getObjectCloseTo(ShortPoint2D position, Predicate<T> acceptor) {
+		Entry<T> best = getEntryCloseTo(position, acceptor);
+		return best != null ? best.object : null;
+	}
+
+	private Entry<T> getEntryCloseTo(ShortPoint2D position, Predicate<T> acceptor) {
+		if (size <= MAX_SIZE_FOR_LINEAR_SEARCH) {
+			return getEntryCloseToLinear(position, acceptor);
+		}
+
+		final int x = position.x;
+		final int y = position.y;
+		final int centerBucketX = x >> BUCKET_SIZE_SHIFT;
+		final int centerBucketY = y >> BUCKET_SIZE_SHIFT;
+
+		Entry<T> best = null;
+		int bestDistance = Integer.MAX_VALUE;
+
+		for (int radius = 0; ; radius++) {
+			if (radius > 0) {
+				if (centerBucketX - radius < minBucketX && centerBucketX + radius > maxBucketX
+						&& centerBucketY - radius < minBucketY && centerBucketY + radius > maxBucketY) {
+					break; // all used buckets have been searched
+				}
+				if (best != null) {
+					int minDistance = (radius - 1) * BUCKET_SIZE + 1;
+					if (minDistance * minDistance > bestDistance) {
+						break; // all entries in this and the following rings are farther away
+					}
+				}
+			}
+
+			int fromBucketY = Math.max(centerBucketY - radius, minBucketY);
+			int toBucketY = Math.min(centerBucketY + radius, maxBucketY);
+
+			for (int bucketY = fromBucketY; bucketY <= toBucketY; bucketY++) {
+				boolean fullRow = bucketY == centerBucketY - radius || bucketY == centerBucketY + radius;
+				int step = fullRow ? 1 : 2 * radius;
+
+				for (int bucketX = centerBucketX - radius; bucketX <= centerBucketX + radius; bucketX += step) {
+					if (bucketX < minBucketX || bucketX > maxBucketX) {
+						continue;
+					}
+
+					Entry<T> entry = buckets.get(getBucketKey(bucketX, bucketY));
+					while (entry != null) {
+						Entry<T> nextEntry = entry.nextInBucket;
+
+						if (isRemovable(entry.object)) {
+							removeEntry(entry);
+						} else if (acceptor == null || acceptor.test(entry.object)) {
+							int distance = entry.getSquaredDistance(x, y);
+							if (distance < bestDistance || (distance == bestDistance && entry.sequenceNumber < best.sequenceNumber)) {
+								bestDistance = distance;
+								best = entry;
+							}
+						}
+
+						entry = nextEntry;
+					}
+				}
+			}
+		}
+		return best;
+	}
+
+	private Entry<T> getEntryCloseToLinear(ShortPoint2D position, Predicate<T> acceptor) {
+		Entry<T> best = null;
 		int bestDistance = Integer.MAX_VALUE;
-		T currBest = null;
 
-		for (T currEntry : data) {
-			int currDist = MathUtils.squareHypot(position, currEntry.getPosition());
+		Entry<T> entry = first;
+		while (entry != null) {
+			Entry<T> nextEntry = entry.next;
 
-			if (bestDistance > currDist) {
-				bestDistance = currDist;
-				currBest = currEntry;
+			if (isRemovable(entry.object)) {
+				removeEntry(entry);
+			} else if (acceptor == null || acceptor.test(entry.object)) {
+				int distance = entry.getSquaredDistance(position.x, position.y);
+				if (distance < bestDistance) {
+					bestDistance = distance;
+					best = entry;
+				}
 			}
+
+			entry = nextEntry;
 		}
-		return currBest;
+		return best;
+	}
+
+	/**
+	 * Subclasses can use this to lazily remove objects that are no longer needed.
+	 *
+	 * @param object
+	 * 		The object to check.
+	 * @return true if the object shall be removed when it is found by a search.
+	 */
+	protected boolean isRemovable(T object) {
+		return false;
+	}
+
+	private Entry<T> getEntryAt(ShortPoint2D position) {
+		Entry<T> found = null;
+		for (Entry<T> entry = getBucket(position.x, position.y); entry != null; entry = entry.nextInBucket) {
+			if (entry.x == position.x && entry.y == position.y && (found == null || entry.sequenceNumber < found.sequenceNumber)) {
+				found = entry;
+			}
+		}
+		return found;
+	}
+
+	private Entry<T> getEntryOf(Object object, int x, int y) {
+		for (Entry<T> entry = getBucket(x, y); entry != null; entry = entry.nextInBucket) {
+			if (entry.object == object) {
+				return entry;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Informs the list that an object in it has moved.
+	 *
+	 * @param object
+	 * 		The object that moved.
+	 * @param oldPosition
+	 * 		The position of the object before it moved.
+	 * @return true if the object has been found in this list.
+	 */
+	public boolean updatePosition(Object object, ShortPoint2D oldPosition) {
+		Entry<T> entry = getEntryOf(object, oldPosition.x, oldPosition.y);
+		if (entry == null) {
+			return false;
+		}
+
+		ShortPoint2D newPosition = entry.object.getPosition();
+		removeFromBucket(entry);
+		entry.x = newPosition.x;
+		entry.y = newPosition.y;
+		addToBucket(entry);
+		return true;
 	}
 
 	@Override
 	public String toString() {
-		return data.toString();
+		ArrayList<T> objects = new ArrayList<>(size);
+		for (Entry<T> entry = first; entry != null; entry = entry.next) {
+			objects.add(entry.object);
+		}
+		return objects.toString();
 	}
 
 	public void moveAll(PositionableList<T> otherList) {
-		LinkedList<T> othersData = otherList.data;
-		data.addAll(othersData);
-		othersData.clear();
+		moveAll(otherList, null);
 	}
 
 	public void moveAll(PositionableList<T> otherList, Consumer<T> movedVisitor) {
-		LinkedList<T> othersData = otherList.data;
-		for (T othersDatum : othersData) {
-			movedVisitor.accept(othersDatum);
-			data.add(othersDatum);
+		for (Entry<T> entry = otherList.first; entry != null; entry = entry.next) {
+			if (movedVisitor != null) {
+				movedVisitor.accept(entry.object);
+			}
+			insert(entry.object, entry.x, entry.y);
 		}
-		othersData.clear();
+		otherList.init();
 	}
 
 	public void remove(T object) {
-		this.data.remove(object);
+		ShortPoint2D position = object.getPosition();
+		Entry<T> entry = getEntryOf(object, position.x, position.y);
+
+		if (entry == null) { // the object has moved without being updated
+			for (entry = first; entry != null && entry.object != object; entry = entry.next) {
+			}
+		}
+
+		if (entry != null) {
+			removeEntry(entry);
+		}
 	}
 
 	public boolean isEmpty() {
-		return data.isEmpty();
+		return size == 0;
 	}
 
 	public void moveObjectsAtPositionTo(ShortPoint2D position, PositionableList<T> newList, Consumer<T> movedVisitor) {
-		Iterator<T> iterator = data.iterator();
-		while (iterator.hasNext()) {
-			T curr = iterator.next();
-			if (curr.getPosition().equals(position)) {
-				iterator.remove();
-				movedVisitor.accept(curr);
-				newList.data.add(curr);
+		Entry<T> entry;
+		while ((entry = getEntryAt(position)) != null) {
+			removeEntry(entry);
+			movedVisitor.accept(entry.object);
+			newList.insert(entry.object, entry.x, entry.y);
+		}
+	}
+
+	/**
+	 * Moves all objects located in the given area to the new list. The list is only traversed once, so this is faster than moving the
+	 * objects position by position for big areas.
+	 *
+	 * @param area
+	 * 		The area the moved objects are located in.
+	 * @param newList
+	 * 		The list receiving the objects.
+	 * @param movedVisitor
+	 * 		if movedVisitor != null => it is called for every moved object.
+	 */
+	public void moveObjectsInAreaTo(IContainingProvider area, PositionableList<T> newList, Consumer<T> movedVisitor) {
+		Entry<T> entry = first;
+		while (entry != null) {
+			Entry<T> nextEntry = entry.next;
+
+			if (area.contains(entry.x, entry.y)) {
+				removeEntry(entry);
+				if (movedVisitor != null) {
+					movedVisitor.accept(entry.object);
+				}
+				newList.insert(entry.object, entry.x, entry.y);
 			}
+
+			entry = nextEntry;
 		}
 	}
 
 	public int size() {
-		return data.size();
+		return size;
+	}
+
+	/**
+	 * @return An iterator over all objects in the order they have been inserted. The iterator supports removal.
+	 */
+	protected Iterator<T> iterator() {
+		return new Iterator<T>() {
+			private Entry<T> nextEntry = first;
+			private Entry<T> lastReturned;
+
+			@Override
+			public boolean hasNext() {
+				return nextEntry != null;
+			}
+
+			@Override
+			public T next() {
+				if (nextEntry == null) {
+					throw new NoSuchElementException();
+				}
+				lastReturned = nextEntry;
+				nextEntry = nextEntry.next;
+				return lastReturned.object;
+			}
+
+			@Override
+			public void remove() {
+				if (lastReturned == null) {
+					throw new IllegalStateException();
+				}
+				removeEntry(lastReturned);
+				lastReturned = null;
+			}
+		};
+	}
+
+	private void removeEntry(Entry<T> entry) {
+		if (entry.previous == null) {
+			first = entry.next;
+		} else {
+			entry.previous.next = entry.next;
+		}
+		if (entry.next == null) {
+			last = entry.previous;
+		} else {
+			entry.next.previous = entry.previous;
+		}
+		entry.previous = null;
+		entry.next = null;
+		size--;
+
+		removeFromBucket(entry);
+	}
+
+	private void addToBucket(Entry<T> entry) {
+		int bucketX = entry.x >> BUCKET_SIZE_SHIFT;
+		int bucketY = entry.y >> BUCKET_SIZE_SHIFT;
+
+		Entry<T> head = buckets.put(getBucketKey(bucketX, bucketY), entry);
+		entry.previousInBucket = null;
+		entry.nextInBucket = head;
+		if (head != null) {
+			head.previousInBucket = entry;
+		}
+
+		minBucketX = Math.min(minBucketX, bucketX);
+		maxBucketX = Math.max(maxBucketX, bucketX);
+		minBucketY = Math.min(minBucketY, bucketY);
+		maxBucketY = Math.max(maxBucketY, bucketY);
+	}
+
+	private void removeFromBucket(Entry<T> entry) {
+		if (entry.previousInBucket != null) {
+			entry.previousInBucket.nextInBucket = entry.nextInBucket;
+		} else {
+			int key = getBucketKey(entry.x >> BUCKET_SIZE_SHIFT, entry.y >> BUCKET_SIZE_SHIFT);
+			if (entry.nextInBucket != null) {
+				buckets.put(key, entry.nextInBucket);
+			} else {
+				buckets.remove(key);
+			}
+		}
+		if (entry.nextInBucket != null) {
+			entry.nextInBucket.previousInBucket = entry.previousInBucket;
+		}
+		entry.previousInBucket = null;
+		entry.nextInBucket = null;
+	}
+
+	private Entry<T> getBucket(int x, int y) {
+		return buckets.get(getBucketKey(x >> BUCKET_SIZE_SHIFT, y >> BUCKET_SIZE_SHIFT));
+	}
+
+	private static int getBucketKey(int bucketX, int bucketY) {
+		return bucketX << 16 | bucketY;
+	}
+
+	private static final class Entry<T> {
+		final T object;
+		final long sequenceNumber;
+		short x;
+		short y;
+
+		Entry<T> previous;
+		Entry<T> next;
+		Entry<T> previousInBucket;
+		Entry<T> nextInBucket;
+
+		Entry(T object, short x, short y, long sequenceNumber) {
+			this.object = object;
+			this.x = x;
+			this.y = y;
+			this.sequenceNumber = sequenceNumber;
+		}
+
+		int getSquaredDistance(int x, int y) {
+			int dx = this.x - x;
+			int dy = this.y - y;
+			return dx * dx + dy * dy;
+		}
 	}
 }
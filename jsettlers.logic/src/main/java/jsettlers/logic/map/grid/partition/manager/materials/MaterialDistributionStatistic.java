@@ -0,0 +1,64 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.logic.map.grid.partition.manager.materials;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the transport jobs handed out by the {@link MaterialsManager}s of a game and the deliveries fulfilled by the bearers. It is not part of
+ * the savegame and only used to compare distribution strategies. Nothing is recorded unless a statistic has been set with
+ * {@link jsettlers.logic.GameContext#setMaterialDistributionStatistic(MaterialDistributionStatistic)}.
+ *
+ * @author Andreas Eberle
+ */
+public final class MaterialDistributionStatistic {
+	private final AtomicLong assignedJobs = new AtomicLong();
+	private final AtomicLong walkLength = new AtomicLong();
+	private final AtomicLong fulfilledDeliveries = new AtomicLong();
+
+	/**
+	 * Records a transport job handed out to a bearer.
+	 *
+	 * @param walkLength
+	 *            The on grid distance from the bearer to the offer plus the distance from the offer to the request.
+	 */
+	void jobAssigned(int walkLength) {
+		assignedJobs.incrementAndGet();
+		this.walkLength.addAndGet(walkLength);
+	}
+
+	/**
+	 * Records a material that has been dropped at its request.
+	 */
+	public void deliveryFulfilled() {
+		fulfilledDeliveries.incrementAndGet();
+	}
+
+	public long getAssignedJobs() {
+		return assignedJobs.get();
+	}
+
+	public long getFulfilledDeliveries() {
+		return fulfilledDeliveries.get();
+	}
+
+	/**
+	 * @return The average on grid distance a bearer has to walk for a job or 0 if no job has been assigned.
+	 */
+	public double getAverageWalkLength() {
+		long jobs = assignedJobs.get();
+		return jobs == 0 ? 0 : (double) walkLength.get() / jobs;
+	}
+}
@@ -16,9 +16,12 @@ package jsettlers.logic.map.grid.partition.manager.materials;
 
 import java.io.Serializable;
 
+import jsettlers.algorithms.interfaces.IContainingProvider;
 import jsettlers.common.map.partition.IPartitionSettings;
 import jsettlers.common.material.EMaterialType;
 import jsettlers.common.position.ShortPoint2D;
+import jsettlers.logic.GameContext;
+import jsettlers.logic.constants.MatchConstants;
 import jsettlers.logic.map.grid.partition.manager.materials.interfaces.IJoblessSupplier;
 import jsettlers.logic.map.grid.partition.manager.materials.interfaces.IManagerBearer;
 import jsettlers.logic.map.grid.partition.manager.materials.offers.EOfferPriority;
@@ -39,6 +42,11 @@ import jsettlers.logic.map.grid.partition.manager.settings.PartitionManagerSetti
 public final class MaterialsManager implements Serializable {
 	private static final long serialVersionUID = 6395951461349453696L;
 
+	/**
+	 * The maximum number of jobs handed out by one call of {@link #distributeJobs()} if {@link MatchConstants#batchedMaterialDistribution()} is set.
+	 */
+	private static final int MAX_JOBS_PER_BATCH = 20;
+
 	private final OffersList offersList;
 	private final AbstractMaterialRequestPriorityQueue[] requestQueues;
 	private final IJoblessSupplier joblessSupplier;
@@ -84,6 +92,11 @@ public final class MaterialsManager implements Serializable {
 	}
 
 	public void distributeJobs() {
+		if (MatchConstants.batchedMaterialDistribution()) {
+			distributeJobsBatched();
+			return;
+		}
+
 		for (int i = 0; i < EMaterialType.NUMBER_OF_DROPPABLE_MATERIALS && !joblessSupplier.isEmpty(); i++) {
 			if (joblessSupplier.isEmpty()) // no jobless? just return
 				break;
@@ -92,20 +105,47 @@ public final class MaterialsManager implements Serializable {
 		}
 	}
 
-	private void distributeJobForMaterial(EMaterialType materialType) {
+	/**
+	 * Hands out jobs in rounds over all materials in the order of their priority. Every round assigns at most one job per material, so a single
+	 * material can't take all jobless bearers. The rounds are repeated until no job could be assigned, no jobless bearer is left or
+	 * {@link #MAX_JOBS_PER_BATCH} jobs have been assigned.
+	 * <p>
+	 * Every assignment is greedy: the highest request gets the closest offer and the offer gets the closest jobless bearer. As the offers, requests
+	 * and bearers taken by an assignment are updated immediately, the next assignment only sees the remaining ones. Therefore the result only
+	 * depends on the state of the partition.
+	 */
+	private void distributeJobsBatched() {
+		int assignedJobs = 0;
+		boolean assigned = true;
+		while (assigned && assignedJobs < MAX_JOBS_PER_BATCH) {
+			assigned = false;
+			for (int i = 0; i < EMaterialType.NUMBER_OF_DROPPABLE_MATERIALS && assignedJobs < MAX_JOBS_PER_BATCH; i++) {
+				if (joblessSupplier.isEmpty()) {
+					return;
+				}
+
+				if (distributeJobForMaterial(settings.getMaterialTypeForPriority(i))) {
+					assigned = true;
+					assignedJobs++;
+				}
+			}
+		}
+	}
+
+	private boolean distributeJobForMaterial(EMaterialType materialType) {
 		if (offersList.isEmpty(materialType, EOfferPriority.LOWEST)) {
-			return;
+			return false;
 		}
 
 		AbstractMaterialRequestPriorityQueue requestQueue = requestQueues[materialType.ordinal];
 		MaterialRequestObject request = requestQueue.getHighestRequest();
 
 		if (request == null) // no request => return
-			return;
+			return false;
 
 		EOfferPriority minimumIncludedOfferPriority = request.getMinimumAcceptedOfferPriority();
 		if (offersList.isEmpty(materialType, minimumIncludedOfferPriority)) {
-			return; // no offers => return
+			return false; // no offers => return
 		}
 
 		MaterialOffer offer = offersList.getOfferCloseTo(materialType, minimumIncludedOfferPriority, request.getPosition());
@@ -116,7 +156,13 @@ public final class MaterialsManager implements Serializable {
 
 		assert jobless != null : "The jobless can't be null here!";
 
+		MaterialDistributionStatistic statistic = GameContext.current().getMaterialDistributionStatistic();
+		if (statistic != null) {
+			statistic.jobAssigned(jobless.getPosition().getOnGridDistTo(offer.getPosition()) + offer.getPosition().getOnGridDistTo(request.getPosition()));
+		}
+
 		jobless.deliver(materialType, offer, request);
+		return true;
 	}
 
 	public void movePositionTo(ShortPoint2D position, MaterialsManager newManager) {
@@ -125,6 +171,12 @@ public final class MaterialsManager implements Serializable {
 		}
 	}
 
+	public void moveAreaTo(IContainingProvider area, MaterialsManager newManager) {
+		for (int i = 0; i < EMaterialType.NUMBER_OF_MATERIALS; i++) {
+			requestQueues[i].moveObjectsInAreaTo(area, newManager.requestQueues[i]);
+		}
+	}
+
 	public void mergeInto(MaterialsManager newManager) {
 		for (int i = 0; i < EMaterialType.NUMBER_OF_MATERIALS; i++) {
 			requestQueues[i].mergeInto(newManager.requestQueues[i]);
@@ -18,7 +18,6 @@ import java.util.Iterator;
 
 import jsettlers.common.position.ILocatable;
 import jsettlers.common.position.ShortPoint2D;
-import jsettlers.common.utils.MathUtils;
 import jsettlers.logic.map.grid.partition.manager.datastructures.PositionableList;
 
 /**
@@ -32,29 +31,16 @@ public class ManagingPositionableList<T extends ILocatable & IListManageable> ex
 
 	@Override
 	protected T getObjectCloseTo(ShortPoint2D position) {
-		int bestDistance = Integer.MAX_VALUE;
-		T currBest = null;
-
-		for (Iterator<T> iterator = data.iterator(); iterator.hasNext(); ) {
-			T currEntry = iterator.next();
-
-			if (currEntry.canBeRemoved()) { // remove old entries no longer needed
-				iterator.remove();
-
-			} else if (currEntry.isActive()) { // only use the active ones
-				int currDist = MathUtils.squareHypot(position, currEntry.getPosition());
+		return getObjectCloseTo(position, IListManageable::isActive); // only use the active ones
+	}
 
-				if (bestDistance > currDist) {
-					bestDistance = currDist;
-					currBest = currEntry;
-				}
-			}
-		}
-		return currBest;
+	@Override
+	protected boolean isRemovable(T object) {
+		return object.canBeRemoved(); // remove old entries no longer needed
 	}
 
 	public boolean hasNoActive() {
-		for (Iterator<T> iterator = data.iterator(); iterator.hasNext(); ) {
+		for (Iterator<T> iterator = iterator(); iterator.hasNext(); ) {
 			T datum = iterator.next();
 
 			if (datum.canBeRemoved()) {
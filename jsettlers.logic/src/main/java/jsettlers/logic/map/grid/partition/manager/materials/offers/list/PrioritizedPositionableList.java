@@ -16,6 +16,7 @@ package jsettlers.logic.map.grid.partition.manager.materials.offers.list;
 
 import java.io.Serializable;
 
+import jsettlers.algorithms.interfaces.IContainingProvider;
 import jsettlers.common.position.ILocatable;
 import jsettlers.common.position.ShortPoint2D;
 import jsettlers.common.utils.MathUtils;
@@ -69,6 +70,12 @@ public class PrioritizedPositionableList<P extends Enum, T extends ILocatable &
 		}
 	}
 
+	public void moveObjectsInAreaTo(IContainingProvider area, PrioritizedPositionableList<P, T> otherList, Consumer<T> movedVisitor) {
+		for (int i = lists.length - 1; i >= 0; i--) {
+			lists[i].moveObjectsInAreaTo(area, otherList.lists[i], movedVisitor);
+		}
+	}
+
 	public void moveAll(PrioritizedPositionableList<P, T> otherList, Consumer<T> movedVisitor) {
 		for (int i = lists.length - 1; i >= 0; i--) {
 			lists[i].moveAll(otherList.lists[i], movedVisitor);
@@ -16,6 +16,7 @@ package jsettlers.logic.map.grid.partition.manager.materials.requests;
 
 import java.io.Serializable;
 
+import jsettlers.algorithms.interfaces.IContainingProvider;
 import jsettlers.common.buildings.EBuildingType;
 import jsettlers.common.material.EPriority;
 import jsettlers.common.position.ShortPoint2D;
@@ -134,7 +135,19 @@ public abstract class AbstractMaterialRequestPriorityQueue implements Serializab
 	 * @param newQueue
 	 *            The queue that receives the objects removed from this queue.
 	 */
-	public abstract void moveObjectsOfPositionTo(ShortPoint2D position, AbstractMaterialRequestPriorityQueue newQueue);
+	public final void moveObjectsOfPositionTo(ShortPoint2D position, AbstractMaterialRequestPriorityQueue newQueue) {
+		moveObjectsInAreaTo((x, y) -> x == position.x && y == position.y, newQueue);
+	}
+
+	/**
+	 * Removes any requests that are in the given area from this queue and adds them to the given queue.
+	 * 
+	 * @param area
+	 *            The area to be checked. Any request in this area will be moved to the given queue.
+	 * @param newQueue
+	 *            The queue that receives the objects removed from this queue.
+	 */
+	public abstract void moveObjectsInAreaTo(IContainingProvider area, AbstractMaterialRequestPriorityQueue newQueue);
 
 	/**
 	 * Merges this queue into the given {@link AbstractMaterialRequestPriorityQueue}.
@@ -19,6 +19,7 @@ import java.io.ObjectInputStream;
 import java.util.Arrays;
 import java.util.Iterator;
 
+import jsettlers.algorithms.interfaces.IContainingProvider;
 import jsettlers.common.buildings.EBuildingType;
 import jsettlers.common.material.EPriority;
 import jsettlers.common.position.ShortPoint2D;
@@ -118,7 +119,7 @@ public final class MaterialsForBuildingsRequestPriorityQueue extends AbstractMat
 	}
 
 	@Override
-	public void moveObjectsOfPositionTo(ShortPoint2D position, AbstractMaterialRequestPriorityQueue newAbstractQueue) {
+	public void moveObjectsInAreaTo(IContainingProvider area, AbstractMaterialRequestPriorityQueue newAbstractQueue) {
 		assert newAbstractQueue instanceof MaterialsForBuildingsRequestPriorityQueue : "can't move positions between different types of queues.";
 
 		MaterialsForBuildingsRequestPriorityQueue newQueue = (MaterialsForBuildingsRequestPriorityQueue) newAbstractQueue;
@@ -129,7 +130,8 @@ public final class MaterialsForBuildingsRequestPriorityQueue extends AbstractMat
 				Iterator<MaterialRequestObject> iterator = priorityQueue[queueIdx].iterator();
 				while (iterator.hasNext()) {
 					MaterialRequestObject curr = iterator.next();
-					if (curr.getPosition().equals(position)) {
+					ShortPoint2D position = curr.getPosition();
+					if (area.contains(position.x, position.y)) {
 						iterator.remove();
 						newQueue.queues[priorityIndex][queueIdx].pushEnd(curr);
 						curr.requestQueue = newQueue;
@@ -17,6 +17,7 @@ package jsettlers.logic.map.grid.partition.manager.materials.requests;
 import java.util.Arrays;
 import java.util.Iterator;
 
+import jsettlers.algorithms.interfaces.IContainingProvider;
 import jsettlers.common.buildings.EBuildingType;
 import jsettlers.common.material.EPriority;
 import jsettlers.common.position.ShortPoint2D;
@@ -44,7 +45,7 @@ public final class SimpleMaterialRequestPriorityQueue extends AbstractMaterialRe
 	}
 
 	@Override
-	public void moveObjectsOfPositionTo(ShortPoint2D position, AbstractMaterialRequestPriorityQueue newAbstractQueue) {
+	public void moveObjectsInAreaTo(IContainingProvider area, AbstractMaterialRequestPriorityQueue newAbstractQueue) {
 		assert newAbstractQueue instanceof SimpleMaterialRequestPriorityQueue : "can't move positions between diffrent types of queues.";
 
 		SimpleMaterialRequestPriorityQueue newQueue = (SimpleMaterialRequestPriorityQueue) newAbstractQueue;
@@ -53,7 +54,8 @@ public final class SimpleMaterialRequestPriorityQueue extends AbstractMaterialRe
 			Iterator<MaterialRequestObject> iter = queues[queueIdx].iterator();
 			while (iter.hasNext()) {
 				MaterialRequestObject curr = iter.next();
-				if (curr.getPosition().equals(position)) {
+				ShortPoint2D position = curr.getPosition();
+				if (area.contains(position.x, position.y)) {
 					iter.remove();
 					newQueue.queues[queueIdx].pushEnd(curr);
 					curr.requestQueue = newQueue;
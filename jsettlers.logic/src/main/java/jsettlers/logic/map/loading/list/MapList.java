@@ -14,6 +14,7 @@
  *******************************************************************************/
 package jsettlers.logic.map.loading.list;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -21,13 +22,18 @@ import java.io.ObjectOutputStream;
 import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import jsettlers.common.CommonConstants;
 import jsettlers.common.logging.MilliStopWatch;
 import jsettlers.common.utils.collections.ChangingList;
 import jsettlers.input.PlayerState;
-import jsettlers.logic.constants.MatchConstants;
 import jsettlers.logic.map.grid.GameSerializer;
+import jsettlers.logic.map.grid.ISavegameSectionSnapshot;
 import jsettlers.logic.map.grid.MainGrid;
 import jsettlers.logic.map.loading.MapLoader;
 import jsettlers.logic.map.loading.data.IMapData;
@@ -36,7 +42,6 @@ import jsettlers.logic.map.loading.newmap.FreshMapSerializer;
 import jsettlers.logic.map.loading.newmap.MapFileHeader;
 import jsettlers.logic.map.loading.newmap.MapFileHeader.MapType;
 import jsettlers.logic.map.loading.newmap.RemakeMapLoader;
-import jsettlers.logic.timer.RescheduleTimer;
 
 /**
  * This is the main map list.
@@ -71,6 +76,9 @@ public class MapList implements IMapListerCallable {
 
 	private boolean fileListLoaded = false;
 
+	private ThreadPoolExecutor saveExecutor;
+	private Future<?> pendingSave;
+
 	public MapList(Collection<IMapLister> mapDirectories, IMapLister saveDirectory) {
 		this.mapDirectories = new ArrayList<>(mapDirectories);
 		this.saveDirectory = saveDirectory;
@@ -191,6 +199,9 @@ public class MapList implements IMapListerCallable {
 
 	/**
 	 * Saves a map to disk. The map logic should be paused while calling this method.
+	 * <p>
+	 * Only the object graph is serialized while the logic is paused. The grid sections are written to disk in the background afterwards. Use
+	 * {@link #awaitPendingSaves()} to wait for the savegame to be available.
 	 * 
 	 * @param playerStates
 	 * @param grid
@@ -198,23 +209,65 @@ public class MapList implements IMapListerCallable {
 	 */
 	public synchronized void saveMap(PlayerState[] playerStates, MapFileHeader header, MainGrid grid) throws IOException {
 		MilliStopWatch watch = new MilliStopWatch();
-		OutputStream outStream = saveDirectory.getOutputStream(header);
-
-		header.writeTo(outStream);
 
-		ObjectOutputStream oos = new ObjectOutputStream(outStream);
-		MatchConstants.serialize(oos);
-		oos.writeObject(playerStates);
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		ObjectOutputStream oos = new ObjectOutputStream(buffer);
 		GameSerializer gameSerializer = new GameSerializer();
-		gameSerializer.save(grid, oos);
-		RescheduleTimer.saveTo(oos);
+		ISavegameSectionSnapshot[] snapshots = gameSerializer.saveGame(playerStates, grid, oos);
+
+		watch.stop("Pausing game for savegame required");
+
+		pendingSave = getSaveExecutor().submit(() -> {
+			try {
+				MilliStopWatch writeWatch = new MilliStopWatch();
+				gameSerializer.saveSections(snapshots, oos);
+				oos.close();
+
+				try (OutputStream outStream = saveDirectory.getOutputStream(header)) {
+					header.writeTo(outStream);
+					buffer.writeTo(outStream);
+				}
+				writeWatch.stop("Writing savegame required");
+
+				reloadFileList();
+			} catch (IOException e) {
+				System.err.println("Failed to write savegame " + header.getName());
+				e.printStackTrace();
+			}
+		});
+	}
 
-		oos.close();
-		watch.stop("Writing savegame required");
+	private ThreadPoolExecutor getSaveExecutor() {
+		if (saveExecutor == null) {
+			saveExecutor = new ThreadPoolExecutor(1, 1, 10, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> new Thread(runnable, "SavegameWriter"));
+			saveExecutor.allowCoreThreadTimeOut(true);
+		}
+		return saveExecutor;
+	}
 
+	private synchronized void reloadFileList() {
 		loadFileList();
 	}
 
+	/**
+	 * Blocks until all savegames started with {@link #saveMap(PlayerState[], MapFileHeader, MainGrid)} have been written to disk.
+	 */
+	public void awaitPendingSaves() {
+		Future<?> save;
+		synchronized (this) {
+			save = pendingSave;
+		}
+		if (save == null) {
+			return;
+		}
+
+		try {
+			save.get();
+		} catch (InterruptedException | ExecutionException e) {
+			e.printStackTrace();
+		}
+	}
+
 	public ArrayList<MapLoader> getSavedMultiplayerMaps() {
 		// TODO: save multiplayer maps, so that we can load them.
 		return null;
@@ -53,8 +53,9 @@ public class SavegameLoader extends RemakeMapLoader {
 			PlayerState[] playerStates = (PlayerState[]) ois.readObject();
 			GameSerializer gameSerializer = new GameSerializer();
 			MainGrid mainGrid = gameSerializer.load(ois);
-			mainGrid.initWithPlayerSettings(playerSettings);
 			RescheduleTimer.loadFrom(ois);
+			gameSerializer.loadSections(mainGrid, ois);
+			mainGrid.initWithPlayerSettings(playerSettings);
 
 			ois.close();
 
@@ -19,7 +19,6 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentLinkedQueue;
@@ -34,8 +33,10 @@ import jsettlers.common.menu.messages.SimpleMessage;
 import jsettlers.common.movable.EDirection;
 import jsettlers.common.movable.EMovableAction;
 import jsettlers.common.movable.EMovableType;
+import jsettlers.common.movable.MovablesSnapshot;
 import jsettlers.common.position.ShortPoint2D;
 import jsettlers.common.selectable.ESelectionType;
+import jsettlers.logic.GameContext;
 import jsettlers.logic.buildings.military.IBuildingOccupyableMovable;
 import jsettlers.logic.buildings.military.occupying.IOccupyableBuilding;
 import jsettlers.logic.constants.Constants;
@@ -46,6 +47,7 @@ import jsettlers.logic.movable.interfaces.ILogicMovable;
 import jsettlers.logic.movable.strategies.FleeStrategy;
 import jsettlers.logic.movable.strategies.military.SoldierStrategy;
 import jsettlers.logic.player.Player;
+import jsettlers.logic.timer.IPreparableTimerable;
 import jsettlers.logic.timer.RescheduleTimer;
 
 /**
@@ -53,14 +55,11 @@ import jsettlers.logic.timer.RescheduleTimer;
  *
  * @author Andreas Eberle
  */
-public final class Movable implements ILogicMovable {
+public final class Movable implements ILogicMovable, IPreparableTimerable {
 	private static final long serialVersionUID = -705947810059935865L;
 
 	private static final int SHIP_PUSH_DISTANCE = 10;
 
-	private static final HashMap<Integer, ILogicMovable>      movablesByID = new HashMap<>();
-	private static final ConcurrentLinkedQueue<ILogicMovable> allMovables  = new ConcurrentLinkedQueue<>();
-	private static       int                                  nextID       = Integer.MIN_VALUE;
 
 	protected final AbstractMovableGrid grid;
 	private final   int                 id;
@@ -96,6 +95,13 @@ public final class Movable implements ILogicMovable {
 	private transient boolean selected    = false;
 	private transient boolean soundPlayed = false;
 
+	// the following data is only used to calculate the path of a move request in parallel, see prepareTimerEvent()
+	private transient ShortPoint2D preparedPathTarget;
+	private transient ShortPoint2D preparedPathStart;
+	private transient boolean      preparedPathNeedsPlayersGround;
+	private transient int          preparedPathVersion;
+	private transient Path         preparedPath;
+
 	// the following data only for ship passengers
 	private ILogicMovable ferryToEnter = null;
 
@@ -111,25 +117,28 @@ public final class Movable implements ILogicMovable {
 
 		RescheduleTimer.add(this, Constants.MOVABLE_INTERRUPT_PERIOD);
 
-		this.id = nextID++;
-		movablesByID.put(this.id, this);
-		allMovables.offer(this);
+		GameContext context = GameContext.current();
+		this.id = context.createMovableID();
+		context.getMovablesByID().put(this.id, this);
+		context.getAllMovables().offer(this);
 
 		grid.enterPosition(position, this, true);
 	}
 
 	@SuppressWarnings("unchecked")
 	public static void readStaticState(ObjectInputStream ois) throws IOException, ClassNotFoundException {
-		nextID = ois.readInt();
-		allMovables.clear();
-		allMovables.addAll((Collection<? extends ILogicMovable>) ois.readObject());
-		movablesByID.putAll((Map<? extends Integer, ? extends ILogicMovable>) ois.readObject());
+		GameContext context = GameContext.current();
+		context.setNextMovableID(ois.readInt());
+		context.getAllMovables().clear();
+		context.getAllMovables().addAll((Collection<? extends ILogicMovable>) ois.readObject());
+		context.getMovablesByID().putAll((Map<? extends Integer, ? extends ILogicMovable>) ois.readObject());
 	}
 
 	public static void writeStaticState(ObjectOutputStream oos) throws IOException {
-		oos.writeInt(nextID);
-		oos.writeObject(allMovables);
-		oos.writeObject(movablesByID);
+		GameContext context = GameContext.current();
+		oos.writeInt(context.getNextMovableID());
+		oos.writeObject(context.getAllMovables());
+		oos.writeObject(context.getMovablesByID());
 	}
 
 	/**
@@ -168,6 +177,28 @@ public final class Movable implements ILogicMovable {
 		}
 	}
 
+	/**
+	 * Calculates the path of a pending move request. The path can only be used by {@link #goToPos(ShortPoint2D)} if the movable and the path
+	 * finding data did not change in the meantime.
+	 */
+	@Override
+	public void prepareTimerEvent() {
+		preparedPathTarget = null;
+		preparedPath = null;
+
+		ShortPoint2D targetPosition = requestedTargetPosition;
+		if (targetPosition == null || isShip() || (state != EMovableState.DOING_NOTHING && state != EMovableState.PATHING)
+			|| !strategy.canBeControlledByPlayer()) {
+			return;
+		}
+
+		preparedPathStart = position;
+		preparedPathNeedsPlayersGround = needsPlayersGround();
+		preparedPathVersion = grid.getPathingVersion();
+		preparedPath = grid.preparePathTo(this, targetPosition);
+		preparedPathTarget = targetPosition;
+	}
+
 	@Override
 	public int timerEvent() {
 		if (state == EMovableState.DEAD) {
@@ -378,10 +409,12 @@ public final class Movable implements ILogicMovable {
 
 	@Override
 	public void leaveFerryAt(ShortPoint2D position) {
+		ShortPoint2D oldPosition = this.position;
 		this.position = position;
 		setState(EMovableState.DOING_NOTHING);
 		requestedTargetPosition = null;
 		grid.enterPosition(position, this, true);
+		strategy.positionChangedEvent(oldPosition);
 	}
 
 	@Override
@@ -394,8 +427,10 @@ public final class Movable implements ILogicMovable {
 		playAnimation(EMovableAction.WALKING, movableType.getStepDurationMs());
 		grid.leavePosition(this.position, this);
 		grid.enterPosition(position, this, false);
+		ShortPoint2D oldPosition = this.position;
 		this.position = position;
 		isRightstep = !isRightstep;
+		strategy.positionChangedEvent(oldPosition);
 	}
 
 	private int doingNothingAction() {
@@ -660,7 +695,15 @@ public final class Movable implements ILogicMovable {
 	final boolean goToPos(ShortPoint2D targetPos) {
 		assert state == EMovableState.DOING_NOTHING : "can't do goToPos() if state isn't DOING_NOTHING. curr state: " + state;
 
-		Path path = grid.calculatePathTo(this, targetPos);
+		Path path;
+		if (isPreparedPathValid(targetPos)) {
+			path = preparedPath;
+		} else {
+			path = grid.calculatePathTo(this, targetPos);
+		}
+		preparedPathTarget = null;
+		preparedPath = null;
+
 		if (path == null) {
 			if (ferryToEnter != null) {
 				enterFerry();
@@ -672,6 +715,15 @@ public final class Movable implements ILogicMovable {
 		}
 	}
 
+	private boolean isPreparedPathValid(ShortPoint2D targetPos) {
+		return preparedPathTarget != null
+			&& preparedPathTarget.equals(targetPos)
+			&& preparedPathStart.equals(position)
+			&& preparedPathNeedsPlayersGround == needsPlayersGround()
+			&& preparedPathVersion == grid.getPathingVersion()
+			&& !isShip();
+	}
+
 	/**
 	 * Tries to go a step in the given direction.
 	 *
@@ -718,7 +770,9 @@ public final class Movable implements ILogicMovable {
 			grid.enterPosition(position, this, true);
 		}
 
+		ShortPoint2D oldPosition = this.position;
 		this.position = position;
+		strategy.positionChangedEvent(oldPosition);
 	}
 
 	final void setVisible(boolean visible) {
@@ -797,17 +851,18 @@ public final class Movable implements ILogicMovable {
 	 * or null if the id can not be found
 	 */
 	public static ILogicMovable getMovableByID(int id) {
-		return movablesByID.get(id);
+		return GameContext.current().getMovablesByID().get(id);
 	}
 
 	public static ConcurrentLinkedQueue<ILogicMovable> getAllMovables() {
-		return allMovables;
+		return GameContext.current().getAllMovables();
 	}
 
 	public static void resetState() {
-		allMovables.clear();
-		movablesByID.clear();
-		nextID = Integer.MIN_VALUE;
+		GameContext context = GameContext.current();
+		context.getAllMovables().clear();
+		context.getMovablesByID().clear();
+		context.setNextMovableID(Integer.MIN_VALUE);
 	}
 
 	/**
@@ -830,8 +885,9 @@ public final class Movable implements ILogicMovable {
 		this.state = EMovableState.DEAD;
 		this.selected = false;
 
-		movablesByID.remove(this.getID());
-		allMovables.remove(this);
+		GameContext context = GameContext.current();
+		context.getMovablesByID().remove(this.getID());
+		context.getAllMovables().remove(this);
 	}
 
 	/**
@@ -868,6 +924,10 @@ public final class Movable implements ILogicMovable {
 		return this.strategy.getBuildingType();
 	}
 
+	public Class<? extends MovableStrategy> getStrategyClass() {
+		return strategy.getClass();
+	}
+
 	@Override
 	public final ESelectionType getSelectionType() {
 		return movableType.selectionType;
@@ -918,6 +978,11 @@ public final class Movable implements ILogicMovable {
 		return health > 0;
 	}
 
+	final void addToSnapshot(MovablesSnapshot snapshot, int tileIndex) {
+		snapshot.add(tileIndex, this, position, movableType, movableAction, direction, materialType, animationStartTime, animationDuration, health,
+				isRightstep);
+	}
+
 	@Override
 	public final boolean isRightstep() {
 		return isRightstep;
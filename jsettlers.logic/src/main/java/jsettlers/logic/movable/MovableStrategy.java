@@ -250,6 +250,15 @@ public abstract class MovableStrategy implements Serializable {
 	protected void moveToPathSet(ShortPoint2D oldPosition, ShortPoint2D oldTargetPos, ShortPoint2D targetPos) {
 	}
 
+	/**
+	 * This method is called whenever the position of the movable changed.
+	 *
+	 * @param oldPosition
+	 * 		The position of the movable before the change.
+	 */
+	protected void positionChangedEvent(ShortPoint2D oldPosition) {
+	}
+
 	/**
 	 * This method may only be called if this movable shall be informed about a movable that's in it's search radius.
 	 *
@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.logic.movable;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import jsettlers.common.movable.MovablesSnapshot;
+import jsettlers.common.movable.MovablesSnapshotBuffer;
+import jsettlers.common.position.ShortPoint2D;
+import jsettlers.logic.movable.interfaces.ILogicMovable;
+
+/**
+ * Writes the movables standing on the movable grid into the {@link MovablesSnapshotBuffer} the graphics draw them from.
+ *
+ * @author Andreas Eberle
+ */
+public final class MovablesSnapshotWriter {
+	private final MovablesSnapshotBuffer buffer = new MovablesSnapshotBuffer();
+	private final ILogicMovable[] movableGrid;
+	private final short width;
+
+	private Movable[] movables = new Movable[0];
+	private long[] sortKeys = new long[0];
+
+	public MovablesSnapshotWriter(ILogicMovable[] movableGrid, short width) {
+		this.movableGrid = movableGrid;
+		this.width = width;
+	}
+
+	public MovablesSnapshotBuffer getBuffer() {
+		return buffer;
+	}
+
+	/**
+	 * Writes and publishes a new snapshot, if the graphics have taken the last one.
+	 *
+	 * @param allMovables
+	 *            All movables of the game.
+	 * @param gameTime
+	 *            The current game time.
+	 */
+	public void writeIfRequested(Collection<ILogicMovable> allMovables, int gameTime) {
+		if (!buffer.isSnapshotRequested()) {
+			return;
+		}
+
+		int capacity = allMovables.size();
+		if (movables.length < capacity) {
+			movables = new Movable[capacity * 3 / 2];
+			sortKeys = new long[movables.length];
+		}
+
+		// collect the movables that are on the grid and sort them by their tile index
+		int size = 0;
+		for (ILogicMovable curr : allMovables) {
+			ShortPoint2D position = curr.getPosition();
+			int tileIndex = position.x + position.y * width;
+			if (movableGrid[tileIndex] == curr) {
+				movables[size] = (Movable) curr;
+				sortKeys[size] = ((long) tileIndex << 32) | size;
+				size++;
+			}
+		}
+		Arrays.sort(sortKeys, 0, size);
+
+		MovablesSnapshot snapshot = buffer.getWriteSnapshot();
+		snapshot.clear(size);
+		for (int i = 0; i < size; i++) {
+			movables[(int) sortKeys[i]].addToSnapshot(snapshot, (int) (sortKeys[i] >>> 32));
+		}
+		Arrays.fill(movables, 0, size, null);
+
+		buffer.publish(gameTime);
+	}
+}
@@ -61,6 +61,25 @@ public abstract class AbstractMovableGrid extends AbstractStrategyGrid {
 
 	public abstract Path calculatePathTo(IPathCalculatable pathCalculatable, ShortPoint2D targetPos);
 
+	/**
+	 * Calculates the same path as {@link #calculatePathTo(IPathCalculatable, ShortPoint2D)} but can be called by multiple threads at once, as long as
+	 * the grid is not modified at the same time.
+	 *
+	 * @param pathCalculatable
+	 *            The requester of the path.
+	 * @param targetPos
+	 *            The target of the path.
+	 * @return The path or null if no path has been found.
+	 */
+	public abstract Path preparePathTo(IPathCalculatable pathCalculatable, ShortPoint2D targetPos);
+
+	/**
+	 * Gives a version number of all data paths are calculated on. If the version did not change, a path calculated before is still valid.
+	 *
+	 * @return The current version of the path finding data.
+	 */
+	public abstract int getPathingVersion();
+
 	public abstract Path searchDijkstra(IPathCalculatable pathCalculateable, short centerX, short centerY, short radius, ESearchType searchType);
 
 	public abstract Path searchInArea(IPathCalculatable pathCalculateable, short centerX, short centerY, short radius, ESearchType searchType);
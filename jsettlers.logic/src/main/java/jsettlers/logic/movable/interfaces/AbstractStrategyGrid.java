@@ -55,6 +55,14 @@ public abstract class AbstractStrategyGrid implements Serializable {
 
 	public abstract void removeJobless(IManageableBricklayer bricklayer);
 
+	public abstract void joblessMoved(IManageableBearer bearer, ShortPoint2D oldPosition);
+
+	public abstract void joblessMoved(IManageableWorker worker, ShortPoint2D oldPosition);
+
+	public abstract void joblessMoved(IManageableDigger digger, ShortPoint2D oldPosition);
+
+	public abstract void joblessMoved(IManageableBricklayer bricklayer, ShortPoint2D oldPosition);
+
 	/**
 	 * Take a material from the stack at given position of given {@link EMaterialType}.
 	 *
@@ -17,8 +17,10 @@ package jsettlers.logic.movable.strategies;
 import jsettlers.common.material.EMaterialType;
 import jsettlers.common.movable.EMovableType;
 import jsettlers.common.position.ShortPoint2D;
+import jsettlers.logic.GameContext;
 import jsettlers.logic.map.grid.partition.manager.manageables.IManageableBearer;
 import jsettlers.logic.map.grid.partition.manager.manageables.interfaces.IBarrack;
+import jsettlers.logic.map.grid.partition.manager.materials.MaterialDistributionStatistic;
 import jsettlers.logic.map.grid.partition.manager.materials.interfaces.IMaterialOffer;
 import jsettlers.logic.map.grid.partition.manager.materials.interfaces.IMaterialRequest;
 import jsettlers.logic.map.grid.partition.manager.materials.offers.EOfferPriority;
@@ -152,6 +154,10 @@ public final class BearerMovableStrategy extends MovableStrategy implements IMan
 			if (request.isActive() && request.getPosition().equals(movable.getPosition())) {
 				request.deliveryFulfilled();
 				request = null;
+				MaterialDistributionStatistic statistic = GameContext.current().getMaterialDistributionStatistic();
+				if (statistic != null) {
+					statistic.deliveryFulfilled();
+				}
 				return false;
 			} else {
 				request.deliveryAborted();
@@ -298,6 +304,13 @@ public final class BearerMovableStrategy extends MovableStrategy implements IMan
 		}
 	}
 
+	@Override
+	protected void positionChangedEvent(ShortPoint2D oldPosition) {
+		if (state == EBearerState.JOBLESS) {
+			super.getGrid().joblessMoved(this, oldPosition);
+		}
+	}
+
 	@Override
 	protected void strategyKilledEvent(ShortPoint2D pathTarget) {
 		if (state == EBearerState.JOBLESS) {
@@ -105,6 +105,13 @@ public class BricklayerStrategy extends MovableStrategy implements IManageableBr
 		}
 	}
 
+	@Override
+	protected void positionChangedEvent(ShortPoint2D oldPosition) {
+		if (state == EBricklayerState.JOBLESS) {
+			super.getGrid().joblessMoved(this, oldPosition);
+		}
+	}
+
 	@Override
 	protected void strategyKilledEvent(ShortPoint2D pathTarget) {
 		if (state == EBricklayerState.JOBLESS) {
@@ -506,6 +506,13 @@ public final class BuildingWorkerStrategy extends MovableStrategy implements IMa
 		}
 	}
 
+	@Override
+	protected void positionChangedEvent(ShortPoint2D oldPosition) {
+		if (isJobless()) {
+			super.getGrid().joblessMoved(this, oldPosition);
+		}
+	}
+
 	@Override
 	protected void strategyKilledEvent(ShortPoint2D pathTarget) { // used in overriding methods
 		killed = true;
@@ -157,6 +157,13 @@ public final class DiggerStrategy extends MovableStrategy implements IManageable
 		}
 	}
 
+	@Override
+	protected void positionChangedEvent(ShortPoint2D oldPosition) {
+		if (state == EDiggerState.JOBLESS) {
+			super.getGrid().joblessMoved(this, oldPosition);
+		}
+	}
+
 	@Override
 	protected void strategyKilledEvent(ShortPoint2D pathTarget) {
 		if (pathTarget != null) {
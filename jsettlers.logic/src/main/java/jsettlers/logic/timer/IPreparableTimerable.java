@@ -0,0 +1,30 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.logic.timer;
+
+/**
+ * A {@link IScheduledTimerable} that can prepare its next {@link #timerEvent()} in parallel to the other timerables of the same time slot.
+ * <p>
+ * {@link #prepareTimerEvent()} is called on a worker thread while the simulation is halted. It must only read the game state and must only write
+ * data private to this timerable. Because other timerables of the slot are executed before this one, {@link #timerEvent()} has to check that the
+ * prepared data is still valid and must produce exactly the same result as without preparation.
+ */
+public interface IPreparableTimerable extends IScheduledTimerable {
+
+	/**
+	 * Prepares the next call to {@link #timerEvent()}.
+	 */
+	void prepareTimerEvent();
+}
@@ -18,38 +18,86 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
-import java.util.ArrayList;
+import java.util.Arrays;
 
+import java8.util.J8Arrays;
+import jsettlers.logic.GameContext;
+import jsettlers.logic.constants.Constants;
 import jsettlers.logic.map.loading.MapLoadException;
-import jsettlers.logic.constants.MatchConstants;
 import jsettlers.network.client.interfaces.IGameClock;
 import jsettlers.network.synchronic.timer.INetworkTimerable;
 
+/**
+ * Hierarchical timing wheel executing {@link IScheduledTimerable}s every {@link #TIME_SLICE} ms.
+ * <p>
+ * Level 0 has one slot per time slice for the next {@link #FUTURE_TIME} ms. Level 1 has one bucket per level 0 rotation for the following
+ * {@link #ROTATION_SLOTS} rotations. Everything scheduled even further in the future is kept in a single overflow list. Buckets are moved down one
+ * level when their rotation comes into range.
+ * <p>
+ * The scheduled timerables are stored in a pool of nodes that are linked by their index. Therefore the slots do not need to allocate anything while
+ * the game is running.
+ * <p>
+ * Timerables scheduled for the same time slice are executed in the order they have been added. Because a timerable that is moved down a level has
+ * always been added before every timerable added directly to the lower level, moved nodes are inserted in front of the nodes already in the slot.
+ * <p>
+ * If {@link Constants#PARALLEL_TIMERABLE_PREPARATION} is enabled, the {@link IPreparableTimerable}s of a slot are prepared in parallel before the
+ * slot is executed. The {@link GameContext#getPreparationListener()} is run by the game thread before.
+ */
 public final class RescheduleTimer implements INetworkTimerable, Serializable {
-	private static final long serialVersionUID = -1962430988827211391L;
+	private static final long serialVersionUID = 4237865921405712637L;
 
 	private static final int FUTURE_TIME = 32000;
 	private static final short TIME_SLICE = 25; // ms
 	private static final int TIME_SLOTS = FUTURE_TIME / TIME_SLICE;
+	private static final int ROTATION_SLOTS = 64;
 
-	private static RescheduleTimer uniIns;
+	private static final int INITIAL_NODES = 1024;
+	private static final int NO_NODE = -1;
+	private static final int MIN_PARALLEL_PREPARATIONS = 32;
 
-	@SuppressWarnings("unchecked")
-	private final ArrayList<IScheduledTimerable> timerables[] = new ArrayList[TIME_SLOTS];
-	private int currTimeSlot = 0;
+	private static IRescheduleTimerProfiler profiler;
+
+	private IScheduledTimerable[] nodeTimerables = new IScheduledTimerable[INITIAL_NODES];
+	private int[] nodeNext = new int[INITIAL_NODES];
+	private int[] nodeDueTicks = new int[INITIAL_NODES];
+	private int usedNodes = 0;
+	private int freeNodesHead = NO_NODE;
+
+	private final int[] slotHeads = new int[TIME_SLOTS];
+	private final int[] slotTails = new int[TIME_SLOTS];
+	private final int[] cascadeTails = new int[TIME_SLOTS];
+
+	private final int[] rotationHeads = new int[ROTATION_SLOTS];
+	private final int[] rotationTails = new int[ROTATION_SLOTS];
+
+	private int overflowHead = NO_NODE;
+	private int overflowTail = NO_NODE;
+
+	private int currTick = 0;
+
+	private transient IPreparableTimerable[] preparables;
+	private transient volatile boolean stopped;
 
 	protected RescheduleTimer() {
-		for (int i = 0; i < TIME_SLOTS; i++) {
-			timerables[i] = new ArrayList<>();
-		}
+		Arrays.fill(slotHeads, NO_NODE);
+		Arrays.fill(slotTails, NO_NODE);
+		Arrays.fill(rotationHeads, NO_NODE);
+		Arrays.fill(rotationTails, NO_NODE);
 	}
 
-	public static synchronized void stopAndClear() {
-		if (uniIns != null) {
-			if (MatchConstants.clock() != null) {
-				MatchConstants.clock().remove(uniIns);
+	public static void stopAndClear() {
+		GameContext context = GameContext.current();
+		RescheduleTimer timer;
+		synchronized (context) {
+			timer = context.getRescheduleTimer();
+			context.setRescheduleTimer(null);
+		}
+
+		if (timer != null) {
+			timer.stopped = true;
+			if (context.getClock() != null) {
+				context.getClock().remove(timer);
 			}
-			uniIns = null;
 			try {
 				Thread.sleep(100L); // stopping takes some time
 			} catch (InterruptedException e) {
@@ -59,7 +107,7 @@ public final class RescheduleTimer implements INetworkTimerable, Serializable {
 
 	/**
 	 * Schedules the given {@link IScheduledTimerable} in max delay milliseconds.
-	 * 
+	 *
 	 * @param t
 	 * @param delay
 	 */
@@ -72,34 +120,131 @@ public final class RescheduleTimer implements INetworkTimerable, Serializable {
 			return; // don't schedule if requested delay is negative or zero
 		}
 
+		int node = allocateNode();
+		nodeTimerables[node] = t;
+		scheduleNode(node, delay);
+	}
+
+	private void scheduleNode(int node, int delay) {
 		int delaySlots = delay / TIME_SLICE;
 		delaySlots = delaySlots > 0 ? delaySlots : 1; // ensure at least one slot delay
 
-		assert delaySlots < TIME_SLOTS : "SCHEDULED TO FAR IN THE FUTURE! " + delay + "ms";
+		int dueTick = currTick + delaySlots;
+		nodeDueTicks[node] = dueTick;
+		nodeNext[node] = NO_NODE;
+
+		if (delaySlots < TIME_SLOTS) {
+			int slot = dueTick % TIME_SLOTS;
+			if (slotTails[slot] == NO_NODE) {
+				slotHeads[slot] = node;
+			} else {
+				nodeNext[slotTails[slot]] = node;
+			}
+			slotTails[slot] = node;
+
+		} else if (dueTick / TIME_SLOTS - currTick / TIME_SLOTS <= ROTATION_SLOTS) {
+			appendToRotation(dueTick / TIME_SLOTS, node);
+
+		} else {
+			if (overflowTail == NO_NODE) {
+				overflowHead = node;
+			} else {
+				nodeNext[overflowTail] = node;
+			}
+			overflowTail = node;
+		}
+	}
+
+	private void appendToRotation(int rotation, int node) {
+		int rotationSlot = rotation % ROTATION_SLOTS;
+		if (rotationTails[rotationSlot] == NO_NODE) {
+			rotationHeads[rotationSlot] = node;
+		} else {
+			nodeNext[rotationTails[rotationSlot]] = node;
+		}
+		rotationTails[rotationSlot] = node;
+	}
+
+	private int allocateNode() {
+		if (freeNodesHead != NO_NODE) {
+			int node = freeNodesHead;
+			freeNodesHead = nodeNext[node];
+			return node;
+		}
+
+		if (usedNodes == nodeTimerables.length) {
+			int newLength = usedNodes * 2;
+			nodeTimerables = Arrays.copyOf(nodeTimerables, newLength);
+			nodeNext = Arrays.copyOf(nodeNext, newLength);
+			nodeDueTicks = Arrays.copyOf(nodeDueTicks, newLength);
+		}
+		return usedNodes++;
+	}
 
-		timerables[(currTimeSlot + delaySlots) % TIME_SLOTS].add(t);
+	private void releaseNode(int node) {
+		nodeTimerables[node] = null;
+		nodeNext[node] = freeNodesHead;
+		freeNodesHead = node;
 	}
 
-	private static synchronized RescheduleTimer get() {
-		if (uniIns == null) {
-			uniIns = new RescheduleTimer();
+	/**
+	 * Sets a profiler that is informed about the execution of every timerable. Use null to disable profiling.
+	 *
+	 * @param profiler
+	 *            The profiler or null.
+	 */
+	public static void setProfiler(IRescheduleTimerProfiler profiler) {
+		RescheduleTimer.profiler = profiler;
+	}
+
+	static RescheduleTimer get() {
+		GameContext context = GameContext.current();
+		synchronized (context) {
+			if (context.getRescheduleTimer() == null) {
+				context.setRescheduleTimer(new RescheduleTimer());
+			}
+			return context.getRescheduleTimer();
 		}
-		return uniIns;
 	}
 
 	@Override
 	public void timerEvent() {
-		ArrayList<IScheduledTimerable> queue = timerables[currTimeSlot];
+		int slot = currTick % TIME_SLOTS;
+		int node = slotHeads[slot];
+
+		IRescheduleTimerProfiler profiler = RescheduleTimer.profiler;
+		if (profiler != null) {
+			profiler.timeSliceStarted();
+		}
 
-		for (IScheduledTimerable curr : queue) {
-			if (uniIns != this) { // fast stop when stopAndClear() is called.
+		if (Constants.PARALLEL_TIMERABLE_PREPARATION) {
+			prepareTimerables(node);
+		}
+
+		while (node != NO_NODE) {
+			if (stopped) { // fast stop when stopAndClear() is called.
 				return;
 			}
 
+			int nextNode = nodeNext[node];
+			IScheduledTimerable curr = nodeTimerables[node];
+
 			try {
-				int delay = curr.timerEvent();
-				addTimerable(curr, delay);
+				int delay;
+				if (profiler == null) {
+					delay = curr.timerEvent();
+				} else {
+					profiler.timerableStarted();
+					delay = curr.timerEvent();
+					profiler.timerableFinished(curr);
+				}
+				if (delay > 0) {
+					scheduleNode(node, delay);
+				} else {
+					releaseNode(node);
+				}
 			} catch (Throwable t) {
+				releaseNode(node);
 				System.err.println("RescheduleTimer catched: ");
 				t.printStackTrace();
 				try {
@@ -109,23 +254,156 @@ public final class RescheduleTimer implements INetworkTimerable, Serializable {
 					t2.printStackTrace();
 				}
 			}
+
+			node = nextNode;
+		}
+
+		slotHeads[slot] = NO_NODE;
+		slotTails[slot] = NO_NODE;
+		currTick++;
+
+		if (currTick % TIME_SLOTS == 0) {
+			startRotation(currTick / TIME_SLOTS);
+		}
+
+		if (profiler != null) {
+			profiler.timeSliceFinished();
+		}
+	}
+
+	private void prepareTimerables(int firstNode) {
+		if (preparables == null) {
+			preparables = new IPreparableTimerable[INITIAL_NODES];
+		}
+
+		int count = 0;
+		for (int node = firstNode; node != NO_NODE; node = nodeNext[node]) {
+			if (nodeTimerables[node] instanceof IPreparableTimerable) {
+				if (count == preparables.length) {
+					preparables = Arrays.copyOf(preparables, count * 2);
+				}
+				preparables[count++] = (IPreparableTimerable) nodeTimerables[node];
+			}
+		}
+
+		GameContext context = GameContext.current();
+		if (count > 0 && context.getPreparationListener() != null) {
+			context.getPreparationListener().run();
+		}
+
+		if (count >= MIN_PARALLEL_PREPARATIONS) {
+			J8Arrays.stream(preparables, 0, count).parallel().forEach(timerable -> {
+				GameContext previous = GameContext.bind(context);
+				try {
+					prepareTimerable(timerable);
+				} finally {
+					GameContext.bind(previous);
+				}
+			});
+		} else {
+			for (int i = 0; i < count; i++) {
+				prepareTimerable(preparables[i]);
+			}
+		}
+
+		Arrays.fill(preparables, 0, count, null);
+	}
+
+	private static void prepareTimerable(IPreparableTimerable timerable) {
+		try {
+			timerable.prepareTimerEvent();
+		} catch (Throwable t) {
+			System.err.println("RescheduleTimer catched while preparing: ");
+			t.printStackTrace();
+		}
+	}
+
+	/**
+	 * Moves the level 1 bucket of the given rotation into the level 0 slots and pulls the overflow nodes of the rotation that just came into the
+	 * range of level 1.
+	 *
+	 * @param rotation
+	 *            The rotation that is starting with the current tick.
+	 */
+	private void startRotation(int rotation) {
+		int rotationSlot = rotation % ROTATION_SLOTS;
+		int node = rotationHeads[rotationSlot];
+		rotationHeads[rotationSlot] = NO_NODE;
+		rotationTails[rotationSlot] = NO_NODE;
+
+		Arrays.fill(cascadeTails, NO_NODE);
+		while (node != NO_NODE) {
+			int nextNode = nodeNext[node];
+			int slot = nodeDueTicks[node] % TIME_SLOTS;
+
+			int previous = cascadeTails[slot];
+			if (previous == NO_NODE) {
+				nodeNext[node] = slotHeads[slot];
+				slotHeads[slot] = node;
+			} else {
+				nodeNext[node] = nodeNext[previous];
+				nodeNext[previous] = node;
+			}
+			if (nodeNext[node] == NO_NODE) {
+				slotTails[slot] = node;
+			}
+			cascadeTails[slot] = node;
+
+			node = nextNode;
 		}
 
-		queue.clear();
-		currTimeSlot = (currTimeSlot + 1) % TIME_SLOTS;
+		pullOverflow(rotation + ROTATION_SLOTS);
+	}
+
+	private void pullOverflow(int rotation) {
+		int previous = NO_NODE;
+		int node = overflowHead;
+
+		while (node != NO_NODE) {
+			int nextNode = nodeNext[node];
+
+			if (nodeDueTicks[node] / TIME_SLOTS == rotation) {
+				if (previous == NO_NODE) {
+					overflowHead = nextNode;
+				} else {
+					nodeNext[previous] = nextNode;
+				}
+				if (overflowTail == node) {
+					overflowTail = previous;
+				}
+				nodeNext[node] = NO_NODE;
+				appendToRotation(rotation, node);
+			} else {
+				previous = node;
+			}
+
+			node = nextNode;
+		}
 	}
 
+	/**
+	 * Replaces the timer of the current game with the one read from the given stream. The stream must have been written by
+	 * {@link #saveTo(ObjectOutputStream)} with the same layout of the timing wheel; savegames written before the timing wheel can not be loaded.
+	 */
 	public static void loadFrom(ObjectInputStream ois) throws MapLoadException {
 		try {
 			stopAndClear();
-			uniIns = (RescheduleTimer) ois.readObject();
+			GameContext context = GameContext.current();
+			RescheduleTimer timer = (RescheduleTimer) ois.readObject();
+			synchronized (context) {
+				context.setRescheduleTimer(timer);
+			}
 		} catch (Throwable t) {
 			throw new MapLoadException(t);
 		}
 	}
 
+	/**
+	 * Writes the timer of the current game, including all scheduled timerables, to the given stream. The layout of the timing wheel is part of
+	 * the savegame format: if it changes, the savegame format version and the replay references have to be updated as well.
+	 */
 	public static void saveTo(ObjectOutputStream oos) throws IOException {
-		oos.writeObject(uniIns);
+		oos.writeObject(GameContext.current().getRescheduleTimer());
 		oos.flush();
 	}
 
@@ -41,6 +41,7 @@ import jsettlers.common.statistics.IGameTimeProvider;
 import jsettlers.input.GuiInterface;
 import jsettlers.input.IGameStoppable;
 import jsettlers.input.PlayerState;
+import jsettlers.logic.GameContext;
 import jsettlers.logic.buildings.Building;
 import jsettlers.logic.buildings.trading.HarborBuilding;
 import jsettlers.logic.buildings.trading.MarketBuilding;
@@ -198,6 +199,7 @@ public class JSettlersGame {
 		private boolean gameRunning;
 		private AiExecutor aiExecutor;
 		private WinLoseTracker winLoseTracker;
+		private final GameContext gameContext = new GameContext();
 
 		@Override
 		public void run() {
@@ -207,7 +209,10 @@ public class JSettlersGame {
 				}
 				updateProgressListener(EProgressState.LOADING, 0.1f);
 
-				clearState();
+				GameContext.bind(gameContext); // threads started by this thread inherit the context
+				GameContext.setDefault(gameContext);
+				networkConnector.getGameClock().setTimeSliceInitializer(() -> GameContext.bind(gameContext));
+
 				MatchConstants.init(networkConnector.getGameClock(), randomSeed);
 				try {
 					MatchConstants.clock().setReplayLogStream(createReplayFileStream());
@@ -229,6 +234,7 @@ public class JSettlersGame {
 
 				mainGrid.initForPlayer(playerId, playerState.getFogOfWar());
 				mainGrid.startThreads();
+				networkConnector.getGameClock().setTimeSliceFinisher(() -> mainGrid.publishMovablesSnapshot(MatchConstants.clock().getTime()));
 
 				waitForStartingGameListener();
 				startingGameListener.waitForPreloading();
@@ -292,6 +298,14 @@ public class JSettlersGame {
 			}
 		}
 
+		/**
+		 * @return The {@link GameContext} holding the state of this game. Threads that access the game directly, e.g. to fast forward the clock, need
+		 *         to bind it.
+		 */
+		public GameContext getGameContext() {
+			return gameContext;
+		}
+
 		public AiExecutor getAiExecutor() {
 			return aiExecutor;
 		}
@@ -424,6 +438,9 @@ public class JSettlersGame {
 		return LOG_DATE_FORMATTER;
 	}
 
+	/**
+	 * Clears the state of the game whose {@link GameContext} is used by the current thread.
+	 */
 	public static void clearState() {
 		RescheduleTimer.stopAndClear();
 		Movable.resetState();
@@ -29,6 +29,7 @@ import jsettlers.common.resources.ResourceManager;
 import jsettlers.common.utils.mutables.MutableInt;
 import jsettlers.input.tasks.EGuiAction;
 import jsettlers.input.tasks.SimpleGuiTask;
+import jsettlers.logic.GameContext;
 import jsettlers.logic.constants.MatchConstants;
 import jsettlers.logic.map.loading.MapLoadException;
 import jsettlers.logic.map.loading.MapLoader;
@@ -80,7 +81,22 @@ public class ReplayUtils {
 		return newSavegame;
 	}
 
-	private static OfflineNetworkConnector createPausingOfflineNetworkConnector() {
+	/**
+	 * Loads and starts the given replay. The game clock is paused, so the game only advances when it is played forward with the clock.
+	 *
+	 * @param replayFile
+	 *            The replay to start.
+	 * @return The started game.
+	 * @throws MapLoadException
+	 *             If the map of the replay can't be loaded.
+	 */
+	public static IStartedGame startReplay(IReplayStreamProvider replayFile) throws MapLoadException {
+		OfflineNetworkConnector networkConnector = createPausingOfflineNetworkConnector();
+		JSettlersGame game = loadGameFromReplay(replayFile, networkConnector, new ReplayStartInformation());
+		return startGame(game);
+	}
+
+	public static OfflineNetworkConnector createPausingOfflineNetworkConnector() {
 		OfflineNetworkConnector networkConnector = new OfflineNetworkConnector();
 		networkConnector.getGameClock().setPausing(true);
 		return networkConnector;
@@ -116,6 +132,7 @@ public class ReplayUtils {
 	}
 
 	public static MapLoader getNewestSavegame() {
+		MapList.getDefaultList().awaitPendingSaves();
 		List<? extends MapLoader> savedMaps = MapList.getDefaultList().getSavedMaps().getItems();
 		if (savedMaps.isEmpty()) {
 			throw new RuntimeException("No saved games found.");
@@ -157,10 +174,16 @@ public class ReplayUtils {
 		return waitForGameStartup(startingGame);
 	}
 
+	/**
+	 * Waits until the given game has been started and binds the calling thread to the {@link GameContext} of the game, so that it can play the
+	 * game forward with {@link MatchConstants#clock()}.
+	 */
 	public static IStartedGame waitForGameStartup(IStartingGame game) {
 		DummyStartingGameListener startingGameListener = new DummyStartingGameListener();
 		game.setListener(startingGameListener);
-		return startingGameListener.waitForGameStartup();
+		IStartedGame startedGame = startingGameListener.waitForGameStartup();
+		GameContext.bind(((GameRunner) startedGame).getGameContext());
+		return startedGame;
 	}
 
 	private static JSettlersGame loadGameFromReplay(IReplayStreamProvider replayFile, INetworkConnector networkConnector, ReplayStartInformation replayStartInformation) throws MapLoadException {
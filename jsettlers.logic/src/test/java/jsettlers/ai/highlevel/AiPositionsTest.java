@@ -0,0 +1,199 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.ai.highlevel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Test;
+
+import jsettlers.ai.highlevel.AiPositions.AiPositionFilter;
+import jsettlers.ai.highlevel.AiPositions.PositionRater;
+import jsettlers.common.position.ShortPoint2D;
+import jsettlers.logic.constants.Constants;
+
+/**
+ * Compares the queries of {@link AiPositions} with a brute force search over all points.
+ *
+ * @author Andreas Eberle
+ */
+public class AiPositionsTest {
+	private static final int MAP_SIZE = 300;
+	private static final int QUERIES = 300;
+	private static final AiPositionFilter EVEN_X_FILTER = (x, y) -> x % 2 == 0;
+
+	private final Random random = new Random(42);
+
+	@After
+	public void resetConstants() {
+		Constants.PARALLEL_AI_POSITION_RATING = true;
+	}
+
+	@Test
+	public void testNearestPointEqualsBruteForce() {
+		for (int numberOfPoints : new int[] { 0, 1, 10, 1000, 20000 }) {
+			AiPositions positions = createRandomPositions(numberOfPoints);
+			for (int i = 0; i < QUERIES; i++) {
+				ShortPoint2D center = randomPoint();
+				int maxDistance = random.nextInt(100) + 1;
+				AiPositionFilter filter = i % 2 == 0 ? null : EVEN_X_FILTER;
+
+				List<ShortPoint2D> expected = getNearestPointsBruteForce(positions, center, 1, maxDistance, filter);
+				ShortPoint2D actual = positions.getNearestPoint(center, maxDistance, filter);
+				assertEquals(expected.isEmpty() ? null : expected.get(0), actual);
+			}
+		}
+	}
+
+	@Test
+	public void testNearestPointsEqualBruteForce() {
+		AiPositions positions = createRandomPositions(5000);
+		for (int i = 0; i < QUERIES; i++) {
+			ShortPoint2D center = randomPoint();
+			int count = random.nextInt(20) + 1;
+			int maxDistance = i % 3 == 0 ? Integer.MAX_VALUE : random.nextInt(50) + 1;
+			AiPositionFilter filter = i % 2 == 0 ? null : EVEN_X_FILTER;
+
+			assertEquals(getNearestPointsBruteForce(positions, center, count, maxDistance, filter), positions.getNearestPoints(center, count, maxDistance, filter));
+		}
+	}
+
+	@Test
+	public void testStreamInRangeEqualsBruteForce() {
+		AiPositions positions = createRandomPositions(5000);
+		for (int i = 0; i < QUERIES; i++) {
+			ShortPoint2D center = randomPoint();
+			int maxDistance = random.nextInt(50);
+
+			List<ShortPoint2D> expected = getNearestPointsBruteForce(positions, center, Integer.MAX_VALUE, maxDistance, null);
+			List<ShortPoint2D> actual = new ArrayList<>();
+			positions.stream(center, maxDistance).forEach((x, y) -> actual.add(new ShortPoint2D(x, y)));
+			Collections.sort(expected, AiPositionsTest::comparePacked);
+			Collections.sort(actual, AiPositionsTest::comparePacked);
+			assertEquals(expected, actual);
+		}
+	}
+
+	@Test
+	public void testQueriesSeeChangesOfPositions() {
+		AiPositions positions = new AiPositions();
+		positions.add(10, 10);
+		ShortPoint2D center = new ShortPoint2D(20, 20);
+		assertEquals(new ShortPoint2D(10, 10), positions.getNearestPoint(center, Integer.MAX_VALUE));
+
+		positions.add(19, 19);
+		assertEquals(new ShortPoint2D(19, 19), positions.getNearestPoint(center, Integer.MAX_VALUE));
+
+		positions.remove(19, 19);
+		assertEquals(new ShortPoint2D(10, 10), positions.getNearestPoint(center, Integer.MAX_VALUE));
+
+		positions.clear();
+		assertNull(positions.getNearestPoint(center, Integer.MAX_VALUE));
+	}
+
+	@Test
+	public void testQueriesDontSortPositions() {
+		AiPositions positions = new AiPositions();
+		positions.addNoCollission(30, 5);
+		positions.addNoCollission(10, 7);
+		positions.addNoCollission(20, 6);
+
+		assertTrue(positions.contains(10, 7));
+		assertFalse(positions.contains(10, 8));
+		List<ShortPoint2D> iterated = new ArrayList<>();
+		for (ShortPoint2D point : positions) {
+			iterated.add(point);
+		}
+		assertEquals(Arrays.asList(new ShortPoint2D(10, 7), new ShortPoint2D(20, 6), new ShortPoint2D(30, 5)), iterated);
+		assertEquals(new ShortPoint2D(10, 7), positions.getBestRatedPoint((x, y, currentBestRating) -> 0));
+		assertEquals(new ShortPoint2D(30, 5), positions.get(0)); // the queries worked on a copy
+
+		positions.sort();
+		assertEquals(new ShortPoint2D(10, 7), positions.get(0));
+	}
+
+	@Test
+	public void testParallelRatingEqualsSequentialRating() {
+		AiPositions positions = createRandomPositions(20000);
+		for (int i = 0; i < 20; i++) {
+			int modulo = random.nextInt(1000) + 1;
+			PositionRater rater = (x, y, currentBestRating) -> {
+				int rating = (x * 31 + y * 17) % modulo - modulo / 2;
+				return rating < currentBestRating ? rating : PositionRater.RATE_INVALID;
+			};
+
+			Constants.PARALLEL_AI_POSITION_RATING = false;
+			ShortPoint2D sequentialResult = positions.getBestRatedPoint(rater);
+			Constants.PARALLEL_AI_POSITION_RATING = true;
+			ShortPoint2D parallelResult = positions.getBestRatedPoint(rater);
+
+			assertEquals(getBestRatedPointBruteForce(positions, rater), sequentialResult);
+			assertEquals(sequentialResult, parallelResult);
+		}
+	}
+
+	private AiPositions createRandomPositions(int numberOfPoints) {
+		AiPositions positions = new AiPositions();
+		for (int i = 0; i < numberOfPoints; i++) {
+			positions.add(random.nextInt(MAP_SIZE), random.nextInt(MAP_SIZE));
+		}
+		return positions;
+	}
+
+	private ShortPoint2D randomPoint() {
+		return new ShortPoint2D(random.nextInt(MAP_SIZE), random.nextInt(MAP_SIZE));
+	}
+
+	private static List<ShortPoint2D> getNearestPointsBruteForce(AiPositions positions, ShortPoint2D center, int count, int maxDistance,
+			AiPositionFilter filter) {
+		List<ShortPoint2D> result = new ArrayList<>();
+		for (ShortPoint2D point : positions) {
+			if (point.getOnGridDistTo(center) < maxDistance && (filter == null || filter.contains(point.x, point.y))) {
+				result.add(point);
+			}
+		}
+		Collections.sort(result, (first, second) -> {
+			int distanceComparison = Integer.compare(first.getOnGridDistTo(center), second.getOnGridDistTo(center));
+			return distanceComparison != 0 ? distanceComparison : comparePacked(first, second);
+		});
+		return result.subList(0, Math.min(count, result.size()));
+	}
+
+	private static ShortPoint2D getBestRatedPointBruteForce(AiPositions positions, PositionRater rater) {
+		ShortPoint2D best = null;
+		int bestRating = PositionRater.RATE_INVALID;
+		for (ShortPoint2D point : positions) {
+			int rating = rater.rate(point.x, point.y, PositionRater.RATE_INVALID);
+			if (rating < bestRating || rating == bestRating && best != null && comparePacked(point, best) < 0) {
+				best = point;
+				bestRating = rating;
+			}
+		}
+		return best;
+	}
+
+	private static int comparePacked(ShortPoint2D first, ShortPoint2D second) {
+		return first.x != second.x ? Integer.compare(first.x, second.x) : Integer.compare(first.y, second.y);
+	}
+}
@@ -0,0 +1,133 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.ai.highlevel;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import jsettlers.common.CommonConstants;
+import jsettlers.common.buildings.EBuildingType;
+import jsettlers.common.landscape.EResourceType;
+import jsettlers.common.mapobject.EMapObjectType;
+import jsettlers.common.menu.IStartedGame;
+import jsettlers.common.movable.EMovableType;
+import jsettlers.integration.replay.AutoReplaySetting;
+import jsettlers.logic.GameContext;
+import jsettlers.logic.constants.Constants;
+import jsettlers.logic.constants.MatchConstants;
+import jsettlers.logic.map.grid.MainGrid;
+import jsettlers.main.JSettlersGame.GameRunner;
+import jsettlers.main.replay.ReplayUtils;
+import jsettlers.testutils.TestUtils;
+
+/**
+ * Checks that the incrementally updated statistics of the {@link AiExecutor} are equal to statistics that are calculated from scratch.
+ *
+ * @author Andreas Eberle
+ */
+public class AiStatisticsIT {
+	private static final int[] TARGET_TIME_MINUTES = { 10, 40, 90 };
+
+	@BeforeClass
+	public static void loadSettings() {
+		CommonConstants.CONTROL_ALL = true;
+		Constants.FOG_OF_WAR_DEFAULT_ENABLED = false;
+
+		TestUtils.setupTempResourceManager();
+	}
+
+	@Test
+	public void testIncrementalStatisticsEqualFullScan() throws Exception {
+		AutoReplaySetting setting = AutoReplaySetting.getDefaultSettings().iterator().next();
+		IStartedGame game = ReplayUtils.startReplay(setting.getReplayFile()); // binds this thread to the context of the game
+		try {
+			MainGrid mainGrid = ((GameRunner) game).getMainGrid();
+			AiStatistics incrementalStatistics = ((GameRunner) game).getAiExecutor().getAiStatistics();
+
+			for (int targetTimeMinutes : TARGET_TIME_MINUTES) {
+				MatchConstants.clock().fastForwardTo(targetTimeMinutes * 60 * 1000);
+
+				incrementalStatistics.updateStatistics();
+				AiStatistics fullStatistics = new AiStatistics(mainGrid);
+				fullStatistics.updateStatistics();
+
+				assertStatisticsEqual(targetTimeMinutes + "m", fullStatistics, incrementalStatistics, mainGrid.getPartitionsGrid().getNumberOfPlayers());
+			}
+		} finally {
+			ReplayUtils.awaitShutdown(game);
+			GameContext.bind(null);
+		}
+	}
+
+	private static void assertStatisticsEqual(String time, AiStatistics expected, AiStatistics actual, int numberOfPlayers) {
+		for (EResourceType resourceType : EResourceType.VALUES) {
+			assertPositionsEqual(time + " resource " + resourceType, expected.getResourcePositions(resourceType), actual.getResourcePositions(resourceType));
+			assertEquals(time + " resource count " + resourceType, expected.resourceCountInDefaultPartition(resourceType),
+					actual.resourceCountInDefaultPartition(resourceType));
+		}
+		for (EMapObjectType cuttableObject : new EMapObjectType[] { EMapObjectType.TREE_ADULT, EMapObjectType.STONE }) {
+			assertPositionsEqual(time + " " + cuttableObject, expected.getCuttableObjectsInDefaultPartition(cuttableObject),
+					actual.getCuttableObjectsInDefaultPartition(cuttableObject));
+		}
+		assertPositionsEqual(time + " rivers", expected.getRiversInDefaultPartition(), actual.getRiversInDefaultPartition());
+
+		long[][] expectedCounts = expected.getAiMapInformation().resourceAndGrassCount;
+		long[][] actualCounts = actual.getAiMapInformation().resourceAndGrassCount;
+		for (int i = 0; i < expectedCounts.length; i++) {
+			assertArrayEquals(time + " resource and grass count " + i, expectedCounts[i], actualCounts[i]);
+		}
+
+		for (byte playerId = 0; playerId < numberOfPlayers; playerId++) {
+			String player = time + " player " + playerId + " ";
+			assertPositionsEqual(player + "land", expected.getLandForPlayer(playerId), actual.getLandForPlayer(playerId));
+			assertPositionsEqual(player + "stones", expected.getStonesForPlayer(playerId), actual.getStonesForPlayer(playerId));
+			assertPositionsEqual(player + "trees", expected.getTreesForPlayer(playerId), actual.getTreesForPlayer(playerId));
+			assertPositionsEqual(player + "rivers", expected.getRiversForPlayer(playerId), actual.getRiversForPlayer(playerId));
+			assertPositionsEqual(player + "stones near by", expected.getStonesNearBy(playerId), actual.getStonesNearBy(playerId));
+			assertPositionsEqual(player + "enemies", expected.getEnemiesInTownOf(playerId), actual.getEnemiesInTownOf(playerId));
+			assertPositionsEqual(player + "border", expected.getBorderIngestibleByPioneersOf(playerId), actual.getBorderIngestibleByPioneersOf(playerId));
+			assertPositionsEqual(player + "other border", expected.getOtherPartitionBorderOf(playerId), actual.getOtherPartitionBorderOf(playerId));
+			assertEquals(player + "jobless bearers", expected.getPositionsOfJoblessBearersForPlayer(playerId),
+					actual.getPositionsOfJoblessBearersForPlayer(playerId));
+			for (EMovableType movableType : EMovableType.VALUES) {
+				assertEquals(player + movableType, expected.getPositionsOfMovablesWithTypeForPlayer(playerId, movableType),
+						actual.getPositionsOfMovablesWithTypeForPlayer(playerId, movableType));
+			}
+			for (EBuildingType buildingType : EBuildingType.VALUES) {
+				assertEquals(player + buildingType, expected.getTotalNumberOfBuildingTypeForPlayer(buildingType, playerId),
+						actual.getTotalNumberOfBuildingTypeForPlayer(buildingType, playerId));
+			}
+			for (EResourceType resourceType : EResourceType.VALUES) {
+				assertEquals(player + resourceType, expected.resourceCountOfPlayer(resourceType, playerId), actual.resourceCountOfPlayer(resourceType, playerId));
+			}
+			assertEquals(player + "wine", expected.getTotalWineCountForPlayer(playerId), actual.getTotalWineCountForPlayer(playerId));
+		}
+	}
+
+	private static void assertPositionsEqual(String message, AiPositions expected, AiPositions actual) {
+		if (expected == null || actual == null) {
+			assertEquals(message, expected, actual);
+			return;
+		}
+
+		assertEquals(message, expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(message, expected.get(i), actual.get(i));
+		}
+	}
+}
@@ -0,0 +1,137 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.algorithms.borders;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import jsettlers.common.movable.EDirection;
+
+public class BordersThreadTest {
+	private static final short WIDTH = 60;
+	private static final short HEIGHT = 50;
+
+	private final byte[] players = new byte[WIDTH * HEIGHT];
+	private final boolean[] blocked = new boolean[WIDTH * HEIGHT];
+	private final BitSet borders = new BitSet(WIDTH * HEIGHT);
+
+	private BordersThread bordersThread;
+
+	@Before
+	public void setUp() {
+		Random random = new Random(42);
+		for (int i = 0; i < players.length; i++) {
+			players[i] = (byte) (random.nextInt(4) - 1);
+			blocked[i] = random.nextInt(10) == 0;
+		}
+
+		bordersThread = new BordersThread(new IBordersThreadGrid() {
+			@Override
+			public short getWidth() {
+				return WIDTH;
+			}
+
+			@Override
+			public short getHeight() {
+				return HEIGHT;
+			}
+
+			@Override
+			public void getPlayerIdsInRow(int y, int minX, int maxX, byte[] playerIds, int offset) {
+				for (int x = minX; x <= maxX; x++) {
+					playerIds[offset++] = blocked[x + y * WIDTH] ? BLOCKED_POSITION : players[x + y * WIDTH];
+				}
+			}
+
+			@Override
+			public void setBordersInRow(int y, int minX, int maxX, BitSet rowBorders) {
+				for (int x = minX; x <= maxX; x++) {
+					borders.set(x + y * WIDTH, rowBorders.get(x - minX));
+				}
+			}
+		});
+	}
+
+	@Test
+	public void testCalculatesBordersOfWholeMap() {
+		bordersThread.checkArea(0, 0, WIDTH, HEIGHT);
+		bordersThread.calculateQueuedRegions();
+
+		assertBordersCorrect();
+	}
+
+	@Test
+	public void testRecalculatesBordersAroundChangedPositions() {
+		bordersThread.checkArea(0, 0, WIDTH, HEIGHT);
+		bordersThread.calculateQueuedRegions();
+
+		Random random = new Random(7);
+		for (int i = 0; i < 200; i++) {
+			int x = random.nextInt(WIDTH);
+			int y = random.nextInt(HEIGHT);
+			players[x + y * WIDTH] = (byte) (random.nextInt(4) - 1);
+			bordersThread.checkPosition(x, y);
+		}
+		bordersThread.calculateQueuedRegions();
+
+		assertBordersCorrect();
+	}
+
+	@Test
+	public void testMergesTouchingRegions() {
+		for (int y = 10; y < 20; y++) {
+			for (int x = 10; x < 20; x++) {
+				bordersThread.checkPosition(x, y);
+			}
+		}
+		assertEquals(1, bordersThread.getNumberOfQueuedRegions());
+
+		bordersThread.checkPosition(40, 40);
+		assertEquals(2, bordersThread.getNumberOfQueuedRegions());
+
+		bordersThread.calculateQueuedRegions();
+		assertEquals(0, bordersThread.getNumberOfQueuedRegions());
+	}
+
+	private void assertBordersCorrect() {
+		for (int y = 0; y < HEIGHT; y++) {
+			for (int x = 0; x < WIDTH; x++) {
+				assertEquals("border at (" + x + "|" + y + ")", isBorder(x, y), borders.get(x + y * WIDTH));
+			}
+		}
+	}
+
+	private boolean isBorder(int x, int y) {
+		byte player = players[x + y * WIDTH];
+		if (blocked[x + y * WIDTH] || player < 0) {
+			return false;
+		}
+
+		for (EDirection direction : EDirection.VALUES) {
+			int neighborX = direction.getNextTileX(x);
+			int neighborY = direction.getNextTileY(y);
+			if (neighborX >= 0 && neighborX < WIDTH && neighborY >= 0 && neighborY < HEIGHT && !blocked[neighborX + neighborY * WIDTH]
+					&& players[neighborX + neighborY * WIDTH] != player) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -15,6 +15,7 @@
 package jsettlers.algorithms.construction;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.util.BitSet;
 import java.util.Set;
@@ -67,6 +68,51 @@ public class ConstructionMarksAlgorithmTest {
 		}
 	}
 
+	@Test
+	public void testOnlyChangedPositionsAreRecalculated() {
+		boolean[][] blocked = new boolean[30][40];
+		MapRectangle mapArea = new MapRectangle(-40, -15, 100, 60);
+		BuildingAreaBitSet buildingSet = new BuildingAreaBitSet(EBuildingType.TOWER.getBuildingArea());
+
+		TestMap map = new TestMap(blocked);
+		NewConstructionMarksAlgorithm algorithm = new NewConstructionMarksAlgorithm(map, (byte) 0);
+		algorithm.calculateConstructMarks(mapArea, EBuildingType.TOWER);
+		int initialChecks = map.positionChecks;
+
+		map.positionChecks = 0;
+		map.setMarkingCalls = 0;
+		algorithm.calculateConstructMarks(mapArea, EBuildingType.TOWER);
+		assertEquals(0, map.positionChecks);
+		assertEquals(0, map.setMarkingCalls);
+
+		map.blockedSet.set(20 + 15 * map.width);
+		map.positionChanged(20, 15);
+		algorithm.calculateConstructMarks(mapArea, EBuildingType.TOWER);
+		assertTrue(map.positionChecks < initialChecks / 4);
+
+		for (int y = 0; y < map.height; y++) {
+			for (int x = 0; x < map.width; x++) {
+				assertEquals(x + "|" + y, canCostructAt(map, x, y, buildingSet), map.marksSet[x + y * map.width] > 0);
+			}
+		}
+	}
+
+	@Test
+	public void testMarksOutsideOfTheScreenAreRemoved() {
+		boolean[][] blocked = new boolean[30][40];
+		TestMap map = new TestMap(blocked);
+		NewConstructionMarksAlgorithm algorithm = new NewConstructionMarksAlgorithm(map, (byte) 0);
+
+		algorithm.calculateConstructMarks(new MapRectangle(-40, -15, 100, 60), EBuildingType.TOWER);
+		algorithm.calculateConstructMarks(new MapRectangle(0, 0, 20, 10), EBuildingType.TOWER);
+		assertTrue(map.marksSet[35 + 25 * map.width] < 0);
+
+		algorithm.removeConstructionMarks();
+		for (int mark : map.marksSet) {
+			assertTrue(mark <= 0);
+		}
+	}
+
 	@SuppressWarnings("unused")
 	private void print(TestMap map, boolean[][] blocked, BuildingAreaBitSet buildingSet) {
 		System.out.println("blocked | marksSet | canConstruct");
@@ -130,6 +176,8 @@ public class ConstructionMarksAlgorithmTest {
 
 		int[] marksSet;
 		BitSet blockedSet;
+		int positionChecks;
+		int setMarkingCalls;
 
 		public TestMap(boolean[][] blocked) {
 			height = (short) blocked.length;
@@ -147,6 +195,7 @@ public class ConstructionMarksAlgorithmTest {
 
 		@Override
 		public void setConstructMarking(int x, int y, boolean set, boolean binaryConstructionMarkValues, RelativePoint[] flattenPositions) {
+			setMarkingCalls++;
 			if (isInBounds(x, y))
 				marksSet[x + y * width] = set ? 1 : -1;
 		}
@@ -168,6 +217,7 @@ public class ConstructionMarksAlgorithmTest {
 
 		@Override
 		public boolean canUsePositionForConstruction(int x, int y, Set<ELandscapeType> landscapeTypes, short partitionId) {
+			positionChecks++;
 			return isInBounds(x, y) && !blockedSet.get(x + y * width);
 		}
 
@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.algorithms.fogofwar;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import jsettlers.common.CommonConstants;
+import jsettlers.common.mapobject.IMapObject;
+import jsettlers.common.movable.IMovable;
+import jsettlers.common.player.IPlayer;
+import jsettlers.common.position.ShortPoint2D;
+
+public class FogOfWarTest {
+	private static final IPlayer PLAYER = new IPlayer.DummyPlayer((byte) 0);
+
+	private final ConcurrentLinkedQueue<TestViewSource> movables = new ConcurrentLinkedQueue<>();
+	private final ConcurrentLinkedQueue<TestViewSource> buildings = new ConcurrentLinkedQueue<>();
+
+	private FogOfWar fogOfWar;
+
+	@Before
+	public void setUp() {
+		fogOfWar = new FogOfWar((short) 100, (short) 100, PLAYER);
+		fogOfWar.setEnabled(true);
+		fogOfWar.init(new IFogOfWarGrid() {
+			@Override
+			public IMovable getMovableAt(short x, short y) {
+				return null;
+			}
+
+			@Override
+			public IMapObject getMapObjectsAt(short x, short y) {
+				return null;
+			}
+
+			@Override
+			public ConcurrentLinkedQueue<? extends IViewDistancable> getMovableViewDistancables() {
+				return movables;
+			}
+
+			@Override
+			public ConcurrentLinkedQueue<? extends IViewDistancable> getBuildingViewDistancables() {
+				return buildings;
+			}
+		});
+	}
+
+	@Test
+	public void testViewSourceMakesSurroundingsVisible() {
+		movables.add(new TestViewSource(50, 50));
+		fogOfWar.updateSight();
+
+		assertEquals(CommonConstants.FOG_OF_WAR_VISIBLE, fogOfWar.getVisibleStatus(50, 50));
+		assertEquals(CommonConstants.FOG_OF_WAR_VISIBLE, fogOfWar.getVisibleStatus(60, 50));
+		assertEquals(0, fogOfWar.getVisibleStatus(90, 90));
+	}
+
+	@Test
+	public void testPositionsDimDownAfterViewSourceMoved() {
+		TestViewSource movable = new TestViewSource(50, 50);
+		movables.add(movable);
+		fogOfWar.updateSight();
+
+		movable.position = new ShortPoint2D(10, 10);
+		fogOfWar.updateSight();
+		assertEquals(CommonConstants.FOG_OF_WAR_VISIBLE, fogOfWar.getVisibleStatus(10, 10));
+		assertEquals(CommonConstants.FOG_OF_WAR_VISIBLE - 10, fogOfWar.getVisibleStatus(50, 50));
+
+		for (int i = 0; i < 10; i++) {
+			fogOfWar.updateSight();
+		}
+		assertEquals(CommonConstants.FOG_OF_WAR_VISIBLE, fogOfWar.getVisibleStatus(10, 10));
+		assertEquals(CommonConstants.FOG_OF_WAR_EXPLORED, fogOfWar.getVisibleStatus(50, 50));
+	}
+
+	@Test
+	public void testPositionsStayVisibleWhileSeenByAnotherViewSource() {
+		buildings.add(new TestViewSource(50, 50));
+		TestViewSource movable = new TestViewSource(50, 50);
+		movables.add(movable);
+		fogOfWar.updateSight();
+
+		movables.remove(movable);
+		fogOfWar.updateSight();
+		assertEquals(CommonConstants.FOG_OF_WAR_VISIBLE, fogOfWar.getVisibleStatus(50, 50));
+
+		buildings.clear();
+		fogOfWar.updateSight();
+		assertEquals(CommonConstants.FOG_OF_WAR_VISIBLE - 10, fogOfWar.getVisibleStatus(50, 50));
+	}
+
+	@Test
+	public void testViewSourcesOfOtherTeamsAreIgnored() {
+		movables.add(new TestViewSource(50, 50, new IPlayer.DummyPlayer((byte) 1)));
+		fogOfWar.updateSight();
+
+		assertEquals(0, fogOfWar.getVisibleStatus(50, 50));
+	}
+
+	private static class TestViewSource implements IViewDistancable {
+		private final IPlayer player;
+		private ShortPoint2D position;
+
+		TestViewSource(int x, int y) {
+			this(x, y, PLAYER);
+		}
+
+		TestViewSource(int x, int y, IPlayer player) {
+			this.position = new ShortPoint2D(x, y);
+			this.player = player;
+		}
+
+		@Override
+		public short getViewDistance() {
+			return 10;
+		}
+
+		@Override
+		public ShortPoint2D getPosition() {
+			return position;
+		}
+
+		@Override
+		public IPlayer getPlayer() {
+			return player;
+		}
+	}
+}
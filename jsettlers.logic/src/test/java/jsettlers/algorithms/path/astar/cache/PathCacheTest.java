@@ -0,0 +1,193 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.algorithms.path.astar.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import jsettlers.algorithms.path.IPathCalculatable;
+import jsettlers.algorithms.path.Path;
+import jsettlers.algorithms.path.astar.BucketQueueAStar;
+import jsettlers.algorithms.path.astar.DummyEmptyAStarMap;
+import jsettlers.common.player.IPlayer;
+import jsettlers.common.position.ShortPoint2D;
+
+public class PathCacheTest {
+	private static final short WIDTH  = 100;
+	private static final short HEIGHT = 100;
+
+	private final DummyEmptyAStarMap map       = new DummyEmptyAStarMap(WIDTH, HEIGHT);
+	private final BucketQueueAStar   flatAStar = new BucketQueueAStar(map, WIDTH, HEIGHT);
+	private final RegionVersions     versions  = new RegionVersions(WIDTH, HEIGHT);
+	private final PathCache          cache     = new PathCache(versions, 50);
+	private final CachingAStar       aStar     = new CachingAStar(cache, map, WIDTH, HEIGHT);
+
+	@Test
+	public void testCachedPathsEqualCalculatedPaths() {
+		Random random = new Random(1L);
+		addRandomWalls(random, 40);
+		List<ShortPoint2D[]> requests = createRequests(random, 30);
+
+		for (int round = 0; round < 5; round++) {
+			for (ShortPoint2D[] request : requests) {
+				assertSamePath(request[0], request[1]);
+			}
+			addRandomWalls(random, 3);
+		}
+
+		assertTrue(cache.getHits() > 0);
+		assertTrue(cache.getSavedExpansions() > 0);
+	}
+
+	@Test
+	public void testChangeInvalidatesEntry() {
+		ShortPoint2D start = new ShortPoint2D(10, 50);
+		ShortPoint2D target = new ShortPoint2D(90, 50);
+		assertSamePath(start, target);
+		assertSamePath(start, target);
+		assertEquals(1, cache.getHits());
+
+		for (int y = 0; y < HEIGHT; y++) {
+			if (y != 5) {
+				setBlocked(50, y);
+			}
+		}
+
+		assertSamePath(start, target);
+		assertEquals(1, cache.getHits());
+		assertEquals(2, cache.getMisses());
+	}
+
+	@Test
+	public void testChangeOutsideOfSearchedAreaKeepsEntry() {
+		ShortPoint2D start = new ShortPoint2D(10, 10);
+		ShortPoint2D target = new ShortPoint2D(20, 10);
+		assertSamePath(start, target);
+
+		setBlocked(80, 80);
+
+		assertSamePath(start, target);
+		assertEquals(1, cache.getHits());
+	}
+
+	@Test
+	public void testReturnedPathsAreIndependent() {
+		ShortPoint2D start = new ShortPoint2D(10, 10);
+		ShortPoint2D target = new ShortPoint2D(30, 20);
+
+		Path first = aStar.findPath(getPathable(start), target);
+		walk(first);
+		Path second = aStar.findPath(getPathable(start), target);
+
+		assertEquals(1, cache.getHits());
+		assertEquals(walk(flatAStar.findPath(getPathable(start), target)), walk(second));
+	}
+
+	@Test
+	public void testUnreachableTargetsAreNotCached() {
+		for (int y = 0; y < HEIGHT; y++) {
+			setBlocked(50, y);
+		}
+		ShortPoint2D start = new ShortPoint2D(10, 10);
+		ShortPoint2D target = new ShortPoint2D(90, 10);
+
+		assertNull(aStar.findPath(getPathable(start), target));
+		assertNull(aStar.findPath(getPathable(start), target));
+		assertEquals(0, cache.getHits());
+	}
+
+	private void assertSamePath(ShortPoint2D start, ShortPoint2D target) {
+		Path expected = flatAStar.findPath(getPathable(start), target);
+		Path actual = aStar.findPath(getPathable(start), target);
+		if (expected == null) {
+			assertNull(actual);
+		} else {
+			assertEquals(walk(expected), walk(actual));
+		}
+	}
+
+	private void setBlocked(int x, int y) {
+		map.setBlocked(x, y, true);
+		versions.changed(x, y);
+	}
+
+	private List<ShortPoint2D> walk(Path path) {
+		List<ShortPoint2D> steps = new ArrayList<>();
+		while (path.hasNextStep()) {
+			steps.add(path.getNextPos());
+			path.goToNextStep();
+		}
+		return steps;
+	}
+
+	private void addRandomWalls(Random random, int walls) {
+		for (int i = 0; i < walls; i++) {
+			int x = random.nextInt(WIDTH);
+			int y = random.nextInt(HEIGHT);
+			boolean horizontal = random.nextBoolean();
+			for (int length = random.nextInt(30); length >= 0 && x < WIDTH && y < HEIGHT; length--) {
+				setBlocked(x, y);
+				if (horizontal) {
+					x++;
+				} else {
+					y++;
+				}
+			}
+		}
+	}
+
+	private List<ShortPoint2D[]> createRequests(Random random, int count) {
+		List<ShortPoint2D[]> requests = new ArrayList<>();
+		while (requests.size() < count) {
+			ShortPoint2D start = new ShortPoint2D(random.nextInt(WIDTH), random.nextInt(HEIGHT));
+			ShortPoint2D target = new ShortPoint2D(random.nextInt(WIDTH), random.nextInt(HEIGHT));
+			if (!start.equals(target) && !map.isBlocked(null, start.x, start.y)) {
+				requests.add(new ShortPoint2D[] { start, target });
+			}
+		}
+		return requests;
+	}
+
+	private static IPathCalculatable getPathable(final ShortPoint2D position) {
+		return new IPathCalculatable() {
+			@Override
+			public ShortPoint2D getPosition() {
+				return position;
+			}
+
+			@Override
+			public IPlayer getPlayer() {
+				return new IPlayer.DummyPlayer();
+			}
+
+			@Override
+			public boolean needsPlayersGround() {
+				return false;
+			}
+
+			@Override
+			public boolean isShip() {
+				return false;
+			}
+		};
+	}
+}
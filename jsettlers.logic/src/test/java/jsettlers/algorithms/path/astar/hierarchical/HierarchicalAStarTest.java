@@ -0,0 +1,237 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.algorithms.path.astar.hierarchical;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import jsettlers.algorithms.path.IPathCalculatable;
+import jsettlers.algorithms.path.IPathRefiner;
+import jsettlers.algorithms.path.Path;
+import jsettlers.algorithms.path.astar.BucketQueueAStar;
+import jsettlers.algorithms.path.astar.DummyEmptyAStarMap;
+import jsettlers.common.player.IPlayer;
+import jsettlers.common.position.ShortPoint2D;
+
+public class HierarchicalAStarTest {
+	private static final short WIDTH  = 150;
+	private static final short HEIGHT = 150;
+
+	private final DummyEmptyAStarMap map       = new DummyEmptyAStarMap(WIDTH, HEIGHT);
+	private final BucketQueueAStar   flatAStar = new BucketQueueAStar(map, WIDTH, HEIGHT);
+
+	@Test
+	public void testPathsAreValidAndFindTheSameTargets() {
+		Random random = new Random(1L);
+		addRandomWalls(random);
+		HierarchicalAStar aStar = createHierarchicalAStar(new ClusterGraph(map, WIDTH, HEIGHT));
+
+		for (int i = 0; i < 300; i++) {
+			ShortPoint2D start = getRandomFreePosition(random);
+			ShortPoint2D target = getRandomFreePosition(random);
+			if (start.equals(target)) {
+				continue;
+			}
+
+			Path expected = flatAStar.findPath(getPathable(start), target);
+			Path actual = aStar.findPath(getPathable(start), target);
+
+			if (expected == null) {
+				assertNull(actual);
+			} else {
+				assertNotNull(actual);
+				assertEquals(target, actual.getTargetPosition());
+				List<ShortPoint2D> steps = walk(start, actual);
+				assertEquals(target, steps.get(steps.size() - 1));
+				assertTrue(expected.getLength() <= steps.size());
+			}
+		}
+	}
+
+	@Test
+	public void testOnlyFirstLegIsCalculated() {
+		HierarchicalAStar aStar = createHierarchicalAStar(new ClusterGraph(map, WIDTH, HEIGHT));
+		ShortPoint2D start = new ShortPoint2D(5, 5);
+		ShortPoint2D target = new ShortPoint2D(140, 140);
+
+		Path path = aStar.findPath(getPathable(start), target);
+
+		assertTrue(path.getLength() <= 2 * ClusterGraph.CLUSTER_SIZE);
+		assertEquals(target, path.getTargetPosition());
+		List<ShortPoint2D> steps = walk(start, path);
+		assertEquals(target, steps.get(steps.size() - 1));
+		assertFalse(path.hasNextStep());
+	}
+
+	@Test
+	public void testRepairedGraphEqualsRebuiltGraph() {
+		Random random = new Random(2L);
+		addRandomWalls(random);
+		ClusterGraph repairedGraph = new ClusterGraph(map, WIDTH, HEIGHT);
+		HierarchicalAStar repairedAStar = createHierarchicalAStar(repairedGraph);
+		repairedAStar.findPath(getPathable(new ShortPoint2D(1, 1)), new ShortPoint2D(140, 140)); // builds the graph
+
+		for (int y = 0; y < HEIGHT; y++) { // wall with a single gap
+			if (y != 100 && !map.isBlocked(null, 70, y)) {
+				map.setBlocked(70, y, true);
+				repairedGraph.blockedChanged(70, y);
+			}
+		}
+		for (int x = 20; x < 40; x++) { // open some new passages
+			if (map.isBlocked(null, x, 50)) {
+				map.setBlocked(x, 50, false);
+				repairedGraph.blockedChanged(x, 50);
+			}
+		}
+
+		HierarchicalAStar rebuiltAStar = createHierarchicalAStar(new ClusterGraph(map, WIDTH, HEIGHT));
+		for (int i = 0; i < 100; i++) {
+			ShortPoint2D start = getRandomFreePosition(random);
+			ShortPoint2D target = getRandomFreePosition(random);
+			if (start.equals(target)) {
+				continue;
+			}
+
+			Path expected = rebuiltAStar.findPath(getPathable(start), target);
+			Path actual = repairedAStar.findPath(getPathable(start), target);
+			if (expected == null) {
+				assertNull(actual);
+			} else {
+				assertEquals(walk(start, expected), walk(start, actual));
+			}
+		}
+	}
+
+	@Test
+	public void testReadOnlyAStarFindsTheSamePathsWithoutUpdatingTheGraph() {
+		Random random = new Random(3L);
+		addRandomWalls(random);
+		ClusterGraph graph = new ClusterGraph(map, WIDTH, HEIGHT);
+		HierarchicalAStar aStar = createHierarchicalAStar(graph);
+		HierarchicalAStar readOnlyAStar = createHierarchicalAStar(graph, false);
+		graph.update();
+
+		for (int i = 0; i < 100; i++) {
+			ShortPoint2D start = getRandomFreePosition(random);
+			ShortPoint2D target = getRandomFreePosition(random);
+			if (start.equals(target)) {
+				continue;
+			}
+
+			Path expected = aStar.findPath(getPathable(start), target);
+			Path actual = readOnlyAStar.findPath(getPathable(start), target);
+			if (expected == null) {
+				assertNull(actual);
+			} else {
+				assertEquals(walk(start, expected), walk(start, actual));
+			}
+		}
+		assertFalse(graph.isDirty());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testReadOnlyAStarDoesNotSearchOnDirtyGraph() {
+		ClusterGraph graph = new ClusterGraph(map, WIDTH, HEIGHT);
+		graph.update();
+		map.setBlocked(70, 70, true);
+		graph.blockedChanged(70, 70);
+
+		createHierarchicalAStar(graph, false).findPath(getPathable(new ShortPoint2D(5, 5)), new ShortPoint2D(140, 140));
+	}
+
+	private HierarchicalAStar createHierarchicalAStar(ClusterGraph graph) {
+		return createHierarchicalAStar(graph, true);
+	}
+
+	private HierarchicalAStar createHierarchicalAStar(ClusterGraph graph, boolean updatesGraph) {
+		IPathRefiner refiner = (requester, sx, sy, tx, ty) -> flatAStar.findPath(requester, sx, sy, tx, ty);
+		return new HierarchicalAStar(map, graph, new BucketQueueAStar(map, WIDTH, HEIGHT), refiner, WIDTH, HEIGHT, updatesGraph);
+	}
+
+	private List<ShortPoint2D> walk(ShortPoint2D start, Path path) {
+		List<ShortPoint2D> steps = new ArrayList<>();
+		ShortPoint2D position = start;
+		while (path.hasNextStep()) {
+			ShortPoint2D next = path.getNextPos();
+			assertEquals(1, position.getOnGridDistTo(next));
+			assertFalse(map.isBlocked(null, next.x, next.y));
+			steps.add(next);
+			position = next;
+			path.goToNextStep();
+		}
+		return steps;
+	}
+
+	private void addRandomWalls(Random random) {
+		for (int i = 0; i < 120; i++) {
+			int x = random.nextInt(WIDTH);
+			int y = random.nextInt(HEIGHT);
+			boolean horizontal = random.nextBoolean();
+			for (int length = random.nextInt(40); length >= 0; length--) {
+				if (0 <= x && x < WIDTH && 0 <= y && y < HEIGHT) {
+					map.setBlocked(x, y, true);
+				}
+				if (horizontal) {
+					x++;
+				} else {
+					y++;
+				}
+			}
+		}
+	}
+
+	private ShortPoint2D getRandomFreePosition(Random random) {
+		while (true) {
+			int x = random.nextInt(WIDTH);
+			int y = random.nextInt(HEIGHT);
+			if (!map.isBlocked(null, x, y)) {
+				return new ShortPoint2D(x, y);
+			}
+		}
+	}
+
+	private static IPathCalculatable getPathable(final ShortPoint2D position) {
+		return new IPathCalculatable() {
+			@Override
+			public ShortPoint2D getPosition() {
+				return position;
+			}
+
+			@Override
+			public IPlayer getPlayer() {
+				return new IPlayer.DummyPlayer();
+			}
+
+			@Override
+			public boolean needsPlayersGround() {
+				return false;
+			}
+
+			@Override
+			public boolean isShip() {
+				return false;
+			}
+		};
+	}
+}
@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.integration.ai;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java8.util.concurrent.ForkJoinPool;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import jsettlers.common.CommonConstants;
+import jsettlers.common.ai.EPlayerType;
+import jsettlers.common.menu.IStartedGame;
+import jsettlers.common.player.ECivilisation;
+import jsettlers.logic.GameContext;
+import jsettlers.logic.constants.Constants;
+import jsettlers.logic.constants.MatchConstants;
+import jsettlers.logic.map.loading.MapLoader;
+import jsettlers.logic.player.PlayerSetting;
+import jsettlers.main.JSettlersGame;
+import jsettlers.main.replay.ReplayUtils;
+import jsettlers.testutils.TestUtils;
+import jsettlers.testutils.map.MapUtils;
+
+/**
+ * Plays a game of several AI players once with a sequential and once with a parallel evaluation of the AI players. Both games must end in the
+ * same state.
+ * <p>
+ * The games are played on the workers of a pool of several threads, so the AI players are evaluated in parallel even if the machine has only one
+ * processor.
+ *
+ * @author Andreas Eberle
+ */
+public class ParallelAiIT {
+	private static final int NUMBER_OF_AI_PLAYERS = 4;
+	private static final int TARGET_TIME_MINUTES = 20;
+	private static final int PARALLELISM = 4;
+
+	@BeforeClass
+	public static void loadSettings() {
+		CommonConstants.CONTROL_ALL = true;
+		CommonConstants.USE_SAVEGAME_COMPRESSION = false;
+
+		TestUtils.setupTempResourceManager();
+	}
+
+	@Test
+	public void testParallelAiPlaysLikeSequentialAi() throws Exception {
+		boolean parallelAiEvaluation = Constants.PARALLEL_AI_EVALUATION;
+		ForkJoinPool pool = new ForkJoinPool(PARALLELISM); // parallel streams started by the workers of this pool run on this pool
+		try {
+			Constants.PARALLEL_AI_EVALUATION = false;
+			byte[] sequentialHash = playAndHashState(pool);
+
+			Constants.PARALLEL_AI_EVALUATION = true;
+			byte[] parallelHash = playAndHashState(pool);
+
+			assertArrayEquals(sequentialHash, parallelHash);
+		} finally {
+			Constants.PARALLEL_AI_EVALUATION = parallelAiEvaluation;
+			pool.shutdown();
+		}
+	}
+
+	private static byte[] playAndHashState(ForkJoinPool pool) throws Exception {
+		MapLoader map = MapUtils.getSpezialSumpf();
+		PlayerSetting[] playerSettings = new PlayerSetting[map.getMaxPlayers()];
+		for (byte playerId = 0; playerId < playerSettings.length; playerId++) {
+			if (playerId < NUMBER_OF_AI_PLAYERS) {
+				playerSettings[playerId] = new PlayerSetting(EPlayerType.AI_VERY_HARD, ECivilisation.ROMAN, playerId);
+			} else {
+				playerSettings[playerId] = new PlayerSetting();
+			}
+		}
+
+		JSettlersGame game = new JSettlersGame(map, 1L, ReplayUtils.createPausingOfflineNetworkConnector(), (byte) 0, playerSettings);
+		IStartedGame startedGame = ReplayUtils.waitForGameStartup(game.start()); // binds this thread to the context of the game
+		try {
+			GameContext context = GameContext.current();
+			return pool.submit(() -> {
+				GameContext previous = GameContext.bind(context);
+				try {
+					MatchConstants.clock().fastForwardTo(TARGET_TIME_MINUTES * 60 * 1000);
+					return MapUtils.hashGameState(((JSettlersGame.GameRunner) startedGame).getMainGrid());
+				} finally {
+					GameContext.bind(previous);
+				}
+			}).get();
+		} finally {
+			ReplayUtils.awaitShutdown(startedGame);
+			GameContext.bind(null);
+		}
+	}
+}
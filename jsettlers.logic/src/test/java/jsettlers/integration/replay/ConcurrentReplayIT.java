@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.integration.replay;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import jsettlers.common.CommonConstants;
+import jsettlers.common.menu.IStartedGame;
+import jsettlers.logic.GameContext;
+import jsettlers.logic.constants.Constants;
+import jsettlers.logic.constants.MatchConstants;
+import jsettlers.main.JSettlersGame.GameRunner;
+import jsettlers.main.replay.ReplayUtils;
+import jsettlers.testutils.TestUtils;
+import jsettlers.testutils.map.MapUtils;
+
+/**
+ * Runs several replays concurrently in one JVM. Every game has its own {@link GameContext}, so all of them must end in the same state as a replay
+ * that runs alone.
+ */
+public class ConcurrentReplayIT {
+	private static final int NUMBER_OF_GAMES = 8;
+	private static final int TARGET_TIME_MINUTES = 20;
+
+	@BeforeClass
+	public static void loadSettings() {
+		CommonConstants.CONTROL_ALL = true;
+		CommonConstants.USE_SAVEGAME_COMPRESSION = false;
+		Constants.FOG_OF_WAR_DEFAULT_ENABLED = false;
+
+		TestUtils.setupTempResourceManager();
+	}
+
+	@Test
+	public void testConcurrentReplaysEndInTheSameStateAsASingleReplay() throws Exception {
+		byte[] expectedHash = replayAndHashState();
+
+		ExecutorService executor = Executors.newFixedThreadPool(NUMBER_OF_GAMES);
+		try {
+			List<Future<byte[]>> hashes = new ArrayList<>();
+			for (int i = 0; i < NUMBER_OF_GAMES; i++) {
+				hashes.add(executor.submit(ConcurrentReplayIT::replayAndHashState));
+			}
+			for (Future<byte[]> hash : hashes) {
+				assertArrayEquals(expectedHash, hash.get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private static byte[] replayAndHashState() throws Exception {
+		AutoReplaySetting setting = AutoReplaySetting.getDefaultSettings().iterator().next();
+		IStartedGame game = ReplayUtils.startReplay(setting.getReplayFile()); // binds this thread to the context of the game
+		try {
+			MatchConstants.clock().fastForwardTo(TARGET_TIME_MINUTES * 60 * 1000);
+			return MapUtils.hashGameState(((GameRunner) game).getMainGrid());
+		} finally {
+			ReplayUtils.awaitShutdown(game);
+			GameContext.bind(null);
+		}
+	}
+}
@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.integration.replay;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java8.util.concurrent.ForkJoinPool;
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import jsettlers.common.CommonConstants;
+import jsettlers.common.menu.IStartedGame;
+import jsettlers.logic.GameContext;
+import jsettlers.logic.constants.Constants;
+import jsettlers.logic.constants.MatchConstants;
+import jsettlers.main.JSettlersGame.GameRunner;
+import jsettlers.main.replay.ReplayUtils;
+import jsettlers.testutils.TestUtils;
+import jsettlers.testutils.map.MapUtils;
+
+/**
+ * Runs a replay once with and once without {@link Constants#PARALLEL_TIMERABLE_PREPARATION}. Both replays must end in the same state.
+ * <p>
+ * The replays run on the workers of a pool of several threads, so the timerables are prepared in parallel even if the machine has only one
+ * processor.
+ */
+public class ParallelPreparationIT {
+	private static final int TARGET_TIME_MINUTES = 20;
+	private static final int PARALLELISM = 4;
+
+	private final boolean parallelTimerablePreparation = Constants.PARALLEL_TIMERABLE_PREPARATION;
+	private final boolean hierarchicalPathfinding = Constants.HIERARCHICAL_PATHFINDING;
+
+	@BeforeClass
+	public static void loadSettings() {
+		CommonConstants.CONTROL_ALL = true;
+		CommonConstants.USE_SAVEGAME_COMPRESSION = false;
+		Constants.FOG_OF_WAR_DEFAULT_ENABLED = false;
+
+		TestUtils.setupTempResourceManager();
+	}
+
+	@After
+	public void restoreSettings() {
+		Constants.PARALLEL_TIMERABLE_PREPARATION = parallelTimerablePreparation;
+		Constants.HIERARCHICAL_PATHFINDING = hierarchicalPathfinding;
+	}
+
+	@Test
+	public void testParallelPreparationReplaysLikeSequentialExecution() throws Exception {
+		Constants.HIERARCHICAL_PATHFINDING = false;
+		assertSameStateWithAndWithoutPreparation();
+	}
+
+	@Test
+	public void testParallelPreparationWithHierarchicalPathfindingReplaysLikeSequentialExecution() throws Exception {
+		Constants.HIERARCHICAL_PATHFINDING = true;
+		assertSameStateWithAndWithoutPreparation();
+	}
+
+	private static void assertSameStateWithAndWithoutPreparation() throws Exception {
+		ForkJoinPool pool = new ForkJoinPool(PARALLELISM); // parallel streams started by the workers of this pool run on this pool
+		try {
+			Constants.PARALLEL_TIMERABLE_PREPARATION = false;
+			byte[] sequentialHash = replayAndHashState(pool);
+
+			Constants.PARALLEL_TIMERABLE_PREPARATION = true;
+			byte[] preparedHash = replayAndHashState(pool);
+
+			assertArrayEquals(sequentialHash, preparedHash);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	private static byte[] replayAndHashState(ForkJoinPool pool) throws Exception {
+		AutoReplaySetting setting = AutoReplaySetting.getDefaultSettings().iterator().next();
+		IStartedGame game = ReplayUtils.startReplay(setting.getReplayFile()); // binds this thread to the context of the game
+		try {
+			GameContext context = GameContext.current();
+			return pool.submit(() -> {
+				GameContext previous = GameContext.bind(context);
+				try {
+					MatchConstants.clock().fastForwardTo(TARGET_TIME_MINUTES * 60 * 1000);
+					return MapUtils.hashGameState(((GameRunner) game).getMainGrid());
+				} finally {
+					GameContext.bind(previous);
+				}
+			}).get();
+		} finally {
+			ReplayUtils.awaitShutdown(game);
+			GameContext.bind(null);
+		}
+	}
+}
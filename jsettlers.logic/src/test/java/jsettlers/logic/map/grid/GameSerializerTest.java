@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.logic.map.grid;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import jsettlers.common.CommonConstants;
+import jsettlers.logic.constants.MatchConstants;
+import jsettlers.logic.map.loading.MapLoadException;
+import jsettlers.logic.map.loading.MapLoader;
+import jsettlers.logic.player.PlayerSetting;
+import jsettlers.main.JSettlersGame;
+import jsettlers.network.synchronic.timer.NetworkTimer;
+import jsettlers.testutils.TestUtils;
+import jsettlers.testutils.map.MapUtils;
+
+public class GameSerializerTest {
+
+	@BeforeClass
+	public static void setupResources() {
+		TestUtils.setupTempResourceManager();
+	}
+
+	@After
+	public void tearDown() {
+		CommonConstants.USE_SAVEGAME_SECTION_COMPRESSION = false;
+		JSettlersGame.clearState();
+	}
+
+	@Test
+	public void testSavegameOfLoadedGameEqualsSavegame() throws MapLoadException, IOException {
+		MainGrid grid = loadMountainlake();
+
+		byte[] savegame = save(grid);
+		byte[] savegameOfLoadedGame = save(load(savegame));
+
+		assertArrayEquals(savegame, savegameOfLoadedGame);
+	}
+
+	@Test
+	public void testCompressedSections() throws MapLoadException, IOException {
+		MainGrid grid = loadMountainlake();
+		byte[] savegame = save(grid);
+
+		CommonConstants.USE_SAVEGAME_SECTION_COMPRESSION = true;
+		byte[] compressedSavegame = save(grid);
+		MainGrid loadedGrid = load(compressedSavegame);
+
+		CommonConstants.USE_SAVEGAME_SECTION_COMPRESSION = false;
+		assertArrayEquals(savegame, save(loadedGrid));
+	}
+
+	@Test
+	public void testGridLayersAreRestored() throws MapLoadException, IOException {
+		MainGrid grid = loadMountainlake();
+		MainGrid loadedGrid = load(save(grid));
+
+		for (short y = 0; y < grid.getHeight(); y++) {
+			for (short x = 0; x < grid.getWidth(); x++) {
+				assertEquals(grid.getLandscapeGrid().getHeightAt(x, y), loadedGrid.getLandscapeGrid().getHeightAt(x, y));
+				assertEquals(grid.getLandscapeGrid().getLandscapeTypeAt(x, y), loadedGrid.getLandscapeGrid().getLandscapeTypeAt(x, y));
+				assertEquals(grid.getLandscapeGrid().getBlockedPartitionAt(x, y), loadedGrid.getLandscapeGrid().getBlockedPartitionAt(x, y));
+				assertEquals(grid.getFlagsGrid().isBlocked(x, y), loadedGrid.getFlagsGrid().isBlocked(x, y));
+				assertEquals(grid.getPartitionsGrid().getPlayerIdAt(x, y), loadedGrid.getPartitionsGrid().getPlayerIdAt(x, y));
+			}
+		}
+	}
+
+	@Test
+	public void testSnapshotIsNotAffectedByLaterChanges() throws MapLoadException, IOException {
+		MainGrid grid = loadMountainlake();
+		byte originalHeight = grid.getLandscapeGrid().getHeightAt((short) 10, (short) 10);
+
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		try (ObjectOutputStream oos = new ObjectOutputStream(buffer)) {
+			GameSerializer gameSerializer = new GameSerializer();
+			ISavegameSectionSnapshot[] snapshots = gameSerializer.save(grid, oos);
+			grid.getLandscapeGrid().setHeightAt((short) 10, (short) 10, (byte) (originalHeight + 1));
+			gameSerializer.saveSections(snapshots, oos);
+		}
+
+		MainGrid loadedGrid = load(buffer.toByteArray());
+		assertEquals(originalHeight, loadedGrid.getLandscapeGrid().getHeightAt((short) 10, (short) 10));
+	}
+
+	private static MainGrid loadMountainlake() throws MapLoadException {
+		MapLoader map = MapUtils.getMountainlake();
+		MatchConstants.init(new NetworkTimer(true), 0L);
+		return map.loadMainGrid(PlayerSetting.createDefaultSettings((byte) 0, (byte) map.getMaxPlayers())).getMainGrid();
+	}
+
+	private static byte[] save(MainGrid grid) throws IOException {
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		try (ObjectOutputStream oos = new ObjectOutputStream(buffer)) {
+			GameSerializer gameSerializer = new GameSerializer();
+			gameSerializer.saveSections(gameSerializer.save(grid, oos), oos);
+		}
+		return buffer.toByteArray();
+	}
+
+	private static MainGrid load(byte[] savegame) throws IOException, MapLoadException {
+		try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(savegame))) {
+			GameSerializer gameSerializer = new GameSerializer();
+			MainGrid grid = gameSerializer.load(ois);
+			gameSerializer.loadSections(grid, ois);
+			return grid;
+		}
+	}
+}
@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.logic.map.grid.objects;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.EnumSet;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import jsettlers.common.mapobject.EMapObjectType;
+import jsettlers.common.position.ShortPoint2D;
+import jsettlers.logic.constants.MatchConstants;
+import jsettlers.logic.objects.growing.tree.AdultTree;
+import jsettlers.logic.objects.growing.tree.Tree;
+import jsettlers.logic.objects.stone.Stone;
+import jsettlers.network.synchronic.timer.NetworkTimer;
+
+public class ObjectsGridTest {
+	private static final short WIDTH = 100;
+	private static final short HEIGHT = 80;
+
+	private final ObjectsGrid grid = new ObjectsGrid(WIDTH, HEIGHT);
+
+	@Before
+	public void setUp() {
+		MatchConstants.init(new NetworkTimer(true), 0L);
+	}
+
+	@After
+	public void tearDown() {
+		MatchConstants.clearState();
+	}
+
+	@Test
+	public void testMapObjectTypes() {
+		Stone stone = new Stone();
+		Tree tree = new Tree(new ShortPoint2D(20, 30));
+		grid.addMapObjectAt(20, 30, stone);
+		grid.addMapObjectAt(20, 30, tree);
+
+		assertSame(stone, grid.getMapObjectAt(20, 30, EMapObjectType.STONE));
+		assertSame(tree, grid.getMapObjectAt(20, 30, EMapObjectType.TREE_GROWING));
+		assertNull(grid.getMapObjectAt(20, 30, EMapObjectType.TREE_ADULT));
+		assertNull(grid.getMapObjectAt(21, 30, EMapObjectType.STONE));
+		assertTrue(grid.hasMapObjectType(20, 30, EMapObjectType.TREE_GROWING));
+		assertFalse(grid.hasMapObjectType(20, 30, EMapObjectType.TREE_ADULT, EMapObjectType.CORN_ADULT));
+		assertTrue(grid.hasCuttableObject(20, 30, EMapObjectType.STONE));
+		assertFalse(grid.hasCuttableObject(20, 30, EMapObjectType.TREE_ADULT));
+
+		grid.removeMapObjectTypes(20, 30, EnumSet.of(EMapObjectType.STONE));
+		assertNull(grid.getMapObjectAt(20, 30, EMapObjectType.STONE));
+		assertSame(tree, grid.getMapObjectAt(20, 30, EMapObjectType.TREE_GROWING));
+	}
+
+	@Test
+	public void testTypeChangesOfGrowingObjects() {
+		Tree tree = new AdultTree(new ShortPoint2D(20, 30)); // changes its type from TREE_GROWING to TREE_ADULT in the constructor
+		grid.addMapObjectAt(20, 30, tree);
+
+		assertSame(tree, grid.getMapObjectAt(20, 30, EMapObjectType.TREE_ADULT));
+		assertNull(grid.getMapObjectAt(20, 30, EMapObjectType.TREE_GROWING));
+		assertTrue(grid.hasCuttableObject(20, 30, EMapObjectType.TREE_ADULT));
+
+		tree.cutOff();
+		grid.objectTypeChanged(20, 30);
+		assertSame(tree, grid.getMapObjectAt(20, 30, EMapObjectType.TREE_DEAD));
+		assertFalse(grid.hasMapObjectType(20, 30, EMapObjectType.TREE_ADULT));
+		assertTrue(grid.hasMapObjectType(20, 30, EMapObjectType.TREE_DEAD));
+	}
+
+	@Test
+	public void testAllObjectTypesFitIntoTheTypeMasks() {
+		assertTrue(EMapObjectType.VALUES.length <= Long.SIZE);
+	}
+
+	@Test
+	public void testEmptyGridHasNoCuttableObjects() {
+		assertFalse(grid.mayHaveCuttableObjectsIn(0, 0, WIDTH - 1, HEIGHT - 1, EMapObjectType.STONE));
+		assertFalse(grid.mayHaveCuttableObjectsIn(0, 0, WIDTH - 1, HEIGHT - 1, EMapObjectType.TREE_ADULT));
+	}
+
+	@Test
+	public void testAddAndRemoveCuttableObject() {
+		Stone stone = new Stone();
+		grid.addMapObjectAt(50, 40, stone);
+
+		assertTrue(grid.mayHaveCuttableObjectsIn(50, 40, 50, 40, EMapObjectType.STONE));
+		assertTrue(grid.mayHaveCuttableObjectsIn(30, 30, 70, 50, EMapObjectType.STONE));
+		assertFalse(grid.mayHaveCuttableObjectsIn(30, 30, 70, 50, EMapObjectType.TREE_ADULT));
+		assertFalse(grid.mayHaveCuttableObjectsIn(0, 0, 30, 30, EMapObjectType.STONE));
+		assertFalse(grid.mayHaveCuttableObjectsIn(70, 0, WIDTH - 1, HEIGHT - 1, EMapObjectType.STONE));
+
+		grid.removeMapObject(50, 40, stone);
+		assertFalse(grid.mayHaveCuttableObjectsIn(0, 0, WIDTH - 1, HEIGHT - 1, EMapObjectType.STONE));
+	}
+
+	@Test
+	public void testAreaIsClippedToTheMap() {
+		grid.addMapObjectAt(0, HEIGHT - 1, new Stone());
+
+		assertTrue(grid.mayHaveCuttableObjectsIn(-10, HEIGHT - 5, 3, HEIGHT + 10, EMapObjectType.STONE));
+		assertFalse(grid.mayHaveCuttableObjectsIn(-10, -10, -1, HEIGHT + 10, EMapObjectType.STONE));
+	}
+
+	@Test
+	public void testNotIndexedTypesMayAlwaysExist() {
+		assertTrue(grid.mayHaveCuttableObjectsIn(0, 0, WIDTH - 1, HEIGHT - 1, EMapObjectType.FISH_DECORATION));
+	}
+
+	@Test
+	public void testIndexIsRestoredAfterDeserialization() throws IOException, ClassNotFoundException {
+		grid.addMapObjectAt(10, 20, new Stone());
+
+		ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+		try (ObjectOutputStream oos = new ObjectOutputStream(byteStream)) {
+			oos.writeObject(grid);
+		}
+		ObjectsGrid loadedGrid;
+		try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(byteStream.toByteArray()))) {
+			loadedGrid = (ObjectsGrid) ois.readObject();
+		}
+
+		assertTrue(loadedGrid.mayHaveCuttableObjectsIn(10, 20, 10, 20, EMapObjectType.STONE));
+		assertFalse(loadedGrid.mayHaveCuttableObjectsIn(50, 50, WIDTH - 1, HEIGHT - 1, EMapObjectType.STONE));
+		assertTrue(loadedGrid.hasMapObjectType(10, 20, EMapObjectType.STONE));
+		assertFalse(loadedGrid.hasMapObjectType(10, 21, EMapObjectType.STONE));
+	}
+}
@@ -19,10 +19,16 @@ import jsettlers.common.buildings.EBuildingType;
 import jsettlers.common.map.shapes.FreeMapArea;
 import jsettlers.common.map.shapes.MapCircle;
 import jsettlers.common.material.EMaterialType;
+import jsettlers.common.movable.EMovableType;
 import jsettlers.common.position.ShortPoint2D;
 import jsettlers.logic.map.grid.partition.manager.PartitionManager;
+import jsettlers.logic.map.grid.partition.manager.manageables.IManageableBearer;
+import jsettlers.logic.map.grid.partition.manager.manageables.interfaces.IBarrack;
+import jsettlers.logic.map.grid.partition.manager.materials.interfaces.IMaterialOffer;
+import jsettlers.logic.map.grid.partition.manager.materials.interfaces.IMaterialRequest;
 import jsettlers.logic.map.grid.partition.manager.materials.offers.EOfferPriority;
 import jsettlers.logic.map.grid.partition.manager.materials.offers.MaterialOffer;
+import jsettlers.logic.map.grid.partition.manager.objects.WorkerCreationRequest;
 import jsettlers.logic.player.PlayerSetting;
 import org.junit.Test;
 
@@ -30,6 +36,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 public class PartitionsGridTest {
@@ -243,6 +250,85 @@ public class PartitionsGridTest {
 		assertEquals(3, grid.getTowerCountAt(94, 71));
 	}
 
+	@Test
+	public void testChangePlayerOfTowerMovesOffers() {
+		addTower(0, 100, 100, 40);
+		PartitionManager oldPartition = grid.getPartitionAt(100, 100);
+		ShortPoint2D materialPos1 = new ShortPoint2D(90, 110);
+		ShortPoint2D materialPos2 = new ShortPoint2D(120, 95);
+		oldPartition.addOffer(materialPos1, EMaterialType.STONE, EOfferPriority.NORMAL);
+		oldPartition.addOffer(materialPos2, EMaterialType.PLANK, EOfferPriority.NORMAL);
+		oldPartition.addOffer(materialPos2, EMaterialType.PLANK, EOfferPriority.NORMAL);
+		int positions = grid.getPartitionAt(100, 100).getNumberOfElements();
+
+		changePlayerOfTower(100, 100, 1);
+
+		assertEquals(1, grid.getPlayerIdAt(100, 100));
+		assertEquals(positions, grid.getPartitionAt(100, 100).getNumberOfElements());
+		assertOfferAt(materialPos1, EMaterialType.STONE, 1);
+		assertOfferAt(materialPos2, EMaterialType.PLANK, 2);
+		assertNull(oldPartition.getMaterialOfferAt(materialPos1, EMaterialType.STONE, EOfferPriority.NORMAL));
+		assertNull(oldPartition.getMaterialOfferAt(materialPos2, EMaterialType.PLANK, EOfferPriority.NORMAL));
+	}
+
+	@Test
+	public void testJoblessMovedOutOfPartitionIsFoundAtItsNewPosition() {
+		addTower(0, 50, 100, 20);
+		PartitionManager partition = grid.getPartitionAt(50, 100);
+		TestBearer walkingBearer = new TestBearer(60, 100);
+		TestBearer waitingBearer = new TestBearer(40, 100);
+		partition.addJobless(walkingBearer);
+		partition.addJobless(waitingBearer);
+
+		moveJobless(walkingBearer, 90, 100); // walks out of the partition
+
+		TestBarrack barrack = new TestBarrack(62, 100);
+		partition.requestSoldierable(barrack);
+		partition.timerEvent();
+
+		assertNull(walkingBearer.barrack);
+		assertSame(barrack, waitingBearer.barrack);
+	}
+
+	@Test
+	public void testJoblessMovedBackIntoPartitionIsTransferredWithIt() {
+		addTower(0, 50, 100, 40);
+		addTower(0, 150, 100, 40);
+		addTower(0, 100, 100, 40);
+		addTower(1, 75, 55, 42);
+		addTower(1, 120, 145, 42);
+		TestBearer bearer = new TestBearer(60, 100);
+		grid.getPartitionAt(60, 100).addJobless(bearer);
+
+		moveJobless(bearer, 5, 100); // leaves the partition at x = 9
+		moveJobless(bearer, 5, 90);
+		moveJobless(bearer, 30, 90); // enters the partition again in another bucket of the positionable lists
+
+		removeTower(100, 100); // divides the partition
+		assertTrue(grid.getPartitionIdAt(50, 100) != grid.getPartitionIdAt(150, 100));
+
+		TestBarrack barrack = new TestBarrack(30, 90);
+		PartitionManager otherPartition = grid.getPartitionAt(150, 100);
+		otherPartition.requestSoldierable(barrack);
+		otherPartition.timerEvent();
+		assertNull(bearer.barrack);
+
+		PartitionManager bearersPartition = grid.getPartitionAt(30, 90);
+		bearersPartition.requestSoldierable(barrack);
+		bearersPartition.timerEvent();
+		assertSame(barrack, bearer.barrack);
+	}
+
+	private void moveJobless(TestBearer bearer, int targetX, int targetY) {
+		while (!bearer.position.equals(targetX, targetY)) {
+			ShortPoint2D oldPosition = bearer.position;
+			int dx = Integer.signum(targetX - oldPosition.x);
+			int dy = dx == 0 ? Integer.signum(targetY - oldPosition.y) : 0;
+			bearer.position = new ShortPoint2D(oldPosition.x + dx, oldPosition.y + dy);
+			grid.joblessMoved(bearer, oldPosition);
+		}
+	}
+
 	private void changePlayerOfTower(int x, int y, int newPlayer) {
 		ShortPoint2D pos = new ShortPoint2D(x, y);
 		grid.changePlayerOfTower(pos, (byte) newPlayer);
@@ -288,4 +374,71 @@ public class PartitionsGridTest {
 		return positions;
 	}
 
+	private static class TestBearer implements IManageableBearer {
+		private static final long serialVersionUID = 1L;
+
+		private ShortPoint2D position;
+		private IBarrack barrack;
+
+		TestBearer(int x, int y) {
+			this.position = new ShortPoint2D(x, y);
+		}
+
+		@Override
+		public ShortPoint2D getPosition() {
+			return position;
+		}
+
+		@Override
+		public boolean becomeSoldier(IBarrack barrack) {
+			this.barrack = barrack;
+			return true;
+		}
+
+		@Override
+		public boolean becomeWorker(IWorkerRequester requester, WorkerCreationRequest request) {
+			return false;
+		}
+
+		@Override
+		public boolean becomeWorker(IWorkerRequester requester, WorkerCreationRequest request, IMaterialOffer offer) {
+			return false;
+		}
+
+		@Override
+		public void deliver(EMaterialType materialType, IMaterialOffer offer, IMaterialRequest request) {
+		}
+	}
+
+	private static class TestBarrack implements IBarrack {
+		private final ShortPoint2D door;
+
+		TestBarrack(int x, int y) {
+			this.door = new ShortPoint2D(x, y);
+		}
+
+		@Override
+		public ShortPoint2D getPosition() {
+			return door;
+		}
+
+		@Override
+		public ShortPoint2D getDoor() {
+			return door;
+		}
+
+		@Override
+		public EMovableType popWeaponForBearer() {
+			return EMovableType.SWORDSMAN_L1;
+		}
+
+		@Override
+		public void bearerRequestFailed() {
+		}
+
+		@Override
+		public ShortPoint2D getSoldierTargetPosition() {
+			return door;
+		}
+	}
 }
@@ -0,0 +1,212 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.logic.map.grid.partition.manager.datastructures;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import jsettlers.common.position.ILocatable;
+import jsettlers.common.position.ShortPoint2D;
+import jsettlers.common.utils.MathUtils;
+
+public class PositionableListTest {
+	private static final int MAP_SIZE = 400;
+
+	@Test
+	public void testRemoveObjectNextToEqualsLinearSearch() {
+		Random random = new Random(1L);
+		PredicatedPositionableList<TestObject> list = new PredicatedPositionableList<>();
+		List<TestObject> expectedList = new ArrayList<>();
+
+		for (int i = 0; i < 2000; i++) {
+			TestObject object = new TestObject(random.nextInt(MAP_SIZE), random.nextInt(MAP_SIZE), i % 3 == 0);
+			list.insert(object);
+			expectedList.add(object);
+		}
+
+		for (int i = 0; i < 1000; i++) {
+			ShortPoint2D position = new ShortPoint2D(random.nextInt(MAP_SIZE), random.nextInt(MAP_SIZE));
+			if (i % 2 == 0) {
+				assertSame(removeClosest(expectedList, position, false), list.removeObjectNextTo(position));
+			} else {
+				assertSame(removeClosest(expectedList, position, true), list.removeObjectNextTo(position, object -> object.accepted));
+			}
+			assertEquals(expectedList.size(), list.size());
+		}
+	}
+
+	@Test
+	public void testFirstInsertedObjectWinsOnEqualDistance() {
+		PositionableList<TestObject> list = new PositionableList<>();
+		for (int i = 0; i < 200; i++) {
+			list.insert(new TestObject(300, 300, true));
+		}
+		TestObject first = new TestObject(110, 100, true);
+		TestObject second = new TestObject(90, 100, true);
+		TestObject third = new TestObject(100, 110, true);
+		list.insert(first);
+		list.insert(second);
+		list.insert(third);
+
+		ShortPoint2D position = new ShortPoint2D(100, 100);
+		assertSame(first, list.removeObjectNextTo(position));
+		assertSame(second, list.removeObjectNextTo(position));
+		assertSame(third, list.removeObjectNextTo(position));
+	}
+
+	@Test
+	public void testUpdatePosition() {
+		PositionableList<TestObject> list = new PositionableList<>();
+		for (int i = 0; i < 200; i++) {
+			list.insert(new TestObject(300 + i % 20, 300 + i / 20, true));
+		}
+		TestObject object = new TestObject(10, 10, true);
+		list.insert(object);
+
+		ShortPoint2D oldPosition = object.position;
+		object.position = new ShortPoint2D(250, 250);
+		assertTrue(list.updatePosition(object, oldPosition));
+
+		assertNull(list.getObjectAt(oldPosition));
+		assertSame(object, list.getObjectAt(object.position));
+		assertSame(object, list.removeObjectNextTo(new ShortPoint2D(200, 200)));
+	}
+
+	@Test
+	public void testMoveObjectsAtPositionTo() {
+		PositionableList<TestObject> list = new PositionableList<>();
+		PositionableList<TestObject> otherList = new PositionableList<>();
+		TestObject first = new TestObject(5, 5, true);
+		TestObject second = new TestObject(5, 5, true);
+		TestObject other = new TestObject(6, 5, true);
+		list.insert(first);
+		list.insert(other);
+		list.insert(second);
+
+		List<TestObject> moved = new ArrayList<>();
+		list.moveObjectsAtPositionTo(new ShortPoint2D(5, 5), otherList, moved::add);
+
+		assertEquals(2, moved.size());
+		assertSame(first, moved.get(0));
+		assertSame(second, moved.get(1));
+		assertEquals(1, list.size());
+		assertEquals(2, otherList.size());
+		assertSame(first, otherList.removeObjectAt(new ShortPoint2D(5, 5)));
+		assertSame(second, otherList.removeObjectAt(new ShortPoint2D(5, 5)));
+	}
+
+	@Test
+	public void testMoveObjectsInAreaTo() {
+		Random random = new Random(1L);
+		PositionableList<TestObject> list = new PositionableList<>();
+		PositionableList<TestObject> otherList = new PositionableList<>();
+		List<TestObject> expectedMoved = new ArrayList<>();
+
+		for (int i = 0; i < 2000; i++) {
+			TestObject object = new TestObject(random.nextInt(MAP_SIZE), random.nextInt(MAP_SIZE), true);
+			list.insert(object);
+			if (isInArea(object.position.x, object.position.y)) {
+				expectedMoved.add(object);
+			}
+		}
+
+		List<TestObject> moved = new ArrayList<>();
+		list.moveObjectsInAreaTo(PositionableListTest::isInArea, otherList, moved::add);
+
+		assertEquals(expectedMoved, moved);
+		assertEquals(2000 - moved.size(), list.size());
+		assertEquals(moved.size(), otherList.size());
+		for (TestObject object : moved) {
+			assertNull(list.getObjectAt(object.position));
+			assertSame(object, otherList.removeObjectAt(object.position));
+		}
+	}
+
+	private static boolean isInArea(int x, int y) {
+		return x >= 100 && x < 180 && y >= 50 && y < 150;
+	}
+
+	@Test
+	public void testSerialization() throws IOException, ClassNotFoundException {
+		PositionableList<TestObject> list = new PositionableList<>();
+		for (int i = 0; i < 100; i++) {
+			list.insert(new TestObject(i, 2 * i, true));
+		}
+
+		PositionableList<TestObject> readList = serializeAndDeserialize(list);
+
+		assertEquals(list.toString(), readList.toString());
+		assertEquals(new ShortPoint2D(10, 20), readList.removeObjectNextTo(new ShortPoint2D(11, 20)).getPosition());
+	}
+
+	private static TestObject removeClosest(List<TestObject> objects, ShortPoint2D position, boolean onlyAccepted) {
+		TestObject best = null;
+		int bestDistance = Integer.MAX_VALUE;
+		for (TestObject object : objects) {
+			int distance = MathUtils.squareHypot(position, object.getPosition());
+			if ((!onlyAccepted || object.accepted) && distance < bestDistance) {
+				bestDistance = distance;
+				best = object;
+			}
+		}
+		objects.remove(best);
+		return best;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T serializeAndDeserialize(T object) throws IOException, ClassNotFoundException {
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		try (ObjectOutputStream oos = new ObjectOutputStream(buffer)) {
+			oos.writeObject(object);
+		}
+		try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(buffer.toByteArray()))) {
+			return (T) ois.readObject();
+		}
+	}
+
+	private static class TestObject implements ILocatable, Serializable {
+		private final boolean accepted;
+		private ShortPoint2D position;
+
+		TestObject(int x, int y, boolean accepted) {
+			this.position = new ShortPoint2D(x, y);
+			this.accepted = accepted;
+		}
+
+		@Override
+		public ShortPoint2D getPosition() {
+			return position;
+		}
+
+		@Override
+		public String toString() {
+			return position.toString();
+		}
+	}
+}
@@ -14,12 +14,20 @@
  *******************************************************************************/
 package jsettlers.logic.map.grid.partition.manager.materials;
 
+import static org.junit.Assert.assertEquals;
+
+import jsettlers.common.buildings.EBuildingType;
 import jsettlers.common.material.EMaterialType;
 import jsettlers.common.position.ShortPoint2D;
+import jsettlers.logic.GameContext;
+import jsettlers.logic.constants.Constants;
+import jsettlers.logic.constants.MatchConstants;
 import jsettlers.logic.map.grid.partition.manager.materials.offers.EOfferPriority;
 import jsettlers.logic.map.grid.partition.manager.materials.offers.OffersList;
+import jsettlers.logic.map.grid.partition.manager.materials.requests.MaterialRequestObject;
 import jsettlers.logic.map.grid.partition.manager.settings.PartitionManagerSettings;
 import jsettlers.testutils.TestUtils;
+import org.junit.After;
 import org.junit.Test;
 
 import java.io.IOException;
@@ -31,6 +39,10 @@ import java.io.IOException;
  * 
  */
 public class MaterialsManagerTest {
+	static {
+		MatchConstants.init(null, 1000);
+	}
+
 	private final OffersList offersList = new OffersList(null);
 	private final JoblessSupplierMock joblessSupplier = new JoblessSupplierMock();
 	private final MaterialsManager manager = new MaterialsManager(joblessSupplier, offersList, new PartitionManagerSettings());
@@ -48,8 +60,84 @@ public class MaterialsManagerTest {
 		TestUtils.serializeAndDeserialize(manager);
 	}
 
+	@After
+	public void resetDistributionMode() {
+		GameContext.current().setBatchedMaterialDistribution(false);
+	}
+
+	@Test
+	public void testDistributeJobsAssignsOneJobPerMaterial() {
+		GameContext.current().setBatchedMaterialDistribution(false);
+		TestMaterialRequest request = addStoneRequestAndOffers(3);
+
+		manager.distributeJobs();
+
+		assertEquals(2, request.stillRequired);
+	}
+
+	@Test
+	public void testBatchedDistributeJobsAssignsSeveralJobsPerMaterial() {
+		GameContext.current().setBatchedMaterialDistribution(true);
+		TestMaterialRequest request = addStoneRequestAndOffers(3);
+
+		manager.distributeJobs();
+
+		assertEquals(0, request.stillRequired);
+	}
+
+	private TestMaterialRequest addStoneRequestAndOffers(int amount) {
+		TestMaterialRequest request = new TestMaterialRequest(pos(30, 30), amount);
+		manager.addRequestObject(EMaterialType.STONE, request);
+		for (int i = 0; i < amount; i++) {
+			offersList.addOffer(pos(20, 20), EMaterialType.STONE, EOfferPriority.OFFER_TO_ALL);
+		}
+		joblessSupplier.addJoblessAt(pos(10, 10));
+		return request;
+	}
+
 	private ShortPoint2D pos(int x, int y) {
 		return new ShortPoint2D(x, y);
 	}
 
+	private static class TestMaterialRequest extends MaterialRequestObject {
+		private static final long serialVersionUID = -2950312547461547016L;
+
+		private final ShortPoint2D position;
+		private int stillRequired;
+
+		TestMaterialRequest(ShortPoint2D position, int stillRequired) {
+			this.position = position;
+			this.stillRequired = stillRequired;
+		}
+
+		@Override
+		protected short getStillNeeded() {
+			return (short) (stillRequired - getInDelivery());
+		}
+
+		@Override
+		protected int getInDeliveryable() {
+			return Constants.STACK_SIZE;
+		}
+
+		@Override
+		public ShortPoint2D getPosition() {
+			return position;
+		}
+
+		@Override
+		protected void materialDelivered() {
+			stillRequired--;
+		}
+
+		@Override
+		protected boolean isRoundRobinRequest() {
+			return false;
+		}
+
+		@Override
+		protected EBuildingType getBuildingType() {
+			return null;
+		}
+	}
 }
@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.logic.timer;
+
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Measures how many ticks per second the {@link RescheduleTimer} can execute with a given number of scheduled timerables. The timerables itself do no
+ * work, so the result is the overhead of the timer alone.
+ */
+public class RescheduleTimerSpeedTest {
+	private static final int WARMUP_TICKS = 2000;
+	private static final int MEASURED_TICKS = 10000;
+
+	@After
+	public void tearDown() {
+		RescheduleTimer.stopAndClear();
+	}
+
+	@Test
+	public void testSpeed10k() {
+		testSpeed(10000);
+	}
+
+	@Test
+	public void testSpeed50k() {
+		testSpeed(50000);
+	}
+
+	@Test
+	public void testSpeed200k() {
+		testSpeed(200000);
+	}
+
+	private void testSpeed(int numberOfTimerables) {
+		RescheduleTimer.stopAndClear();
+		RescheduleTimer timer = RescheduleTimer.get();
+
+		Random random = new Random(1);
+		for (int i = 0; i < numberOfTimerables; i++) {
+			RescheduleTimer.add(new DummyTimerable(random.nextInt()), random.nextInt(1000) + 1);
+		}
+
+		for (int i = 0; i < WARMUP_TICKS; i++) {
+			timer.timerEvent();
+		}
+
+		long start = System.nanoTime();
+		for (int i = 0; i < MEASURED_TICKS; i++) {
+			timer.timerEvent();
+		}
+		long duration = System.nanoTime() - start;
+
+		System.out.println(numberOfTimerables + " timerables: " + (MEASURED_TICKS * 1000000000L / duration) + " ticks per second");
+	}
+
+	/**
+	 * Uses delays similar to the ones of movables (short waits) and buildings (a few seconds, rarely longer).
+	 */
+	private static class DummyTimerable implements IScheduledTimerable {
+		private static final long serialVersionUID = 1L;
+
+		private int state;
+
+		DummyTimerable(int seed) {
+			this.state = seed;
+		}
+
+		@Override
+		public int timerEvent() {
+			state = state * 1103515245 + 12345;
+			int value = (state >>> 8) & 0xFFFF;
+			if (value < 64) {
+				return 60000 + value * 1000;
+			} else if (value < 8192) {
+				return 1000 + value;
+			} else {
+				return 25 + value % 600;
+			}
+		}
+
+		@Override
+		public void kill() {
+		}
+	}
+}
@@ -0,0 +1,189 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.logic.timer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Test;
+
+import jsettlers.logic.constants.Constants;
+
+public class RescheduleTimerTest {
+	private static final int TIME_SLICE = 25;
+
+	private final int[] currentTick = new int[1];
+	private final List<Long> executions = new ArrayList<>();
+
+	@After
+	public void tearDown() {
+		RescheduleTimer.stopAndClear();
+	}
+
+	@Test
+	public void testExecutionOrderEqualsSchedulingOrder() {
+		testExecutionOrder(1000, 40000, 32000);
+	}
+
+	@Test
+	public void testExecutionOrderWithLongDelays() {
+		testExecutionOrder(1000, 400000, 3 * 60 * 60 * 1000);
+	}
+
+	@Test
+	public void testLongDelayIsExecutedInTime() {
+		int delay = 2 * 60 * 60 * 1000;
+
+		RescheduleTimer timer = RescheduleTimer.get();
+		RescheduleTimer.add(new LoggingTimerable(0, new int[] { -1 }), delay);
+
+		for (currentTick[0] = 0; executions.isEmpty(); currentTick[0]++) {
+			timer.timerEvent();
+		}
+
+		assertEquals(delay / TIME_SLICE, currentTick[0] - 1);
+	}
+
+	@Test
+	public void testPreparablesArePreparedBeforeExecution() {
+		Constants.PARALLEL_TIMERABLE_PREPARATION = true;
+		try {
+			RescheduleTimer timer = RescheduleTimer.get();
+			List<PreparingTimerable> timerables = new ArrayList<>();
+			for (int i = 0; i < 100; i++) {
+				PreparingTimerable timerable = new PreparingTimerable();
+				timerables.add(timerable);
+				RescheduleTimer.add(timerable, (i % 3 + 1) * TIME_SLICE);
+			}
+
+			for (currentTick[0] = 0; currentTick[0] < 100; currentTick[0]++) {
+				timer.timerEvent();
+			}
+
+			for (PreparingTimerable timerable : timerables) {
+				assertTrue(timerable.executions > 0);
+				assertEquals(timerable.executions, timerable.validExecutions);
+			}
+		} finally {
+			Constants.PARALLEL_TIMERABLE_PREPARATION = false;
+		}
+	}
+
+	private void testExecutionOrder(int numberOfTimerables, int numberOfTicks, int maxDelay) {
+		Random random = new Random(42);
+		int[][] delays = new int[numberOfTimerables][];
+		for (int i = 0; i < numberOfTimerables; i++) {
+			delays[i] = new int[numberOfTicks / 100];
+			for (int j = 0; j < delays[i].length; j++) {
+				delays[i][j] = random.nextInt(10) == 0 ? random.nextInt(maxDelay / 1000) * 1000 : random.nextInt(80) * TIME_SLICE;
+			}
+		}
+
+		RescheduleTimer timer = RescheduleTimer.get();
+		for (int i = 0; i < numberOfTimerables; i++) {
+			RescheduleTimer.add(new LoggingTimerable(i, delays[i]), i % 100 + 1);
+		}
+		for (currentTick[0] = 0; currentTick[0] < numberOfTicks; currentTick[0]++) {
+			timer.timerEvent();
+		}
+
+		assertEquals(calculateExpectedExecutions(delays, numberOfTicks), executions);
+	}
+
+	/**
+	 * Simulates the timer with a priority queue ordered by execution tick and insertion order.
+	 */
+	private static List<Long> calculateExpectedExecutions(int[][] delays, int numberOfTicks) {
+		PriorityQueue<long[]> queue = new PriorityQueue<>((a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+		int[] calls = new int[delays.length];
+		long insertions = 0;
+
+		for (int i = 0; i < delays.length; i++) {
+			queue.add(new long[] { toTicks(0, i % 100 + 1), insertions++, i });
+		}
+
+		List<Long> expected = new ArrayList<>();
+		while (!queue.isEmpty() && queue.peek()[0] < numberOfTicks) {
+			long[] entry = queue.poll();
+			int id = (int) entry[2];
+			expected.add(entry[0] << 32 | id);
+
+			int delay = delays[id][calls[id]++ % delays[id].length];
+			if (delay > 0) {
+				queue.add(new long[] { toTicks(entry[0], delay), insertions++, id });
+			}
+		}
+		return expected;
+	}
+
+	private static long toTicks(long currentTick, int delay) {
+		return currentTick + Math.max(1, delay / TIME_SLICE);
+	}
+
+	private class LoggingTimerable implements IScheduledTimerable {
+		private static final long serialVersionUID = 1L;
+
+		private final int id;
+		private final int[] delays;
+		private int calls = 0;
+
+		LoggingTimerable(int id, int[] delays) {
+			this.id = id;
+			this.delays = delays;
+		}
+
+		@Override
+		public int timerEvent() {
+			executions.add((long) currentTick[0] << 32 | id);
+			return delays[calls++ % delays.length];
+		}
+
+		@Override
+		public void kill() {
+		}
+	}
+
+	private class PreparingTimerable implements IPreparableTimerable {
+		private static final long serialVersionUID = 1L;
+
+		private int preparedTick = -1;
+		private int executions = 0;
+		private int validExecutions = 0;
+
+		@Override
+		public void prepareTimerEvent() {
+			preparedTick = currentTick[0];
+		}
+
+		@Override
+		public int timerEvent() {
+			executions++;
+			if (preparedTick == currentTick[0]) {
+				validExecutions++;
+			}
+			return TIME_SLICE;
+		}
+
+		@Override
+		public void kill() {
+		}
+	}
+}
@@ -35,6 +35,24 @@ public interface IGameClock extends IPausingSupplier {
 
 	void setTaskExecutor(ITaskExecutor taskExecutor);
 
+	/**
+	 * Sets a {@link Runnable} that is run by the executing thread before every time slice. This can be used to bind the state of the game to the
+	 * threads executing it.
+	 * 
+	 * @param timeSliceInitializer
+	 *            The initializer or null.
+	 */
+	void setTimeSliceInitializer(Runnable timeSliceInitializer);
+
+	/**
+	 * Sets a {@link Runnable} that is run by the executing thread after every time slice, when all tasks and timerables of the slice have been
+	 * executed.
+	 * 
+	 * @param timeSliceFinisher
+	 *            The finisher or null.
+	 */
+	void setTimeSliceFinisher(Runnable timeSliceFinisher);
+
 	void multiplyGameSpeed(float factor);
 
 	void setGameSpeed(float speedFactor);
@@ -64,6 +64,8 @@ public final class NetworkTimer extends TimerTask implements INetworkClientClock
 	private boolean scheduled = false;
 
 	private ITaskExecutor taskExecutor;
+	private Runnable timeSliceInitializer;
+	private Runnable timeSliceFinisher;
 	private DataOutputStream replayLogStream;
 
 	public NetworkTimer() {
@@ -112,6 +114,10 @@ public final class NetworkTimer extends TimerTask implements INetworkClientClock
 
 	private synchronized void executeRun() {
 		try {
+			if (timeSliceInitializer != null) {
+				timeSliceInitializer.run();
+			}
+
 			time += TIME_SLICE;
 			final int lockstep = time / NetworkConstants.Client.LOCKSTEP_PERIOD;
 
@@ -152,6 +158,10 @@ public final class NetworkTimer extends TimerTask implements INetworkClientClock
 			for (ScheduledTimerable curr : timerables) {
 				curr.checkExecution(TIME_SLICE);
 			}
+
+			if (timeSliceFinisher != null) {
+				timeSliceFinisher.run();
+			}
 		} catch (Throwable t) {
 			System.err.println("WARNING: Networking Timer catched Throwable!!!");
 			t.printStackTrace();
@@ -287,6 +297,16 @@ public final class NetworkTimer extends TimerTask implements INetworkClientClock
 		this.taskExecutor = taskExecutor;
 	}
 
+	@Override
+	public void setTimeSliceInitializer(Runnable timeSliceInitializer) {
+		this.timeSliceInitializer = timeSliceInitializer;
+	}
+
+	@Override
+	public void setTimeSliceFinisher(Runnable timeSliceFinisher) {
+		this.timeSliceFinisher = timeSliceFinisher;
+	}
+
 	@Override
 	public void scheduleSyncTasksPacket(SyncTasksPacket tasksPacket) {
 		assert maxAllowedLockstep == Integer.MAX_VALUE
@@ -72,6 +72,16 @@ public class NetworkClientClockMock implements INetworkClientClock {
 		throw new UnsupportedOperationException("not mocked");
 	}
 
+	@Override
+	public void setTimeSliceInitializer(Runnable timeSliceInitializer) {
+		throw new UnsupportedOperationException("not mocked");
+	}
+
+	@Override
+	public void setTimeSliceFinisher(Runnable timeSliceFinisher) {
+		throw new UnsupportedOperationException("not mocked");
+	}
+
 	@Override
 	public void multiplyGameSpeed(float factor) {
 		throw new UnsupportedOperationException("not mocked");
@@ -17,13 +17,20 @@ package jsettlers.testutils.map;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 
 import jsettlers.common.menu.UIState;
+import jsettlers.input.PlayerState;
 import jsettlers.logic.constants.ExtendedRandom;
 import jsettlers.logic.constants.MatchConstants;
+import jsettlers.logic.map.grid.GameSerializer;
+import jsettlers.logic.map.grid.ISavegameSectionSnapshot;
 import jsettlers.logic.map.grid.MainGrid;
 import jsettlers.logic.map.loading.MapLoadException;
 import jsettlers.logic.map.loading.MapLoader;
@@ -90,6 +97,19 @@ public final class MapUtils {
 		}
 	}
 
+	/**
+	 * Hashes the state of the game bound to the current thread. The state is written the same way as it is written to a savegame.
+	 */
+	public static byte[] hashGameState(MainGrid mainGrid) throws IOException, NoSuchAlgorithmException {
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		try (ObjectOutputStream oos = new ObjectOutputStream(buffer)) {
+			GameSerializer gameSerializer = new GameSerializer();
+			ISavegameSectionSnapshot[] snapshots = gameSerializer.saveGame(new PlayerState[0], mainGrid, oos);
+			gameSerializer.saveSections(snapshots, oos);
+		}
+		return MessageDigest.getInstance("SHA-256").digest(buffer.toByteArray());
+	}
+
 	public static MapLoader getMap(Class<?> relativeTo, String mapFileName) throws MapLoadException {
 		String name = "/" + relativeTo.getPackage().getName().replace('.', '/') + "/" + mapFileName;
 		System.out.println("Using map: " + name);
@@ -47,6 +47,11 @@ public class SimpleDijkstraTester {
 				return false;
 			}
 
+			@Override
+			public boolean mayFitSearchTypeIn(int minX, int minY, int maxX, int maxY, ESearchType type) {
+				return true;
+			}
+
 			@Override
 			public void setDijkstraSearched(int x, int y) {
 			}
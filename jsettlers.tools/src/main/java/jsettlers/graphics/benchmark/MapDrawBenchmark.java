@@ -0,0 +1,219 @@
+/*******************************************************************************
+ * Copyright (c) 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package jsettlers.graphics.benchmark;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ShortBuffer;
+
+import go.graphics.AbstractColor;
+import go.graphics.EGeometryFormatType;
+import go.graphics.GL2DrawContext;
+import go.graphics.GLDrawContext;
+import go.graphics.GeometryHandle;
+import go.graphics.TextureHandle;
+import go.graphics.sound.ISoundDataRetriever;
+import go.graphics.sound.SoundPlayer;
+import go.graphics.text.EFontSize;
+import go.graphics.text.TextDrawer;
+import jsettlers.common.ai.EPlayerType;
+import jsettlers.common.map.IGraphicsGrid;
+import jsettlers.common.menu.FakeMapGame;
+import jsettlers.common.menu.UIState;
+import jsettlers.common.player.ECivilisation;
+import jsettlers.graphics.map.ETextDrawPosition;
+import jsettlers.graphics.map.MapContent;
+import jsettlers.graphics.map.draw.DrawConstants;
+import jsettlers.graphics.map.draw.ImageProvider;
+import jsettlers.logic.constants.Constants;
+import jsettlers.logic.constants.MatchConstants;
+import jsettlers.logic.map.grid.MainGrid;
+import jsettlers.logic.map.loading.MapLoadException;
+import jsettlers.logic.map.loading.list.MapList;
+import jsettlers.logic.player.Player;
+import jsettlers.logic.player.Team;
+import jsettlers.main.swing.SwingManagedJSettlers;
+import jsettlers.network.synchronic.timer.NetworkTimer;
+
+/**
+ * Draws the bundled 768x768 map with a draw context that only counts the draw calls and reports the draw calls and the CPU time needed per
+ * frame. The frames are drawn once with a context that supports sprite batching and once with one that does not.
+ * <p>
+ * The fog of war is disabled, so everything on the screen is drawn. Like the game, the benchmark needs the original graphics files.
+ *
+ * @author Andreas Eberle
+ */
+public class MapDrawBenchmark {
+	private static final String MAP_NAME = "Nice Map";
+	private static final int WINDOW_WIDTH = 1920;
+	private static final int WINDOW_HEIGHT = 1080;
+	private static final float ZOOM = 0.5f;
+	private static final int WARMUP_FRAMES = 20;
+	private static final int FRAMES = 100;
+
+	public static void main(String[] args) throws IOException, MapLoadException {
+		SwingManagedJSettlers.setupResources(false, args);
+		ImageProvider.getInstance().startPreloading();
+		MatchConstants.init(new NetworkTimer(true), 0);
+		Constants.FOG_OF_WAR_DEFAULT_ENABLED = false;
+
+		MainGrid mainGrid = MapList.getDefaultList().getMapByName(MAP_NAME).loadMainGrid(null).getMainGrid();
+		mainGrid.initForPlayer((byte) 0, null);
+		IGraphicsGrid map = mainGrid.getGraphicsGrid();
+		Player player = new Player((byte) 0, new Team((byte) 0), (byte) 1, EPlayerType.HUMAN, ECivilisation.ROMAN);
+
+		MapContent content = new MapContent(new FakeMapGame(map, player), new SilentSoundPlayer(), 0, ETextDrawPosition.NONE);
+		content.getInterfaceConnector().loadUIState(new UIState(map.getWidth() * DrawConstants.DISTANCE_X / 2f,
+				map.getHeight() * DrawConstants.DISTANCE_Y / 2f, ZOOM));
+
+		run("batched", content, new CountingGL2DrawContext());
+		run("unbatched", content, new CountingDrawContext());
+		System.exit(0);
+	}
+
+	private static void run(String name, MapContent content, CountingDrawContext gl) {
+		for (int i = 0; i < WARMUP_FRAMES; i++) {
+			content.drawContent(gl, WINDOW_WIDTH, WINDOW_HEIGHT);
+		}
+
+		gl.reset();
+		long start = System.nanoTime();
+		for (int i = 0; i < FRAMES; i++) {
+			content.drawContent(gl, WINDOW_WIDTH, WINDOW_HEIGHT);
+		}
+		long duration = System.nanoTime() - start;
+
+		System.out.printf("%-10s draw calls/frame: %8.1f  sprites/frame: %8.1f  cpu ms/frame: %6.2f%n", name, (float) gl.drawCalls / FRAMES,
+				(float) gl.sprites / FRAMES, duration / 1e6 / FRAMES);
+	}
+
+	private static class SilentSoundPlayer implements SoundPlayer {
+		@Override
+		public void playSound(int soundStart, float leftVolume, float rightVolume) {
+		}
+
+		@Override
+		public void setSoundDataRetriever(ISoundDataRetriever soundDataRetriever) {
+		}
+	}
+
+	private static class CountingDrawContext implements GLDrawContext {
+		private static final TextDrawer TEXT_DRAWER = new TextDrawer() {
+			@Override
+			public void renderCentered(float cx, float cy, String text) {
+			}
+
+			@Override
+			public void drawString(float x, float y, String string) {
+			}
+
+			@Override
+			public float getWidth(String string) {
+				return string.length();
+			}
+
+			@Override
+			public float getHeight(String string) {
+				return 1;
+			}
+
+			@Override
+			public void setColor(AbstractColor color) {
+			}
+		};
+
+		private int nextHandle = 1;
+		long drawCalls;
+		long sprites;
+
+		void reset() {
+			drawCalls = 0;
+			sprites = 0;
+		}
+
+		@Override
+		public void draw2D(GeometryHandle geometry, TextureHandle texture, int primitive, int offset, int vertices, float x, float y, float z, float sx,
+				float sy, float sz, AbstractColor color, float intensity) {
+			drawCalls++;
+			sprites++;
+		}
+
+		@Override
+		public TextureHandle generateTexture(int width, int height, ShortBuffer data, String name) {
+			return new TextureHandle(this, nextHandle++);
+		}
+
+		@Override
+		public void drawTrianglesWithTextureColored(TextureHandle textureid, GeometryHandle vertexHandle, GeometryHandle paintHandle, int offset,
+				int lines, int width, int stride, float x, float y) {
+			drawCalls++;
+		}
+
+		@Override
+		public void setHeightMatrix(float[] matrix) {
+		}
+
+		@Override
+		public void setGlobalAttributes(float x, float y, float z, float sx, float sy, float sz) {
+		}
+
+		@Override
+		public void updateTexture(TextureHandle textureIndex, int left, int bottom, int width, int height, ShortBuffer data) {
+		}
+
+		@Override
+		public TextDrawer getTextDrawer(EFontSize size) {
+			return TEXT_DRAWER;
+		}
+
+		@Override
+		public GeometryHandle storeGeometry(float[] geometry, EGeometryFormatType type, boolean writable, String name) {
+			return generateGeometry(geometry.length, type, writable, name);
+		}
+
+		@Override
+		public void updateGeometryAt(GeometryHandle handle, int pos, ByteBuffer data) {
+		}
+
+		@Override
+		public GeometryHandle generateGeometry(int vertices, EGeometryFormatType type, boolean writable, String name) {
+			return new GeometryHandle(this, nextHandle++, 0, type);
+		}
+
+		@Override
+		public boolean isValid() {
+			return true;
+		}
+
+		@Override
+		public void deleteTexture(TextureHandle texture) {
+		}
+	}
+
+	private static class CountingGL2DrawContext extends CountingDrawContext implements GL2DrawContext {
+		@Override
+		public void drawUnified2D(GeometryHandle geometry, TextureHandle texture, int primitive, int offset, int vertices, boolean image,
+				boolean shadow, float x, float y, float z, float sx, float sy, float sz, AbstractColor color, float intensity) {
+			drawCalls++;
+			sprites++;
+		}
+
+		@Override
+		public void drawSprites(GeometryHandle geometry, TextureHandle texture, int vertices) {
+			drawCalls++;
+			sprites += vertices / 6;
+		}
+	}
+}
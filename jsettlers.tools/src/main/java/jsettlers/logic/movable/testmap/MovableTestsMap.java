@@ -160,6 +160,17 @@ public class MovableTestsMap implements IGraphicsGrid, IAStarPathMap {
 			return aStar.findPath(pathRequester, targetPos);
 		}
 
+		@Override
+		public Path preparePathTo(IPathCalculatable pathRequester, ShortPoint2D targetPos) {
+			// the preparations run concurrently => they can't share the A*
+			return new BucketQueueAStar(MovableTestsMap.this, width, height).findPath(pathRequester, targetPos);
+		}
+
+		@Override
+		public int getPathingVersion() {
+			return 0; // nothing on this map ever gets blocked
+		}
+
 		@Override
 		public void addJobless(IManageableBearer bearer) {
 			if (!materials.isEmpty()) {
@@ -379,6 +390,22 @@ public class MovableTestsMap implements IGraphicsGrid, IAStarPathMap {
 		public void removeJobless(IManageableBricklayer bricklayer) {
 		}
 
+		@Override
+		public void joblessMoved(IManageableBearer bearer, ShortPoint2D oldPosition) {
+		}
+
+		@Override
+		public void joblessMoved(IManageableWorker worker, ShortPoint2D oldPosition) {
+		}
+
+		@Override
+		public void joblessMoved(IManageableDigger digger, ShortPoint2D oldPosition) {
+		}
+
+		@Override
+		public void joblessMoved(IManageableBricklayer bricklayer, ShortPoint2D oldPosition) {
+		}
+
 		@Override
 		public ELandscapeType getLandscapeTypeAt(int x, int y) {
 			return ELandscapeType.GRASS;